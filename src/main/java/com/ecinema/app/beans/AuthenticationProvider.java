@@ -1,9 +1,13 @@
 package com.ecinema.app.beans;
 
+import com.ecinema.app.exceptions.FatalErrorException;
 import com.ecinema.app.services.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
 /**
@@ -14,18 +18,33 @@ import org.springframework.stereotype.Component;
 public class AuthenticationProvider {
 
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
+    private final HashingExecutor hashingExecutor;
+    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final UserPrincipalCache userPrincipalCache;
 
     /**
-     * Dao authentication provider dao authentication provider.
+     * Dao authentication provider dao authentication provider. When the {@link HashingExecutor} refuses a hash the
+     * login fails with an {@link AuthenticationServiceException} caused by the {@link FatalErrorException}, so it
+     * takes the failure path of a login instead of ending in a server error.
      *
      * @return the dao authentication provider
      */
     @Bean
     public DaoAuthenticationProvider daoAuthenticationProvider() {
-        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider() {
+            @Override
+            public Authentication authenticate(Authentication authentication) {
+                try {
+                    return super.authenticate(authentication);
+                } catch (FatalErrorException e) {
+                    throw new AuthenticationServiceException(e.getMessage(), e);
+                }
+            }
+        };
         authenticationProvider.setUserDetailsService(userService);
-        authenticationProvider.setPasswordEncoder(passwordEncoder.bCryptPasswordEncoder());
+        authenticationProvider.setPasswordEncoder(hashingExecutor.pooled(bCryptPasswordEncoder));
+        authenticationProvider.setUserDetailsPasswordService(userService);
+        authenticationProvider.setUserCache(userPrincipalCache);
         return authenticationProvider;
     }
 
@@ -0,0 +1,86 @@
+package com.ecinema.app.beans;
+
+import com.ecinema.app.domain.dtos.MovieDto;
+import com.ecinema.app.domain.dtos.ShowroomDto;
+import com.ecinema.app.domain.enums.EvictionPolicyType;
+import com.ecinema.app.domain.enums.Letter;
+import com.ecinema.app.domain.objects.BoundedCache;
+import com.ecinema.app.domain.objects.CacheStats;
+import com.ecinema.app.util.UtilMethods;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through caches of the movie and showroom catalog, which is read on nearly every page but rarely changes.
+ * Each cache is a {@link BoundedCache} evicting by the policy set with the {@code ecinema.catalog-cache.policy}
+ * property, W-TinyLFU by default, and expiring values {@link #TIME_TO_LIVE_IN_MILLIS} after they were loaded.
+ * {@link com.ecinema.app.services.MovieService} and {@link com.ecinema.app.services.ShowroomService} invalidate
+ * the caches after commit whenever a movie or showroom is saved or deleted. The cached dtos are shared between
+ * callers and must not be modified.
+ */
+@Getter
+@Component
+public class CatalogCache {
+
+    public static final int MAX_NUMBER_OF_MOVIES = 1024;
+    public static final long TIME_TO_LIVE_IN_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final BoundedCache<Long, MovieDto> movies;
+    private final BoundedCache<String, MovieDto> moviesBySearchTitle;
+    private final BoundedCache<Letter, ShowroomDto> showroomsByLetter;
+    private final BoundedCache<Boolean, List<ShowroomDto>> allShowrooms;
+
+    public CatalogCache(@Value("${ecinema.catalog-cache.policy:W_TINY_LFU}") EvictionPolicyType evictionPolicyType) {
+        movies = new BoundedCache<>(MAX_NUMBER_OF_MOVIES, TIME_TO_LIVE_IN_MILLIS,
+                                    evictionPolicyType.create(MAX_NUMBER_OF_MOVIES));
+        moviesBySearchTitle = new BoundedCache<>(MAX_NUMBER_OF_MOVIES, TIME_TO_LIVE_IN_MILLIS,
+                                                 evictionPolicyType.create(MAX_NUMBER_OF_MOVIES));
+        showroomsByLetter = new BoundedCache<>(Letter.values().length, TIME_TO_LIVE_IN_MILLIS,
+                                               evictionPolicyType.create(Letter.values().length));
+        allShowrooms = new BoundedCache<>(1, TIME_TO_LIVE_IN_MILLIS, evictionPolicyType.create(1));
+    }
+
+    /**
+     * Invalidates the cached movie once the current transaction commits. Movies cached by search title are all
+     * invalidated since the title may have changed.
+     *
+     * @param movieId the movie id
+     */
+    public void invalidateMovie(Long movieId) {
+        UtilMethods.afterCommit(() -> {
+            movies.invalidate(movieId);
+            moviesBySearchTitle.invalidateAll();
+        });
+    }
+
+    /**
+     * Invalidates every cached showroom once the current transaction commits.
+     */
+    public void invalidateShowrooms() {
+        UtilMethods.afterCommit(() -> {
+            showroomsByLetter.invalidateAll();
+            allShowrooms.invalidateAll();
+        });
+    }
+
+    /**
+     * Returns the statistics of every cache by name.
+     *
+     * @return the statistics by cache name
+     */
+    public Map<String, CacheStats> stats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("movies", movies.stats());
+        stats.put("moviesBySearchTitle", moviesBySearchTitle.stats());
+        stats.put("showroomsByLetter", showroomsByLetter.stats());
+        stats.put("allShowrooms", allShowrooms.stats());
+        return stats;
+    }
+
+}
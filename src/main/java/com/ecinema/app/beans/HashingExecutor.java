@@ -0,0 +1,125 @@
+package com.ecinema.app.beans;
+
+import com.ecinema.app.domain.objects.HashingStats;
+import com.ecinema.app.exceptions.FatalErrorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dedicated, bounded pool of {@link #NUMBER_OF_WORKERS} threads that every password hash runs on, so a burst of
+ * logins or registrations queues up here instead of pinning every servlet thread on BCrypt. At most
+ * {@link #MAX_QUEUED_HASHES} hashes wait in the queue, beyond that hashing is refused with a
+ * {@link FatalErrorException}. A snapshot of the pool is available from {@link #stats()}.
+ */
+@Component
+public class HashingExecutor implements DisposableBean {
+
+    public static final int NUMBER_OF_WORKERS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    public static final int MAX_QUEUED_HASHES = 256;
+
+    private final Logger logger = LoggerFactory.getLogger(HashingExecutor.class);
+    private final AtomicLong rejectedHashes = new AtomicLong();
+    private final ThreadPoolExecutor executor;
+
+    public HashingExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                NUMBER_OF_WORKERS, NUMBER_OF_WORKERS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_HASHES), runnable -> {
+                    Thread thread = new Thread(runnable, "hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Submits the hash to the pool.
+     *
+     * @param <T>      the result type
+     * @param callable the hash
+     * @return the future result
+     * @throws FatalErrorException if the queue is full
+     */
+    public <T> Future<T> submit(Callable<T> callable)
+            throws FatalErrorException {
+        try {
+            return executor.submit(callable);
+        } catch (RejectedExecutionException e) {
+            rejectedHashes.incrementAndGet();
+            logger.error("Hashing queue is full, queue depth: " + executor.getQueue().size());
+            throw new FatalErrorException("The server is too busy right now, please try again in a moment");
+        }
+    }
+
+    /**
+     * Waits for the result of a hash submitted to the pool. A null future yields null.
+     *
+     * @param <T>    the result type
+     * @param future the future result
+     * @return the result
+     */
+    public <T> T await(Future<T> future) {
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FatalErrorException("Interrupted while hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new FatalErrorException(e.getCause().toString());
+        }
+    }
+
+    /**
+     * Wraps the password encoder so that it encodes and matches on the pool.
+     *
+     * @param passwordEncoder the password encoder
+     * @return the pooled password encoder
+     */
+    public PasswordEncoder pooled(PasswordEncoder passwordEncoder) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return await(submit(() -> passwordEncoder.encode(rawPassword)));
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return await(submit(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+            }
+
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return passwordEncoder.upgradeEncoding(encodedPassword);
+            }
+        };
+    }
+
+    /**
+     * Snapshot of the statistics of the pool.
+     *
+     * @return the hashing stats
+     */
+    public HashingStats stats() {
+        return new HashingStats(NUMBER_OF_WORKERS, MAX_QUEUED_HASHES, executor.getQueue().size(),
+                                executor.getActiveCount(), executor.getCompletedTaskCount(), rejectedHashes.get());
+    }
+
+}
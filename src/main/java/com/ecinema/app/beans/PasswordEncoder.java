@@ -1,5 +1,7 @@
 package com.ecinema.app.beans;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -9,13 +11,44 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class PasswordEncoder {
+
+    public static final long TARGET_ENCODE_MILLIS = 250L;
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 14;
+
+    private final Logger logger = LoggerFactory.getLogger(PasswordEncoder.class);
+
     /**
-     * B crypt password encoder b crypt password encoder.
+     * B crypt password encoder b crypt password encoder. The strength is calibrated at startup to the highest
+     * cost whose encoding takes no longer than {@link #TARGET_ENCODE_MILLIS} on this machine.
      *
      * @return the b crypt password encoder
      */
     @Bean
     public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(calibrateStrength());
     }
+
+    /**
+     * Each increment of the BCrypt strength doubles the work, so timing one encoding at {@link #MIN_STRENGTH}
+     * is enough to find the strength that matches the target latency.
+     *
+     * @return the calibrated strength
+     */
+    protected int calibrateStrength() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MIN_STRENGTH);
+        // the first encoding warms up the JIT and is not timed
+        encoder.encode("calibration");
+        long start = System.nanoTime();
+        encoder.encode("calibration");
+        long elapsedMillis = Math.max(1L, (System.nanoTime() - start) / 1_000_000L);
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && elapsedMillis * 2 <= TARGET_ENCODE_MILLIS) {
+            elapsedMillis *= 2;
+            strength++;
+        }
+        logger.debug("Calibrated BCrypt strength " + strength + " at about " + elapsedMillis + " ms per hash");
+        return strength;
+    }
+
 }
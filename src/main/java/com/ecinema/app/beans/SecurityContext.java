@@ -1,6 +1,6 @@
 package com.ecinema.app.beans;
 
-import com.ecinema.app.domain.entities.User;
+import com.ecinema.app.domain.objects.UserPrincipal;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -12,18 +12,18 @@ import org.springframework.stereotype.Component;
 public class SecurityContext {
 
     /**
-     * Find logged in user user.
+     * Find the principal of the logged in user.
      *
-     * @return the user
+     * @return the user principal
      */
-    protected User findLoggedInUser() {
+    protected UserPrincipal findLoggedInUser() {
         Authentication authentication = SecurityContextHolder
                 .getContext().getAuthentication();
         if (authentication == null) {
             return null;
         }
         Object o = authentication.getPrincipal();
-        return o instanceof User user ? user : null;
+        return o instanceof UserPrincipal userPrincipal ? userPrincipal : null;
     }
 
     /**
@@ -32,8 +32,8 @@ public class SecurityContext {
      * @return the long
      */
     public Long findIdOfLoggedInUser() {
-        User user = findLoggedInUser();
-        return user != null ? user.getId() : null;
+        UserPrincipal userPrincipal = findLoggedInUser();
+        return userPrincipal != null ? userPrincipal.getId() : null;
     }
 
     /**
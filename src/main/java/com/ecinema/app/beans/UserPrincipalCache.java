@@ -0,0 +1,67 @@
+package com.ecinema.app.beans;
+
+import com.ecinema.app.domain.objects.UserPrincipal;
+import com.ecinema.app.util.UtilMethods;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded least-recently-used cache of {@link UserPrincipal} keyed on username, consulted by the authentication
+ * provider before loading a user. When a cached principal fails the password check the provider reloads it from
+ * the database, so a stale hash never locks a user out. Principals are evicted after commit whenever the
+ * password or the authorities of their user change.
+ */
+@Component
+public class UserPrincipalCache implements UserCache {
+
+    public static final int MAX_SIZE = 1024;
+
+    private final Map<String, UserPrincipal> principals = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UserPrincipal> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    @Override
+    public synchronized UserDetails getUserFromCache(String username) {
+        return principals.get(username);
+    }
+
+    @Override
+    public synchronized void putUserInCache(UserDetails user) {
+        if (user instanceof UserPrincipal userPrincipal) {
+            principals.put(userPrincipal.getUsername(), userPrincipal);
+        }
+    }
+
+    @Override
+    public synchronized void removeUserFromCache(String username) {
+        principals.remove(username);
+    }
+
+    /**
+     * Evicts the principal of the user with the provided id once the current transaction commits.
+     *
+     * @param userId the user id
+     */
+    public void evictUserWithId(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        UtilMethods.afterCommit(() -> {
+            synchronized (this) {
+                principals.values().removeIf(userPrincipal -> userId.equals(userPrincipal.getId()));
+            }
+        });
+    }
+
+    public synchronized int size() {
+        return principals.size();
+    }
+
+}
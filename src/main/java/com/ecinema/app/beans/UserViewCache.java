@@ -0,0 +1,70 @@
+package com.ecinema.app.beans;
+
+import com.ecinema.app.domain.dtos.UserDto;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Request-scoped cache of {@link UserDto} views. The interceptors and controllers of one request usually ask for
+ * the logged-in user several times, the cache makes sure the user and its eager authorities are loaded only once
+ * per request. The views are kept as an attribute of the current request so they never outlive it, outside of a
+ * request nothing is cached.
+ */
+@Component
+public class UserViewCache {
+
+    private static final String ATTRIBUTE_NAME = UserViewCache.class.getName();
+
+    /**
+     * Returns the cached view of the user with the provided id, loading and caching it first if absent.
+     *
+     * @param userId the user id
+     * @param loader the loader of the view
+     * @return the user view
+     */
+    public UserDto computeIfAbsent(Long userId, Function<Long, UserDto> loader) {
+        Map<Long, UserDto> views = findViewsOfCurrentRequest();
+        if (views == null) {
+            return loader.apply(userId);
+        }
+        UserDto userDto = views.get(userId);
+        if (userDto == null) {
+            userDto = loader.apply(userId);
+            views.put(userId, userDto);
+        }
+        return userDto;
+    }
+
+    /**
+     * Evicts the cached view of the user with the provided id.
+     *
+     * @param userId the user id
+     */
+    public void evict(Long userId) {
+        Map<Long, UserDto> views = findViewsOfCurrentRequest();
+        if (views != null) {
+            views.remove(userId);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, UserDto> findViewsOfCurrentRequest() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return null;
+        }
+        Map<Long, UserDto> views = (Map<Long, UserDto>) requestAttributes.getAttribute(
+                ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+        if (views == null) {
+            views = new HashMap<>();
+            requestAttributes.setAttribute(ATTRIBUTE_NAME, views, RequestAttributes.SCOPE_REQUEST);
+        }
+        return views;
+    }
+
+}
@@ -1,12 +1,18 @@
 package com.ecinema.app.configs;
 
 import com.ecinema.app.beans.AuthenticationProvider;
+import com.ecinema.app.exceptions.FatalErrorException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.core.AuthenticationException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 
 import static com.ecinema.app.domain.enums.UserAuthority.*;
 
@@ -26,6 +32,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             "/get-email-for-change-password/**",
             "/index/**",
             "/login/**",
+            "/login-busy/**",
             "/login-error/**",
             "/post-email/**",
             "/message-page/**",
@@ -50,6 +57,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             "/book-seat/**",
             "/current-tickets/**",
             "/edit-payment-card/**",
+            "/hold-seat/**",
             "/past-tickets/**",
             "/payment-cards/**",
             "/payment-card/**",
@@ -62,15 +70,21 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             "/management/**"
     };
     private static final String[] MODERATORS_PERMITTED = new String[]{
-            "/moderator-censorship/**"
+            "/moderator-censorship/**",
+            "/moderator-flagged-reviews/**",
+            "/resolve-flagged-review/**"
     };
     private static final String[] ADMINS_PERMITTED = new String[]{
             "/admin-movie/**",
             "/add-movie/**",
             "/add-screening/**",
+            "/add-screening-schedule/**",
             "/add-showroom/**",
+            "/admin-catalog-cache-stats/**",
             "/admin-change-user-password/**",
             "/admin-create-new-account/**",
+            "/admin-deletion-jobs/**",
+            "/admin-hashing-stats/**",
             "/admin-movie-choose/**",
             "/choose-screening-to-delete/**",
             "/choose-showroom-to-delete/**",
@@ -116,7 +130,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .usernameParameter("username")
                 .passwordParameter("password")
                 .defaultSuccessUrl("/login-success", true)
-                .failureUrl("/login-error")
+                .failureHandler(this::onLoginFailure)
                 .and()
                 .logout()
                 .logoutUrl("/logout")
@@ -129,4 +143,12 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .tokenValiditySeconds(86400);
     }
 
+    private void onLoginFailure(HttpServletRequest request, HttpServletResponse response,
+                                AuthenticationException exception)
+            throws IOException {
+        // a password that could not be checked because the hashing queue was full is not a bad password
+        String failureUrl = exception.getCause() instanceof FatalErrorException ? "/login-busy" : "/login-error";
+        response.sendRedirect(request.getContextPath() + failureUrl);
+    }
+
 }
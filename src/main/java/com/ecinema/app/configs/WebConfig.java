@@ -3,6 +3,7 @@ package com.ecinema.app.configs;
 import com.ecinema.app.beans.SecurityContext;
 import com.ecinema.app.configs.interceptors.ModelAttributesInterceptor;
 import com.ecinema.app.configs.interceptors.UserActivityInterceptor;
+import com.ecinema.app.services.UserActivityService;
 import com.ecinema.app.services.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
@@ -20,6 +21,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
 
     private final UserService userService;
+    private final UserActivityService userActivityService;
     private final SecurityContext securityContext;
 
     @Override
@@ -44,7 +46,7 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addInterceptor(new ModelAttributesInterceptor(
                 userService, securityContext));
         registry.addInterceptor(new UserActivityInterceptor(
-                userService, securityContext));
+                userActivityService, securityContext));
     }
 
 }
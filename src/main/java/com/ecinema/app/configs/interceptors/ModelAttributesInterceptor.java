@@ -9,7 +9,6 @@ import com.ecinema.app.util.UtilMethods;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.parameters.P;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 
@@ -17,6 +16,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The type Model attributes interceptor.
@@ -24,6 +24,21 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ModelAttributesInterceptor implements HandlerInterceptor {
 
+    private static final List<Pair<String, String>> ANONYMOUS_DROPDOWN_MENU = List.of(
+            new Pair<>("Login", "/login"),
+            new Pair<>("Register New Customer Account", "/submit-customer-registration"),
+            new Pair<>("Forgot My Password", "/get-email-for-change-password"));
+
+    /**
+     * The dropdown menus of logged-in users keyed on [is customer, is moderator or admin]. The menus depend only
+     * on the authorities of the user, so they are built once instead of on every request.
+     */
+    private static final Map<List<Boolean>, List<Pair<String, String>>> USER_DROPDOWN_MENUS = Map.of(
+            List.of(false, false), userDropdownMenu(false, false),
+            List.of(false, true), userDropdownMenu(false, true),
+            List.of(true, false), userDropdownMenu(true, false),
+            List.of(true, true), userDropdownMenu(true, true));
+
     private final UserService userService;
     private final SecurityContext securityContext;
     private final Logger logger = LoggerFactory.getLogger(ModelAttributesInterceptor.class);
@@ -35,50 +50,52 @@ public class ModelAttributesInterceptor implements HandlerInterceptor {
         logger.debug("Model attributes interceptor");
         if (modelAndView != null) {
             Long userId = securityContext.findIdOfLoggedInUser();
-            addUserDto(userId, modelAndView);
-            addDropdownMenu(userId, modelAndView);
+            logger.debug("User id: " + userId);
+            UserDto userDto = userId != null ? userService.findById(userId) : null;
+            logger.debug("User DTO: " + userDto);
+            addUserDto(userDto, modelAndView);
+            addDropdownMenu(userId, userDto, modelAndView);
         } else {
             logger.debug("Model and view is null");
         }
     }
 
-    private void addUserDto(final Long userId, final ModelAndView modelAndView) {
-        logger.debug("User id: " + userId);
-        UserDto userDto = userId != null ? userService.findById(userId) : null;
-        logger.debug("User DTO: " + userDto);
+    private void addUserDto(final UserDto userDto, final ModelAndView modelAndView) {
         modelAndView.addObject("user", userDto);
         modelAndView.addObject("userIsAdmin", userDto != null && userDto.isAdmin());
         modelAndView.addObject("userIsCustomer", userDto != null && userDto.isCustomer());
         modelAndView.addObject("userIsModerator", userDto != null && userDto.isModerator());
     }
 
-    private void addDropdownMenu(final Long userId, final ModelAndView modelAndView) {
-        logger.debug("Id of logged in user: " + userId);
-        List<Pair<String, String>> dropdownMenu = new ArrayList<>();
+    private void addDropdownMenu(final Long userId, final UserDto userDto, final ModelAndView modelAndView) {
+        List<Pair<String, String>> dropdownMenu;
         if (userId == null) {
-            dropdownMenu.add(new Pair<>("Login", "/login"));
-            dropdownMenu.add(new Pair<>("Register New Customer Account", "/submit-customer-registration"));
-            dropdownMenu.add(new Pair<>("Forgot My Password", "/get-email-for-change-password"));
+            dropdownMenu = ANONYMOUS_DROPDOWN_MENU;
+        } else if (userDto == null) {
+            return;
         } else {
-            UserDto userDto = userService.findById(userId);
-            if (userDto == null) {
-                return;
-            }
-            logger.debug("User DTO: " + userDto);
-            if (userDto.getUserAuthorities().contains(UserAuthority.CUSTOMER)) {
-                dropdownMenu.add(new Pair<>("Tickets", "/current-tickets"));
-                dropdownMenu.add(new Pair<>("Payment Cards", "/payment-cards"));
-            }
-            if (userDto.getUserAuthorities().contains(UserAuthority.MODERATOR) ||
-                    userDto.getUserAuthorities().contains(UserAuthority.ADMIN)) {
-                dropdownMenu.add(new Pair<>("Management", "/management"));
-            }
-            dropdownMenu.add(new Pair<>("Profile", "/user-profile"));
-            dropdownMenu.add(new Pair<>("Change Password", "/get-email-for-change-password"));
-            dropdownMenu.add(new Pair<>("Logout", "/logout"));
+            boolean isCustomer = userDto.getUserAuthorities().contains(UserAuthority.CUSTOMER);
+            boolean isManager = userDto.getUserAuthorities().contains(UserAuthority.MODERATOR) ||
+                    userDto.getUserAuthorities().contains(UserAuthority.ADMIN);
+            dropdownMenu = USER_DROPDOWN_MENUS.get(List.of(isCustomer, isManager));
         }
         modelAndView.addObject("dropdownMenu", dropdownMenu);
         logger.debug("Dropdown menu: " + dropdownMenu);
     }
 
+    private static List<Pair<String, String>> userDropdownMenu(boolean isCustomer, boolean isManager) {
+        List<Pair<String, String>> dropdownMenu = new ArrayList<>();
+        if (isCustomer) {
+            dropdownMenu.add(new Pair<>("Tickets", "/current-tickets"));
+            dropdownMenu.add(new Pair<>("Payment Cards", "/payment-cards"));
+        }
+        if (isManager) {
+            dropdownMenu.add(new Pair<>("Management", "/management"));
+        }
+        dropdownMenu.add(new Pair<>("Profile", "/user-profile"));
+        dropdownMenu.add(new Pair<>("Change Password", "/get-email-for-change-password"));
+        dropdownMenu.add(new Pair<>("Logout", "/logout"));
+        return List.copyOf(dropdownMenu);
+    }
+
 }
@@ -1,7 +1,7 @@
 package com.ecinema.app.configs.interceptors;
 
 import com.ecinema.app.beans.SecurityContext;
-import com.ecinema.app.services.UserService;
+import com.ecinema.app.services.UserActivityService;
 import com.ecinema.app.util.UtilMethods;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -17,7 +17,7 @@ import javax.servlet.http.HttpServletResponse;
 @RequiredArgsConstructor
 public class UserActivityInterceptor implements HandlerInterceptor {
 
-    private final UserService userService;
+    private final UserActivityService userActivityService;
     private final SecurityContext securityContext;
     private final Logger logger = LoggerFactory.getLogger(UserActivityInterceptor.class);
 
@@ -31,7 +31,7 @@ public class UserActivityInterceptor implements HandlerInterceptor {
         if (securityContext.userIsLoggedIn()) {
             Long userId = securityContext.findIdOfLoggedInUser();
             logger.debug("User id: " + userId);
-            userService.updateLastActivityDateTimeOfUserWithId(userId);
+            userActivityService.recordActivityOfUserWithId(userId);
         }
     }
 
@@ -1,10 +1,16 @@
 package com.ecinema.app.controllers;
 
+import com.ecinema.app.beans.CatalogCache;
+import com.ecinema.app.beans.HashingExecutor;
 import com.ecinema.app.domain.dtos.MovieDto;
 import com.ecinema.app.domain.dtos.ScreeningDto;
 import com.ecinema.app.domain.dtos.ShowroomDto;
 import com.ecinema.app.domain.enums.Letter;
 import com.ecinema.app.domain.forms.*;
+import com.ecinema.app.domain.objects.CacheStats;
+import com.ecinema.app.domain.objects.DeletionJob;
+import com.ecinema.app.domain.objects.HashingStats;
+import com.ecinema.app.domain.objects.ScreeningScheduleResult;
 import com.ecinema.app.exceptions.ClashException;
 import com.ecinema.app.exceptions.InvalidArgumentException;
 import com.ecinema.app.exceptions.NoEntityFoundException;
@@ -22,6 +28,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -40,6 +47,9 @@ public class AdminController {
     private final ShowroomService showroomService;
     private final ScreeningService screeningService;
     private final RegistrationService registrationService;
+    private final CatalogCache catalogCache;
+    private final HashingExecutor hashingExecutor;
+    private final CascadeDeletionService cascadeDeletionService;
     private final Logger logger = LoggerFactory.getLogger(AdminController.class);
 
     /**
@@ -191,7 +201,7 @@ public class AdminController {
     }
 
     /**
-     * Delete movie string.
+     * Delete movie string. The movie is deleted by a background job, see {@link CascadeDeletionService}.
      *
      * @param redirectAttributes the redirect attributes
      * @param movieId            the movie id
@@ -202,11 +212,34 @@ public class AdminController {
                               @PathVariable("id") final Long movieId) {
         logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
         logger.debug("Post mapping: delete movie");
-        movieService.delete(movieId);
-        redirectAttributes.addFlashAttribute("success", "Successfully deleted movie");
+        try {
+            DeletionJob deletionJob = cascadeDeletionService.submitMovieDeletion(movieId);
+            logger.debug("Submitted deletion job: " + deletionJob);
+            redirectAttributes.addFlashAttribute("success", "Started deleting movie, see the progress " +
+                    "on the deletion jobs page");
+        } catch (NoEntityFoundException e) {
+            logger.debug("Errors: " + e.getErrors());
+            redirectAttributes.addFlashAttribute("errors", e.getErrors());
+        }
         return "redirect:/delete-movie-search";
     }
 
+    /**
+     * Show the deletion jobs page with the progress of the latest deletion jobs.
+     *
+     * @param model the model
+     * @return the string
+     */
+    @GetMapping("/admin-deletion-jobs")
+    public String showDeletionJobsPage(final Model model) {
+        logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
+        logger.debug("Get mapping: deletion jobs");
+        List<DeletionJob> deletionJobs = cascadeDeletionService.findAllJobs();
+        logger.debug("Deletion jobs: " + deletionJobs);
+        model.addAttribute("deletionJobs", deletionJobs);
+        return "admin-deletion-jobs";
+    }
+
     /**
      * Show add screening search page string.
      *
@@ -280,6 +313,74 @@ public class AdminController {
         }
     }
 
+    /**
+     * Show add screening schedule page string.
+     *
+     * @param model   the model
+     * @param movieId the movie id
+     * @return the string
+     */
+    @GetMapping("/add-screening-schedule")
+    public String showAddScreeningSchedulePage(final Model model, @RequestParam("id") final Long movieId) {
+        logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
+        logger.debug("Get mapping: add screening schedule");
+        MovieDto movieDto = movieService.findById(movieId);
+        logger.debug("Movie DTO: " + movieDto);
+        model.addAttribute("movie", movieDto);
+        List<ShowroomDto> showrooms = showroomService.findAll();
+        logger.debug("Showrooms: " + showrooms);
+        model.addAttribute("showrooms", showrooms);
+        model.addAttribute("screeningScheduleForm", new ScreeningScheduleForm());
+        List<LocalTime> showtimes = new ArrayList<>();
+        for (LocalTime showtime = LocalTime.NOON; showtime.getHour() >= 12;
+             showtime = showtime.plusMinutes(15)) {
+            showtimes.add(showtime);
+        }
+        model.addAttribute("showtimes", showtimes);
+        String minDate = LocalDateTime.now().toLocalDate().format(
+                DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        String maxDate = LocalDateTime.now().plusYears(2).format(
+                DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        logger.debug("Min date: " + minDate);
+        logger.debug("Max date: " + maxDate);
+        model.addAttribute("minDate", minDate);
+        model.addAttribute("maxDate", maxDate);
+        return "add-screening-schedule";
+    }
+
+    /**
+     * Add screening schedule string.
+     *
+     * @param redirectAttributes    the redirect attributes
+     * @param screeningScheduleForm the screening schedule form
+     * @param movieId               the movie id
+     * @return the string
+     */
+    @PostMapping("/add-screening-schedule/{id}")
+    public String addScreeningSchedule(final RedirectAttributes redirectAttributes,
+                                       @ModelAttribute("screeningScheduleForm")
+                                       final ScreeningScheduleForm screeningScheduleForm,
+                                       @PathVariable("id") final Long movieId) {
+        logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
+        logger.debug("Post mapping: add screening schedule");
+        try {
+            screeningScheduleForm.setMovieId(movieId);
+            logger.debug("Screening schedule form: " + screeningScheduleForm);
+            ScreeningScheduleResult result = screeningService.submitScreeningScheduleForm(screeningScheduleForm);
+            logger.debug("Result: " + result);
+            redirectAttributes.addFlashAttribute("success", "Successfully added " +
+                    result.getScheduledScreenings().size() + " screenings");
+            if (!result.getConflicts().isEmpty()) {
+                redirectAttributes.addFlashAttribute("errors", result.getConflicts());
+            }
+            return "redirect:/add-screening-search";
+        } catch (NoEntityFoundException | InvalidArgumentException | ClashException e) {
+            logger.debug("ERROR!");
+            redirectAttributes.addFlashAttribute("errors", e.getErrors());
+            return "redirect:/add-screening-schedule?id=" + movieId;
+        }
+    }
+
     /**
      * Show add showroom page string.
      *
@@ -329,6 +430,28 @@ public class AdminController {
         }
     }
 
+    /**
+     * Statistics of the catalog caches as JSON.
+     *
+     * @return the statistics by cache name
+     */
+    @ResponseBody
+    @GetMapping("/admin-catalog-cache-stats")
+    public Map<String, CacheStats> catalogCacheStats() {
+        return catalogCache.stats();
+    }
+
+    /**
+     * Statistics of the password hashing pool as JSON.
+     *
+     * @return the hashing stats
+     */
+    @ResponseBody
+    @GetMapping("/admin-hashing-stats")
+    public HashingStats hashingStats() {
+        return hashingExecutor.stats();
+    }
+
     /**
      * Show choose screening to delete page string.
      *
@@ -348,7 +471,7 @@ public class AdminController {
         model.addAttribute("showroomLettersInUse", showroomLettersInUse);
         PageRequest pageRequest = PageRequest.of(page - 1, 10);
         Page<ScreeningDto> screeningDtos = search.isBlank() ? screeningService.findAll(pageRequest) :
-                screeningService.findAllByMovieWithTitleLike(search, pageRequest);
+                screeningService.findAllByMovieSearch(search, pageRequest);
         UtilMethods.addPageNumbersAttribute(model, screeningDtos);
         model.addAttribute("screenings", screeningDtos.getContent());
         model.addAttribute("page", page);
@@ -400,9 +523,10 @@ public class AdminController {
         logger.debug("Post mapping: delete screening");
         logger.debug("Screening id: " + screeningId);
         try {
-            screeningService.delete(screeningId);
-            logger.debug("Successfully deleted screening");
-            redirectAttributes.addFlashAttribute("success", "Successfully deleted screening");
+            DeletionJob deletionJob = cascadeDeletionService.submitScreeningDeletion(screeningId);
+            logger.debug("Submitted deletion job: " + deletionJob);
+            redirectAttributes.addFlashAttribute("success", "Started deleting screening, see the progress " +
+                    "on the deletion jobs page");
         } catch (NoEntityFoundException e) {
             logger.debug("Errors: " + e.getErrors());
             e.getErrors().add("ERROR: Forced to abort action");
@@ -483,10 +607,10 @@ public class AdminController {
         Letter showroomLetter = Letter.valueOf(showroomLetterStr);
         logger.debug("Showroom letter: " + showroomLetter);
         try {
-            showroomService.delete(showroomLetter);
-            redirectAttributes.addFlashAttribute(
-                    "success", "Successfully deleted showroom " + showroomLetter);
-            logger.debug("Successfully deleted showroom " + showroomLetter);
+            DeletionJob deletionJob = cascadeDeletionService.submitShowroomDeletion(showroomLetter);
+            logger.debug("Submitted deletion job: " + deletionJob);
+            redirectAttributes.addFlashAttribute("success", "Started deleting showroom " + showroomLetter +
+                    ", see the progress on the deletion jobs page");
         } catch (NoEntityFoundException e) {
             e.getErrors().add("Forced to abort action");
             logger.debug("Errors: " + e.getErrors());
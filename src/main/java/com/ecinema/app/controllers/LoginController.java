@@ -1,5 +1,6 @@
 package com.ecinema.app.controllers;
 
+import com.ecinema.app.exceptions.FatalErrorException;
 import com.ecinema.app.exceptions.NoEntityFoundException;
 import com.ecinema.app.exceptions.PasswordMismatchException;
 import com.ecinema.app.services.LoginService;
@@ -67,6 +68,9 @@ public class LoginController {
         } catch (NoEntityFoundException | PasswordMismatchException e) {
             logger.debug(e.toString());
             return "login";
+        } catch (FatalErrorException e) {
+            logger.debug(e.toString());
+            return "redirect:/login-busy";
         }
     }
 
@@ -86,4 +90,20 @@ public class LoginController {
                 "login" : "redirect:/index";
     }
 
+    /**
+     * Login busy string. Shown when the password could not be checked because the server was too busy.
+     *
+     * @param model the model
+     * @return the string
+     */
+    @GetMapping("/login-busy")
+    public String loginBusy(final Model model) {
+        model.addAttribute("error", "The server is too busy right now, please try again in a moment");
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
+        logger.debug("Login busy get mapping");
+        return authentication == null || authentication instanceof AnonymousAuthenticationToken ?
+                "login" : "redirect:/index";
+    }
+
 }
@@ -2,11 +2,13 @@ package com.ecinema.app.controllers;
 
 import com.ecinema.app.beans.SecurityContext;
 import com.ecinema.app.domain.dtos.CustomerDto;
+import com.ecinema.app.domain.dtos.ReviewDto;
 import com.ecinema.app.domain.dtos.UserDto;
 import com.ecinema.app.domain.enums.UserAuthority;
 import com.ecinema.app.exceptions.NoEntityFoundException;
 import com.ecinema.app.services.CustomerService;
 import com.ecinema.app.services.ModeratorService;
+import com.ecinema.app.services.ReviewService;
 import com.ecinema.app.services.UserService;
 import com.ecinema.app.util.UtilMethods;
 import lombok.RequiredArgsConstructor;
@@ -35,6 +37,7 @@ public class ModeratorController {
     private final UserService userService;
     private final CustomerService customerService;
     private final ModeratorService moderatorService;
+    private final ReviewService reviewService;
     private final SecurityContext securityContext;
     private final Logger logger = LoggerFactory.getLogger(ModeratorController.class);
 
@@ -116,6 +119,57 @@ public class ModeratorController {
         }
     }
 
+    /**
+     * Show the moderator queue of reviews flagged by {@link com.ecinema.app.services.ReviewModerationService}.
+     *
+     * @param model the model
+     * @param page  the page
+     * @return the view name
+     */
+    @GetMapping("/moderator-flagged-reviews")
+    public String showModeratorFlaggedReviewsPage(final Model model,
+                                                  @RequestParam(value = "page", required = false, defaultValue = "1")
+                                                  final Integer page) {
+        logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
+        logger.debug("Get mapping: moderator flagged reviews");
+        PageRequest pageRequest = PageRequest.of(page - 1, 10);
+        Page<ReviewDto> pageOfDtos = reviewService.findPageOfFlagged(pageRequest);
+        model.addAttribute("flaggedReviews", pageOfDtos);
+        addPageNumbersAttribute(model, pageOfDtos);
+        logger.debug("Page number: " + page);
+        model.addAttribute("page", page);
+        return "moderator-flagged-reviews";
+    }
+
+    /**
+     * Resolves a flagged review by either censoring it or clearing its flag.
+     *
+     * @param redirectAttributes the redirect attributes
+     * @param page               the page
+     * @param reviewId           the review id
+     * @param censor             true to censor the review, false to keep it visible
+     * @return the view name
+     */
+    @PostMapping("/resolve-flagged-review")
+    public String resolveFlaggedReview(final RedirectAttributes redirectAttributes,
+                                       @RequestParam("page") final Integer page,
+                                       @RequestParam("reviewId") final Long reviewId,
+                                       @RequestParam("censor") final Boolean censor) {
+        logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
+        logger.debug("Post mapping: resolve flagged review");
+        logger.debug("Review id: " + reviewId);
+        logger.debug("Censor: " + censor);
+        try {
+            reviewService.resolveFlaggedReview(reviewId, censor);
+            redirectAttributes.addFlashAttribute("success", censor ?
+                    "Successfully censored review" : "Successfully cleared review");
+        } catch (NoEntityFoundException e) {
+            logger.debug("Errors: " + e);
+            redirectAttributes.addFlashAttribute("errors", e.getErrors());
+        }
+        return "redirect:/moderator-flagged-reviews?page=" + page;
+    }
+
     /**
      * Show moderator reports page string.
      *
@@ -1,9 +1,16 @@
 package com.ecinema.app.controllers;
 
 import com.ecinema.app.domain.dtos.MovieDto;
+import com.ecinema.app.domain.dtos.MovieRatingDto;
+import com.ecinema.app.domain.enums.MovieCategory;
+import com.ecinema.app.domain.enums.MsrbRating;
+import com.ecinema.app.domain.objects.MovieFacetFilter;
+import com.ecinema.app.domain.objects.PrefixTrie;
+import com.ecinema.app.domain.objects.TypeaheadSuggestion;
 import com.ecinema.app.exceptions.NoEntityFoundException;
+import com.ecinema.app.services.MovieRatingService;
 import com.ecinema.app.services.MovieService;
-import com.ecinema.app.services.ReviewService;
+import com.ecinema.app.services.MovieTypeaheadService;
 import com.ecinema.app.util.UtilMethods;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -17,6 +24,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.ecinema.app.util.UtilMethods.addPageNumbersAttribute;
 
@@ -28,37 +36,74 @@ import static com.ecinema.app.util.UtilMethods.addPageNumbersAttribute;
 public class MovieInfoController {
 
     private final MovieService movieService;
-    private final ReviewService reviewService;
+    private final MovieTypeaheadService movieTypeaheadService;
+    private final MovieRatingService movieRatingService;
     private final Logger logger = LoggerFactory.getLogger(MovieInfoController.class);
 
     /**
      * Movies page string.
      *
-     * @param model  the model
-     * @param page   the page
-     * @param search the search
+     * @param model           the model
+     * @param page            the page
+     * @param search          the search
+     * @param movieCategories the movie categories every movie must have
+     * @param msrbRatings     the msrb ratings a movie must have one of
+     * @param nowShowing      if only movies with upcoming screenings are shown
      * @return the string
      */
     @GetMapping("/movies")
     public String moviesPage(final Model model,
                              @RequestParam(value = "page", required = false, defaultValue = "1") final Integer page,
-                             @RequestParam(value = "search", required = false, defaultValue = "") final String search) {
+                             @RequestParam(value = "search", required = false, defaultValue = "") final String search,
+                             @RequestParam(value = "category", required = false)
+                             final List<MovieCategory> movieCategories,
+                             @RequestParam(value = "rating", required = false) final List<MsrbRating> msrbRatings,
+                             @RequestParam(value = "nowShowing", required = false, defaultValue = "false")
+                             final Boolean nowShowing) {
         PageRequest pageRequest = PageRequest.of(page - 1, 6);
-        Page<MovieDto> pageOfDtos = (search == null || search.isBlank()) ?
-                movieService.findAll(pageRequest) :
-                movieService.findAllByLikeTitle(search, pageRequest);
+        MovieFacetFilter movieFacetFilter = new MovieFacetFilter(movieCategories, msrbRatings, nowShowing);
+        Page<MovieDto> pageOfDtos;
+        if (!movieFacetFilter.isEmpty()) {
+            pageOfDtos = movieService.findAllBySearchAndFacets(search, movieFacetFilter, pageRequest);
+        } else if (search == null || search.isBlank()) {
+            pageOfDtos = movieService.findAll(pageRequest);
+        } else {
+            pageOfDtos = movieService.findAllBySearch(search, pageRequest);
+        }
         addPageNumbersAttribute(model, pageOfDtos);
         Map<Integer, List<MovieDto>> movies = UtilMethods.get2dMapOf(pageOfDtos, 3);
         model.addAttribute("movies", movies);
+        model.addAttribute("movieRatings", movieRatingService.findAllByMovieIds(
+                pageOfDtos.stream().map(MovieDto::getId).collect(Collectors.toList())));
         model.addAttribute("search", search);
         model.addAttribute("page", page);
+        model.addAttribute("facetFilter", movieFacetFilter);
+        model.addAttribute("facetCounts", movieService.countFacets(search, movieFacetFilter));
+        model.addAttribute("movieCategories", MovieCategory.values());
+        model.addAttribute("msrbRatings", MsrbRating.values());
         logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
         logger.debug("Page: " + page);
         logger.debug("Search: " + search);
+        logger.debug("Facet filter: " + movieFacetFilter);
         logger.debug("Page of movies: " + pageOfDtos);
         return "movies";
     }
 
+    /**
+     * Typeahead suggestions for the movie search as JSON, most popular first.
+     *
+     * @param prefix the prefix typed so far
+     * @param limit  the max number of suggestions
+     * @return the suggestions
+     */
+    @ResponseBody
+    @GetMapping("/movies/typeahead")
+    public List<TypeaheadSuggestion> typeahead(
+            @RequestParam(value = "prefix", required = false, defaultValue = "") final String prefix,
+            @RequestParam(value = "limit", required = false, defaultValue = "10") final Integer limit) {
+        return movieTypeaheadService.suggest(prefix, Math.max(0, Math.min(limit, PrefixTrie.MAX_TOP_VALUES)));
+    }
+
     /**
      * Movie info page string.
      *
@@ -73,12 +118,12 @@ public class MovieInfoController {
         try {
             MovieDto movieDto = movieService.findById(movieId);
             model.addAttribute("movie", movieDto);
-            Integer avgRating = reviewService.findAverageRatingOfMovieWithId(movieId);
-            model.addAttribute("avgRating", avgRating);
+            MovieRatingDto movieRating = movieRatingService.findByMovieId(movieId);
+            model.addAttribute("movieRating", movieRating);
             logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
             logger.debug("Movie debug get mapping");
             logger.debug("Movie DTO: " + movieDto);
-            logger.debug("Avg rating: " + avgRating);
+            logger.debug("Movie rating: " + movieRating);
             return "movie-info";
         } catch (NoEntityFoundException e) {
             redirectAttributes.addFlashAttribute("errors", e.getErrors());
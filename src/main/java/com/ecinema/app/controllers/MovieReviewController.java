@@ -18,6 +18,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -35,6 +36,9 @@ import static com.ecinema.app.util.UtilMethods.addPageNumbersAttribute;
 @RequiredArgsConstructor
 public class MovieReviewController {
 
+    public static final String SORT_BY_HELPFULNESS = "helpful";
+    private static final int REVIEWS_PER_PAGE = 6;
+
     private final UserService userService;
     private final MovieService movieService;
     private final ReviewService reviewService;
@@ -44,19 +48,27 @@ public class MovieReviewController {
     private final Logger logger = LoggerFactory.getLogger(MovieReviewController.class);
 
     /**
-     * Show movie reviews page.
+     * Show movie reviews page. Reviews are paged by page number, or ranked by helpfulness if the sort is
+     * {@link #SORT_BY_HELPFULNESS}, in which case the next slice is found by seeking past the helpfulness score and
+     * id of the last review of the previous slice.
      *
      * @param model              the model
      * @param redirectAttributes the redirect attributes
      * @param page               the page
      * @param movieId            the movie id
+     * @param sort               the sort, null for the default order
+     * @param afterScore         the helpfulness score of the last review of the previous slice
+     * @param afterId            the id of the last review of the previous slice
      * @return the view name
      */
     @GetMapping("/movie-reviews")
     public String movieReviewsPage(
             final Model model, final RedirectAttributes redirectAttributes,
             @RequestParam(value = "page", required = false, defaultValue = "1") final Integer page,
-            @RequestParam("id") final Long movieId) {
+            @RequestParam("id") final Long movieId,
+            @RequestParam(value = "sort", required = false) final String sort,
+            @RequestParam(value = "afterScore", required = false) final Double afterScore,
+            @RequestParam(value = "afterId", required = false) final Long afterId) {
         try {
             logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
             Long userId = securityContext.findIdOfLoggedInUser();
@@ -64,12 +76,27 @@ public class MovieReviewController {
                     !reviewService.existsByUserIdAndMovieId(userId, movieId);
             logger.debug("Can write review: " + canWriteReview);
             model.addAttribute("canWriteReview", canWriteReview);
-            PageRequest pageRequest = PageRequest.of(page - 1, 6);
-            Page<ReviewDto> pageOfDtos = reviewService
-                    .findPageByMovieIdAndNotCensored(movieId, pageRequest);
-            logger.debug("Review DTOs: " + pageOfDtos.getContent());
-            model.addAttribute("reviews", pageOfDtos);
-            addPageNumbersAttribute(model, pageOfDtos);
+            if (SORT_BY_HELPFULNESS.equals(sort)) {
+                Slice<ReviewDto> sliceOfDtos = reviewService.findSliceByMovieIdAndNotCensoredOrderByHelpfulness(
+                        movieId, userId, afterScore, afterId, REVIEWS_PER_PAGE);
+                logger.debug("Review DTOs: " + sliceOfDtos.getContent());
+                model.addAttribute("reviews", sliceOfDtos);
+                model.addAttribute("totalPages", 0);
+                if (sliceOfDtos.hasNext()) {
+                    ReviewDto lastReviewDto = sliceOfDtos.getContent().get(sliceOfDtos.getNumberOfElements() - 1);
+                    model.addAttribute("nextAfterScore", lastReviewDto.getHelpfulnessScore());
+                    model.addAttribute("nextAfterId", lastReviewDto.getId());
+                }
+            } else {
+                PageRequest pageRequest = PageRequest.of(page - 1, REVIEWS_PER_PAGE);
+                Page<ReviewDto> pageOfDtos = reviewService
+                        .findPageByMovieIdAndNotCensored(movieId, userId, pageRequest);
+                logger.debug("Review DTOs: " + pageOfDtos.getContent());
+                model.addAttribute("reviews", pageOfDtos);
+                addPageNumbersAttribute(model, pageOfDtos);
+            }
+            logger.debug("Sort: " + sort);
+            model.addAttribute("sort", sort);
             logger.debug("Page: " + page);
             model.addAttribute("page", page);
             logger.debug("Movie id: " + movieId);
@@ -90,6 +117,7 @@ public class MovieReviewController {
      * @param movieId            the movie id
      * @param voteOrdinal        the vote ordinal
      * @param page               the page
+     * @param sort               the sort of the reviews page, null for the default order
      * @return the view name
      */
     @PostMapping("/vote-review/{id}/{vote}")
@@ -97,7 +125,8 @@ public class MovieReviewController {
                              @PathVariable("id") final Long reviewId,
                              @RequestParam("movieId") final Long movieId,
                              @PathVariable("vote") final Integer voteOrdinal,
-                             @RequestParam(value = "page", required = false, defaultValue = "1") final Integer page) {
+                             @RequestParam(value = "page", required = false, defaultValue = "1") final Integer page,
+                             @RequestParam(value = "sort", required = false) final String sort) {
         try {
             logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
             Long userId = securityContext.findIdOfLoggedInUser();
@@ -117,6 +146,9 @@ public class MovieReviewController {
             logger.debug("Errors: " + e);
             redirectAttributes.addFlashAttribute("errors", e.getErrors());
         }
+        if (SORT_BY_HELPFULNESS.equals(sort)) {
+            return "redirect:/movie-reviews?id=" + movieId + "&sort=" + SORT_BY_HELPFULNESS;
+        }
         return "redirect:/movie-reviews?id=" + movieId + "&page=" + page;
     }
 
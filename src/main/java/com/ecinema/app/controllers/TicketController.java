@@ -11,8 +11,13 @@ import com.ecinema.app.services.*;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -33,12 +38,15 @@ import java.util.List;
 @SessionAttributes("bookSeatsForm")
 public class TicketController {
 
+    private static final Duration SEAT_MAP_KEEP_ALIVE = Duration.ofSeconds(15);
+
     private final TicketService ticketService;
     private final CustomerService customerService;
     private final SecurityContext securityContext;
     private final ScreeningService screeningService;
     private final PaymentCardService paymentCardService;
     private final ScreeningSeatService screeningSeatService;
+    private final SeatAvailabilityService seatAvailabilityService;
     private final Logger logger = LoggerFactory.getLogger(TicketController.class);
 
     /**
@@ -76,12 +84,75 @@ public class TicketController {
     }
 
     /**
-     * See book seats page string.
+     * Stream of seat map changes of the screening as server-sent events. Each "seat" event carries the
+     * {@link ScreeningSeatDto} of a seat that was booked or released, and a comment is sent every
+     * {@link #SEAT_MAP_KEEP_ALIVE} so that idle connections stay open and dropped clients are noticed. The stream
+     * ends when the seat map of the screening is evicted, and is not found if the screening does not exist or has
+     * already ended.
+     *
+     * @param screeningId the screening id
+     * @return the response entity with the flux of server-sent events
+     */
+    @GetMapping(value = "/view-seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<ScreeningSeatDto>>> streamSeatMap(
+            @RequestParam("id") final Long screeningId) {
+        logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
+        logger.debug("Get mapping: stream seat map of screening with id " + screeningId);
+        Flux<ServerSentEvent<ScreeningSeatDto>> deltas;
+        try {
+            deltas = seatAvailabilityService.streamSeatMapDeltasByScreeningWithId(screeningId)
+                                            .map(delta -> ServerSentEvent.builder(delta).event("seat").build());
+        } catch (NoEntityFoundException e) {
+            logger.debug("Errors: " + e.getErrors());
+            return ResponseEntity.notFound().build();
+        }
+        Flux<ServerSentEvent<ScreeningSeatDto>> keepAlive = Flux.interval(SEAT_MAP_KEEP_ALIVE)
+                .map(tick -> ServerSentEvent.<ScreeningSeatDto>builder().comment("keep-alive").build());
+        // the deltas are subscribed to once and the keep-alive stops as soon as they end
+        return ResponseEntity.ok(deltas.publish(shared -> Flux.merge(
+                shared, keepAlive.takeUntilOther(shared.ignoreElements()))));
+    }
+
+    /**
+     * Holds the seat for the logged-in customer and redirects to the book seat page. Holding a seat writes a
+     * {@link com.ecinema.app.domain.enums.TicketStatus#LOCKED} ticket, so it is only done on a post and never on
+     * the get of the book seat page.
+     *
+     * @param redirectAttributes the redirect attributes
+     * @param screeningId        the screening id
+     * @param seatId             the showroom seat id
+     * @return the string
+     */
+    @PostMapping("/hold-seat")
+    public String holdSeat(final RedirectAttributes redirectAttributes,
+                           @RequestParam("screeningId") final Long screeningId,
+                           @RequestParam("seatId") final Long seatId) {
+        try {
+            logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
+            logger.debug("Post mapping: hold seat");
+            if (!screeningService.existsById(screeningId)) {
+                throw new NoEntityFoundException("screening", "id", screeningId);
+            }
+            Long userId = securityContext.findIdOfLoggedInUser();
+            logger.debug("User id: " + userId);
+            Long screeningSeatId = ticketService.holdSeat(userId, screeningId, seatId);
+            logger.debug("Holding screening seat with id " + screeningSeatId);
+            return "redirect:/book-seat?screeningId=" + screeningId + "&seatId=" + seatId;
+        } catch (NoEntityFoundException | InvalidActionException e) {
+            logger.debug("Errors: " + e);
+            redirectAttributes.addFlashAttribute("errors", e.getErrors());
+            logger.debug("Redirecting to view seats page");
+            return "redirect:/view-seats?id=" + screeningId;
+        }
+    }
+
+    /**
+     * See book seats page string. The logged-in customer must hold the seat through {@link #holdSeat}.
      *
      * @param model              the model
      * @param redirectAttributes the redirect attributes
      * @param screeningId        the screening id
-     * @param seatId             the seat id
+     * @param seatId             the showroom seat id
      * @return the string
      */
     @GetMapping("/book-seat")
@@ -94,24 +165,23 @@ public class TicketController {
             if (!screeningService.existsById(screeningId)) {
                 throw new NoEntityFoundException("screening", "id", screeningId);
             }
-            if (screeningSeatService.screeningSeatIsBooked(seatId)) {
-                throw new InvalidActionException("Seat with id " + seatId + " is already booked");
-            }
+            // user id
+            Long userId = securityContext.findIdOfLoggedInUser();
+            logger.debug("User id: " + userId);
+            // seat held by the customer
+            Long screeningSeatId = ticketService.findScreeningSeatIdOfSeatHold(userId, screeningId, seatId);
             // screening dto
             ScreeningDto screening = screeningService.findById(screeningId);
             logger.debug("Screening DTO: " + screening);
             model.addAttribute("screening", screening);
             // screening seat dto
-            ScreeningSeatDto screeningSeat = screeningSeatService.findById(seatId);
+            ScreeningSeatDto screeningSeat = screeningSeatService.findById(screeningSeatId);
             logger.debug("Screening seat DTO: " + screeningSeat);
             model.addAttribute("screeningSeat", screeningSeat);
             // seat booking form
-            SeatBookingForm seatBookingForm = screeningSeatService.fetchSeatBookingForm(seatId);
+            SeatBookingForm seatBookingForm = screeningSeatService.fetchSeatBookingForm(screeningSeatId);
             logger.debug("Seat booking form: " + seatBookingForm);
             model.addAttribute("seatBookingForm", seatBookingForm);
-            // user id
-            Long userId = securityContext.findIdOfLoggedInUser();
-            logger.debug("User id: " + userId);
             // payment cards
             List<PaymentCardDto> paymentCards = paymentCardService.findAllByCardUserWithId(userId);
             logger.debug("Payment cards: " + paymentCards);
@@ -154,12 +224,12 @@ public class TicketController {
         } catch (NoEntityFoundException | InvalidActionException e) {
             logger.debug("Errors: " + e);
             logger.debug("Redirecting to book seat page");
-            logger.debug("Screening id: " + seatBookingForm.getScreeningSeatId());
-            logger.debug("Seat id: " + seatBookingForm.getScreeningSeatId());
+            logger.debug("Screening id: " + seatBookingForm.getScreeningId());
+            logger.debug("Seat id: " + seatBookingForm.getShowroomSeatId());
             redirectAttributes.addFlashAttribute("errors", e.getErrors());
             redirectAttributes.addFlashAttribute("seatBookingForm", seatBookingForm);
             return "redirect:/book-seat?screeningId=" + seatBookingForm.getScreeningId() +
-                    "&seatId=" + seatBookingForm.getScreeningSeatId();
+                    "&seatId=" + seatBookingForm.getShowroomSeatId();
         }
     }
 
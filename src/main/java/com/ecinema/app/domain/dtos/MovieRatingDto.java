@@ -0,0 +1,52 @@
+package com.ecinema.app.domain.dtos;
+
+import com.ecinema.app.domain.contracts.AbstractDto;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link AbstractDto} implementation for {@link com.ecinema.app.domain.entities.MovieRating}.
+ */
+@Data
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class MovieRatingDto extends AbstractDto {
+
+    private Long movieId;
+    private Integer numberOfRatings = 0;
+    private Long sumOfRatings = 0L;
+    private List<Integer> histogram = new ArrayList<>();
+
+    /**
+     * Average rating, 0 if there are no ratings.
+     *
+     * @return the average rating
+     */
+    public double getAverageRating() {
+        return numberOfRatings == 0 ? 0d : (double) sumOfRatings / numberOfRatings;
+    }
+
+    /**
+     * Average rating rounded to the nearest whole star.
+     *
+     * @return the average number of stars
+     */
+    public int getAverageStars() {
+        return (int) Math.round(getAverageRating());
+    }
+
+    /**
+     * Percentage of the ratings that rate the provided number of stars.
+     *
+     * @param stars the number of stars
+     * @return the percentage
+     */
+    public int percentageOf(int stars) {
+        return numberOfRatings == 0 ? 0 : Math.round(100f * histogram.get(stars) / numberOfRatings);
+    }
+
+}
@@ -2,16 +2,11 @@ package com.ecinema.app.domain.dtos;
 
 import com.ecinema.app.domain.contracts.AbstractDto;
 import com.ecinema.app.domain.contracts.IReview;
-import com.ecinema.app.domain.entities.ReviewVote;
 import com.ecinema.app.domain.enums.Vote;
 import com.ecinema.app.util.UtilMethods;
 import lombok.*;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.EnumMap;
-import java.util.List;
-import java.util.Map;
 
 /**
  * The type Review dto.
@@ -27,9 +22,13 @@ public class ReviewDto extends AbstractDto implements IReview {
     private Long userId = null;
     private Long customerId = null;
     private Boolean isCensored = false;
+    private Boolean isFlagged = false;
+    private String flaggedTerms = "";
     private LocalDateTime creationDateTime;
-    private List<Long> upvoteUserIds = new ArrayList<>();
-    private List<Long> downvoteUserIds = new ArrayList<>();
+    private Integer numberOfUpvotes = 0;
+    private Integer numberOfDownvotes = 0;
+    private Double helpfulnessScore = 0d;
+    private Vote viewerVote = null;
 
     /**
      * Creation date time formatted string.
@@ -1,7 +1,9 @@
 package com.ecinema.app.domain.dtos;
 
+import com.ecinema.app.domain.enums.Letter;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
@@ -10,9 +12,35 @@ import lombok.ToString;
  */
 @Getter
 @Setter
+@NoArgsConstructor
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = true)
 public class ScreeningSeatDto extends SeatDto {
     private Long screeningId = 0L;
+    private Long showroomSeatId;
     private Boolean isBooked = false;
+
+    /**
+     * Instantiates a new Screening seat dto. Used by the constructor expression of
+     * {@link com.ecinema.app.repositories.ScreeningSeatRepository#findAllDtosByScreeningWithId(Long)}.
+     *
+     * The id is null if the screening seat has not been materialized yet, which is the case for every seat that
+     * has never been held or booked.
+     *
+     * @param id             the id
+     * @param screeningId    the screening id
+     * @param showroomSeatId the showroom seat id
+     * @param rowLetter      the row letter
+     * @param seatNumber     the seat number
+     * @param isBooked       the is booked
+     */
+    public ScreeningSeatDto(Long id, Long screeningId, Long showroomSeatId,
+                            Letter rowLetter, Integer seatNumber, Boolean isBooked) {
+        setId(id);
+        setRowLetter(rowLetter);
+        setSeatNumber(seatNumber);
+        this.screeningId = screeningId;
+        this.showroomSeatId = showroomSeatId;
+        this.isBooked = isBooked;
+    }
 }
@@ -14,6 +14,7 @@ import java.time.LocalDateTime;
  * The type Ticket dto.
  */
 @Data
+@NoArgsConstructor
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = true)
 public class TicketDto extends AbstractDto {
@@ -32,6 +33,44 @@ public class TicketDto extends AbstractDto {
     private LocalDateTime creationDateTime;
     private SeatDesignation seatDesignation;
 
+    /**
+     * Instantiates a new Ticket dto with every field except {@link #isRefundable}. This is the constructor
+     * used by the JPQL constructor expressions in {@link com.ecinema.app.repositories.TicketRepository}.
+     *
+     * @param id               the ticket id
+     * @param userId           the id of the user owning the ticket
+     * @param email            the email of the user owning the ticket
+     * @param username         the username of the user owning the ticket
+     * @param movieTitle       the movie title
+     * @param paymentCardId    the payment card id, null if the payment card no longer exists
+     * @param ticketType       the ticket type
+     * @param showroomLetter   the showroom letter
+     * @param ticketStatus     the ticket status
+     * @param showDateTime     the show date time
+     * @param endDateTime      the end date time
+     * @param creationDateTime the creation date time
+     * @param rowLetter        the row letter of the seat
+     * @param seatNumber       the seat number of the seat
+     */
+    public TicketDto(Long id, Long userId, String email, String username, String movieTitle,
+                     Long paymentCardId, TicketType ticketType, Letter showroomLetter,
+                     TicketStatus ticketStatus, LocalDateTime showDateTime, LocalDateTime endDateTime,
+                     LocalDateTime creationDateTime, Letter rowLetter, Integer seatNumber) {
+        setId(id);
+        this.userId = userId;
+        this.email = email;
+        this.username = username;
+        this.movieTitle = movieTitle;
+        this.paymentCardId = paymentCardId;
+        this.ticketType = ticketType;
+        this.showroomLetter = showroomLetter;
+        this.ticketStatus = ticketStatus;
+        this.showDateTime = showDateTime;
+        this.endDateTime = endDateTime;
+        this.creationDateTime = creationDateTime;
+        this.seatDesignation = SeatDesignation.of(rowLetter, seatNumber);
+    }
+
     /**
      * Show date time formatted string.
      *
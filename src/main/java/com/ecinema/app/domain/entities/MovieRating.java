@@ -0,0 +1,111 @@
+package com.ecinema.app.domain.entities;
+
+import com.ecinema.app.domain.validators.ReviewValidator;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.util.List;
+
+/**
+ * The rating aggregates of the reviews of a movie that are not censored: how many there are, the sum of their
+ * ratings and how many there are of each rating from {@link ReviewValidator#MIN_RATING} to
+ * {@link ReviewValidator#MAX_RATING} stars. The aggregates are kept up to date one review at a time by
+ * {@link com.ecinema.app.services.MovieRatingService} with a single atomic update, so reading the average or
+ * the distribution of the ratings of a movie never aggregates its reviews.
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+public class MovieRating extends AbstractEntity {
+
+    @Column(unique = true, nullable = false)
+    private Long movieId;
+
+    @Column
+    private Integer numberOfRatings = 0;
+
+    @Column
+    private Long sumOfRatings = 0L;
+
+    @Column
+    private Integer numberOf0StarRatings = 0;
+
+    @Column
+    private Integer numberOf1StarRatings = 0;
+
+    @Column
+    private Integer numberOf2StarRatings = 0;
+
+    @Column
+    private Integer numberOf3StarRatings = 0;
+
+    @Column
+    private Integer numberOf4StarRatings = 0;
+
+    @Column
+    private Integer numberOf5StarRatings = 0;
+
+    @Column
+    private Integer numberOf6StarRatings = 0;
+
+    @Column
+    private Integer numberOf7StarRatings = 0;
+
+    @Column
+    private Integer numberOf8StarRatings = 0;
+
+    @Column
+    private Integer numberOf9StarRatings = 0;
+
+    @Column
+    private Integer numberOf10StarRatings = 0;
+
+    /**
+     * Average rating, 0 if there are no ratings.
+     *
+     * @return the average rating
+     */
+    public double getAverageRating() {
+        return numberOfRatings == 0 ? 0d : (double) sumOfRatings / numberOfRatings;
+    }
+
+    /**
+     * Number of ratings of each number of stars, indexed by the number of stars.
+     *
+     * @return the histogram
+     */
+    public List<Integer> getHistogram() {
+        return List.of(numberOf0StarRatings, numberOf1StarRatings, numberOf2StarRatings, numberOf3StarRatings,
+                       numberOf4StarRatings, numberOf5StarRatings, numberOf6StarRatings, numberOf7StarRatings,
+                       numberOf8StarRatings, numberOf9StarRatings, numberOf10StarRatings);
+    }
+
+    /**
+     * Sets the histogram and derives the number and the sum of the ratings from it.
+     *
+     * @param histogram the number of ratings of each number of stars, indexed by the number of stars
+     */
+    public void setHistogram(List<Integer> histogram) {
+        numberOf0StarRatings = histogram.get(0);
+        numberOf1StarRatings = histogram.get(1);
+        numberOf2StarRatings = histogram.get(2);
+        numberOf3StarRatings = histogram.get(3);
+        numberOf4StarRatings = histogram.get(4);
+        numberOf5StarRatings = histogram.get(5);
+        numberOf6StarRatings = histogram.get(6);
+        numberOf7StarRatings = histogram.get(7);
+        numberOf8StarRatings = histogram.get(8);
+        numberOf9StarRatings = histogram.get(9);
+        numberOf10StarRatings = histogram.get(10);
+        numberOfRatings = 0;
+        sumOfRatings = 0L;
+        for (int stars = ReviewValidator.MIN_RATING; stars <= ReviewValidator.MAX_RATING; stars++) {
+            numberOfRatings += histogram.get(stars);
+            sumOfRatings += (long) stars * histogram.get(stars);
+        }
+    }
+
+}
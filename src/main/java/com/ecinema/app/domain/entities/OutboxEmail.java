@@ -0,0 +1,52 @@
+package com.ecinema.app.domain.entities;
+
+import com.ecinema.app.domain.enums.EmailStatus;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An email waiting to be delivered. Emails are written to the outbox within the transaction of the change they
+ * announce and are delivered afterwards by {@link com.ecinema.app.services.EmailDispatcher}. Delivered emails
+ * are deleted, emails that keep failing end up as {@link EmailStatus#DEAD_LETTER}.
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+public class OutboxEmail extends AbstractEntity {
+
+    @Column
+    private String sender;
+
+    @Column
+    private String recipient;
+
+    @Column
+    private String subject;
+
+    @Lob
+    @Column
+    @ToString.Exclude
+    private String body;
+
+    @Column
+    @Enumerated(EnumType.STRING)
+    private EmailStatus status;
+
+    @Column
+    private Integer attempts;
+
+    @Column
+    private LocalDateTime creationDateTime;
+
+    @Column
+    private LocalDateTime nextAttemptDateTime;
+
+    @Column(length = 1000)
+    private String lastError;
+
+}
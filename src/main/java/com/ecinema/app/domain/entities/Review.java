@@ -18,6 +18,11 @@ import java.util.Set;
 @Setter
 @Entity
 @ToString
+@Table(indexes = {
+        @Index(columnList = "movie_id, isCensored, helpfulnessScore, id"),
+        @Index(columnList = "isFlagged, id"),
+        @Index(columnList = "isScanned, id")
+})
 public class Review extends AbstractEntity implements IReview {
 
     @Column(length = 2000)
@@ -32,6 +37,34 @@ public class Review extends AbstractEntity implements IReview {
     @Column
     private LocalDateTime creationDateTime;
 
+    /**
+     * True once {@link com.ecinema.app.services.ReviewModerationService} has scanned the review for flagged terms.
+     */
+    @Column
+    private Boolean isScanned = false;
+
+    /**
+     * True while the review waits in the moderator queue because it contains flagged terms.
+     */
+    @Column
+    private Boolean isFlagged = false;
+
+    @Column(length = 500)
+    private String flaggedTerms;
+
+    @Column
+    private Integer numberOfUpvotes = 0;
+
+    @Column
+    private Integer numberOfDownvotes = 0;
+
+    /**
+     * Lower bound of the Wilson score interval of the share of upvotes, kept up to date with the vote counters by
+     * {@link com.ecinema.app.services.ReviewVoteCounterService}.
+     */
+    @Column
+    private Double helpfulnessScore = 0d;
+
     @JoinColumn
     @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
@@ -15,6 +15,7 @@ import javax.persistence.*;
 @Setter
 @Entity
 @ToString
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"screening_id", "showroom_seat_id"}))
 public class ScreeningSeat extends AbstractEntity implements ISeat {
 
     @JoinColumn
@@ -28,6 +29,14 @@ public class ScreeningSeat extends AbstractEntity implements ISeat {
     @OneToOne(mappedBy = "screeningSeat")
     private Ticket ticket;
 
+    /**
+     * Bumped by {@link com.ecinema.app.repositories.ScreeningSeatRepository#claimScreeningSeat(Long, Long)} each
+     * time the seat is claimed for booking. It is never written by entity updates so that only the conditional
+     * claim can change it.
+     */
+    @Column(updatable = false, columnDefinition = "bigint default 0")
+    private Long claimVersion = 0L;
+
     @Override
     public Letter getRowLetter() {
         return showroomSeat != null ? showroomSeat.getRowLetter() : null;
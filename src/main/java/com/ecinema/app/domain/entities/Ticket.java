@@ -39,8 +39,8 @@ public class Ticket extends AbstractEntity {
     @ManyToOne(fetch = FetchType.LAZY)
     private PaymentCard paymentCard;
 
-    @JoinColumn
     @ToString.Exclude
+    @JoinColumn(unique = true)
     @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private ScreeningSeat screeningSeat;
 
@@ -0,0 +1,6 @@
+package com.ecinema.app.domain.enums;
+
+public enum EmailStatus {
+    PENDING,
+    DEAD_LETTER,
+}
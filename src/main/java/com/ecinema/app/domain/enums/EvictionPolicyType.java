@@ -0,0 +1,19 @@
+package com.ecinema.app.domain.enums;
+
+import com.ecinema.app.domain.objects.EvictionPolicy;
+import com.ecinema.app.domain.objects.LruEvictionPolicy;
+import com.ecinema.app.domain.objects.WTinyLfuEvictionPolicy;
+
+public enum EvictionPolicyType {
+
+    LRU,
+    W_TINY_LFU;
+
+    public final <K> EvictionPolicy<K> create(int maxSize) {
+        return switch (this) {
+            case LRU -> new LruEvictionPolicy<>(maxSize);
+            case W_TINY_LFU -> new WTinyLfuEvictionPolicy<>(maxSize);
+        };
+    }
+
+}
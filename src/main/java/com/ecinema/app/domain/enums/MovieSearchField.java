@@ -0,0 +1,21 @@
+package com.ecinema.app.domain.enums;
+
+public enum MovieSearchField {
+
+    TITLE(5f),
+    DIRECTOR(3f),
+    CAST(3f),
+    WRITERS(2f),
+    SYNOPSIS(1f);
+
+    private final float weight;
+
+    MovieSearchField(float weight) {
+        this.weight = weight;
+    }
+
+    public final float getWeight() {
+        return weight;
+    }
+
+}
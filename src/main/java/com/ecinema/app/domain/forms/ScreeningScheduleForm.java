@@ -0,0 +1,24 @@
+package com.ecinema.app.domain.forms;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ScreeningScheduleForm implements Serializable {
+
+    private Long movieId = 0L;
+    private List<Long> showroomIds = new ArrayList<>();
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate = LocalDate.now();
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate = LocalDate.now();
+    @DateTimeFormat(pattern = "HH:mm")
+    private List<LocalTime> showtimes = new ArrayList<>();
+
+}
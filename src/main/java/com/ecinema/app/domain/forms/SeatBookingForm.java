@@ -11,6 +11,7 @@ public class SeatBookingForm implements Serializable {
     private Long screeningId;
     private Long paymentCardId;
     private Long screeningSeatId;
+    private Long showroomSeatId;
     private TicketType ticketType;
     private Integer tokensToApply;
 }
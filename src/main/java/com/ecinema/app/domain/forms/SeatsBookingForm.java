@@ -0,0 +1,18 @@
+package com.ecinema.app.domain.forms;
+
+import com.ecinema.app.domain.enums.TicketType;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class SeatsBookingForm implements Serializable {
+    private Long userId;
+    private Long screeningId;
+    private Long paymentCardId;
+    private List<Long> showroomSeatIds = new ArrayList<>();
+    private TicketType ticketType;
+    private Integer tokensToApply;
+}
@@ -0,0 +1,115 @@
+package com.ecinema.app.domain.objects;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache of at most a max size of values that each expire a time to live after they were loaded.
+ * Which value goes once the cache is full is up to the {@link EvictionPolicy}. Values are loaded outside of the
+ * lock of the cache, so a slow load does not hold up hits on other keys; a load that was overtaken by an
+ * invalidation is returned to its caller but not cached, so an invalidation is never undone by a load that read
+ * the old state. Null values are not cached.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long timeToLiveInMillis;
+    private final EvictionPolicy<K> evictionPolicy;
+    private final LongSupplier currentTimeMillis;
+    private final Map<K, Entry<V>> entries = new HashMap<>();
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public BoundedCache(int maxSize, long timeToLiveInMillis, EvictionPolicy<K> evictionPolicy) {
+        this(maxSize, timeToLiveInMillis, evictionPolicy, System::currentTimeMillis);
+    }
+
+    public BoundedCache(int maxSize, long timeToLiveInMillis, EvictionPolicy<K> evictionPolicy,
+                        LongSupplier currentTimeMillis) {
+        this.maxSize = maxSize;
+        this.timeToLiveInMillis = timeToLiveInMillis;
+        this.evictionPolicy = evictionPolicy;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    /**
+     * Returns the cached value of the key, loading and caching it first if absent or expired. Exceptions thrown
+     * by the loader are passed on and nothing is cached.
+     *
+     * @param key    the key
+     * @param loader the loader of the value
+     * @return the value
+     */
+    public V computeIfAbsent(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > currentTimeMillis.getAsLong()) {
+                hits++;
+                evictionPolicy.recordAccess(key);
+                return entry.value();
+            }
+            if (entry != null) {
+                expirations++;
+                entries.remove(key);
+                evictionPolicy.recordRemove(key);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        V value = loader.apply(key);
+        if (value != null) {
+            put(key, value, loadGeneration);
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        if (entries.remove(key) != null) {
+            evictionPolicy.recordRemove(key);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        evictionPolicy.clear();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(entries.size(), maxSize, hits, misses, evictions, expirations);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void put(K key, V value, long loadGeneration) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        Entry<V> previous = entries.put(key, new Entry<>(value, currentTimeMillis.getAsLong() + timeToLiveInMillis));
+        if (previous != null) {
+            // loaded concurrently by another caller
+            evictionPolicy.recordAccess(key);
+            return;
+        }
+        K victim = evictionPolicy.recordInsert(key);
+        if (victim != null) {
+            entries.remove(victim);
+            evictions++;
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+}
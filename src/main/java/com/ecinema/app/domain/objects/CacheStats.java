@@ -0,0 +1,27 @@
+package com.ecinema.app.domain.objects;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the statistics of a {@link BoundedCache} since it was created.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CacheStats {
+
+    private final int size;
+    private final int maxSize;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0d : (double) hits / requests;
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.ecinema.app.domain.objects;
+
+import com.ecinema.app.domain.enums.DeletionJobStatus;
+import com.ecinema.app.util.UtilMethods;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a cascade deletion running in the background. Only the thread running the deletion writes the
+ * progress, any thread may read it.
+ */
+@Getter
+@ToString
+public class DeletionJob {
+
+    private final Long id;
+    private final String description;
+    private final LocalDateTime submissionDateTime = LocalDateTime.now();
+    private volatile DeletionJobStatus status = DeletionJobStatus.QUEUED;
+    private volatile String currentStep = "";
+    private volatile long numberOfRowsDeleted = 0L;
+    private volatile LocalDateTime completionDateTime;
+    private volatile String error;
+
+    public DeletionJob(Long id, String description) {
+        this.id = id;
+        this.description = description;
+    }
+
+    public void start() {
+        status = DeletionJobStatus.RUNNING;
+    }
+
+    /**
+     * Sets the step that the deletion is on.
+     *
+     * @param currentStep the current step
+     */
+    public void step(String currentStep) {
+        this.currentStep = currentStep;
+    }
+
+    /**
+     * Adds to the number of rows deleted.
+     *
+     * @param numberOfRows the number of rows deleted by the last chunk
+     */
+    public void addRowsDeleted(long numberOfRows) {
+        numberOfRowsDeleted += numberOfRows;
+    }
+
+    public void complete() {
+        currentStep = "";
+        completionDateTime = LocalDateTime.now();
+        status = DeletionJobStatus.COMPLETED;
+    }
+
+    /**
+     * Marks the job as failed. The chunks deleted before the failure stay deleted.
+     *
+     * @param error the error
+     */
+    public void fail(String error) {
+        this.error = error;
+        completionDateTime = LocalDateTime.now();
+        status = DeletionJobStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == DeletionJobStatus.COMPLETED || status == DeletionJobStatus.FAILED;
+    }
+
+    /**
+     * Submission date time formatted string.
+     *
+     * @return the string
+     */
+    public String submissionDateTimeFormatted() {
+        return UtilMethods.localDateTimeFormatted(submissionDateTime);
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.ecinema.app.domain.objects;
+
+/**
+ * Decides which key a {@link BoundedCache} evicts once it is full. The cache calls the policy under its own lock,
+ * so implementations need not be thread safe.
+ *
+ * @param <K> the key type
+ */
+public interface EvictionPolicy<K> {
+
+    /**
+     * Records a hit on a key the cache holds.
+     *
+     * @param key the key
+     */
+    void recordAccess(K key);
+
+    /**
+     * Records a key newly put in the cache and picks the key to evict if the cache is now over its max size. The
+     * victim may be the inserted key itself, meaning the policy does not admit it.
+     *
+     * @param key the key
+     * @return the key to evict, or null if none
+     */
+    K recordInsert(K key);
+
+    /**
+     * Records a key the cache removed on its own, because it expired or was invalidated.
+     *
+     * @param key the key
+     */
+    void recordRemove(K key);
+
+    void clear();
+
+}
@@ -0,0 +1,22 @@
+package com.ecinema.app.domain.objects;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the statistics of the {@link com.ecinema.app.beans.HashingExecutor} since it was created.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class HashingStats {
+
+    private final int numberOfWorkers;
+    private final int maxQueuedHashes;
+    private final int queueDepth;
+    private final int activeWorkers;
+    private final long completedHashes;
+    private final long rejectedHashes;
+
+}
@@ -0,0 +1,47 @@
+package com.ecinema.app.domain.objects;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * {@link EvictionPolicy} that evicts the least recently used key and admits every key.
+ *
+ * @param <K> the key type
+ */
+public class LruEvictionPolicy<K> implements EvictionPolicy<K> {
+
+    private final int maxSize;
+    private final LinkedHashMap<K, Boolean> keys = new LinkedHashMap<>(16, 0.75f, true);
+
+    public LruEvictionPolicy(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void recordAccess(K key) {
+        keys.get(key);
+    }
+
+    @Override
+    public K recordInsert(K key) {
+        keys.put(key, Boolean.TRUE);
+        if (keys.size() <= maxSize) {
+            return null;
+        }
+        Iterator<K> iterator = keys.keySet().iterator();
+        K victim = iterator.next();
+        iterator.remove();
+        return victim;
+    }
+
+    @Override
+    public void recordRemove(K key) {
+        keys.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        keys.clear();
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.ecinema.app.domain.objects;
+
+import com.ecinema.app.domain.enums.MovieCategory;
+import com.ecinema.app.domain.enums.MsrbRating;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * The number of movies each facet value would leave if it were selected next to the current
+ * {@link MovieFacetFilter}. Categories narrow the current result, while the count of an msrb rating and the now
+ * showing count ignore the current selection of their own facet, so the other ratings stay selectable.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class MovieFacetCounts {
+    private final int numberOfMovies;
+    private final Map<MovieCategory, Integer> movieCategoryCounts;
+    private final Map<MsrbRating, Integer> msrbRatingCounts;
+    private final int nowShowingCount;
+}
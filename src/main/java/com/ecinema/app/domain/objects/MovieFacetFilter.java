@@ -0,0 +1,44 @@
+package com.ecinema.app.domain.objects;
+
+import com.ecinema.app.domain.enums.MovieCategory;
+import com.ecinema.app.domain.enums.MsrbRating;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Facets to filter the movie catalog by. A movie passes if it has every one of the categories, has any one of
+ * the msrb ratings and, if now showing is set, has a screening that has not started yet. Empty facets filter
+ * nothing.
+ */
+@Getter
+@ToString
+public class MovieFacetFilter {
+
+    private final Set<MovieCategory> movieCategories;
+    private final Set<MsrbRating> msrbRatings;
+    private final boolean nowShowing;
+
+    public MovieFacetFilter(Collection<MovieCategory> movieCategories, Collection<MsrbRating> msrbRatings,
+                            boolean nowShowing) {
+        // an empty request param binds to a null element
+        this.movieCategories = EnumSet.noneOf(MovieCategory.class);
+        if (movieCategories != null) {
+            movieCategories.stream().filter(Objects::nonNull).forEach(this.movieCategories::add);
+        }
+        this.msrbRatings = EnumSet.noneOf(MsrbRating.class);
+        if (msrbRatings != null) {
+            msrbRatings.stream().filter(Objects::nonNull).forEach(this.msrbRatings::add);
+        }
+        this.nowShowing = nowShowing;
+    }
+
+    public boolean isEmpty() {
+        return movieCategories.isEmpty() && msrbRatings.isEmpty() && !nowShowing;
+    }
+
+}
@@ -0,0 +1,242 @@
+package com.ecinema.app.domain.objects;
+
+import com.ecinema.app.domain.enums.MovieCategory;
+import com.ecinema.app.domain.enums.MsrbRating;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Bitmap index of the facets of the movie catalog. Every movie gets a dense ordinal, and every category, every
+ * msrb rating and now showing has a {@link BitSet} over those ordinals, so a {@link MovieFacetFilter} and the
+ * count of every facet value are a handful of bitwise ands over the catalog instead of a join per facet. A movie
+ * is now showing while it has a screening that has not started yet; screenings are kept ordered by show date time
+ * and the ones that have started are dropped from the bitmap lazily, whenever the index is queried.
+ */
+public class MovieFacetIndex {
+
+    private final Map<Long, Integer> ordinalsByMovieId = new HashMap<>();
+    private final List<Long> movieIdsByOrdinal = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final BitSet movies = new BitSet();
+    private final Map<MovieCategory, BitSet> moviesByCategory = new EnumMap<>(MovieCategory.class);
+    private final Map<MsrbRating, BitSet> moviesByMsrbRating = new EnumMap<>(MsrbRating.class);
+    private final BitSet moviesNowShowing = new BitSet();
+    private final Map<Long, MovieScreeningTime> upcomingScreeningsById = new HashMap<>();
+    private final NavigableMap<LocalDateTime, Set<Long>> upcomingScreeningIdsByShowDateTime = new TreeMap<>();
+    private final Map<Long, Integer> numberOfUpcomingScreeningsByMovieId = new HashMap<>();
+
+    public MovieFacetIndex() {
+        for (MovieCategory movieCategory : MovieCategory.values()) {
+            moviesByCategory.put(movieCategory, new BitSet());
+        }
+        for (MsrbRating msrbRating : MsrbRating.values()) {
+            moviesByMsrbRating.put(msrbRating, new BitSet());
+        }
+    }
+
+    /**
+     * Adds the movie to the index, replacing its categories and msrb rating if it is already indexed. Its
+     * upcoming screenings are kept.
+     *
+     * @param movieId         the movie id
+     * @param movieCategories the movie categories
+     * @param msrbRating      the msrb rating, may be null
+     */
+    public synchronized void put(Long movieId, Collection<MovieCategory> movieCategories, MsrbRating msrbRating) {
+        Integer ordinal = ordinalsByMovieId.get(movieId);
+        if (ordinal == null) {
+            ordinal = freeOrdinals.isEmpty() ? movieIdsByOrdinal.size() : freeOrdinals.pop();
+            if (ordinal == movieIdsByOrdinal.size()) {
+                movieIdsByOrdinal.add(movieId);
+            } else {
+                movieIdsByOrdinal.set(ordinal, movieId);
+            }
+            ordinalsByMovieId.put(movieId, ordinal);
+            movies.set(ordinal);
+            moviesNowShowing.set(ordinal, numberOfUpcomingScreeningsByMovieId.getOrDefault(movieId, 0) > 0);
+        }
+        for (MovieCategory movieCategory : MovieCategory.values()) {
+            moviesByCategory.get(movieCategory).set(ordinal, movieCategories.contains(movieCategory));
+        }
+        for (MsrbRating rating : MsrbRating.values()) {
+            moviesByMsrbRating.get(rating).set(ordinal, rating == msrbRating);
+        }
+    }
+
+    /**
+     * Removes the movie from the index, its ordinal is handed to the next movie added.
+     *
+     * @param movieId the movie id
+     * @return true if the index contained the movie
+     */
+    public synchronized boolean remove(Long movieId) {
+        Integer ordinal = ordinalsByMovieId.remove(movieId);
+        if (ordinal == null) {
+            return false;
+        }
+        movieIdsByOrdinal.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+        movies.clear(ordinal);
+        moviesNowShowing.clear(ordinal);
+        moviesByCategory.values().forEach(bitSet -> bitSet.clear(ordinal));
+        moviesByMsrbRating.values().forEach(bitSet -> bitSet.clear(ordinal));
+        return true;
+    }
+
+    /**
+     * Adds the screening if it has not started yet, the movie is now showing until it starts.
+     *
+     * @param movieScreeningTime the screening
+     * @param now                the current date time
+     */
+    public synchronized void addScreening(MovieScreeningTime movieScreeningTime, LocalDateTime now) {
+        if (movieScreeningTime.getShowDateTime() == null || movieScreeningTime.getShowDateTime().isBefore(now)) {
+            return;
+        }
+        removeScreening(movieScreeningTime.getScreeningId());
+        upcomingScreeningsById.put(movieScreeningTime.getScreeningId(), movieScreeningTime);
+        upcomingScreeningIdsByShowDateTime.computeIfAbsent(movieScreeningTime.getShowDateTime(),
+                                                           showDateTime -> new HashSet<>())
+                                          .add(movieScreeningTime.getScreeningId());
+        Long movieId = movieScreeningTime.getMovieId();
+        numberOfUpcomingScreeningsByMovieId.merge(movieId, 1, Integer::sum);
+        Integer ordinal = ordinalsByMovieId.get(movieId);
+        if (ordinal != null) {
+            moviesNowShowing.set(ordinal);
+        }
+    }
+
+    /**
+     * Removes the screening.
+     *
+     * @param screeningId the screening id
+     */
+    public synchronized void removeScreening(Long screeningId) {
+        MovieScreeningTime movieScreeningTime = upcomingScreeningsById.remove(screeningId);
+        if (movieScreeningTime == null) {
+            return;
+        }
+        Set<Long> screeningIds = upcomingScreeningIdsByShowDateTime.get(movieScreeningTime.getShowDateTime());
+        screeningIds.remove(screeningId);
+        if (screeningIds.isEmpty()) {
+            upcomingScreeningIdsByShowDateTime.remove(movieScreeningTime.getShowDateTime());
+        }
+        Long movieId = movieScreeningTime.getMovieId();
+        Integer numberOfUpcomingScreenings = numberOfUpcomingScreeningsByMovieId.merge(
+                movieId, -1, Integer::sum);
+        if (numberOfUpcomingScreenings <= 0) {
+            numberOfUpcomingScreeningsByMovieId.remove(movieId);
+            Integer ordinal = ordinalsByMovieId.get(movieId);
+            if (ordinal != null) {
+                moviesNowShowing.clear(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Finds the ids of the movies passing the filter. If candidates are provided only those are considered and
+     * their order is kept, otherwise the ids are in ascending order.
+     *
+     * @param movieFacetFilter the movie facet filter
+     * @param candidates       the ids of the candidate movies, may be null
+     * @param now              the current date time
+     * @return the ids of the movies
+     */
+    public synchronized List<Long> findAll(MovieFacetFilter movieFacetFilter, List<Long> candidates,
+                                           LocalDateTime now) {
+        dropStartedScreenings(now);
+        BitSet result = filter(movieFacetFilter, candidates, true, true);
+        List<Long> movieIds = new ArrayList<>(result.cardinality());
+        if (candidates != null) {
+            for (Long movieId : candidates) {
+                Integer ordinal = ordinalsByMovieId.get(movieId);
+                if (ordinal != null && result.get(ordinal)) {
+                    movieIds.add(movieId);
+                }
+            }
+        } else {
+            result.stream().forEach(ordinal -> movieIds.add(movieIdsByOrdinal.get(ordinal)));
+            Collections.sort(movieIds);
+        }
+        return movieIds;
+    }
+
+    /**
+     * Counts the movies of every facet value next to the filter, see {@link MovieFacetCounts}.
+     *
+     * @param movieFacetFilter the movie facet filter
+     * @param candidates       the ids of the candidate movies, may be null
+     * @param now              the current date time
+     * @return the movie facet counts
+     */
+    public synchronized MovieFacetCounts count(MovieFacetFilter movieFacetFilter, Collection<Long> candidates,
+                                               LocalDateTime now) {
+        dropStartedScreenings(now);
+        BitSet result = filter(movieFacetFilter, candidates, true, true);
+        Map<MovieCategory, Integer> movieCategoryCounts = new EnumMap<>(MovieCategory.class);
+        moviesByCategory.forEach((movieCategory, bitSet) -> movieCategoryCounts.put(
+                movieCategory, cardinalityOfAnd(result, bitSet)));
+        BitSet resultOfAnyMsrbRating = filter(movieFacetFilter, candidates, false, true);
+        Map<MsrbRating, Integer> msrbRatingCounts = new EnumMap<>(MsrbRating.class);
+        moviesByMsrbRating.forEach((msrbRating, bitSet) -> msrbRatingCounts.put(
+                msrbRating, cardinalityOfAnd(resultOfAnyMsrbRating, bitSet)));
+        int nowShowingCount = cardinalityOfAnd(filter(movieFacetFilter, candidates, true, false), moviesNowShowing);
+        return new MovieFacetCounts(result.cardinality(), movieCategoryCounts, msrbRatingCounts, nowShowingCount);
+    }
+
+    public synchronized boolean contains(Long movieId) {
+        return ordinalsByMovieId.containsKey(movieId);
+    }
+
+    public synchronized int numberOfMovies() {
+        return ordinalsByMovieId.size();
+    }
+
+    private BitSet filter(MovieFacetFilter movieFacetFilter, Collection<Long> candidates,
+                          boolean filterMsrbRatings, boolean filterNowShowing) {
+        BitSet result;
+        if (candidates != null) {
+            result = new BitSet();
+            for (Long movieId : candidates) {
+                Integer ordinal = ordinalsByMovieId.get(movieId);
+                if (ordinal != null) {
+                    result.set(ordinal);
+                }
+            }
+        } else {
+            result = (BitSet) movies.clone();
+        }
+        for (MovieCategory movieCategory : movieFacetFilter.getMovieCategories()) {
+            result.and(moviesByCategory.get(movieCategory));
+        }
+        if (filterMsrbRatings && !movieFacetFilter.getMsrbRatings().isEmpty()) {
+            BitSet anyMsrbRating = new BitSet();
+            for (MsrbRating msrbRating : movieFacetFilter.getMsrbRatings()) {
+                anyMsrbRating.or(moviesByMsrbRating.get(msrbRating));
+            }
+            result.and(anyMsrbRating);
+        }
+        if (filterNowShowing && movieFacetFilter.isNowShowing()) {
+            result.and(moviesNowShowing);
+        }
+        return result;
+    }
+
+    private static int cardinalityOfAnd(BitSet a, BitSet b) {
+        BitSet and = (BitSet) a.clone();
+        and.and(b);
+        return and.cardinality();
+    }
+
+    private void dropStartedScreenings(LocalDateTime now) {
+        NavigableMap<LocalDateTime, Set<Long>> started = upcomingScreeningIdsByShowDateTime.headMap(now, false);
+        if (started.isEmpty()) {
+            return;
+        }
+        List<Long> startedScreeningIds = new ArrayList<>();
+        started.values().forEach(startedScreeningIds::addAll);
+        startedScreeningIds.forEach(this::removeScreening);
+    }
+
+}
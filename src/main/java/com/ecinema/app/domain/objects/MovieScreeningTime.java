@@ -0,0 +1,19 @@
+package com.ecinema.app.domain.objects;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * When a screening of a movie starts.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class MovieScreeningTime {
+    private final Long screeningId;
+    private final Long movieId;
+    private final LocalDateTime showDateTime;
+}
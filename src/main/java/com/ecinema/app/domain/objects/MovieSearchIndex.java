@@ -0,0 +1,232 @@
+package com.ecinema.app.domain.objects;
+
+import com.ecinema.app.domain.enums.MovieSearchField;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Inverted index over the searchable text of movies. Every field of a movie is split into lower case words with
+ * diacritics stripped, and every word posts the movie with the weight of its {@link MovieSearchField}; a word
+ * found in several fields of the same movie keeps the highest weight. A title of several words is also posted
+ * as one word, so "spiderman" finds "Spider-Man". The words are kept sorted so that a query word matches every
+ * word it is a prefix of, and every word is indexed by its trigrams so that a misspelled query word is matched to
+ * the words within {@link #maxEditsOf(String)} edits without scanning the vocabulary.
+ */
+public class MovieSearchIndex {
+
+    public static final int MIN_PREFIX_LENGTH = 2;
+    public static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final float PREFIX_MATCH_FACTOR = 0.8f;
+    private static final float FUZZY_MATCH_FACTOR = 0.6f;
+
+    private final NavigableMap<String, Map<Long, Float>> postingsByWord = new TreeMap<>();
+    private final Map<String, Set<String>> wordsByTrigram = new HashMap<>();
+    private final Map<Long, Set<String>> wordsByMovieId = new HashMap<>();
+
+    /**
+     * Splits the text into lower case words without diacritics.
+     *
+     * @param text the text
+     * @return the words in order of appearance
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new ArrayList<>();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                                      .replaceAll("\\p{M}", "")
+                                      .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : normalized.split("[^\\p{Alnum}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Adds the movie to the index, replacing the previous entry of the movie if there is one.
+     *
+     * @param movieId the movie id
+     * @param texts   the texts of the movie by field
+     */
+    public synchronized void put(Long movieId, Map<MovieSearchField, ? extends Collection<String>> texts) {
+        remove(movieId);
+        Map<String, Float> weightsByWord = new HashMap<>();
+        texts.forEach((field, fieldTexts) -> fieldTexts.forEach(text -> {
+            List<String> words = tokenize(text);
+            words.forEach(word -> weightsByWord.merge(word, field.getWeight(), Math::max));
+            if (field == MovieSearchField.TITLE && words.size() > 1) {
+                weightsByWord.merge(String.join("", words), field.getWeight(), Math::max);
+            }
+        }));
+        weightsByWord.forEach((word, weight) -> postingsByWord.computeIfAbsent(word, w -> {
+            trigramsOf(w).forEach(trigram -> wordsByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(w));
+            return new HashMap<>();
+        }).put(movieId, weight));
+        wordsByMovieId.put(movieId, weightsByWord.keySet());
+    }
+
+    /**
+     * Removes the movie from the index.
+     *
+     * @param movieId the movie id
+     * @return true if the index contained the movie
+     */
+    public synchronized boolean remove(Long movieId) {
+        Set<String> words = wordsByMovieId.remove(movieId);
+        if (words == null) {
+            return false;
+        }
+        for (String word : words) {
+            Map<Long, Float> postings = postingsByWord.get(word);
+            postings.remove(movieId);
+            if (postings.isEmpty()) {
+                postingsByWord.remove(word);
+                for (String trigram : trigramsOf(word)) {
+                    Set<String> wordsWithTrigram = wordsByTrigram.get(trigram);
+                    wordsWithTrigram.remove(word);
+                    if (wordsWithTrigram.isEmpty()) {
+                        wordsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the ids of the movies matching the query, most relevant first. A query word matches a word of a
+     * movie exactly, as a prefix or within a few typos, weighted in that order and by the field the word is
+     * found in. The scores of the query words are summed and scaled by the fraction of query words that match,
+     * so movies matching every query word rank first. Ties are broken by movie id.
+     *
+     * @param query the query
+     * @return the ids of the matching movies
+     */
+    public synchronized List<Long> search(String query) {
+        Set<String> queryWords = new LinkedHashSet<>(tokenize(query));
+        Map<Long, Float> scores = new HashMap<>();
+        Map<Long, Integer> numberOfMatchedWords = new HashMap<>();
+        for (String queryWord : queryWords) {
+            Map<Long, Float> queryWordScores = new HashMap<>();
+            findAllMatchingWords(queryWord).forEach((word, factor) -> postingsByWord.get(word).forEach(
+                    (movieId, weight) -> queryWordScores.merge(movieId, factor * weight, Math::max)));
+            queryWordScores.forEach((movieId, score) -> {
+                scores.merge(movieId, score, Float::sum);
+                numberOfMatchedWords.merge(movieId, 1, Integer::sum);
+            });
+        }
+        Map<Long, Float> rankedScores = new HashMap<>();
+        scores.forEach((movieId, score) -> rankedScores.put(
+                movieId, score * numberOfMatchedWords.get(movieId) / queryWords.size()));
+        List<Long> movieIds = new ArrayList<>(rankedScores.keySet());
+        movieIds.sort(Comparator.comparing((Long movieId) -> rankedScores.get(movieId)).reversed()
+                                .thenComparing(Comparator.naturalOrder()));
+        return movieIds;
+    }
+
+    public synchronized boolean contains(Long movieId) {
+        return wordsByMovieId.containsKey(movieId);
+    }
+
+    public synchronized int numberOfMovies() {
+        return wordsByMovieId.size();
+    }
+
+    public synchronized int numberOfWords() {
+        return postingsByWord.size();
+    }
+
+    private Map<String, Float> findAllMatchingWords(String queryWord) {
+        Map<String, Float> factorsByWord = new HashMap<>();
+        if (postingsByWord.containsKey(queryWord)) {
+            factorsByWord.put(queryWord, 1f);
+        }
+        if (queryWord.length() >= MIN_PREFIX_LENGTH) {
+            // shorter completions are closer to what was typed
+            for (String word : postingsByWord.subMap(queryWord, false, queryWord + Character.MAX_VALUE, false)
+                                             .keySet()) {
+                factorsByWord.put(word, PREFIX_MATCH_FACTOR * (0.5f + 0.5f * queryWord.length() / word.length()));
+            }
+        }
+        if (queryWord.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = maxEditsOf(queryWord);
+            Set<String> queryTrigrams = trigramsOf(queryWord);
+            // every edit changes at most three trigrams
+            int minSharedTrigrams = queryTrigrams.size() - 3 * maxEdits;
+            Map<String, Integer> sharedTrigramsByWord = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                wordsByTrigram.getOrDefault(trigram, Set.of()).forEach(
+                        word -> sharedTrigramsByWord.merge(word, 1, Integer::sum));
+            }
+            sharedTrigramsByWord.forEach((word, sharedTrigrams) -> {
+                if (sharedTrigrams < minSharedTrigrams || factorsByWord.containsKey(word)) {
+                    return;
+                }
+                int edits = editDistance(queryWord, word, maxEdits);
+                if (edits <= maxEdits) {
+                    factorsByWord.put(word, FUZZY_MATCH_FACTOR / edits);
+                }
+            });
+        }
+        return factorsByWord;
+    }
+
+    /**
+     * The number of typos tolerated in the query word: one from {@link #MIN_FUZZY_LENGTH} letters on, two from
+     * eight letters on.
+     *
+     * @param queryWord the query word
+     * @return the max number of edits
+     */
+    public static int maxEditsOf(String queryWord) {
+        return queryWord.length() >= 8 ? 2 : 1;
+    }
+
+    private static Set<String> trigramsOf(String word) {
+        String padded = "$" + word + "$";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Damerau-Levenshtein distance restricted to adjacent transpositions, giving up as soon as it exceeds the max.
+     */
+    private static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[][] distances = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            distances[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            distances[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(distances[i - 1][j] + 1, distances[i][j - 1] + 1),
+                                        distances[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, distances[i - 2][j - 2] + 1);
+                }
+                distances[i][j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+        }
+        return distances[a.length()][b.length()];
+    }
+
+}
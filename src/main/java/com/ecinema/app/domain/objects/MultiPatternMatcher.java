@@ -0,0 +1,99 @@
+package com.ecinema.app.domain.objects;
+
+import java.util.*;
+
+/**
+ * Aho–Corasick automaton that finds every term of a fixed term list in a text with a single pass over the text,
+ * however many terms there are. Matching ignores case and only counts a term if it is not part of a longer word,
+ * so "class" does not match "classic". The automaton is built once in the constructor and is immutable after, so
+ * it can be shared by any number of threads.
+ */
+public class MultiPatternMatcher {
+
+    private final Node root = new Node();
+
+    /**
+     * Builds the automaton of the terms. Blank terms are ignored.
+     *
+     * @param terms the terms
+     */
+    public MultiPatternMatcher(Collection<String> terms) {
+        for (String term : terms) {
+            if (term == null || term.isBlank()) {
+                continue;
+            }
+            // lower case char by char, as the text is, so a match is as long as its term
+            StringBuilder normalizedTerm = new StringBuilder();
+            Node node = root;
+            for (char c : term.trim().toCharArray()) {
+                char lowerCaseChar = Character.toLowerCase(c);
+                normalizedTerm.append(lowerCaseChar);
+                node = node.children.computeIfAbsent(lowerCaseChar, character -> new Node());
+            }
+            node.term = normalizedTerm.toString();
+        }
+        // link every node to the node of its longest proper suffix, breadth first so suffixes are linked first
+        Deque<Node> queue = new ArrayDeque<>();
+        root.children.values().forEach(child -> {
+            child.fail = root;
+            queue.add(child);
+        });
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            node.children.forEach((c, child) -> {
+                Node fail = node.fail;
+                while (fail != root && !fail.children.containsKey(c)) {
+                    fail = fail.fail;
+                }
+                Node suffix = fail.children.get(c);
+                child.fail = suffix != null && suffix != child ? suffix : root;
+                child.output = child.fail.term != null ? child.fail : child.fail.output;
+                queue.add(child);
+            });
+        }
+    }
+
+    /**
+     * Finds the distinct terms that occur in the text, in the order they first end in the text.
+     *
+     * @param text the text
+     * @return the terms found, empty if there are none
+     */
+    public List<String> findMatches(String text) {
+        Set<String> matches = new LinkedHashSet<>();
+        if (text == null) {
+            return new ArrayList<>();
+        }
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            while (node != root && !node.children.containsKey(c)) {
+                node = node.fail;
+            }
+            node = node.children.getOrDefault(c, root);
+            for (Node match = node.term != null ? node : node.output; match != null; match = match.output) {
+                if (isWholeWord(text, i - match.term.length() + 1, i + 1)) {
+                    matches.add(match.term);
+                }
+            }
+        }
+        return new ArrayList<>(matches);
+    }
+
+    private static boolean isWholeWord(String text, int start, int end) {
+        boolean startsWord = start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1)) ||
+                !Character.isLetterOrDigit(text.charAt(start));
+        boolean endsWord = end == text.length() || !Character.isLetterOrDigit(text.charAt(end)) ||
+                !Character.isLetterOrDigit(text.charAt(end - 1));
+        return startsWord && endsWord;
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private Node fail;
+        // the nearest node on the suffix chain that ends a term
+        private Node output;
+        private String term;
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.ecinema.app.domain.objects;
+
+import java.util.*;
+
+/**
+ * Trie of weighted values that answers the top values under a prefix without visiting the subtree of the
+ * prefix. Every node caches the {@link #MAX_TOP_VALUES} heaviest entries of its subtree, so a lookup walks the
+ * prefix and returns the cached list of its node. Putting or removing an entry refreshes only the caches on the
+ * path of its key, each from the entries of the node and the caches of its children.
+ *
+ * @param <T> the type of the values
+ */
+public class PrefixTrie<T> {
+
+    public static final int MAX_TOP_VALUES = 10;
+
+    private static final Comparator<Entry<?>> HEAVIEST_FIRST = Comparator
+            .comparing((Entry<?> entry) -> entry.weight).reversed()
+            .thenComparing(entry -> entry.key)
+            .thenComparing(entry -> entry.id);
+
+    private final Node<T> root = new Node<>();
+    private final Map<String, Entry<T>> entriesById = new HashMap<>();
+
+    /**
+     * Puts the value under the key, replacing the entry with the same id if there is one.
+     *
+     * @param id     the id of the entry
+     * @param key    the key
+     * @param value  the value
+     * @param weight the weight
+     */
+    public synchronized void put(String id, String key, T value, long weight) {
+        remove(id);
+        Entry<T> entry = new Entry<>(id, key, value, weight);
+        entriesById.put(id, entry);
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = root;
+        path.add(node);
+        for (char c : key.toCharArray()) {
+            node = node.children.computeIfAbsent(c, character -> new Node<>());
+            path.add(node);
+        }
+        node.entries.add(entry);
+        refresh(path);
+    }
+
+    /**
+     * Removes the entry with the id.
+     *
+     * @param id the id of the entry
+     * @return true if the trie contained the entry
+     */
+    public synchronized boolean remove(String id) {
+        Entry<T> entry = entriesById.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = root;
+        path.add(node);
+        for (char c : entry.key.toCharArray()) {
+            node = node.children.get(c);
+            path.add(node);
+        }
+        node.entries.remove(entry);
+        // prune the nodes left without entries
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node<T> child = path.get(i);
+            if (!child.entries.isEmpty() || !child.children.isEmpty()) {
+                break;
+            }
+            path.get(i - 1).children.remove(entry.key.charAt(i - 1));
+            path.remove(i);
+        }
+        refresh(path);
+        return true;
+    }
+
+    /**
+     * Finds the heaviest values whose key starts with the prefix, heaviest first.
+     *
+     * @param prefix the prefix
+     * @param limit  the max number of values, at most {@link #MAX_TOP_VALUES}
+     * @return the values
+     */
+    public synchronized List<T> findTopByPrefix(String prefix, int limit) {
+        Node<T> node = root;
+        for (char c : prefix.toCharArray()) {
+            node = node.children.get(c);
+            if (node == null) {
+                return new ArrayList<>();
+            }
+        }
+        return node.top.stream().limit(limit).map(entry -> entry.value).toList();
+    }
+
+    public synchronized T findById(String id) {
+        Entry<T> entry = entriesById.get(id);
+        return entry != null ? entry.value : null;
+    }
+
+    public synchronized int size() {
+        return entriesById.size();
+    }
+
+    private void refresh(List<Node<T>> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node<T> node = path.get(i);
+            List<Entry<T>> candidates = new ArrayList<>(node.entries);
+            node.children.values().forEach(child -> candidates.addAll(child.top));
+            candidates.sort(HEAVIEST_FIRST);
+            node.top = candidates.size() > MAX_TOP_VALUES ?
+                    new ArrayList<>(candidates.subList(0, MAX_TOP_VALUES)) : candidates;
+        }
+    }
+
+    private static class Node<T> {
+        private final Map<Character, Node<T>> children = new HashMap<>();
+        private final List<Entry<T>> entries = new ArrayList<>(1);
+        private List<Entry<T>> top = new ArrayList<>();
+    }
+
+    private record Entry<T>(String id, String key, T value, long weight) {}
+
+}
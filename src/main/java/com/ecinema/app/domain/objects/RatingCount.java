@@ -0,0 +1,17 @@
+package com.ecinema.app.domain.objects;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * How many reviews of a movie rate it the number of stars.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RatingCount {
+    private final Long movieId;
+    private final Integer stars;
+    private final Long numberOfRatings;
+}
@@ -0,0 +1,18 @@
+package com.ecinema.app.domain.objects;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The customer id, user id and username of the writer of a review.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ReviewWriter {
+    private final Long reviewId;
+    private final Long customerId;
+    private final Long userId;
+    private final String username;
+}
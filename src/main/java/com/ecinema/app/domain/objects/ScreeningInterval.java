@@ -0,0 +1,18 @@
+package com.ecinema.app.domain.objects;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The time a screening occupies its showroom, from show date time to end date time.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class ScreeningInterval {
+    private final Long screeningId;
+    private final LocalDateTime showDateTime;
+    private final LocalDateTime endDateTime;
+}
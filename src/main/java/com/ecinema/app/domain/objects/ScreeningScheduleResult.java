@@ -0,0 +1,19 @@
+package com.ecinema.app.domain.objects;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * The outcome of a bulk screening schedule, the screenings that were created and a message for each candidate
+ * slot that was rejected because it conflicts with the existing schedule or with another slot.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ScreeningScheduleResult {
+    private final List<ScreeningInterval> scheduledScreenings;
+    private final List<String> conflicts;
+}
@@ -0,0 +1,17 @@
+package com.ecinema.app.domain.objects;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The number of seats in the showroom of a screening and how many of them are booked or held.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ScreeningSeatCount {
+    private final Long screeningId;
+    private final Long numberOfSeats;
+    private final Long numberOfSeatsBooked;
+}
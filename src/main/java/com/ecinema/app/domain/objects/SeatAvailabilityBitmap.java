@@ -0,0 +1,193 @@
+package com.ecinema.app.domain.objects;
+
+import com.ecinema.app.domain.contracts.ISeat;
+import com.ecinema.app.domain.dtos.ScreeningSeatDto;
+import com.ecinema.app.domain.enums.Letter;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compact seat availability of one screening. Seats are laid out row by row, so the seat in the row with
+ * letter ordinal {@code r} and seat number {@code n} occupies slot {@code r * numberOfSeatsPerRow + (n - 1)}.
+ * A set bit means the seat is booked. Bits are flipped with compare-and-set on an {@link AtomicLongArray}
+ * so that readers never block writers.
+ * <p>
+ * Every seat of the showroom has a slot. Screening seats are only materialized once they are held or booked, so
+ * the screening seat id of a slot is 0 until then.
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+public class SeatAvailabilityBitmap {
+
+    @ToString.Include
+    private final Long screeningId;
+
+    @ToString.Include
+    private final int numberOfRows;
+
+    @ToString.Include
+    private final int numberOfSeatsPerRow;
+
+    private final long[] showroomSeatIds;
+    private final long[] screeningSeatIds;
+    private final AtomicLongArray bookedBits;
+
+    /**
+     * Instantiates a new Seat availability bitmap. The layout is taken from the showroom, but is widened if
+     * any of the provided seats falls outside of it.
+     *
+     * @param screeningId         the screening id
+     * @param numberOfRows        the number of rows of the showroom, may be null
+     * @param numberOfSeatsPerRow the number of seats per row of the showroom, may be null
+     * @param screeningSeats      the screening seats of the screening
+     */
+    public SeatAvailabilityBitmap(Long screeningId, Integer numberOfRows, Integer numberOfSeatsPerRow,
+                                  Collection<ScreeningSeatDto> screeningSeats) {
+        int rows = numberOfRows != null ? numberOfRows : 0;
+        int seatsPerRow = numberOfSeatsPerRow != null ? numberOfSeatsPerRow : 0;
+        for (ScreeningSeatDto screeningSeat : screeningSeats) {
+            rows = Math.max(rows, screeningSeat.getRowLetter().ordinal() + 1);
+            seatsPerRow = Math.max(seatsPerRow, screeningSeat.getSeatNumber());
+        }
+        this.screeningId = screeningId;
+        this.numberOfRows = rows;
+        this.numberOfSeatsPerRow = seatsPerRow;
+        this.showroomSeatIds = new long[rows * seatsPerRow];
+        this.screeningSeatIds = new long[rows * seatsPerRow];
+        this.bookedBits = new AtomicLongArray((showroomSeatIds.length + 63) / 64);
+        for (ScreeningSeatDto screeningSeat : screeningSeats) {
+            int slot = slotOf(screeningSeat.getRowLetter(), screeningSeat.getSeatNumber());
+            showroomSeatIds[slot] = screeningSeat.getShowroomSeatId();
+            screeningSeatIds[slot] = screeningSeat.getId() != null ? screeningSeat.getId() : 0L;
+            if (screeningSeat.getIsBooked()) {
+                setBooked(slot, true);
+            }
+        }
+    }
+
+    /**
+     * Sets the booked state of the seat. Seats that are not part of the bitmap are ignored.
+     *
+     * @param rowLetter  the row letter
+     * @param seatNumber the seat number
+     * @param booked     true if the seat is booked, false if it is available
+     * @return true if the booked state of the seat changed
+     */
+    public boolean setBooked(Letter rowLetter, Integer seatNumber, boolean booked) {
+        if (!contains(rowLetter, seatNumber)) {
+            return false;
+        }
+        return setBooked(slotOf(rowLetter, seatNumber), booked);
+    }
+
+    /**
+     * Is the seat booked.
+     *
+     * @param rowLetter  the row letter
+     * @param seatNumber the seat number
+     * @return true if the seat is part of the bitmap and is booked
+     */
+    public boolean isBooked(Letter rowLetter, Integer seatNumber) {
+        return contains(rowLetter, seatNumber) && isBooked(slotOf(rowLetter, seatNumber));
+    }
+
+    /**
+     * The id of the showroom seat with the provided designation.
+     *
+     * @param rowLetter  the row letter
+     * @param seatNumber the seat number
+     * @return the showroom seat id, or null if the bitmap does not contain the seat
+     */
+    public Long showroomSeatIdOf(Letter rowLetter, Integer seatNumber) {
+        return contains(rowLetter, seatNumber) ? showroomSeatIds[slotOf(rowLetter, seatNumber)] : null;
+    }
+
+    /**
+     * Does the bitmap contain a screening seat with the provided designation.
+     *
+     * @param rowLetter  the row letter
+     * @param seatNumber the seat number
+     * @return true if there is a screening seat with the provided designation
+     */
+    public boolean contains(Letter rowLetter, Integer seatNumber) {
+        if (rowLetter == null || seatNumber == null || seatNumber < 1 ||
+                rowLetter.ordinal() >= numberOfRows || seatNumber > numberOfSeatsPerRow) {
+            return false;
+        }
+        return showroomSeatIds[slotOf(rowLetter, seatNumber)] != 0L;
+    }
+
+    /**
+     * The number of seats in the bitmap.
+     *
+     * @return the number of seats
+     */
+    public int numberOfSeats() {
+        int numberOfSeats = 0;
+        for (long showroomSeatId : showroomSeatIds) {
+            if (showroomSeatId != 0L) {
+                numberOfSeats++;
+            }
+        }
+        return numberOfSeats;
+    }
+
+    /**
+     * The number of booked seats in the bitmap.
+     *
+     * @return the number of booked seats
+     */
+    public int numberOfSeatsBooked() {
+        int numberOfSeatsBooked = 0;
+        for (int i = 0; i < bookedBits.length(); i++) {
+            numberOfSeatsBooked += Long.bitCount(bookedBits.get(i));
+        }
+        return numberOfSeatsBooked;
+    }
+
+    /**
+     * Builds the seat map shown on the view seats page, the screening seats sorted by row letter and then by
+     * seat number.
+     *
+     * @return the map of row letters to screening seats
+     */
+    public Map<Letter, Set<ScreeningSeatDto>> toScreeningSeatMap() {
+        Map<Letter, Set<ScreeningSeatDto>> mapOfScreeningSeats = new TreeMap<>();
+        for (int slot = 0; slot < showroomSeatIds.length; slot++) {
+            if (showroomSeatIds[slot] == 0L) {
+                continue;
+            }
+            ScreeningSeatDto screeningSeatDto = new ScreeningSeatDto();
+            screeningSeatDto.setId(screeningSeatIds[slot] != 0L ? screeningSeatIds[slot] : null);
+            screeningSeatDto.setScreeningId(screeningId);
+            screeningSeatDto.setShowroomSeatId(showroomSeatIds[slot]);
+            screeningSeatDto.setRowLetter(Letter.values()[slot / numberOfSeatsPerRow]);
+            screeningSeatDto.setSeatNumber(slot % numberOfSeatsPerRow + 1);
+            screeningSeatDto.setIsBooked(isBooked(slot));
+            mapOfScreeningSeats.computeIfAbsent(
+                    screeningSeatDto.getRowLetter(),
+                    rowLetter -> new TreeSet<>(ISeat.SeatComparator.getInstance()))
+                               .add(screeningSeatDto);
+        }
+        return mapOfScreeningSeats;
+    }
+
+    private int slotOf(Letter rowLetter, Integer seatNumber) {
+        return rowLetter.ordinal() * numberOfSeatsPerRow + (seatNumber - 1);
+    }
+
+    private boolean isBooked(int slot) {
+        return (bookedBits.get(slot / 64) & (1L << (slot % 64))) != 0L;
+    }
+
+    private boolean setBooked(int slot, boolean booked) {
+        int word = slot / 64;
+        long mask = 1L << (slot % 64);
+        long previous = bookedBits.getAndUpdate(word, bits -> booked ? bits | mask : bits & ~mask);
+        return ((previous & mask) != 0L) != booked;
+    }
+
+}
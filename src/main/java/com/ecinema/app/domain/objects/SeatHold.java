@@ -0,0 +1,40 @@
+package com.ecinema.app.domain.objects;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timed hold of a screening seat, identified by the id of the LOCKED ticket claiming the seat. Becomes
+ * available from a {@link java.util.concurrent.DelayQueue} once its expiration date time has passed.
+ */
+@Getter
+@ToString
+public class SeatHold implements Delayed {
+
+    private final Long ticketId;
+    private final LocalDateTime expirationDateTime;
+
+    public SeatHold(Long ticketId, LocalDateTime expirationDateTime) {
+        this.ticketId = ticketId;
+        this.expirationDateTime = expirationDateTime;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(Duration.between(LocalDateTime.now(), expirationDateTime));
+    }
+
+    @Override
+    public int compareTo(Delayed o) {
+        if (o instanceof SeatHold seatHold) {
+            return expirationDateTime.compareTo(seatHold.getExpirationDateTime());
+        }
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.ecinema.app.domain.objects;
+
+import com.ecinema.app.util.UtilMethods;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Interval index of the screenings of one showroom, keyed on show date time. A screening that overlaps
+ * [start, end] must start no later than end and no earlier than start minus the longest screening in the
+ * showroom, so an overlap query is a single range scan of that window instead of a scan of every screening
+ * ever held in the showroom. The longest duration only ever grows, removing a screening never shrinks it,
+ * which can only widen the window and never causes a conflict to be missed.
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public class ShowroomSchedule {
+
+    @Getter
+    @ToString.Include
+    private final Long showroomId;
+
+    private final NavigableMap<LocalDateTime, Map<Long, ScreeningInterval>> intervalsByShowDateTime =
+            new TreeMap<>();
+    private final Map<Long, ScreeningInterval> intervalsByScreeningId = new HashMap<>();
+    private long longestDurationInSeconds;
+
+    /**
+     * Instantiates a new Showroom schedule.
+     *
+     * @param showroomId         the showroom id
+     * @param screeningIntervals the screening intervals of the showroom
+     */
+    public ShowroomSchedule(Long showroomId, Collection<ScreeningInterval> screeningIntervals) {
+        this.showroomId = showroomId;
+        screeningIntervals.forEach(this::add);
+    }
+
+    /**
+     * Adds the screening interval, replacing the interval of the same screening if there is one. Intervals
+     * without a show date time or end date time are ignored.
+     *
+     * @param screeningInterval the screening interval
+     */
+    public synchronized void add(ScreeningInterval screeningInterval) {
+        if (screeningInterval.getShowDateTime() == null || screeningInterval.getEndDateTime() == null) {
+            return;
+        }
+        remove(screeningInterval.getScreeningId());
+        intervalsByShowDateTime.computeIfAbsent(screeningInterval.getShowDateTime(), showDateTime -> new HashMap<>())
+                               .put(screeningInterval.getScreeningId(), screeningInterval);
+        intervalsByScreeningId.put(screeningInterval.getScreeningId(), screeningInterval);
+        longestDurationInSeconds = Math.max(longestDurationInSeconds, ChronoUnit.SECONDS.between(
+                screeningInterval.getShowDateTime(), screeningInterval.getEndDateTime()));
+    }
+
+    /**
+     * Removes the interval of the screening with the provided id.
+     *
+     * @param screeningId the screening id
+     * @return true if the schedule contained the screening
+     */
+    public synchronized boolean remove(Long screeningId) {
+        ScreeningInterval screeningInterval = intervalsByScreeningId.remove(screeningId);
+        if (screeningInterval == null) {
+            return false;
+        }
+        Map<Long, ScreeningInterval> intervals = intervalsByShowDateTime.get(screeningInterval.getShowDateTime());
+        intervals.remove(screeningId);
+        if (intervals.isEmpty()) {
+            intervalsByShowDateTime.remove(screeningInterval.getShowDateTime());
+        }
+        return true;
+    }
+
+    /**
+     * Finds every screening interval that overlaps [start, end], endpoints included, ordered by show date time.
+     *
+     * @param start the start
+     * @param end   the end
+     * @return the overlapping screening intervals
+     */
+    public synchronized List<ScreeningInterval> findAllOverlapping(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || start.isAfter(end)) {
+            return new ArrayList<>();
+        }
+        List<ScreeningInterval> overlapping = new ArrayList<>();
+        for (Map<Long, ScreeningInterval> intervals : intervalsByShowDateTime.subMap(
+                start.minusSeconds(longestDurationInSeconds), true, end, true).values()) {
+            for (ScreeningInterval interval : intervals.values()) {
+                if (UtilMethods.localDateTimeOverlap(
+                        start, end, interval.getShowDateTime(), interval.getEndDateTime())) {
+                    overlapping.add(interval);
+                }
+            }
+        }
+        return overlapping;
+    }
+
+    /**
+     * Is the schedule empty.
+     *
+     * @return true if the schedule has no screenings
+     */
+    public synchronized boolean isEmpty() {
+        return intervalsByScreeningId.isEmpty();
+    }
+
+    /**
+     * The number of screenings in the schedule.
+     *
+     * @return the number of screenings
+     */
+    public synchronized int numberOfScreenings() {
+        return intervalsByScreeningId.size();
+    }
+
+}
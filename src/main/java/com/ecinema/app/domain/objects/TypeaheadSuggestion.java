@@ -0,0 +1,20 @@
+package com.ecinema.app.domain.objects;
+
+import com.ecinema.app.domain.enums.TypeaheadType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A suggestion of the movie search typeahead. The movie id is set only for suggestions of type
+ * {@link TypeaheadType#MOVIE}, the weight is how popular the suggestion is.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class TypeaheadSuggestion {
+    private final String text;
+    private final TypeaheadType type;
+    private final Long movieId;
+    private final long weight;
+}
@@ -0,0 +1,108 @@
+package com.ecinema.app.domain.objects;
+
+import com.ecinema.app.domain.enums.UserAuthority;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lean and immutable Spring Security principal of a {@link com.ecinema.app.domain.entities.User}. It holds only
+ * what authentication and authorization need, so logging in reads the user row and the authority column instead
+ * of the whole user entity graph, and the principal kept in the session stays small.
+ */
+@Getter
+@ToString(exclude = "password")
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class UserPrincipal implements UserDetails {
+
+    @EqualsAndHashCode.Include
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final boolean accountEnabled;
+    private final boolean accountLocked;
+    private final boolean accountExpired;
+    private final boolean credentialsExpired;
+    private final Set<UserAuthority> authorities;
+
+    /**
+     * Instantiates a new User principal without authorities. Used as JPQL constructor expression.
+     *
+     * @param id                 the id
+     * @param username           the username
+     * @param password           the password hash
+     * @param accountEnabled     is account enabled
+     * @param accountLocked      is account locked
+     * @param accountExpired     is account expired
+     * @param credentialsExpired are credentials expired
+     */
+    public UserPrincipal(Long id, String username, String password, Boolean accountEnabled,
+                         Boolean accountLocked, Boolean accountExpired, Boolean credentialsExpired) {
+        this(id, username, password, Boolean.TRUE.equals(accountEnabled), Boolean.TRUE.equals(accountLocked),
+             Boolean.TRUE.equals(accountExpired), Boolean.TRUE.equals(credentialsExpired), Set.of());
+    }
+
+    private UserPrincipal(Long id, String username, String password, boolean accountEnabled,
+                          boolean accountLocked, boolean accountExpired, boolean credentialsExpired,
+                          Collection<UserAuthority> authorities) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.accountEnabled = accountEnabled;
+        this.accountLocked = accountLocked;
+        this.accountExpired = accountExpired;
+        this.credentialsExpired = credentialsExpired;
+        this.authorities = Collections.unmodifiableSet(authorities.isEmpty() ?
+                                                               EnumSet.noneOf(UserAuthority.class) :
+                                                               EnumSet.copyOf(authorities));
+    }
+
+    /**
+     * Returns a copy of this principal with the provided authorities.
+     *
+     * @param authorities the authorities
+     * @return the user principal
+     */
+    public UserPrincipal withAuthorities(Collection<UserAuthority> authorities) {
+        return new UserPrincipal(id, username, password, accountEnabled, accountLocked,
+                                 accountExpired, credentialsExpired, authorities);
+    }
+
+    /**
+     * Returns a copy of this principal with the provided password hash.
+     *
+     * @param password the password hash
+     * @return the user principal
+     */
+    public UserPrincipal withPassword(String password) {
+        return new UserPrincipal(id, username, password, accountEnabled, accountLocked,
+                                 accountExpired, credentialsExpired, authorities);
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return !accountExpired;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return !accountLocked;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return !credentialsExpired;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return accountEnabled;
+    }
+
+}
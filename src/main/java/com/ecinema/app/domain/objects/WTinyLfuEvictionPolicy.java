@@ -0,0 +1,148 @@
+package com.ecinema.app.domain.objects;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * {@link EvictionPolicy} after W-TinyLFU. New keys enter a small least-recently-used window of one percent of the
+ * cache. A key pushed out of the window only makes it into the main area if it has been asked for more often
+ * than the key the main area would evict for it, according to a count-min sketch of recent access frequencies;
+ * otherwise the key itself is evicted. The main area is a segmented LRU, a key hit while on probation is promoted
+ * to the protected segment of eighty percent of the main area. A one-off scan of the catalog therefore passes
+ * through the window without flushing the keys that are asked for all the time.
+ *
+ * @param <K> the key type
+ */
+public class WTinyLfuEvictionPolicy<K> implements EvictionPolicy<K> {
+
+    private final int maxSize;
+    private final int maxWindowSize;
+    private final int maxProtectedSize;
+    private final LinkedHashMap<K, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Boolean> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Boolean> protectedKeys = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch frequencySketch;
+
+    public WTinyLfuEvictionPolicy(int maxSize) {
+        this.maxSize = maxSize;
+        maxWindowSize = Math.max(1, maxSize / 100);
+        maxProtectedSize = (int) ((maxSize - maxWindowSize) * 0.8);
+        frequencySketch = new FrequencySketch(maxSize);
+    }
+
+    @Override
+    public void recordAccess(K key) {
+        frequencySketch.increment(key);
+        if (window.get(key) != null || protectedKeys.get(key) != null) {
+            return;
+        }
+        if (probation.remove(key) != null) {
+            protectedKeys.put(key, Boolean.TRUE);
+            if (protectedKeys.size() > maxProtectedSize) {
+                probation.put(removeEldest(protectedKeys), Boolean.TRUE);
+            }
+        }
+    }
+
+    @Override
+    public K recordInsert(K key) {
+        frequencySketch.increment(key);
+        window.put(key, Boolean.TRUE);
+        if (window.size() <= maxWindowSize) {
+            return null;
+        }
+        K candidate = removeEldest(window);
+        if (window.size() + probation.size() + protectedKeys.size() < maxSize) {
+            probation.put(candidate, Boolean.TRUE);
+            return null;
+        }
+        LinkedHashMap<K, Boolean> victimSegment = probation.isEmpty() ? protectedKeys : probation;
+        if (victimSegment.isEmpty()) {
+            return candidate;
+        }
+        K victim = victimSegment.keySet().iterator().next();
+        if (frequencySketch.frequency(candidate) <= frequencySketch.frequency(victim)) {
+            return candidate;
+        }
+        victimSegment.remove(victim);
+        probation.put(candidate, Boolean.TRUE);
+        return victim;
+    }
+
+    @Override
+    public void recordRemove(K key) {
+        if (window.remove(key) == null && probation.remove(key) == null) {
+            protectedKeys.remove(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        window.clear();
+        probation.clear();
+        protectedKeys.clear();
+    }
+
+    private static <K> K removeEldest(LinkedHashMap<K, Boolean> segment) {
+        Iterator<K> iterator = segment.keySet().iterator();
+        K eldest = iterator.next();
+        iterator.remove();
+        return eldest;
+    }
+
+    /**
+     * Count-min sketch of four rows of counters that saturate at fifteen. Once ten times the max size of the
+     * cache has been counted every counter is halved, so the sketch keeps up with what is popular lately.
+     */
+    private static class FrequencySketch {
+
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final int[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int numberOfSamples;
+
+        FrequencySketch(int maxSize) {
+            int width = Integer.highestOneBit(Math.max(16, maxSize) - 1) << 1;
+            counters = new int[SEEDS.length][width];
+            mask = width - 1;
+            sampleSize = Math.max(10, 10 * maxSize);
+        }
+
+        void increment(Object key) {
+            int hash = key.hashCode();
+            for (int row = 0; row < SEEDS.length; row++) {
+                int index = indexOf(hash, row);
+                if (counters[row][index] < MAX_COUNT) {
+                    counters[row][index]++;
+                }
+            }
+            if (++numberOfSamples >= sampleSize) {
+                for (int[] row : counters) {
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] >>>= 1;
+                    }
+                }
+                numberOfSamples /= 2;
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = key.hashCode();
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < SEEDS.length; row++) {
+                frequency = Math.min(frequency, counters[row][indexOf(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private int indexOf(int hash, int row) {
+            int h = hash * SEEDS[row];
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.ecinema.app.domain.validators;
+
+import com.ecinema.app.domain.forms.ScreeningScheduleForm;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+
+@Component
+public class ScreeningScheduleValidator implements AbstractValidator<ScreeningScheduleForm> {
+
+    public static final int MAX_NUMBER_OF_DAYS = 92;
+
+    @Override
+    public void validate(ScreeningScheduleForm screeningScheduleForm, Collection<String> errors) {
+        if (screeningScheduleForm.getShowroomIds() == null || screeningScheduleForm.getShowroomIds().isEmpty()) {
+            errors.add("Must choose at least one showroom");
+        }
+        if (screeningScheduleForm.getShowtimes() == null || screeningScheduleForm.getShowtimes().isEmpty()) {
+            errors.add("Must choose at least one showtime");
+        }
+        LocalDate startDate = screeningScheduleForm.getStartDate();
+        LocalDate endDate = screeningScheduleForm.getEndDate();
+        if (startDate == null || endDate == null) {
+            errors.add("Start date and end date cannot be null");
+            return;
+        }
+        if (startDate.isBefore(LocalDate.now())) {
+            errors.add("Start date cannot be before today");
+        }
+        if (endDate.isBefore(startDate)) {
+            errors.add("End date cannot be before start date");
+        } else if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_NUMBER_OF_DAYS) {
+            errors.add("Schedule cannot span more than " + MAX_NUMBER_OF_DAYS + " days");
+        }
+    }
+
+}
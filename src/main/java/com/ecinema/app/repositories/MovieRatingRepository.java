@@ -0,0 +1,94 @@
+package com.ecinema.app.repositories;
+
+import com.ecinema.app.domain.entities.MovieRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The jpa repository for {@link MovieRating}.
+ */
+@Repository
+public interface MovieRatingRepository extends JpaRepository<MovieRating, Long> {
+
+    /**
+     * Find {@link MovieRating} by {@link MovieRating#getMovieId()}.
+     *
+     * @param movieId the movie id
+     * @return the optional
+     */
+    Optional<MovieRating> findByMovieId(Long movieId);
+
+    /**
+     * Find {@link MovieRating} by {@link MovieRating#getMovieId()} and lock it for the rest of the transaction.
+     *
+     * @param movieId the movie id
+     * @return the optional
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM MovieRating m WHERE m.movieId = ?1")
+    Optional<MovieRating> findByMovieIdForUpdate(Long movieId);
+
+    /**
+     * Find all {@link MovieRating} and lock them for the rest of the transaction.
+     *
+     * @return the list of MovieRating
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM MovieRating m")
+    List<MovieRating> findAllForUpdate();
+
+    /**
+     * Find all {@link MovieRating} with {@link MovieRating#getMovieId()} in the provided movie ids.
+     *
+     * @param movieIds the movie ids
+     * @return the list of MovieRating
+     */
+    List<MovieRating> findAllByMovieIdIn(Collection<Long> movieIds);
+
+    /**
+     * Adds the number of ratings, which is negative to take ratings away, of the provided number of stars to the
+     * {@link MovieRating} with {@link MovieRating#getMovieId()} equal to the provided movie id in one atomic
+     * update.
+     *
+     * @param movieId         the movie id
+     * @param stars           the number of stars of the ratings
+     * @param numberOfRatings the number of ratings to add
+     * @return the number of movie ratings updated, 0 if the movie has none yet
+     */
+    @Modifying
+    @Query("UPDATE MovieRating m SET m.numberOfRatings = m.numberOfRatings + ?3, " +
+            "m.sumOfRatings = m.sumOfRatings + ?2 * ?3, " +
+            "m.numberOf0StarRatings = m.numberOf0StarRatings + CASE WHEN ?2 = 0 THEN ?3 ELSE 0 END, " +
+            "m.numberOf1StarRatings = m.numberOf1StarRatings + CASE WHEN ?2 = 1 THEN ?3 ELSE 0 END, " +
+            "m.numberOf2StarRatings = m.numberOf2StarRatings + CASE WHEN ?2 = 2 THEN ?3 ELSE 0 END, " +
+            "m.numberOf3StarRatings = m.numberOf3StarRatings + CASE WHEN ?2 = 3 THEN ?3 ELSE 0 END, " +
+            "m.numberOf4StarRatings = m.numberOf4StarRatings + CASE WHEN ?2 = 4 THEN ?3 ELSE 0 END, " +
+            "m.numberOf5StarRatings = m.numberOf5StarRatings + CASE WHEN ?2 = 5 THEN ?3 ELSE 0 END, " +
+            "m.numberOf6StarRatings = m.numberOf6StarRatings + CASE WHEN ?2 = 6 THEN ?3 ELSE 0 END, " +
+            "m.numberOf7StarRatings = m.numberOf7StarRatings + CASE WHEN ?2 = 7 THEN ?3 ELSE 0 END, " +
+            "m.numberOf8StarRatings = m.numberOf8StarRatings + CASE WHEN ?2 = 8 THEN ?3 ELSE 0 END, " +
+            "m.numberOf9StarRatings = m.numberOf9StarRatings + CASE WHEN ?2 = 9 THEN ?3 ELSE 0 END, " +
+            "m.numberOf10StarRatings = m.numberOf10StarRatings + CASE WHEN ?2 = 10 THEN ?3 ELSE 0 END " +
+            "WHERE m.movieId = ?1")
+    int addRatings(Long movieId, Integer stars, Integer numberOfRatings);
+
+    /**
+     * Delete the {@link MovieRating} with {@link MovieRating#getMovieId()} equal to the provided movie id.
+     *
+     * @param movieId the movie id
+     * @return the number of movie ratings deleted
+     */
+    @Modifying
+    @Query("DELETE FROM MovieRating m WHERE m.movieId = ?1")
+    int deleteByMovieId(Long movieId);
+
+}
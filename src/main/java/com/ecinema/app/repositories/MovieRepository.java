@@ -3,6 +3,7 @@ package com.ecinema.app.repositories;
 import com.ecinema.app.domain.entities.Movie;
 import com.ecinema.app.domain.enums.MovieCategory;
 import com.ecinema.app.domain.enums.MsrbRating;
+import com.ecinema.app.domain.objects.Pair;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -110,4 +111,86 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
     @Query("SELECT m FROM Movie m ORDER BY m.duration DESC")
     List<Movie> findAllOrderByDurationDescending();
 
+    /**
+     * Find the {@link Movie#getTitle()} of every movie paired with {@link Movie#getId()}.
+     *
+     * @return the list of movie ids paired with titles
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.Pair(m.id, m.title) FROM Movie m")
+    List<Pair<Long, String>> findAllTitles();
+
+    /**
+     * Find the {@link Movie#getDirector()} of every movie paired with {@link Movie#getId()}.
+     *
+     * @return the list of movie ids paired with directors
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.Pair(m.id, m.director) FROM Movie m")
+    List<Pair<Long, String>> findAllDirectors();
+
+    /**
+     * Find the {@link Movie#getSynopsis()} of every movie paired with {@link Movie#getId()}.
+     *
+     * @return the list of movie ids paired with synopses
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.Pair(m.id, m.synopsis) FROM Movie m")
+    List<Pair<Long, String>> findAllSynopses();
+
+    /**
+     * Find every member of {@link Movie#getCast()} of every movie paired with {@link Movie#getId()}.
+     *
+     * @return the list of movie ids paired with cast members
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.Pair(m.id, c) FROM Movie m JOIN m.cast c")
+    List<Pair<Long, String>> findAllCastMembers();
+
+    /**
+     * Find every member of {@link Movie#getWriters()} of every movie paired with {@link Movie#getId()}.
+     *
+     * @return the list of movie ids paired with writers
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.Pair(m.id, w) FROM Movie m JOIN m.writers w")
+    List<Pair<Long, String>> findAllWriters();
+
+    /**
+     * Find the number of reviews of every movie paired with {@link Movie#getId()}.
+     *
+     * @return the list of movie ids paired with numbers of reviews
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.Pair(m.id, COUNT(r.id)) " +
+            "FROM Movie m LEFT JOIN m.reviews r GROUP BY m.id")
+    List<Pair<Long, Long>> findAllNumbersOfReviews();
+
+    /**
+     * Count the reviews where {@link Movie#getId()} of the movie of the review equals the provided Long.
+     *
+     * @param movieId the movie id
+     * @return the number of reviews
+     */
+    @Query("SELECT COUNT(r) FROM Review r WHERE r.movie.id = ?1")
+    long countReviewsOfMovieWithId(Long movieId);
+
+    /**
+     * Find the {@link Movie#getMsrbRating()} of every movie paired with {@link Movie#getId()}.
+     *
+     * @return the list of movie ids paired with msrb ratings
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.Pair(m.id, m.msrbRating) FROM Movie m")
+    List<Pair<Long, MsrbRating>> findAllMsrbRatings();
+
+    /**
+     * Find every category of {@link Movie#getMovieCategories()} of every movie paired with {@link Movie#getId()}.
+     *
+     * @return the list of movie ids paired with movie categories
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.Pair(m.id, mc) FROM Movie m JOIN m.movieCategories mc")
+    List<Pair<Long, MovieCategory>> findAllMovieCategories();
+
+    /**
+     * Find the {@link Movie#getId()} of every movie.
+     *
+     * @return the list of movie ids
+     */
+    @Query("SELECT m.id FROM Movie m")
+    List<Long> findAllMovieIds();
+
 }
@@ -0,0 +1,40 @@
+package com.ecinema.app.repositories;
+
+import com.ecinema.app.domain.entities.OutboxEmail;
+import com.ecinema.app.domain.enums.EmailStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The jpa repository for {@link OutboxEmail}.
+ */
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    /**
+     * Find all {@link OutboxEmail} with {@link OutboxEmail#getStatus()} equal to the provided status and
+     * {@link OutboxEmail#getNextAttemptDateTime()} not after the provided date time, oldest attempt first.
+     *
+     * @param status        the status
+     * @param localDateTime the local date time
+     * @param pageable      the pageable limiting the size of the batch
+     * @return the list of OutboxEmail
+     */
+    @Query("SELECT e FROM OutboxEmail e WHERE e.status = ?1 AND e.nextAttemptDateTime <= ?2 " +
+            "ORDER BY e.nextAttemptDateTime, e.id")
+    List<OutboxEmail> findAllDueByStatus(EmailStatus status, LocalDateTime localDateTime, Pageable pageable);
+
+    /**
+     * Find all {@link OutboxEmail} with {@link OutboxEmail#getStatus()} equal to the provided status.
+     *
+     * @param status the status
+     * @return the list of OutboxEmail
+     */
+    List<OutboxEmail> findAllByStatus(EmailStatus status);
+
+}
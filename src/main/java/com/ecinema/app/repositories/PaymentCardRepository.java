@@ -2,6 +2,7 @@ package com.ecinema.app.repositories;
 
 import com.ecinema.app.domain.entities.PaymentCard;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -28,4 +29,8 @@ public interface PaymentCardRepository extends JpaRepository<PaymentCard, Long>
             "FROM PaymentCard p WHERE p.id = ?1 AND p.cardOwner.user.id = ?2")
     boolean isPaymentCardOwnedByUser(Long paymentCardId, Long userId);
 
+    @Modifying
+    @Query("DELETE FROM PaymentCard p WHERE p.cardOwner.id = ?1")
+    int deleteAllByCardOwnerWithId(Long customerId);
+
 }
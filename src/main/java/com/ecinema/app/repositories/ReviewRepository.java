@@ -4,12 +4,17 @@ import com.ecinema.app.domain.entities.Customer;
 import com.ecinema.app.domain.entities.Movie;
 import com.ecinema.app.domain.entities.Review;
 import com.ecinema.app.domain.entities.User;
+import com.ecinema.app.domain.objects.RatingCount;
+import com.ecinema.app.domain.objects.ReviewWriter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -85,6 +90,47 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT r FROM Review r JOIN r.movie m WHERE m.id = ?1 AND r.isCensored = false")
     Page<Review> findAllByMovieWithIdAndNotCensored(Long movieId, Pageable pageable);
 
+    /**
+     * Find slice of {@link Review} by {@link Movie#getId()} from {@link Review#getMovie()} equal to the provided
+     * Long movie id argument and by {@link Review#getIsCensored()} equal to false, ordered by
+     * {@link Review#getHelpfulnessScore()} descending and then by {@link Review#getId()} descending.
+     *
+     * @param movieId  the movie id
+     * @param pageable the pageable, the first page of the size of the slice
+     * @return slice of reviews
+     */
+    @Query("SELECT r FROM Review r WHERE r.movie.id = ?1 AND r.isCensored = false " +
+            "ORDER BY r.helpfulnessScore DESC, r.id DESC")
+    Slice<Review> findSliceByMovieWithIdAndNotCensoredOrderByHelpfulness(Long movieId, Pageable pageable);
+
+    /**
+     * Find slice of {@link Review} by {@link Movie#getId()} from {@link Review#getMovie()} equal to the provided
+     * Long movie id argument and by {@link Review#getIsCensored()} equal to false that come after the review with
+     * the provided helpfulness score and id, ordered by {@link Review#getHelpfulnessScore()} descending and then
+     * by {@link Review#getId()} descending. Seeking past the last review of the previous slice instead of
+     * skipping an offset keeps deep slices as cheap as the first.
+     *
+     * @param movieId          the movie id
+     * @param helpfulnessScore the helpfulness score of the last review of the previous slice
+     * @param reviewId         the id of the last review of the previous slice
+     * @param pageable         the pageable, the first page of the size of the slice
+     * @return slice of reviews
+     */
+    @Query("SELECT r FROM Review r WHERE r.movie.id = ?1 AND r.isCensored = false AND " +
+            "(r.helpfulnessScore < ?2 OR (r.helpfulnessScore = ?2 AND r.id < ?3)) " +
+            "ORDER BY r.helpfulnessScore DESC, r.id DESC")
+    Slice<Review> findSliceByMovieWithIdAndNotCensoredOrderByHelpfulnessAfter(
+            Long movieId, Double helpfulnessScore, Long reviewId, Pageable pageable);
+
+    /**
+     * Find page of {@link Review} by {@link Review#getIsFlagged()} equal to true, oldest first.
+     *
+     * @param pageable the pageable
+     * @return page of reviews
+     */
+    @Query("SELECT r FROM Review r WHERE r.isFlagged = true ORDER BY r.id")
+    Page<Review> findAllFlagged(Pageable pageable);
+
     /**
      * Find the average of {@link Review#getRating()} for all {@link Review} where {@link Review#getMovie()} equals
      * the provided {@link Movie} argument.
@@ -105,6 +151,28 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT AVG (r.rating) FROM Review r WHERE r.movie.id = ?1")
     Integer findAverageOfReviewRatingsForMovieWithId(Long movieId);
 
+    /**
+     * Find the number of {@link Review} of each {@link Review#getRating()} of each movie, counting only the reviews
+     * with {@link Review#getIsCensored()} equal to false.
+     *
+     * @return the list of rating counts
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.RatingCount(r.movie.id, r.rating, COUNT(r)) FROM Review r " +
+            "WHERE r.isCensored = false GROUP BY r.movie.id, r.rating")
+    List<RatingCount> findAllRatingCounts();
+
+    /**
+     * Find the number of {@link Review} of each {@link Review#getRating()} where {@link Movie#getId()} from
+     * {@link Review#getMovie()} equals the provided Long movie id argument, counting only the reviews with
+     * {@link Review#getIsCensored()} equal to false.
+     *
+     * @param movieId the movie id
+     * @return the list of rating counts
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.RatingCount(r.movie.id, r.rating, COUNT(r)) FROM Review r " +
+            "WHERE r.movie.id = ?1 AND r.isCensored = false GROUP BY r.movie.id, r.rating")
+    List<RatingCount> findAllRatingCountsByMovieWithId(Long movieId);
+
     /**
      * Finds the value of {@link Customer#getId()} from {@link Review#getWriter()} where {@link Review#getId()}
      * equals the provided Long review id argument.
@@ -135,4 +203,58 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT r.writer.user.username FROM Review r WHERE r.id = ?1")
     Optional<String> findUsernameOfWriterForReviewWithId(Long reviewId);
 
+    /**
+     * Finds the {@link ReviewWriter} of each {@link Review} where {@link Review#getId()} is in the provided
+     * collection of review ids, joining {@link Review#getWriter()} and {@link Customer#getUser()} once for all
+     * of them.
+     *
+     * @param reviewIds the review ids
+     * @return the list of review writers
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.ReviewWriter(r.id, c.id, u.id, u.username) " +
+            "FROM Review r JOIN r.writer c JOIN c.user u WHERE r.id IN ?1")
+    List<ReviewWriter> findAllReviewWritersByReviewWithIdIn(Collection<Long> reviewIds);
+
+    /**
+     * Find ids of {@link Review} by {@link Movie#getId()} from {@link Review#getMovie()} equal to the provided
+     * Long movie id argument.
+     *
+     * @param movieId  the movie id
+     * @param pageable the pageable
+     * @return the list of review ids
+     */
+    @Query("SELECT r.id FROM Review r WHERE r.movie.id = ?1")
+    List<Long> findAllIdsByMovieWithId(Long movieId, Pageable pageable);
+
+    /**
+     * Find ids of {@link Review} by {@link Customer#getId()} from {@link Review#getWriter()} equal to the provided
+     * Long customer id argument.
+     *
+     * @param customerId the customer id
+     * @param pageable   the pageable
+     * @return the list of review ids
+     */
+    @Query("SELECT r.id FROM Review r WHERE r.writer.id = ?1")
+    List<Long> findAllIdsByWriterWithId(Long customerId, Pageable pageable);
+
+    /**
+     * Find the distinct ids of {@link Review#getMovie()} of the reviews with the provided ids.
+     *
+     * @param reviewIds the review ids
+     * @return the list of movie ids
+     */
+    @Query("SELECT DISTINCT r.movie.id FROM Review r WHERE r.id IN ?1")
+    List<Long> findAllMovieIdsByReviewWithIdIn(Collection<Long> reviewIds);
+
+    /**
+     * Delete all where {@link Review#getId()} is in the provided ids. The review votes of the reviews must be
+     * deleted first.
+     *
+     * @param reviewIds the review ids
+     * @return the number of reviews deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Review r WHERE r.id IN ?1")
+    int deleteAllByIdIn(Collection<Long> reviewIds);
+
 }
@@ -5,10 +5,14 @@ import com.ecinema.app.domain.entities.Review;
 import com.ecinema.app.domain.entities.ReviewVote;
 import com.ecinema.app.domain.entities.User;
 import com.ecinema.app.domain.enums.Vote;
+import com.ecinema.app.domain.objects.Pair;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -140,4 +144,50 @@ public interface ReviewVoteRepository extends JpaRepository<ReviewVote, Long> {
             "FROM ReviewVote rv WHERE rv.voter.user.id = ?1 AND rv.review.id = ?2")
     boolean existsByUserWithIdAndReviewWithId(Long userId, Long reviewId);
 
+    /**
+     * Find the {@link ReviewVote#getVote()} paired with {@link Review#getId()} from {@link ReviewVote#getReview()}
+     * of every {@link ReviewVote} where {@link User#getId()} from {@link Customer#getUser()} from
+     * {@link ReviewVote#getVoter()} equals the provided Long user id argument and where the review id is in the
+     * provided collection of review ids.
+     *
+     * @param userId    the user id
+     * @param reviewIds the review ids
+     * @return the list of review ids paired with the vote of the user
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.Pair(rv.review.id, rv.vote) FROM ReviewVote rv " +
+            "WHERE rv.voter.user.id = ?1 AND rv.review.id IN ?2")
+    List<Pair<Long, Vote>> findAllVotesByUserWithIdAndReviewWithIdIn(Long userId, Collection<Long> reviewIds);
+
+    /**
+     * Find ids of the {@link Review} voted on by the {@link Customer} with the provided id.
+     *
+     * @param customerId the customer id
+     * @param pageable   the pageable
+     * @return the list of review ids
+     */
+    @Query("SELECT rv.review.id FROM ReviewVote rv WHERE rv.voter.id = ?1")
+    List<Long> findAllReviewIdsByVoterWithId(Long customerId, Pageable pageable);
+
+    /**
+     * Delete all where the id of {@link ReviewVote#getReview()} is in the provided review ids.
+     *
+     * @param reviewIds the review ids
+     * @return the number of review votes deleted
+     */
+    @Modifying
+    @Query("DELETE FROM ReviewVote rv WHERE rv.review.id IN ?1")
+    int deleteAllByReviewWithIdIn(Collection<Long> reviewIds);
+
+    /**
+     * Delete all where the id of {@link ReviewVote#getVoter()} equals the provided customer id and the id of
+     * {@link ReviewVote#getReview()} is in the provided review ids.
+     *
+     * @param customerId the customer id
+     * @param reviewIds  the review ids
+     * @return the number of review votes deleted
+     */
+    @Modifying
+    @Query("DELETE FROM ReviewVote rv WHERE rv.voter.id = ?1 AND rv.review.id IN ?2")
+    int deleteAllByVoterWithIdAndReviewWithIdIn(Long customerId, Collection<Long> reviewIds);
+
 }
@@ -4,15 +4,22 @@ import com.ecinema.app.domain.entities.Movie;
 import com.ecinema.app.domain.entities.Screening;
 import com.ecinema.app.domain.entities.Showroom;
 import com.ecinema.app.domain.enums.Letter;
+import com.ecinema.app.domain.objects.MovieScreeningTime;
+import com.ecinema.app.domain.objects.Pair;
+import com.ecinema.app.domain.objects.ScreeningInterval;
+import com.ecinema.app.domain.objects.ScreeningSeatCount;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * The jpa repository for {@link Screening}.
@@ -87,6 +94,16 @@ public interface ScreeningRepository extends JpaRepository<Screening, Long> {
     @Query("SELECT s FROM Screening s WHERE TRIM(UPPER(s.movie.searchTitle)) LIKE TRIM(UPPER(CONCAT('%', ?1, '%')))")
     Page<Screening> findAllByMovieWithTitleLike(String title, Pageable pageable);
 
+    /**
+     * Find all where {@link Movie#getId()} of {@link Screening#getMovie()} is contained in the provided ids.
+     *
+     * @param movieIds the movie ids
+     * @param pageable the {@link Pageable}
+     * @return the page of screenings
+     */
+    @Query("SELECT s FROM Screening s WHERE s.movie.id IN ?1")
+    Page<Screening> findAllByMovieWithIdIn(Collection<Long> movieIds, Pageable pageable);
+
     /**
      * Find all where {@link Showroom#getShowroomLetter()} is contained in the provided list of {@link Letter}
      * and where {@link Movie#getTitle()} of {@link Screening#getMovie()} is like the provided String.
@@ -127,6 +144,31 @@ public interface ScreeningRepository extends JpaRepository<Screening, Long> {
     @Query("SELECT s FROM Screening s JOIN s.showroom sh WHERE sh.id = ?1")
     List<Screening> findAllByShowroomWithId(Long showroomId);
 
+    /**
+     * Find the {@link ScreeningInterval} of every screening where {@link Showroom#getId()} of
+     * {@link Screening#getShowroom()} equals the provided Long.
+     *
+     * @param showroomId the showroom id
+     * @return the list of screening intervals
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.ScreeningInterval(s.id, s.showDateTime, s.endDateTime) " +
+            "FROM Screening s JOIN s.showroom sh WHERE sh.id = ?1")
+    List<ScreeningInterval> findAllScreeningIntervalsByShowroomWithId(Long showroomId);
+
+    /**
+     * Find the {@link ScreeningSeatCount} of every screening where {@link Screening#getId()} is contained in the
+     * provided ids. Seats are counted per showroom seat, a seat is booked if its screening seat has a ticket.
+     * Screenings whose showroom has no seats are left out.
+     *
+     * @param screeningIds the screening ids
+     * @return the list of screening seat counts
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.ScreeningSeatCount(s.id, COUNT(srs.id), COUNT(t.id)) " +
+            "FROM Screening s JOIN s.showroom sh JOIN sh.showroomSeats srs " +
+            "LEFT JOIN srs.screeningSeats ss ON ss.screening = s LEFT JOIN ss.ticket t " +
+            "WHERE s.id IN ?1 GROUP BY s.id")
+    List<ScreeningSeatCount> findAllSeatCountsByScreeningWithIdIn(Collection<Long> screeningIds);
+
     /**
      * Find all screening ids by movie id list.
      *
@@ -136,4 +178,68 @@ public interface ScreeningRepository extends JpaRepository<Screening, Long> {
     @Query("SELECT s.id FROM Screening s where s.movie.id = ?1")
     List<Long> findAllScreeningIdsByMovieId(Long movieId);
 
+    /**
+     * Find the {@link Showroom#getNumberOfRows()} and {@link Showroom#getNumberOfSeatsPerRow()} of the showroom
+     * of the screening with the provided id.
+     *
+     * @param screeningId the screening id
+     * @return the pair of number of rows and number of seats per row
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.Pair(sh.numberOfRows, sh.numberOfSeatsPerRow) " +
+            "FROM Screening s JOIN s.showroom sh WHERE s.id = ?1")
+    Optional<Pair<Integer, Integer>> findShowroomLayoutOfScreeningWithId(Long screeningId);
+
+    /**
+     * Returns if a {@link Screening} exists with {@link Screening#getId()} equal to the provided id and with
+     * {@link Screening#getEndDateTime()} after the provided LocalDateTime.
+     *
+     * @param screeningId the screening id
+     * @param dateTime    the date time
+     * @return true if there exists a Screening matching the predicate
+     */
+    @Query("SELECT CASE WHEN count(s) > 0 THEN true ELSE false END " +
+            "FROM Screening s WHERE s.id = ?1 AND s.endDateTime > ?2")
+    boolean existsByIdAndEndDateTimeAfter(Long screeningId, LocalDateTime dateTime);
+
+    /**
+     * Find the {@link MovieScreeningTime} of every screening where {@link Screening#getShowDateTime()} is not
+     * before the provided LocalDateTime.
+     *
+     * @param dateTime the date time
+     * @return the list of movie screening times
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.MovieScreeningTime(s.id, s.movie.id, s.showDateTime) " +
+            "FROM Screening s WHERE s.showDateTime >= ?1")
+    List<MovieScreeningTime> findAllMovieScreeningTimesNotBefore(LocalDateTime dateTime);
+
+    /**
+     * Find all screening ids by showroom id list.
+     *
+     * @param showroomId the showroom id
+     * @return the list
+     */
+    @Query("SELECT s.id FROM Screening s WHERE s.showroom.id = ?1")
+    List<Long> findAllScreeningIdsByShowroomId(Long showroomId);
+
+    /**
+     * Find pairs of {@link Screening#getId()} and the id of {@link Screening#getShowroom()} for all
+     * {@link Screening} where {@link Screening#getId()} is in the provided ids.
+     *
+     * @param screeningIds the screening ids
+     * @return the list of pairs of screening id and showroom id
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.Pair(s.id, s.showroom.id) FROM Screening s WHERE s.id IN ?1")
+    List<Pair<Long, Long>> findAllShowroomIdsByScreeningWithIdIn(Collection<Long> screeningIds);
+
+    /**
+     * Delete all where {@link Screening#getId()} is in the provided ids. The screening seats of the screenings
+     * must be deleted first.
+     *
+     * @param screeningIds the screening ids
+     * @return the number of screenings deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Screening s WHERE s.id IN ?1")
+    int deleteAllByIdIn(Collection<Long> screeningIds);
+
 }
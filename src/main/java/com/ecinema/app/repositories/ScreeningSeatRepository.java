@@ -1,13 +1,16 @@
 package com.ecinema.app.repositories;
 
+import com.ecinema.app.domain.dtos.ScreeningSeatDto;
 import com.ecinema.app.domain.entities.Screening;
 import com.ecinema.app.domain.entities.ScreeningSeat;
 import com.ecinema.app.domain.entities.ShowroomSeat;
 import com.ecinema.app.domain.entities.Ticket;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +38,42 @@ public interface ScreeningSeatRepository extends JpaRepository<ScreeningSeat, Lo
     @Query("SELECT s FROM ScreeningSeat s WHERE s.screening.id = ?1")
     List<ScreeningSeat> findAllByScreeningWithId(Long screeningId);
 
+    /**
+     * Find a {@link ScreeningSeatDto} for every {@link ShowroomSeat} of the showroom of the screening with the
+     * provided id. Screening seats only exist once a seat has been held or booked, so the dto id is null for seats
+     * that have not been, and the seat designation and booked state are read in one query without loading entities.
+     *
+     * @param screeningId the screening id
+     * @return the list of screening seat dtos
+     */
+    @Query("SELECT new com.ecinema.app.domain.dtos.ScreeningSeatDto(ss.id, s.id, srs.id, srs.rowLetter, " +
+            "srs.seatNumber, CASE WHEN t.id IS NULL THEN false ELSE true END) " +
+            "FROM Screening s JOIN s.showroom sh JOIN sh.showroomSeats srs " +
+            "LEFT JOIN srs.screeningSeats ss ON ss.screening = s LEFT JOIN ss.ticket t WHERE s.id = ?1")
+    List<ScreeningSeatDto> findAllDtosByScreeningWithId(Long screeningId);
+
+    /**
+     * Find the screening seat of the screening with the provided id for the showroom seat with the provided id.
+     *
+     * @param screeningId    the screening id
+     * @param showroomSeatId the showroom seat id
+     * @return the optional screening seat
+     */
+    @Query("SELECT s FROM ScreeningSeat s WHERE s.screening.id = ?1 AND s.showroomSeat.id = ?2")
+    Optional<ScreeningSeat> findByScreeningWithIdAndShowroomSeatWithId(Long screeningId, Long showroomSeatId);
+
+    /**
+     * Find all screening seats of the screening with the provided id where {@link ShowroomSeat#getId()} of
+     * {@link ScreeningSeat#getShowroomSeat()} is in the provided ids, fetching the showroom seat in the same query.
+     *
+     * @param screeningId     the screening id
+     * @param showroomSeatIds the showroom seat ids
+     * @return the list of screening seats
+     */
+    @Query("SELECT s FROM ScreeningSeat s JOIN FETCH s.showroomSeat ss WHERE s.screening.id = ?1 AND ss.id IN ?2")
+    List<ScreeningSeat> findAllByScreeningWithIdAndShowroomSeatWithIdIn(
+            Long screeningId, Collection<Long> showroomSeatIds);
+
     /**
      * Find all by showroom seat list.
      *
@@ -90,4 +129,38 @@ public interface ScreeningSeatRepository extends JpaRepository<ScreeningSeat, Lo
             "FROM ScreeningSeat s WHERE s.id = ?1 AND s.ticket is not NULL")
     boolean screeningSeatIsBooked(Long screeningSeatId);
 
+    /**
+     * Find the ids of all where {@link ScreeningSeat#getId()} is in the provided ids and
+     * {@link ScreeningSeat#getTicket()} is not null.
+     *
+     * @param screeningSeatIds the screening seat ids
+     * @return the list of ids of booked screening seats
+     */
+    @Query("SELECT s.id FROM ScreeningSeat s WHERE s.id IN ?1 AND s.ticket IS NOT NULL")
+    List<Long> findAllBookedIdsByIdIn(Collection<Long> screeningSeatIds);
+
+    /**
+     * Claims the {@link ScreeningSeat} with the provided id by bumping {@link ScreeningSeat#getClaimVersion()} only
+     * if it still equals the provided claim version. Only the row of the claimed seat is locked, so concurrent
+     * bookings of other seats are not blocked.
+     *
+     * @param screeningSeatId the screening seat id
+     * @param claimVersion    the claim version of the screening seat when it was read
+     * @return the number of rows updated, 1 if the claim succeeded, otherwise 0
+     */
+    @Modifying
+    @Query("UPDATE ScreeningSeat s SET s.claimVersion = s.claimVersion + 1 WHERE s.id = ?1 AND s.claimVersion = ?2")
+    int claimScreeningSeat(Long screeningSeatId, Long claimVersion);
+
+    /**
+     * Delete all where the id of {@link ScreeningSeat#getScreening()} is in the provided screening ids. The
+     * tickets of the screening seats must be deleted first.
+     *
+     * @param screeningIds the screening ids
+     * @return the number of screening seats deleted
+     */
+    @Modifying
+    @Query("DELETE FROM ScreeningSeat ss WHERE ss.screening.id IN ?1")
+    int deleteAllByScreeningWithIdIn(Collection<Long> screeningIds);
+
 }
@@ -5,6 +5,7 @@ import com.ecinema.app.domain.entities.Showroom;
 import com.ecinema.app.domain.entities.ShowroomSeat;
 import com.ecinema.app.domain.enums.Letter;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -94,4 +95,15 @@ public interface ShowroomSeatRepository extends JpaRepository<ShowroomSeat, Long
     Optional<ShowroomSeat> findByShowroomWithIdAndRowLetterAndSeatNumber(Long showroomId, Letter rowLetter,
                                                                          Integer seatNumber);
 
+    /**
+     * Delete all where the id of {@link ShowroomSeat#getShowroom()} equals the provided showroom id. The
+     * screening seats of the showroom seats must be deleted first.
+     *
+     * @param showroomId the showroom id
+     * @return the number of showroom seats deleted
+     */
+    @Modifying
+    @Query("DELETE FROM ShowroomSeat s WHERE s.showroom.id = ?1")
+    int deleteAllByShowroomWithId(Long showroomId);
+
 }
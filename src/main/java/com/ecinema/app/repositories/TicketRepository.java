@@ -1,14 +1,20 @@
 package com.ecinema.app.repositories;
 
+import com.ecinema.app.domain.dtos.ScreeningSeatDto;
+import com.ecinema.app.domain.dtos.TicketDto;
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.enums.Letter;
 import com.ecinema.app.domain.enums.TicketStatus;
 import com.ecinema.app.domain.enums.TicketType;
+import com.ecinema.app.domain.objects.Pair;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +24,16 @@ import java.util.Optional;
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
+    /**
+     * The select and join clauses shared by the queries that build {@link TicketDto} instances. Every field
+     * of the dto except {@link TicketDto#getIsRefundable()} is filled by the one query.
+     */
+    String SELECT_TICKET_DTO = "SELECT new com.ecinema.app.domain.dtos.TicketDto(" +
+            "t.id, u.id, u.email, u.username, m.title, p.id, t.ticketType, sh.showroomLetter, t.ticketStatus, " +
+            "s.showDateTime, s.endDateTime, t.creationDateTime, srs.rowLetter, srs.seatNumber) " +
+            "FROM Ticket t JOIN t.ticketOwner c JOIN c.user u JOIN t.screeningSeat ss JOIN ss.screening s " +
+            "JOIN s.movie m JOIN s.showroom sh JOIN ss.showroomSeat srs LEFT JOIN t.paymentCard p ";
+
     /**
      * Find all {@link Ticket} where {@link Screening#getId()} from {@link ScreeningSeat#getScreening()} from
      * {@link Ticket#getScreeningSeat()} equals the provided Long screening id argument.
@@ -201,4 +217,174 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     @Query("SELECT t.screeningSeat.showroomSeat FROM Ticket t WHERE t.id = ?1")
     Optional<ShowroomSeat> findShowroomSeatAssociatedWithTicket(Long ticketId);
 
+    /**
+     * Find optional {@link TicketDto} of the {@link Ticket} where {@link Ticket#getId()} equals the provided
+     * Long ticket id argument.
+     *
+     * @param ticketId the ticket id
+     * @return the optional ticket dto
+     */
+    @Query(SELECT_TICKET_DTO + "WHERE t.id = ?1")
+    Optional<TicketDto> findDtoById(Long ticketId);
+
+    /**
+     * Find all {@link TicketDto} where {@link User#getId()} from {@link Customer#getUser()} from
+     * {@link Ticket#getTicketOwner()} equals the provided Long user id argument.
+     *
+     * @param userId the user id
+     * @return the list of ticket dtos
+     */
+    @Query(SELECT_TICKET_DTO + "WHERE u.id = ?1")
+    List<TicketDto> findAllDtosByUserWithId(Long userId);
+
+    /**
+     * Find all {@link TicketDto} where {@link User#getId()} from {@link Customer#getUser()} from
+     * {@link Ticket#getTicketOwner()} equals the provided Long user id argument and {@link Screening#getShowDateTime()}
+     * is before the provided {@link LocalDateTime} argument.
+     *
+     * @param userId        the user id
+     * @param localDateTime the local date time
+     * @return the list of ticket dtos
+     */
+    @Query(SELECT_TICKET_DTO + "WHERE u.id = ?1 AND s.showDateTime < ?2")
+    List<TicketDto> findAllDtosByUserWithIdAndShowDateTimeIsBefore(Long userId, LocalDateTime localDateTime);
+
+    /**
+     * Find all {@link TicketDto} where {@link User#getId()} from {@link Customer#getUser()} from
+     * {@link Ticket#getTicketOwner()} equals the provided Long user id argument and {@link Screening#getShowDateTime()}
+     * is after the provided {@link LocalDateTime} argument.
+     *
+     * @param userId        the user id
+     * @param localDateTime the local date time
+     * @return the list of ticket dtos
+     */
+    @Query(SELECT_TICKET_DTO + "WHERE u.id = ?1 AND s.showDateTime > ?2")
+    List<TicketDto> findAllDtosByUserWithIdAndShowDateTimeIsAfter(Long userId, LocalDateTime localDateTime);
+
+    /**
+     * Find all {@link TicketDto} where {@link Ticket#getTicketStatus()} equals the provided {@link TicketStatus}
+     * argument.
+     *
+     * @param ticketStatus the ticket status
+     * @return the list of ticket dtos
+     */
+    @Query(SELECT_TICKET_DTO + "WHERE t.ticketStatus = ?1")
+    List<TicketDto> findAllDtosByTicketStatus(TicketStatus ticketStatus);
+
+    /**
+     * Find all {@link TicketDto} where {@link Ticket#getId()} is in the provided ids.
+     *
+     * @param ticketIds the ticket ids
+     * @return the list of ticket dtos
+     */
+    @Query(SELECT_TICKET_DTO + "WHERE t.id IN ?1 ORDER BY srs.rowLetter, srs.seatNumber")
+    List<TicketDto> findAllDtosByIdIn(Collection<Long> ticketIds);
+
+    /**
+     * Find the id and {@link Ticket#getCreationDateTime()} of all tickets where {@link Ticket#getTicketStatus()}
+     * equals the provided {@link TicketStatus}.
+     *
+     * @param ticketStatus the ticket status
+     * @return the list of pairs of ticket id and creation date time
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.Pair(t.id, t.creationDateTime) " +
+            "FROM Ticket t WHERE t.ticketStatus = ?1")
+    List<Pair<Long, LocalDateTime>> findAllIdsAndCreationDateTimesByTicketStatus(TicketStatus ticketStatus);
+
+    /**
+     * Find the {@link ScreeningSeatDto} of the screening seat of each ticket where {@link Ticket#getId()} is in the
+     * provided ids and {@link Ticket#getTicketStatus()} equals the provided {@link TicketStatus}.
+     *
+     * @param ticketIds    the ticket ids
+     * @param ticketStatus the ticket status
+     * @return the list of screening seat dtos
+     */
+    @Query("SELECT new com.ecinema.app.domain.dtos.ScreeningSeatDto(ss.id, s.id, srs.id, srs.rowLetter, " +
+            "srs.seatNumber, true) FROM Ticket t JOIN t.screeningSeat ss JOIN ss.screening s JOIN ss.showroomSeat srs " +
+            "WHERE t.id IN ?1 AND t.ticketStatus = ?2")
+    List<ScreeningSeatDto> findAllScreeningSeatDtosByIdInAndTicketStatus(
+            Collection<Long> ticketIds, TicketStatus ticketStatus);
+
+    /**
+     * Sets {@link Ticket#getTicketStatus()} of the ticket with the provided id to the new {@link TicketStatus}
+     * only if it currently equals the expected {@link TicketStatus}.
+     *
+     * @param ticketId       the ticket id
+     * @param newStatus      the new ticket status
+     * @param expectedStatus the expected current ticket status
+     * @return the number of rows updated, 1 if the ticket status was updated, otherwise 0
+     */
+    @Modifying
+    @Query("UPDATE Ticket t SET t.ticketStatus = ?2 WHERE t.id = ?1 AND t.ticketStatus = ?3")
+    int updateTicketStatusIfEquals(Long ticketId, TicketStatus newStatus, TicketStatus expectedStatus);
+
+    /**
+     * Delete all where {@link Ticket#getId()} is in the provided ids and {@link Ticket#getTicketStatus()} equals
+     * the provided {@link TicketStatus}.
+     *
+     * @param ticketIds    the ticket ids
+     * @param ticketStatus the ticket status
+     * @return the number of tickets deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Ticket t WHERE t.id IN ?1 AND t.ticketStatus = ?2")
+    int deleteAllByIdInAndTicketStatus(Collection<Long> ticketIds, TicketStatus ticketStatus);
+
+    /**
+     * Count {@link Ticket} owned by the {@link Customer} with the provided id where
+     * {@link Ticket#getTicketStatus()} equals the provided {@link TicketStatus} and
+     * {@link Ticket#getCreationDateTime()} is after the provided {@link LocalDateTime}.
+     *
+     * @param customerId       the customer id
+     * @param ticketStatus     the ticket status
+     * @param creationDateTime the creation date time
+     * @return the number of tickets
+     */
+    @Query("SELECT COUNT(t) FROM Ticket t WHERE t.ticketOwner.id = ?1 AND t.ticketStatus = ?2 " +
+            "AND t.creationDateTime > ?3")
+    long countByTicketOwnerWithIdAndTicketStatusAndCreationDateTimeAfter(
+            Long customerId, TicketStatus ticketStatus, LocalDateTime creationDateTime);
+
+    /**
+     * Find ids of {@link Ticket} owned by the {@link Customer} with the provided id, or paid with one of the
+     * {@link PaymentCard} of that customer.
+     *
+     * @param customerId the customer id
+     * @param pageable   the pageable
+     * @return the list of ticket ids
+     */
+    @Query("SELECT t.id FROM Ticket t LEFT JOIN t.paymentCard p WHERE t.ticketOwner.id = ?1 OR p.cardOwner.id = ?1")
+    List<Long> findAllIdsByCustomerWithId(Long customerId, Pageable pageable);
+
+    /**
+     * Find the distinct ids of the {@link Screening} of the screening seats of the tickets with the provided ids.
+     *
+     * @param ticketIds the ticket ids
+     * @return the list of screening ids
+     */
+    @Query("SELECT DISTINCT ss.screening.id FROM Ticket t JOIN t.screeningSeat ss WHERE t.id IN ?1")
+    List<Long> findAllScreeningIdsByTicketWithIdIn(Collection<Long> ticketIds);
+
+    /**
+     * Delete all where {@link Ticket#getId()} is in the provided ids.
+     *
+     * @param ticketIds the ticket ids
+     * @return the number of tickets deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Ticket t WHERE t.id IN ?1")
+    int deleteAllByIdIn(Collection<Long> ticketIds);
+
+    /**
+     * Delete all where the {@link ScreeningSeat} of {@link Ticket#getScreeningSeat()} belongs to a
+     * {@link Screening} with an id in the provided screening ids.
+     *
+     * @param screeningIds the screening ids
+     * @return the number of tickets deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Ticket t WHERE t.screeningSeat.id IN " +
+            "(SELECT ss.id FROM ScreeningSeat ss WHERE ss.screening.id IN ?1)")
+    int deleteAllByScreeningWithIdIn(Collection<Long> screeningIds);
+
 }
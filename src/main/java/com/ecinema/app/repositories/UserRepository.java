@@ -1,7 +1,10 @@
 package com.ecinema.app.repositories;
 
 import com.ecinema.app.domain.entities.User;
+import com.ecinema.app.domain.enums.UserAuthority;
+import com.ecinema.app.domain.objects.UserPrincipal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -98,6 +101,50 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.username = ?1 OR u.email = ?1")
     Optional<User> findByUsernameOrEmail(String s);
 
+    /**
+     * Find optional {@link UserPrincipal} without authorities of the {@link User} with {@link User#getUsername()}
+     * equal to the provided argument.
+     *
+     * @param username the username
+     * @return the optional UserPrincipal
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.UserPrincipal(u.id, u.username, u.password, " +
+            "u.isAccountEnabled, u.isAccountLocked, u.isAccountExpired, u.isCredentialsExpired) " +
+            "FROM User u WHERE u.username = ?1")
+    Optional<UserPrincipal> findPrincipalByUsername(String username);
+
+    /**
+     * Find optional {@link UserPrincipal} without authorities of the {@link User} with {@link User#getEmail()}
+     * equal to the provided argument.
+     *
+     * @param email the email
+     * @return the optional UserPrincipal
+     */
+    @Query("SELECT new com.ecinema.app.domain.objects.UserPrincipal(u.id, u.username, u.password, " +
+            "u.isAccountEnabled, u.isAccountLocked, u.isAccountExpired, u.isCredentialsExpired) " +
+            "FROM User u WHERE u.email = ?1")
+    Optional<UserPrincipal> findPrincipalByEmail(String email);
+
+    /**
+     * Find all {@link UserAuthority} of the {@link User} with id equal to the provided argument.
+     *
+     * @param userId the user id
+     * @return the list of UserAuthority
+     */
+    @Query("SELECT a.userAuthority FROM AbstractUserAuthority a WHERE a.user.id = ?1")
+    List<UserAuthority> findAllUserAuthoritiesByUserWithId(Long userId);
+
+    /**
+     * Update the password of the {@link User} with id equal to the provided argument.
+     *
+     * @param userId   the user id
+     * @param password the new password hash
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = ?2 WHERE u.id = ?1")
+    int updatePasswordOfUserWithId(Long userId, String password);
+
     /**
      * Find all {@link User} by {@link User#getIsAccountLocked()} equal to the provided argument.
      *
@@ -6,6 +6,7 @@ import com.ecinema.app.exceptions.NoEntityFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +38,10 @@ public abstract class AbstractEntityService<E extends AbstractEntity,
                 .collect(Collectors.toList());
     }
 
+    protected Page<D> convertToDto(Page<E> page) {
+        return new PageImpl<>(convertToDto(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
     public D convertToDto(Long id)
             throws NoEntityFoundException {
         return convertToDto(repository.findById(id).orElseThrow(
@@ -83,9 +88,7 @@ public abstract class AbstractEntityService<E extends AbstractEntity,
     }
 
     public List<D> findAll() {
-        return repository.findAll()
-                         .stream().map(this::convertToDto)
-                         .collect(Collectors.toList());
+        return convertToDto(repository.findAll());
     }
 
     public List<D> findAll(Collection<Long> ids)
@@ -96,13 +99,11 @@ public abstract class AbstractEntityService<E extends AbstractEntity,
             throw new NoEntityFoundException(nonexistentEntities.stream().map(
                     id -> "No entity found with id = " + id).collect(Collectors.toList()));
         }
-        return repository.findAllById(ids)
-                         .stream().map(this::convertToDto)
-                         .collect(Collectors.toList());
+        return convertToDto(repository.findAllById(ids));
     }
 
     public Page<D> findAll(Pageable pageable) {
-        return repository.findAll(pageable).map(this::convertToDto);
+        return convertToDto(repository.findAll(pageable));
     }
 
     public boolean existsById(Long id) {
@@ -1,5 +1,6 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.UserPrincipalCache;
 import com.ecinema.app.domain.dtos.AdminDto;
 import com.ecinema.app.domain.entities.Admin;
 import com.ecinema.app.domain.entities.User;
@@ -22,13 +23,16 @@ public class AdminService extends UserAuthorityService<Admin, AdminRepository, A
     private final UserRepository userRepository;
     private final EncoderService encoderService;
     private final PasswordValidator passwordValidator;
+    private final UserPrincipalCache userPrincipalCache;
 
     public AdminService(AdminRepository repository, UserRepository userRepository,
-                        PasswordValidator passwordValidator, EncoderService encoderService) {
+                        PasswordValidator passwordValidator, EncoderService encoderService,
+                        UserPrincipalCache userPrincipalCache) {
         super(repository);
         this.userRepository = userRepository;
         this.encoderService = encoderService;
         this.passwordValidator = passwordValidator;
+        this.userPrincipalCache = userPrincipalCache;
     }
 
     @Override
@@ -52,6 +56,7 @@ public class AdminService extends UserAuthorityService<Admin, AdminRepository, A
         String encodedPassword = encoderService.encode(adminChangeUserPasswordForm.getPassword());
         user.setPassword(encodedPassword);
         userRepository.save(user);
+        userPrincipalCache.evictUserWithId(user.getId());
     }
 
 }
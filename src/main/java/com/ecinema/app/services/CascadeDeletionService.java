@@ -0,0 +1,329 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.beans.UserPrincipalCache;
+import com.ecinema.app.domain.entities.Showroom;
+import com.ecinema.app.domain.enums.Letter;
+import com.ecinema.app.domain.objects.DeletionJob;
+import com.ecinema.app.domain.objects.Pair;
+import com.ecinema.app.exceptions.NoEntityFoundException;
+import com.ecinema.app.repositories.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Deletes movies, showrooms, screenings and customers with everything that depends on them as a background job,
+ * instead of loading and deleting every dependent entity one at a time through the {@code onDelete} hooks of
+ * {@link AbstractEntityService} inside the request. The dependents are deleted with bulk JPQL deletes in
+ * dependency order, tickets before screening seats before screenings, review votes before reviews, each chunk of
+ * at most {@link #SCREENINGS_PER_CHUNK} screenings or {@link #ROWS_PER_CHUNK} rows in its own transaction. Once
+ * only the root entity is left, it is deleted through its service so that its hooks still detach it and update
+ * the in-memory indexes, which by then only walk empty collections.
+ * <p>
+ * Jobs run one at a time on a single background thread and report their progress through {@link DeletionJob}.
+ * The {@link #MAX_RETAINED_JOBS} latest jobs are kept for the admin to look at. A job that fails, or is cut off
+ * by a shutdown, leaves the chunks it committed deleted, and submitting the deletion again picks up the rest.
+ */
+@Service
+public class CascadeDeletionService implements DisposableBean {
+
+    public static final int SCREENINGS_PER_CHUNK = 20;
+    public static final int ROWS_PER_CHUNK = 1000;
+    public static final int MAX_RETAINED_JOBS = 50;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final TransactionTemplate transactionTemplate;
+    private final MovieService movieService;
+    private final ShowroomService showroomService;
+    private final CustomerService customerService;
+    private final ScreeningScheduleService screeningScheduleService;
+    private final MovieFacetService movieFacetService;
+    private final SeatAvailabilityService seatAvailabilityService;
+    private final MovieRatingService movieRatingService;
+    private final ReviewVoteCounterService reviewVoteCounterService;
+    private final ShowroomRepository showroomRepository;
+    private final ScreeningRepository screeningRepository;
+    private final ScreeningSeatRepository screeningSeatRepository;
+    private final ShowroomSeatRepository showroomSeatRepository;
+    private final TicketRepository ticketRepository;
+    private final ReviewRepository reviewRepository;
+    private final ReviewVoteRepository reviewVoteRepository;
+    private final PaymentCardRepository paymentCardRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final AtomicLong jobIds = new AtomicLong();
+    private final Map<Long, DeletionJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, DeletionJob> eldest) {
+            return size() > MAX_RETAINED_JOBS;
+        }
+    };
+    private final ExecutorService executorService;
+
+    public CascadeDeletionService(PlatformTransactionManager transactionManager, MovieService movieService,
+                                  ShowroomService showroomService, CustomerService customerService,
+                                  ScreeningScheduleService screeningScheduleService,
+                                  MovieFacetService movieFacetService,
+                                  SeatAvailabilityService seatAvailabilityService,
+                                  MovieRatingService movieRatingService,
+                                  ReviewVoteCounterService reviewVoteCounterService,
+                                  ShowroomRepository showroomRepository, ScreeningRepository screeningRepository,
+                                  ScreeningSeatRepository screeningSeatRepository,
+                                  ShowroomSeatRepository showroomSeatRepository,
+                                  TicketRepository ticketRepository, ReviewRepository reviewRepository,
+                                  ReviewVoteRepository reviewVoteRepository,
+                                  PaymentCardRepository paymentCardRepository,
+                                  UserPrincipalCache userPrincipalCache) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.movieService = movieService;
+        this.showroomService = showroomService;
+        this.customerService = customerService;
+        this.screeningScheduleService = screeningScheduleService;
+        this.movieFacetService = movieFacetService;
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.movieRatingService = movieRatingService;
+        this.reviewVoteCounterService = reviewVoteCounterService;
+        this.showroomRepository = showroomRepository;
+        this.screeningRepository = screeningRepository;
+        this.screeningSeatRepository = screeningSeatRepository;
+        this.showroomSeatRepository = showroomSeatRepository;
+        this.ticketRepository = ticketRepository;
+        this.reviewRepository = reviewRepository;
+        this.reviewVoteRepository = reviewVoteRepository;
+        this.paymentCardRepository = paymentCardRepository;
+        this.userPrincipalCache = userPrincipalCache;
+        this.executorService = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cascade-deletion");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Submits the deletion of the movie with its screenings, screening seats, tickets, reviews and review votes.
+     *
+     * @param movieId the movie id
+     * @return the deletion job
+     * @throws NoEntityFoundException if there is no movie with the id
+     */
+    public DeletionJob submitMovieDeletion(Long movieId)
+            throws NoEntityFoundException {
+        if (!movieService.existsById(movieId)) {
+            throw new NoEntityFoundException("movie", "id", movieId);
+        }
+        return submit("Delete movie with id " + movieId, job -> deleteMovie(movieId, job));
+    }
+
+    /**
+     * Submits the deletion of the showroom with its showroom seats, screenings, screening seats and tickets.
+     *
+     * @param showroomLetter the showroom letter
+     * @return the deletion job
+     * @throws NoEntityFoundException if there is no showroom with the letter
+     */
+    public DeletionJob submitShowroomDeletion(Letter showroomLetter)
+            throws NoEntityFoundException {
+        Long showroomId = showroomRepository.findByShowroomLetter(showroomLetter).map(Showroom::getId)
+                .orElseThrow(() -> new NoEntityFoundException("showroom", "showroom letter", showroomLetter));
+        return submit("Delete showroom " + showroomLetter, job -> deleteShowroom(showroomId, job));
+    }
+
+    /**
+     * Submits the deletion of the screening with its screening seats and tickets.
+     *
+     * @param screeningId the screening id
+     * @return the deletion job
+     * @throws NoEntityFoundException if there is no screening with the id
+     */
+    public DeletionJob submitScreeningDeletion(Long screeningId)
+            throws NoEntityFoundException {
+        if (!screeningRepository.existsById(screeningId)) {
+            throw new NoEntityFoundException("screening", "id", screeningId);
+        }
+        return submit("Delete screening with id " + screeningId, job -> deleteScreening(screeningId, job));
+    }
+
+    /**
+     * Submits the deletion of the customer with its tickets, review votes, reviews and payment cards. The cached
+     * principal of the user of the customer is evicted when the customer is deleted.
+     *
+     * @param customerId the customer id
+     * @return the deletion job
+     * @throws NoEntityFoundException if there is no customer with the id
+     */
+    public DeletionJob submitCustomerDeletion(Long customerId)
+            throws NoEntityFoundException {
+        if (!customerService.existsById(customerId)) {
+            throw new NoEntityFoundException("customer", "id", customerId);
+        }
+        return submit("Delete customer with id " + customerId, job -> deleteCustomer(customerId, job));
+    }
+
+    /**
+     * Finds the retained deletion jobs, latest first.
+     *
+     * @return the deletion jobs
+     */
+    public List<DeletionJob> findAllJobs() {
+        List<DeletionJob> deletionJobs;
+        synchronized (jobs) {
+            deletionJobs = new ArrayList<>(jobs.values());
+        }
+        Collections.reverse(deletionJobs);
+        return deletionJobs;
+    }
+
+    /**
+     * Deletes the movie on the calling thread, see {@link #submitMovieDeletion(Long)}.
+     *
+     * @param movieId the movie id
+     * @param job     the deletion job to report progress to
+     */
+    public void deleteMovie(Long movieId, DeletionJob job) {
+        job.step("Deleting screenings");
+        deleteScreenings(screeningRepository.findAllScreeningIdsByMovieId(movieId), job);
+        job.step("Deleting reviews");
+        List<Long> reviewIds;
+        while (!(reviewIds = reviewRepository.findAllIdsByMovieWithId(
+                movieId, PageRequest.of(0, ROWS_PER_CHUNK))).isEmpty()) {
+            deleteReviews(reviewIds, job);
+        }
+        job.step("Deleting movie");
+        transactionTemplate.executeWithoutResult(status -> movieService.delete(movieId));
+        job.addRowsDeleted(1L);
+    }
+
+    /**
+     * Deletes the showroom on the calling thread, see {@link #submitShowroomDeletion(Letter)}.
+     *
+     * @param showroomId the showroom id
+     * @param job        the deletion job to report progress to
+     */
+    public void deleteShowroom(Long showroomId, DeletionJob job) {
+        job.step("Deleting screenings");
+        deleteScreenings(screeningRepository.findAllScreeningIdsByShowroomId(showroomId), job);
+        job.step("Deleting showroom seats");
+        job.addRowsDeleted(transactionTemplate.execute(
+                status -> showroomSeatRepository.deleteAllByShowroomWithId(showroomId)));
+        job.step("Deleting showroom");
+        transactionTemplate.executeWithoutResult(status -> showroomService.delete(showroomId));
+        job.addRowsDeleted(1L);
+    }
+
+    /**
+     * Deletes the screening on the calling thread, see {@link #submitScreeningDeletion(Long)}.
+     *
+     * @param screeningId the screening id
+     * @param job         the deletion job to report progress to
+     */
+    public void deleteScreening(Long screeningId, DeletionJob job) {
+        job.step("Deleting screening");
+        deleteScreenings(List.of(screeningId), job);
+    }
+
+    /**
+     * Deletes the customer on the calling thread, see {@link #submitCustomerDeletion(Long)}.
+     *
+     * @param customerId the customer id
+     * @param job        the deletion job to report progress to
+     */
+    public void deleteCustomer(Long customerId, DeletionJob job) {
+        job.step("Deleting tickets");
+        List<Long> ids;
+        while (!(ids = ticketRepository.findAllIdsByCustomerWithId(
+                customerId, PageRequest.of(0, ROWS_PER_CHUNK))).isEmpty()) {
+            List<Long> ticketIds = ids;
+            job.addRowsDeleted(transactionTemplate.execute(status -> {
+                ticketRepository.findAllScreeningIdsByTicketWithIdIn(ticketIds).forEach(
+                        seatAvailabilityService::evict);
+                return ticketRepository.deleteAllByIdIn(ticketIds);
+            }));
+        }
+        job.step("Deleting review votes");
+        while (!(ids = reviewVoteRepository.findAllReviewIdsByVoterWithId(
+                customerId, PageRequest.of(0, ROWS_PER_CHUNK))).isEmpty()) {
+            List<Long> reviewIds = ids;
+            job.addRowsDeleted(transactionTemplate.execute(
+                    status -> reviewVoteRepository.deleteAllByVoterWithIdAndReviewWithIdIn(customerId, reviewIds)));
+            reviewVoteCounterService.rebuild(reviewIds);
+        }
+        job.step("Deleting reviews");
+        Set<Long> movieIds = new HashSet<>();
+        while (!(ids = reviewRepository.findAllIdsByWriterWithId(
+                customerId, PageRequest.of(0, ROWS_PER_CHUNK))).isEmpty()) {
+            movieIds.addAll(reviewRepository.findAllMovieIdsByReviewWithIdIn(ids));
+            deleteReviews(ids, job);
+        }
+        movieIds.forEach(movieId -> transactionTemplate.executeWithoutResult(
+                status -> movieRatingService.recompute(movieId)));
+        job.step("Deleting payment cards");
+        job.addRowsDeleted(transactionTemplate.execute(
+                status -> paymentCardRepository.deleteAllByCardOwnerWithId(customerId)));
+        job.step("Deleting customer");
+        transactionTemplate.executeWithoutResult(status -> {
+            Long userId = customerService.findById(customerId).getUserId();
+            customerService.delete(customerId);
+            userPrincipalCache.evictUserWithId(userId);
+        });
+        job.addRowsDeleted(1L);
+    }
+
+    private DeletionJob submit(String description, Consumer<DeletionJob> deletion) {
+        DeletionJob job = new DeletionJob(jobIds.incrementAndGet(), description);
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+        }
+        executorService.execute(() -> run(job, deletion));
+        logger.debug("Submitted deletion job: " + job);
+        return job;
+    }
+
+    private void run(DeletionJob job, Consumer<DeletionJob> deletion) {
+        job.start();
+        try {
+            deletion.accept(job);
+            job.complete();
+            logger.debug("Completed deletion job: " + job);
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage() != null ? e.getMessage() : e.toString());
+            logger.error("Failed deletion job: " + job, e);
+        }
+    }
+
+    private void deleteScreenings(List<Long> screeningIds, DeletionJob job) {
+        for (int i = 0; i < screeningIds.size(); i += SCREENINGS_PER_CHUNK) {
+            List<Long> chunk = screeningIds.subList(i, Math.min(i + SCREENINGS_PER_CHUNK, screeningIds.size()));
+            job.addRowsDeleted(transactionTemplate.execute(status -> {
+                // the schedule, facet and seat map updates run after the chunk commits
+                List<Pair<Long, Long>> showroomIds = screeningRepository.findAllShowroomIdsByScreeningWithIdIn(chunk);
+                showroomIds.forEach(pair -> screeningScheduleService.remove(pair.getSecond(), pair.getFirst()));
+                chunk.forEach(movieFacetService::removeScreening);
+                chunk.forEach(seatAvailabilityService::evict);
+                return ticketRepository.deleteAllByScreeningWithIdIn(chunk) +
+                        screeningSeatRepository.deleteAllByScreeningWithIdIn(chunk) +
+                        screeningRepository.deleteAllByIdIn(chunk);
+            }));
+        }
+    }
+
+    private void deleteReviews(List<Long> reviewIds, DeletionJob job) {
+        job.addRowsDeleted(transactionTemplate.execute(
+                status -> reviewVoteRepository.deleteAllByReviewWithIdIn(reviewIds) +
+                        reviewRepository.deleteAllByIdIn(reviewIds)));
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.UserPrincipalCache;
 import com.ecinema.app.domain.dtos.ChangePasswordDto;
 import com.ecinema.app.domain.entities.ChangePassword;
 import com.ecinema.app.domain.entities.User;
@@ -16,6 +17,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,15 +31,17 @@ public class ChangePasswordService extends AbstractEntityService<ChangePassword,
     private final EncoderService encoderService;
     private final UserRepository userRepository;
     private final PasswordValidator passwordValidator;
+    private final UserPrincipalCache userPrincipalCache;
 
     public ChangePasswordService(ChangePasswordRepository repository, EmailService emailService,
                                  EncoderService encoderService, UserRepository userRepository,
-                                 PasswordValidator passwordValidator) {
+                                 PasswordValidator passwordValidator, UserPrincipalCache userPrincipalCache) {
         super(repository);
         this.emailService = emailService;
         this.encoderService = encoderService;
         this.userRepository = userRepository;
         this.passwordValidator = passwordValidator;
+        this.userPrincipalCache = userPrincipalCache;
     }
 
     @Override
@@ -74,21 +78,29 @@ public class ChangePasswordService extends AbstractEntityService<ChangePassword,
         User user = userRepository.findByEmail(changePasswordForm.getEmail()).orElseThrow(
                 () -> new NoEntityFoundException("user", "email", changePasswordForm.getEmail()));
         logger.debug("Found user id by email: " + changePasswordForm.getEmail());
-        if (!encoderService.matches(changePasswordForm.getAnswer1(), user.getSecurityAnswer1())) {
+        // the three checks and the new hash are independent, so they run in parallel on the encoder pool
+        Future<Boolean> answer1Matches = encoderService.matchesAsync(
+                changePasswordForm.getAnswer1(), user.getSecurityAnswer1());
+        Future<Boolean> answer2Matches = encoderService.matchesAsync(
+                changePasswordForm.getAnswer2(), user.getSecurityAnswer2());
+        Future<Boolean> passwordMatches = encoderService.matchesAsync(
+                UtilMethods.removeWhitespace(changePasswordForm.getPassword()), user.getPassword());
+        Future<String> encodedPasswordFuture = encoderService.encodeAsync(changePasswordForm.getPassword());
+        if (!encoderService.await(answer1Matches)) {
             errors.add("Answer to security question 1 is incorrect");
         }
-        if (!encoderService.matches(changePasswordForm.getAnswer2(), user.getSecurityAnswer2())) {
+        if (!encoderService.await(answer2Matches)) {
             errors.add("Answer to security question 2 is incorrect");
         }
-        if (encoderService.matches(
-                UtilMethods.removeWhitespace(changePasswordForm.getPassword()), user.getPassword())) {
+        if (encoderService.await(passwordMatches)) {
             errors.add("New password cannot match old password");
         }
         if (!errors.isEmpty()) {
+            encodedPasswordFuture.cancel(false);
             throw new InvalidArgumentException(errors);
         }
         ChangePassword changePassword = new ChangePassword();
-        String encodedPassword = encoderService.encode(changePasswordForm.getPassword());
+        String encodedPassword = encoderService.await(encodedPasswordFuture);
         changePassword.setPassword(encodedPassword);
         changePassword.setUserId(user.getId());
         changePassword.setEmail(user.getEmail());
@@ -134,6 +146,7 @@ public class ChangePasswordService extends AbstractEntityService<ChangePassword,
         logger.debug("Changing user password from " + user.getPassword() + " to " + changePassword.getPassword());
         user.setPassword(changePassword.getPassword());
         userRepository.save(user);
+        userPrincipalCache.evictUserWithId(user.getId());
         repository.deleteAllByUserId(user.getId());
         sendConfirmationEmail(user.getEmail());
         logger.debug("Deleted all change password requests associated with user id: " + user.getId());
@@ -0,0 +1,68 @@
+package com.ecinema.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Delivers the email outbox. A single background thread wakes up whenever {@link EmailOutboxService} signals that
+ * an email was committed to the outbox, and at least every {@link #POLL_INTERVAL_IN_MILLIS} milliseconds to pick
+ * up retries, and then dispatches due emails in batches of up to {@link #MAX_BATCH_SIZE} until none are left.
+ * Emails left in the outbox when the application stops are delivered after the next start.
+ */
+@Service
+public class EmailDispatcher implements DisposableBean {
+
+    public static final int MAX_BATCH_SIZE = 50;
+    public static final long POLL_INTERVAL_IN_MILLIS = 10_000L;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private Thread thread;
+
+    public EmailDispatcher(EmailService emailService, EmailOutboxService emailOutboxService) {
+        this.emailService = emailService;
+        this.emailOutboxService = emailOutboxService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this::dispatchPendingEmails, "email-dispatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private void dispatchPendingEmails() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                while (emailService.dispatchPendingEmails(MAX_BATCH_SIZE) == MAX_BATCH_SIZE) {
+                    logger.debug("Email outbox has more due emails, dispatching next batch");
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to dispatch emails, retrying later", e);
+            }
+            try {
+                emailOutboxService.awaitPendingEmails(POLL_INTERVAL_IN_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+}
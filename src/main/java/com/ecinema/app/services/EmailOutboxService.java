@@ -0,0 +1,37 @@
+package com.ecinema.app.services;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Signals that emails were committed to the outbox. {@link EmailService} signals once the transaction that wrote
+ * an email commits, and {@link EmailDispatcher} waits here between batches, so a new email is delivered right away
+ * while an idle outbox is polled only every now and then.
+ */
+@Service
+public class EmailOutboxService {
+
+    private boolean pendingEmailsSignaled;
+
+    public synchronized void signalPendingEmails() {
+        pendingEmailsSignaled = true;
+        notifyAll();
+    }
+
+    /**
+     * Blocks until pending emails are signaled or the timeout elapses, then clears the signal.
+     *
+     * @param timeoutInMillis the timeout in millis
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized void awaitPendingEmails(long timeoutInMillis)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutInMillis;
+        long remaining = timeoutInMillis;
+        while (!pendingEmailsSignaled && remaining > 0) {
+            wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+        pendingEmailsSignaled = false;
+    }
+
+}
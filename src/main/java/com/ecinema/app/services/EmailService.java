@@ -1,22 +1,50 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.domain.entities.OutboxEmail;
+import com.ecinema.app.domain.enums.EmailStatus;
 import com.ecinema.app.exceptions.EmailException;
+import com.ecinema.app.repositories.OutboxEmailRepository;
+import com.ecinema.app.util.UtilMethods;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.*;
 
+/**
+ * Emails are not sent while the request is handled. {@link #sendFromBusinessEmail(String, String, String)}
+ * writes them to the outbox within the transaction of the caller, so an email is sent if and only if the change
+ * it announces commits, and neither a slow nor a failing SMTP server can hold or roll back that transaction.
+ * {@link EmailDispatcher} delivers the outbox in batches through {@link #dispatchPendingEmails(int)}, each batch
+ * over a single SMTP connection. A failed email is retried with exponential backoff starting at
+ * {@link #BASE_RETRY_DELAY_IN_SECONDS} seconds and becomes a dead letter after {@link #MAX_ATTEMPTS} attempts.
+ */
 @Service
 public class EmailService {
 
+    public static final int MAX_ATTEMPTS = 6;
+    public static final long BASE_RETRY_DELAY_IN_SECONDS = 30L;
+
     private static final String BUSINESS_EMAIL = "ecinema.app.474@gmail.com";
 
+    private final Logger logger = LoggerFactory.getLogger(getClass());
     private final JavaMailSender javaMailSender;
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final EmailOutboxService emailOutboxService;
 
-    public EmailService(JavaMailSender javaMailSender) {
+    public EmailService(JavaMailSender javaMailSender, OutboxEmailRepository outboxEmailRepository,
+                        EmailOutboxService emailOutboxService) {
         this.javaMailSender = javaMailSender;
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.emailOutboxService = emailOutboxService;
     }
 
     public void sendFromBusinessEmail(String to, String email, String subject)
@@ -26,22 +54,107 @@ public class EmailService {
 
     public void send(String from, String to, String email, String subject)
             throws EmailException {
-        try {
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
-            helper.setText(email, true);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setFrom(from);
-            helper.setFrom(BUSINESS_EMAIL);
-            javaMailSender.send(mimeMessage);
-        } catch (MessagingException e) {
-            throw new EmailException(e.getMessage());
+        if (to == null || to.isBlank()) {
+            throw new EmailException("Cannot send an email without recipient");
         }
+        OutboxEmail outboxEmail = new OutboxEmail();
+        outboxEmail.setSender(from);
+        outboxEmail.setRecipient(to);
+        outboxEmail.setSubject(subject);
+        outboxEmail.setBody(email);
+        outboxEmail.setStatus(EmailStatus.PENDING);
+        outboxEmail.setAttempts(0);
+        outboxEmail.setCreationDateTime(LocalDateTime.now());
+        outboxEmail.setNextAttemptDateTime(LocalDateTime.now());
+        outboxEmailRepository.save(outboxEmail);
+        logger.debug("Added email to outbox: " + outboxEmail);
+        UtilMethods.afterCommit(emailOutboxService::signalPendingEmails);
+    }
+
+    /**
+     * Delivers up to the provided number of due emails over one SMTP connection. Runs outside of any
+     * transaction so that no database transaction is held open while talking to the SMTP server.
+     *
+     * @param maxBatchSize the max batch size
+     * @return the number of due emails that were attempted
+     */
+    public int dispatchPendingEmails(int maxBatchSize) {
+        List<OutboxEmail> outboxEmails = outboxEmailRepository.findAllDueByStatus(
+                EmailStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, maxBatchSize));
+        if (outboxEmails.isEmpty()) {
+            return 0;
+        }
+        Map<MimeMessage, OutboxEmail> outboxEmailsByMessage = new LinkedHashMap<>();
+        List<OutboxEmail> failed = new ArrayList<>();
+        for (OutboxEmail outboxEmail : outboxEmails) {
+            try {
+                outboxEmailsByMessage.put(buildMimeMessage(outboxEmail), outboxEmail);
+            } catch (MessagingException e) {
+                // a message that cannot even be built will never succeed
+                outboxEmail.setAttempts(MAX_ATTEMPTS - 1);
+                registerFailure(outboxEmail, e);
+                failed.add(outboxEmail);
+            }
+        }
+        List<OutboxEmail> sent = new ArrayList<>(outboxEmailsByMessage.values());
+        if (!outboxEmailsByMessage.isEmpty()) {
+            try {
+                javaMailSender.send(outboxEmailsByMessage.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                Map<Object, Exception> failedMessages = e.getFailedMessages();
+                for (Map.Entry<MimeMessage, OutboxEmail> entry : outboxEmailsByMessage.entrySet()) {
+                    // without failed messages the connection itself failed and nothing was sent
+                    Exception exception = failedMessages.isEmpty() ? e : failedMessages.get(entry.getKey());
+                    if (exception != null) {
+                        registerFailure(entry.getValue(), exception);
+                        failed.add(entry.getValue());
+                        sent.remove(entry.getValue());
+                    }
+                }
+            } catch (MailException e) {
+                outboxEmailsByMessage.values().forEach(outboxEmail -> registerFailure(outboxEmail, e));
+                failed.addAll(outboxEmailsByMessage.values());
+                sent.clear();
+            }
+        }
+        outboxEmailRepository.deleteAllInBatch(sent);
+        outboxEmailRepository.saveAll(failed);
+        logger.debug("Dispatched " + sent.size() + " emails, " + failed.size() + " failed");
+        return outboxEmails.size();
+    }
+
+    public List<OutboxEmail> findAllDeadLetters() {
+        return outboxEmailRepository.findAllByStatus(EmailStatus.DEAD_LETTER);
     }
 
     public String getBusinessEmail() {
         return BUSINESS_EMAIL;
     }
 
+    private MimeMessage buildMimeMessage(OutboxEmail outboxEmail)
+            throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
+        helper.setText(outboxEmail.getBody(), true);
+        helper.setTo(outboxEmail.getRecipient());
+        helper.setSubject(outboxEmail.getSubject());
+        helper.setFrom(outboxEmail.getSender());
+        return mimeMessage;
+    }
+
+    private void registerFailure(OutboxEmail outboxEmail, Exception exception) {
+        int attempts = outboxEmail.getAttempts() + 1;
+        outboxEmail.setAttempts(attempts);
+        String error = String.valueOf(exception.getMessage());
+        outboxEmail.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (attempts >= MAX_ATTEMPTS) {
+            outboxEmail.setStatus(EmailStatus.DEAD_LETTER);
+            logger.error("Email " + outboxEmail.getId() + " to " + outboxEmail.getRecipient() +
+                                 " moved to dead letters after " + attempts + " attempts: " + error);
+        } else {
+            long delayInSeconds = BASE_RETRY_DELAY_IN_SECONDS << (attempts - 1);
+            outboxEmail.setNextAttemptDateTime(LocalDateTime.now().plusSeconds(delayInSeconds));
+        }
+    }
+
 }
@@ -1,36 +1,68 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.HashingExecutor;
 import com.ecinema.app.util.UtilMethods;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
 @Service
 public class EncoderService {
 
     private final PasswordEncoder passwordEncoder;
+    private final HashingExecutor hashingExecutor;
     private final Logger logger = LoggerFactory.getLogger(EncoderService.class);
 
     /**
      * Instantiates a new Encoder service.
      *
      * @param passwordEncoder the password encoder
+     * @param hashingExecutor the pool that the hashes run on
      */
-    public EncoderService(PasswordEncoder passwordEncoder) {
+    public EncoderService(PasswordEncoder passwordEncoder, HashingExecutor hashingExecutor) {
         this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
     }
 
     public String encode(String s) {
+        return await(encodeAsync(s));
+    }
+
+    /**
+     * Encodes the strings in parallel. Null strings are skipped and yield null at their index.
+     *
+     * @param strings the strings
+     * @return the encoded strings in the same order
+     */
+    public List<String> encodeAll(String... strings) {
+        List<Future<String>> futures = new ArrayList<>();
+        for (String s : strings) {
+            futures.add(s != null ? encodeAsync(s) : null);
+        }
+        return futures.stream().map(this::await).toList();
+    }
+
+    public Future<String> encodeAsync(String s) {
         logger.debug("Encoder AbstractEntityService: encode s");
         logger.debug("First 3 chars of s before encryption: " + s.subSequence(0, 3));
-        String encoded = passwordEncoder.encode(UtilMethods.removeWhitespace(s));
-        logger.debug("First 3 chars of encrypted s: " + encoded.subSequence(0, 3));
-        return encoded;
+        return hashingExecutor.submit(() -> passwordEncoder.encode(UtilMethods.removeWhitespace(s)));
     }
 
     public boolean matches(String raw, String encoded) {
-        return passwordEncoder.matches(UtilMethods.removeWhitespace(raw), encoded);
+        return await(matchesAsync(raw, encoded));
+    }
+
+    public Future<Boolean> matchesAsync(String raw, String encoded) {
+        return hashingExecutor.submit(() -> passwordEncoder.matches(UtilMethods.removeWhitespace(raw), encoded));
+    }
+
+    public <T> T await(Future<T> future) {
+        return hashingExecutor.await(future);
     }
 
 }
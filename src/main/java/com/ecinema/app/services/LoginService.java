@@ -1,5 +1,6 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.exceptions.FatalErrorException;
 import com.ecinema.app.exceptions.NoEntityFoundException;
 import com.ecinema.app.exceptions.PasswordMismatchException;
 import com.ecinema.app.repositories.UserRepository;
@@ -8,10 +9,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -19,30 +20,31 @@ import org.springframework.stereotype.Service;
 public class LoginService {
 
     private final UserRepository userRepository;
-    private final EncoderService encoderService;
     private final DaoAuthenticationProvider daoAuthenticationProvider;
     private final Logger logger = LoggerFactory.getLogger(LoginService.class);
 
     public void login(final String s, final String password)
-            throws NoEntityFoundException, PasswordMismatchException {
+            throws NoEntityFoundException, PasswordMismatchException, FatalErrorException {
         logger.debug("Security AbstractEntityService login method");
-        UserDetails user = userRepository.findByUsernameOrEmail(s).orElseThrow(
-                () -> new NoEntityFoundException("user", "username or email", s));
-        if (!encoderService.matches(password, user.getPassword())) {
+        if (!userRepository.existsByUsernameOrEmail(s)) {
+            throw new NoEntityFoundException("user", "username or email", s);
+        }
+        // the provider checks the password on the encoder pool and rehashes it if its strength is outdated
+        Authentication authentication;
+        try {
+            authentication = daoAuthenticationProvider.authenticate(
+                    new UsernamePasswordAuthenticationToken(s, password));
+        } catch (AuthenticationException e) {
+            if (e.getCause() instanceof FatalErrorException fatalErrorException) {
+                throw fatalErrorException;
+            }
             throw new PasswordMismatchException(s);
         }
-        for (GrantedAuthority authority : user.getAuthorities()) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
             logger.debug("User has authority: " + authority.getAuthority());
         }
-        UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
-                new UsernamePasswordAuthenticationToken(
-                        user, password, user.getAuthorities());
-        daoAuthenticationProvider.authenticate(usernamePasswordAuthenticationToken);
-        SecurityContext securityContext = SecurityContextHolder.getContext();
-        if (usernamePasswordAuthenticationToken.isAuthenticated()) {
-            logger.debug(String.format("Auto login %s success!", user.getUsername()));
-            securityContext.setAuthentication(usernamePasswordAuthenticationToken);
-        }
+        logger.debug(String.format("Auto login %s success!", s));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
 }
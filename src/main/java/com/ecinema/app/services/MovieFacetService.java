@@ -0,0 +1,133 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.entities.Movie;
+import com.ecinema.app.domain.enums.MovieCategory;
+import com.ecinema.app.domain.enums.MsrbRating;
+import com.ecinema.app.domain.objects.MovieFacetCounts;
+import com.ecinema.app.domain.objects.MovieFacetFilter;
+import com.ecinema.app.domain.objects.MovieFacetIndex;
+import com.ecinema.app.domain.objects.MovieScreeningTime;
+import com.ecinema.app.repositories.MovieRepository;
+import com.ecinema.app.repositories.ScreeningRepository;
+import com.ecinema.app.util.UtilMethods;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Serves faceted browsing of the movie catalog from an in-memory {@link MovieFacetIndex}. The index is loaded
+ * with three lean queries the first time it is used and is afterwards kept up to date by {@link MovieService}
+ * whenever a movie is saved or deleted and by {@link ScreeningService} whenever a screening is created or deleted.
+ * Updates made within a transaction are applied only once the transaction commits.
+ */
+@Service
+public class MovieFacetService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final MovieRepository movieRepository;
+    private final ScreeningRepository screeningRepository;
+    private volatile MovieFacetIndex movieFacetIndex;
+
+    public MovieFacetService(MovieRepository movieRepository, ScreeningRepository screeningRepository) {
+        this.movieRepository = movieRepository;
+        this.screeningRepository = screeningRepository;
+    }
+
+    /**
+     * Finds the ids of the movies passing the filter, see {@link MovieFacetIndex#findAll(MovieFacetFilter, List,
+     * LocalDateTime)}.
+     *
+     * @param movieFacetFilter the movie facet filter
+     * @param candidates       the ids of the candidate movies in order, or null for the whole catalog
+     * @return the ids of the movies
+     */
+    public List<Long> findAllMovieIds(MovieFacetFilter movieFacetFilter, List<Long> candidates) {
+        return findMovieFacetIndex().findAll(movieFacetFilter, candidates, LocalDateTime.now());
+    }
+
+    /**
+     * Counts the movies of every facet value next to the filter.
+     *
+     * @param movieFacetFilter the movie facet filter
+     * @param candidates       the ids of the candidate movies, or null for the whole catalog
+     * @return the movie facet counts
+     */
+    public MovieFacetCounts countFacets(MovieFacetFilter movieFacetFilter, Collection<Long> candidates) {
+        return findMovieFacetIndex().count(movieFacetFilter, candidates, LocalDateTime.now());
+    }
+
+    public void index(Movie movie) {
+        if (movie.getId() == null) {
+            return;
+        }
+        // read the movie now, it is detached by the time the transaction commits
+        Long movieId = movie.getId();
+        MsrbRating msrbRating = movie.getMsrbRating();
+        Set<MovieCategory> movieCategories = movie.getMovieCategories().isEmpty() ?
+                EnumSet.noneOf(MovieCategory.class) : EnumSet.copyOf(movie.getMovieCategories());
+        UtilMethods.afterCommit(() -> updateIfLoaded(
+                index -> index.put(movieId, movieCategories, msrbRating)));
+    }
+
+    public void remove(Long movieId) {
+        if (movieId == null) {
+            return;
+        }
+        UtilMethods.afterCommit(() -> updateIfLoaded(index -> index.remove(movieId)));
+    }
+
+    public void addScreening(MovieScreeningTime movieScreeningTime) {
+        if (movieScreeningTime.getScreeningId() == null || movieScreeningTime.getMovieId() == null) {
+            return;
+        }
+        UtilMethods.afterCommit(() -> updateIfLoaded(
+                index -> index.addScreening(movieScreeningTime, LocalDateTime.now())));
+    }
+
+    public void removeScreening(Long screeningId) {
+        if (screeningId == null) {
+            return;
+        }
+        UtilMethods.afterCommit(() -> updateIfLoaded(index -> index.removeScreening(screeningId)));
+    }
+
+    private MovieFacetIndex findMovieFacetIndex() {
+        MovieFacetIndex index = movieFacetIndex;
+        if (index != null) {
+            return index;
+        }
+        synchronized (this) {
+            if (movieFacetIndex == null) {
+                movieFacetIndex = loadMovieFacetIndex();
+            }
+            return movieFacetIndex;
+        }
+    }
+
+    private synchronized void updateIfLoaded(Consumer<MovieFacetIndex> update) {
+        if (movieFacetIndex != null) {
+            update.accept(movieFacetIndex);
+        }
+    }
+
+    private MovieFacetIndex loadMovieFacetIndex() {
+        Map<Long, Set<MovieCategory>> movieCategoriesByMovieId = new HashMap<>();
+        movieRepository.findAllMovieCategories().forEach(movieCategory -> movieCategoriesByMovieId
+                .computeIfAbsent(movieCategory.getFirst(), movieId -> EnumSet.noneOf(MovieCategory.class))
+                .add(movieCategory.getSecond()));
+        MovieFacetIndex index = new MovieFacetIndex();
+        movieRepository.findAllMsrbRatings().forEach(msrbRating -> index.put(
+                msrbRating.getFirst(), movieCategoriesByMovieId.getOrDefault(msrbRating.getFirst(), Set.of()),
+                msrbRating.getSecond()));
+        LocalDateTime now = LocalDateTime.now();
+        screeningRepository.findAllMovieScreeningTimesNotBefore(now).forEach(
+                movieScreeningTime -> index.addScreening(movieScreeningTime, now));
+        logger.debug("Loaded movie facet index of " + index.numberOfMovies() + " movies");
+        return index;
+    }
+
+}
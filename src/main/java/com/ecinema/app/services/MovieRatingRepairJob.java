@@ -0,0 +1,62 @@
+package com.ecinema.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recounts the rating aggregates of every movie with {@link MovieRatingService#recomputeAll()} once the
+ * application is ready, which also fills in the aggregates of movies reviewed before they were kept, and then
+ * every {@link #REPAIR_INTERVAL_IN_HOURS} hours on a single background thread.
+ */
+@Service
+public class MovieRatingRepairJob implements DisposableBean {
+
+    public static final long REPAIR_INTERVAL_IN_HOURS = 24L;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final MovieRatingService movieRatingService;
+    private ScheduledExecutorService executorService;
+
+    public MovieRatingRepairJob(MovieRatingService movieRatingService) {
+        this.movieRatingService = movieRatingService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (executorService != null) {
+            return;
+        }
+        executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "movie-rating-repair");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executorService.scheduleWithFixedDelay(this::repairQuietly, 0L, REPAIR_INTERVAL_IN_HOURS, TimeUnit.HOURS);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+    }
+
+    private void repairQuietly() {
+        try {
+            int numberOfRepairs = movieRatingService.recomputeAll();
+            logger.debug("Movie rating repair job repaired " + numberOfRepairs + " aggregates");
+        } catch (RuntimeException e) {
+            logger.error("Failed to repair movie rating aggregates, retrying on the next run", e);
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.dtos.MovieRatingDto;
+import com.ecinema.app.domain.entities.MovieRating;
+import com.ecinema.app.domain.objects.RatingCount;
+import com.ecinema.app.domain.validators.ReviewValidator;
+import com.ecinema.app.repositories.MovieRatingRepository;
+import com.ecinema.app.repositories.MovieRepository;
+import com.ecinema.app.repositories.ReviewRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link MovieRating} of every movie up to date. Every review that is submitted, censored, uncensored
+ * or deleted adds or takes away one rating with a single atomic update, so the aggregates never need to be read
+ * first and concurrent reviews of the same movie cannot lose each other's update. A movie gets its aggregates
+ * when it is created; if they are missing all the same, the reviews of the movie are counted once instead.
+ * {@link #recomputeAll()} recounts every movie in bulk and is run by {@link MovieRatingRepairJob}.
+ */
+@Service
+@Transactional
+public class MovieRatingService extends AbstractEntityService<MovieRating, MovieRatingRepository, MovieRatingDto> {
+
+    private final ReviewRepository reviewRepository;
+    private final MovieRepository movieRepository;
+
+    public MovieRatingService(MovieRatingRepository repository, ReviewRepository reviewRepository,
+                              MovieRepository movieRepository) {
+        super(repository);
+        this.reviewRepository = reviewRepository;
+        this.movieRepository = movieRepository;
+    }
+
+    @Override
+    protected void onDelete(MovieRating movieRating) {}
+
+    @Override
+    public MovieRatingDto convertToDto(MovieRating movieRating) {
+        MovieRatingDto movieRatingDto = new MovieRatingDto();
+        movieRatingDto.setId(movieRating.getId());
+        movieRatingDto.setMovieId(movieRating.getMovieId());
+        movieRatingDto.setNumberOfRatings(movieRating.getNumberOfRatings());
+        movieRatingDto.setSumOfRatings(movieRating.getSumOfRatings());
+        movieRatingDto.setHistogram(movieRating.getHistogram());
+        return movieRatingDto;
+    }
+
+    public void addRating(Long movieId, Integer stars) {
+        addRatings(movieId, stars, 1);
+    }
+
+    public void removeRating(Long movieId, Integer stars) {
+        addRatings(movieId, stars, -1);
+    }
+
+    /**
+     * Gives the movie aggregates without ratings if it has none yet.
+     *
+     * @param movieId the movie id
+     */
+    public void createIfAbsent(Long movieId) {
+        if (movieId != null && repository.findByMovieId(movieId).isEmpty()) {
+            MovieRating movieRating = new MovieRating();
+            movieRating.setMovieId(movieId);
+            repository.save(movieRating);
+        }
+    }
+
+    public void deleteByMovieId(Long movieId) {
+        repository.deleteByMovieId(movieId);
+    }
+
+    /**
+     * Finds the rating aggregates of the movie, without ratings if it has none.
+     *
+     * @param movieId the movie id
+     * @return the movie rating dto
+     */
+    @Transactional(readOnly = true)
+    public MovieRatingDto findByMovieId(Long movieId) {
+        return repository.findByMovieId(movieId).map(this::convertToDto)
+                         .orElseGet(() -> emptyMovieRatingDto(movieId));
+    }
+
+    /**
+     * Finds the rating aggregates of each movie, without ratings for movies that have none.
+     *
+     * @param movieIds the movie ids
+     * @return the movie rating dtos by movie id
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, MovieRatingDto> findAllByMovieIds(Collection<Long> movieIds) {
+        Map<Long, MovieRatingDto> movieRatings = repository.findAllByMovieIdIn(movieIds).stream().collect(
+                Collectors.toMap(MovieRating::getMovieId, this::convertToDto));
+        movieIds.forEach(movieId -> movieRatings.computeIfAbsent(movieId, this::emptyMovieRatingDto));
+        return movieRatings;
+    }
+
+    /**
+     * Recounts the ratings of the movie from its reviews.
+     *
+     * @param movieId the movie id
+     */
+    public void recompute(Long movieId) {
+        // lock the aggregates before counting, so updates of reviews that are not counted wait until afterwards
+        MovieRating movieRating = repository.findByMovieIdForUpdate(movieId).orElseGet(MovieRating::new);
+        movieRating.setMovieId(movieId);
+        movieRating.setHistogram(toHistogram(reviewRepository.findAllRatingCountsByMovieWithId(movieId)));
+        repository.save(movieRating);
+    }
+
+    /**
+     * Recounts the ratings of every movie from the reviews with one grouped query and saves the aggregates that
+     * were off. Aggregates of movies that no longer exist are deleted.
+     *
+     * @return the number of aggregates that were repaired
+     */
+    public int recomputeAll() {
+        // lock the aggregates before counting, so updates of reviews that are not counted wait until afterwards
+        Map<Long, MovieRating> movieRatings = repository.findAllForUpdate().stream().collect(
+                Collectors.toMap(MovieRating::getMovieId, Function.identity()));
+        Map<Long, List<RatingCount>> ratingCounts = reviewRepository.findAllRatingCounts().stream().collect(
+                Collectors.groupingBy(RatingCount::getMovieId));
+        List<MovieRating> repaired = new ArrayList<>();
+        for (Long movieId : movieRepository.findAllMovieIds()) {
+            List<Integer> histogram = toHistogram(ratingCounts.getOrDefault(movieId, List.of()));
+            MovieRating movieRating = movieRatings.remove(movieId);
+            if (movieRating == null) {
+                movieRating = new MovieRating();
+                movieRating.setMovieId(movieId);
+            }
+            MovieRating before = copyOf(movieRating);
+            movieRating.setHistogram(histogram);
+            if (isEqual(before, movieRating)) {
+                continue;
+            }
+            repaired.add(movieRating);
+        }
+        repository.saveAll(repaired);
+        repository.deleteAll(movieRatings.values());
+        logger.debug("Repaired rating aggregates of " + repaired.size() + " movies, deleted " +
+                             movieRatings.size() + " of deleted movies");
+        return repaired.size() + movieRatings.size();
+    }
+
+    private void addRatings(Long movieId, Integer stars, int numberOfRatings) {
+        if (movieId == null || stars == null ||
+                stars < ReviewValidator.MIN_RATING || stars > ReviewValidator.MAX_RATING) {
+            return;
+        }
+        if (repository.addRatings(movieId, stars, numberOfRatings) == 0) {
+            logger.debug("No rating aggregates of movie with id " + movieId + ", counting its reviews");
+            recompute(movieId);
+        }
+    }
+
+    private static List<Integer> toHistogram(List<RatingCount> ratingCounts) {
+        Integer[] histogram = new Integer[ReviewValidator.MAX_RATING + 1];
+        Arrays.fill(histogram, 0);
+        for (RatingCount ratingCount : ratingCounts) {
+            Integer stars = ratingCount.getStars();
+            if (stars != null && stars >= ReviewValidator.MIN_RATING && stars <= ReviewValidator.MAX_RATING) {
+                histogram[stars] = ratingCount.getNumberOfRatings().intValue();
+            }
+        }
+        return List.of(histogram);
+    }
+
+    private static MovieRating copyOf(MovieRating movieRating) {
+        MovieRating copy = new MovieRating();
+        copy.setHistogram(movieRating.getHistogram());
+        copy.setNumberOfRatings(movieRating.getNumberOfRatings());
+        copy.setSumOfRatings(movieRating.getSumOfRatings());
+        return copy;
+    }
+
+    private static boolean isEqual(MovieRating movieRating, MovieRating other) {
+        return movieRating.getHistogram().equals(other.getHistogram()) &&
+                movieRating.getNumberOfRatings().equals(other.getNumberOfRatings()) &&
+                movieRating.getSumOfRatings().equals(other.getSumOfRatings());
+    }
+
+    private MovieRatingDto emptyMovieRatingDto(Long movieId) {
+        MovieRatingDto movieRatingDto = new MovieRatingDto();
+        movieRatingDto.setMovieId(movieId);
+        movieRatingDto.setHistogram(toHistogram(List.of()));
+        return movieRatingDto;
+    }
+
+}
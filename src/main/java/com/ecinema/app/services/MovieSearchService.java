@@ -0,0 +1,119 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.entities.Movie;
+import com.ecinema.app.domain.enums.MovieSearchField;
+import com.ecinema.app.domain.objects.MovieSearchIndex;
+import com.ecinema.app.domain.objects.Pair;
+import com.ecinema.app.repositories.MovieRepository;
+import com.ecinema.app.util.UtilMethods;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Serves the movie catalog search from an in-memory {@link MovieSearchIndex} over the title, director, cast,
+ * writers and synopsis of every movie. The index is loaded with five lean queries the first time it is searched
+ * and is afterwards kept up to date by {@link MovieService} whenever a movie is saved or deleted. Updates made
+ * within a transaction are applied only once the transaction commits.
+ */
+@Service
+public class MovieSearchService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final MovieRepository movieRepository;
+    private volatile MovieSearchIndex movieSearchIndex;
+
+    public MovieSearchService(MovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    /**
+     * Finds a page of the ids of the movies matching the search, most relevant first.
+     *
+     * @param search   the search
+     * @param pageable the pageable
+     * @return the page of movie ids
+     */
+    public Page<Long> searchMovieIds(String search, Pageable pageable) {
+        return UtilMethods.convertListToPage(searchAllMovieIds(search), pageable);
+    }
+
+    public List<Long> searchAllMovieIds(String search) {
+        return findMovieSearchIndex().search(search);
+    }
+
+    public void index(Movie movie) {
+        if (movie.getId() == null) {
+            return;
+        }
+        // read the texts now, the movie is detached by the time the transaction commits
+        Long movieId = movie.getId();
+        Map<MovieSearchField, List<String>> texts = new EnumMap<>(MovieSearchField.class);
+        texts.put(MovieSearchField.TITLE, nonNull(movie.getTitle()));
+        texts.put(MovieSearchField.DIRECTOR, nonNull(movie.getDirector()));
+        texts.put(MovieSearchField.CAST, List.copyOf(movie.getCast()));
+        texts.put(MovieSearchField.WRITERS, List.copyOf(movie.getWriters()));
+        texts.put(MovieSearchField.SYNOPSIS, nonNull(movie.getSynopsis()));
+        UtilMethods.afterCommit(() -> updateIfLoaded(index -> index.put(movieId, texts)));
+    }
+
+    public void remove(Long movieId) {
+        if (movieId == null) {
+            return;
+        }
+        UtilMethods.afterCommit(() -> updateIfLoaded(index -> index.remove(movieId)));
+    }
+
+    private MovieSearchIndex findMovieSearchIndex() {
+        MovieSearchIndex index = movieSearchIndex;
+        if (index != null) {
+            return index;
+        }
+        synchronized (this) {
+            if (movieSearchIndex == null) {
+                movieSearchIndex = loadMovieSearchIndex();
+            }
+            return movieSearchIndex;
+        }
+    }
+
+    /**
+     * Applies the update to the index if it is loaded. An index that is loading concurrently is updated once it
+     * has loaded, an index that is not loaded yet reads the update from the database when it loads.
+     */
+    private synchronized void updateIfLoaded(Consumer<MovieSearchIndex> update) {
+        if (movieSearchIndex != null) {
+            update.accept(movieSearchIndex);
+        }
+    }
+
+    private MovieSearchIndex loadMovieSearchIndex() {
+        Map<Long, Map<MovieSearchField, List<String>>> textsByMovieId = new HashMap<>();
+        Map<MovieSearchField, Supplier<List<Pair<Long, String>>>> queries = new EnumMap<>(MovieSearchField.class);
+        queries.put(MovieSearchField.TITLE, movieRepository::findAllTitles);
+        queries.put(MovieSearchField.DIRECTOR, movieRepository::findAllDirectors);
+        queries.put(MovieSearchField.CAST, movieRepository::findAllCastMembers);
+        queries.put(MovieSearchField.WRITERS, movieRepository::findAllWriters);
+        queries.put(MovieSearchField.SYNOPSIS, movieRepository::findAllSynopses);
+        queries.forEach((field, query) -> query.get().forEach(text -> textsByMovieId
+                .computeIfAbsent(text.getFirst(), movieId -> new EnumMap<>(MovieSearchField.class))
+                .computeIfAbsent(field, f -> new ArrayList<>())
+                .add(text.getSecond())));
+        MovieSearchIndex index = new MovieSearchIndex();
+        textsByMovieId.forEach(index::put);
+        logger.debug("Loaded movie search index of " + index.numberOfMovies() + " movies and " +
+                             index.numberOfWords() + " words");
+        return index;
+    }
+
+    private static List<String> nonNull(String text) {
+        return text != null ? List.of(text) : List.of();
+    }
+
+}
@@ -1,20 +1,28 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.CatalogCache;
 import com.ecinema.app.domain.dtos.MovieDto;
 import com.ecinema.app.domain.entities.Movie;
 import com.ecinema.app.domain.forms.MovieForm;
+import com.ecinema.app.domain.objects.MovieFacetCounts;
+import com.ecinema.app.domain.objects.MovieFacetFilter;
 import com.ecinema.app.domain.validators.MovieValidator;
 import com.ecinema.app.exceptions.InvalidArgumentException;
 import com.ecinema.app.exceptions.NoEntityFoundException;
 import com.ecinema.app.repositories.MovieRepository;
 import com.ecinema.app.util.UtilMethods;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -23,6 +31,11 @@ public class MovieService extends AbstractEntityService<Movie, MovieRepository,
     private final ScreeningService screeningService;
     private final ReviewService reviewService;
     private final MovieValidator movieValidator;
+    private final MovieSearchService movieSearchService;
+    private final MovieTypeaheadService movieTypeaheadService;
+    private final MovieFacetService movieFacetService;
+    private final CatalogCache catalogCache;
+    private final MovieRatingService movieRatingService;
 
     /**
      * Instantiates a new Movie service.
@@ -31,13 +44,26 @@ public class MovieService extends AbstractEntityService<Movie, MovieRepository,
      * @param reviewService          the review service
      * @param screeningService       the screening service
      * @param movieValidator         the movie validator
+     * @param movieSearchService     the movie search service
+     * @param movieTypeaheadService  the movie typeahead service
+     * @param movieFacetService      the movie facet service
+     * @param catalogCache           the catalog cache
+     * @param movieRatingService     the movie rating service
      */
     public MovieService(MovieRepository repository, ReviewService reviewService,
-                        ScreeningService screeningService, MovieValidator movieValidator) {
+                        ScreeningService screeningService, MovieValidator movieValidator,
+                        MovieSearchService movieSearchService, MovieTypeaheadService movieTypeaheadService,
+                        MovieFacetService movieFacetService, CatalogCache catalogCache,
+                        MovieRatingService movieRatingService) {
         super(repository);
         this.reviewService = reviewService;
         this.screeningService = screeningService;
         this.movieValidator = movieValidator;
+        this.movieSearchService = movieSearchService;
+        this.movieTypeaheadService = movieTypeaheadService;
+        this.movieFacetService = movieFacetService;
+        this.catalogCache = catalogCache;
+        this.movieRatingService = movieRatingService;
     }
 
     public static String convertTitleToSearchTitle(String title) {
@@ -53,6 +79,35 @@ public class MovieService extends AbstractEntityService<Movie, MovieRepository,
         // cascade delete Screenings
         logger.debug("Deleting all associated screenings");
         screeningService.deleteAll(movie.getScreenings());
+        movieSearchService.remove(movie.getId());
+        movieTypeaheadService.remove(movie.getId());
+        movieFacetService.remove(movie.getId());
+        catalogCache.invalidateMovie(movie.getId());
+        movieRatingService.deleteByMovieId(movie.getId());
+    }
+
+    @Override
+    public void save(Movie movie) {
+        super.save(movie);
+        movieRatingService.createIfAbsent(movie.getId());
+        movieSearchService.index(movie);
+        movieTypeaheadService.index(movie);
+        movieFacetService.index(movie);
+        catalogCache.invalidateMovie(movie.getId());
+    }
+
+    /**
+     * Finds the movie with the provided id, read through {@link CatalogCache}.
+     *
+     * @param id the movie id
+     * @return the movie dto
+     * @throws NoEntityFoundException if there is no movie with the id
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MovieDto findById(Long id)
+            throws NoEntityFoundException {
+        return catalogCache.getMovies().computeIfAbsent(id, super::findById);
     }
 
     @Override
@@ -101,17 +156,60 @@ public class MovieService extends AbstractEntityService<Movie, MovieRepository,
         return movie.getId();
     }
 
-    public MovieDto findByTitle(String title) {
-        String searchTitle = convertTitleToSearchTitle(title);
-        Movie movie = repository.findBySearchTitle(searchTitle).orElseThrow(
-                () -> new NoEntityFoundException("movie", "title", title));
-        return convertToDto(movie);
+    /**
+     * Finds the movie with the provided title, read through {@link CatalogCache}.
+     *
+     * @param title the title
+     * @return the movie dto
+     * @throws NoEntityFoundException if there is no movie with the title
+     */
+    @Transactional(readOnly = true)
+    public MovieDto findByTitle(String title)
+            throws NoEntityFoundException {
+        return catalogCache.getMoviesBySearchTitle().computeIfAbsent(
+                convertTitleToSearchTitle(title), searchTitle -> convertToDto(
+                        repository.findBySearchTitle(searchTitle).orElseThrow(
+                                () -> new NoEntityFoundException("movie", "title", title))));
     }
 
-    public Page<MovieDto> findAllByLikeTitle(String title, Pageable pageable) {
-        String searchTitle = convertTitleToSearchTitle(title);
-        return repository.findBySearchTitleContaining(searchTitle, pageable)
-                         .map(this::convertToDto);
+    /**
+     * Finds a page of the movies matching the search, most relevant first. The search is served by
+     * {@link MovieSearchService}, only the movies of the page are read from the database.
+     *
+     * @param search   the search
+     * @param pageable the pageable
+     * @return the page of movie dtos
+     */
+    public Page<MovieDto> findAllBySearch(String search, Pageable pageable) {
+        return findPageOfMovies(movieSearchService.searchMovieIds(search, pageable));
+    }
+
+    /**
+     * Finds a page of the movies that match the search, if there is one, and pass the facet filter. The movies
+     * are ordered by relevance if there is a search and by id otherwise. Both the search and the filter are served
+     * from memory, only the movies of the page are read from the database.
+     *
+     * @param search           the search, may be blank
+     * @param movieFacetFilter the movie facet filter
+     * @param pageable         the pageable
+     * @return the page of movie dtos
+     */
+    public Page<MovieDto> findAllBySearchAndFacets(String search, MovieFacetFilter movieFacetFilter,
+                                                   Pageable pageable) {
+        List<Long> movieIds = movieFacetService.findAllMovieIds(movieFacetFilter, findAllMovieIdsBySearch(search));
+        return findPageOfMovies(UtilMethods.convertListToPage(movieIds, pageable));
+    }
+
+    /**
+     * Counts the movies of every facet value among the movies that match the search, if there is one, next to
+     * the facet filter.
+     *
+     * @param search           the search, may be blank
+     * @param movieFacetFilter the movie facet filter
+     * @return the movie facet counts
+     */
+    public MovieFacetCounts countFacets(String search, MovieFacetFilter movieFacetFilter) {
+        return movieFacetService.countFacets(movieFacetFilter, findAllMovieIdsBySearch(search));
     }
 
     public List<String> onDeleteInfo(Long movieId) {
@@ -121,4 +219,16 @@ public class MovieService extends AbstractEntityService<Movie, MovieRepository,
         return onDeleteInfo;
     }
 
+    private List<Long> findAllMovieIdsBySearch(String search) {
+        return search == null || search.isBlank() ? null : movieSearchService.searchAllMovieIds(search);
+    }
+
+    private Page<MovieDto> findPageOfMovies(Page<Long> movieIds) {
+        Map<Long, Movie> movies = repository.findAllById(movieIds.getContent()).stream().collect(
+                Collectors.toMap(Movie::getId, Function.identity()));
+        List<MovieDto> movieDtos = movieIds.stream().map(movies::get).filter(Objects::nonNull)
+                                           .map(this::convertToDto).collect(Collectors.toList());
+        return new PageImpl<>(movieDtos, movieIds.getPageable(), movieIds.getTotalElements());
+    }
+
 }
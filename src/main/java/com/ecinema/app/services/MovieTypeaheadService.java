@@ -0,0 +1,164 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.entities.Movie;
+import com.ecinema.app.domain.enums.TypeaheadType;
+import com.ecinema.app.domain.objects.Pair;
+import com.ecinema.app.domain.objects.PrefixTrie;
+import com.ecinema.app.domain.objects.TypeaheadSuggestion;
+import com.ecinema.app.repositories.MovieRepository;
+import com.ecinema.app.util.UtilMethods;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Suggests movie titles, directors, cast members and writers as the movie search is typed. Suggestions are kept
+ * in a {@link PrefixTrie} keyed on text normalized by {@link MovieService#convertTitleToSearchTitle(String)}.
+ * A movie weighs one plus its number of reviews, a person weighs the sum of the weights of the movies that credit
+ * them, so popular movies and prolific people are suggested first. The trie is loaded with a handful of lean
+ * queries the first time it is used and is afterwards kept up to date by {@link MovieService} whenever a movie is
+ * saved or deleted. Updates made within a transaction are applied only once the transaction commits.
+ */
+@Service
+public class MovieTypeaheadService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final MovieRepository movieRepository;
+    private final Map<Long, Set<String>> suggestionIdsByMovieId = new HashMap<>();
+    private final Map<String, Map<Long, Long>> movieWeightsBySuggestionId = new HashMap<>();
+    private volatile PrefixTrie<TypeaheadSuggestion> prefixTrie;
+
+    public MovieTypeaheadService(MovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    /**
+     * Finds the most popular suggestions starting with the prefix, at most {@link PrefixTrie#MAX_TOP_VALUES}.
+     *
+     * @param prefix the prefix
+     * @param limit  the max number of suggestions
+     * @return the suggestions
+     */
+    public List<TypeaheadSuggestion> suggest(String prefix, int limit) {
+        String key = MovieService.convertTitleToSearchTitle(prefix == null ? "" : prefix);
+        if (key.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return findPrefixTrie().findTopByPrefix(key, limit);
+    }
+
+    public void index(Movie movie) {
+        if (movie.getId() == null) {
+            return;
+        }
+        // read the movie now, it is detached by the time the transaction commits
+        Long movieId = movie.getId();
+        long weight = 1L + movieRepository.countReviewsOfMovieWithId(movieId);
+        Map<TypeaheadType, List<String>> texts = new EnumMap<>(TypeaheadType.class);
+        texts.put(TypeaheadType.MOVIE, movie.getTitle() != null ? List.of(movie.getTitle()) : List.of());
+        texts.put(TypeaheadType.DIRECTOR, movie.getDirector() != null ? List.of(movie.getDirector()) : List.of());
+        texts.put(TypeaheadType.CAST, List.copyOf(movie.getCast()));
+        texts.put(TypeaheadType.WRITER, List.copyOf(movie.getWriters()));
+        UtilMethods.afterCommit(() -> updateIfLoaded(trie -> put(trie, movieId, weight, texts)));
+    }
+
+    public void remove(Long movieId) {
+        if (movieId == null) {
+            return;
+        }
+        UtilMethods.afterCommit(() -> updateIfLoaded(trie -> remove(trie, movieId)));
+    }
+
+    private PrefixTrie<TypeaheadSuggestion> findPrefixTrie() {
+        PrefixTrie<TypeaheadSuggestion> trie = prefixTrie;
+        if (trie != null) {
+            return trie;
+        }
+        synchronized (this) {
+            if (prefixTrie == null) {
+                prefixTrie = loadPrefixTrie();
+            }
+            return prefixTrie;
+        }
+    }
+
+    private synchronized void updateIfLoaded(Consumer<PrefixTrie<TypeaheadSuggestion>> update) {
+        if (prefixTrie != null) {
+            update.accept(prefixTrie);
+        }
+    }
+
+    private PrefixTrie<TypeaheadSuggestion> loadPrefixTrie() {
+        Map<Long, Long> weights = new HashMap<>();
+        movieRepository.findAllNumbersOfReviews().forEach(
+                numberOfReviews -> weights.put(numberOfReviews.getFirst(), 1L + numberOfReviews.getSecond()));
+        Map<Long, Map<TypeaheadType, List<String>>> textsByMovieId = new HashMap<>();
+        addAll(textsByMovieId, TypeaheadType.MOVIE, movieRepository.findAllTitles());
+        addAll(textsByMovieId, TypeaheadType.DIRECTOR, movieRepository.findAllDirectors());
+        addAll(textsByMovieId, TypeaheadType.CAST, movieRepository.findAllCastMembers());
+        addAll(textsByMovieId, TypeaheadType.WRITER, movieRepository.findAllWriters());
+        PrefixTrie<TypeaheadSuggestion> trie = new PrefixTrie<>();
+        textsByMovieId.forEach((movieId, texts) -> put(trie, movieId, weights.getOrDefault(movieId, 1L), texts));
+        logger.debug("Loaded typeahead of " + trie.size() + " suggestions");
+        return trie;
+    }
+
+    private static void addAll(Map<Long, Map<TypeaheadType, List<String>>> textsByMovieId, TypeaheadType type,
+                               List<Pair<Long, String>> texts) {
+        texts.forEach(text -> textsByMovieId
+                .computeIfAbsent(text.getFirst(), movieId -> new EnumMap<>(TypeaheadType.class))
+                .computeIfAbsent(type, t -> new ArrayList<>())
+                .add(text.getSecond()));
+    }
+
+    private void put(PrefixTrie<TypeaheadSuggestion> trie, Long movieId, long weight,
+                     Map<TypeaheadType, List<String>> texts) {
+        remove(trie, movieId);
+        Set<String> suggestionIds = new HashSet<>();
+        texts.forEach((type, typeTexts) -> typeTexts.forEach(text -> {
+            String key = MovieService.convertTitleToSearchTitle(text == null ? "" : text);
+            if (key.isEmpty()) {
+                return;
+            }
+            // a title is suggested per movie, a person once for all the movies that credit them
+            String suggestionId = type == TypeaheadType.MOVIE ? type + ":" + movieId : type + ":" + key;
+            suggestionIds.add(suggestionId);
+            Map<Long, Long> movieWeights = movieWeightsBySuggestionId.computeIfAbsent(
+                    suggestionId, id -> new HashMap<>());
+            movieWeights.put(movieId, weight);
+            long totalWeight = movieWeights.values().stream().mapToLong(Long::longValue).sum();
+            trie.put(suggestionId, key, new TypeaheadSuggestion(
+                    text, type, type == TypeaheadType.MOVIE ? movieId : null, totalWeight), totalWeight);
+        }));
+        suggestionIdsByMovieId.put(movieId, suggestionIds);
+    }
+
+    private void remove(PrefixTrie<TypeaheadSuggestion> trie, Long movieId) {
+        Set<String> suggestionIds = suggestionIdsByMovieId.remove(movieId);
+        if (suggestionIds == null) {
+            return;
+        }
+        for (String suggestionId : suggestionIds) {
+            Map<Long, Long> movieWeights = movieWeightsBySuggestionId.get(suggestionId);
+            movieWeights.remove(movieId);
+            if (movieWeights.isEmpty()) {
+                movieWeightsBySuggestionId.remove(suggestionId);
+                trie.remove(suggestionId);
+            } else {
+                reweigh(trie, suggestionId, movieWeights);
+            }
+        }
+    }
+
+    private static void reweigh(PrefixTrie<TypeaheadSuggestion> trie, String suggestionId,
+                                Map<Long, Long> movieWeights) {
+        long totalWeight = movieWeights.values().stream().mapToLong(Long::longValue).sum();
+        TypeaheadSuggestion suggestion = trie.findById(suggestionId);
+        trie.put(suggestionId, MovieService.convertTitleToSearchTitle(suggestion.getText()), new TypeaheadSuggestion(
+                suggestion.getText(), suggestion.getType(), suggestion.getMovieId(), totalWeight), totalWeight);
+    }
+
+}
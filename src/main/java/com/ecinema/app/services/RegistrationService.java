@@ -77,20 +77,21 @@ public class RegistrationService extends AbstractEntityService<Registration, Reg
             throw new InvalidArgumentException(errors);
         }
         logger.debug("Registration form passed validation checks");
+        List<String> encoded = encoderService.encodeAll(
+                registrationForm.getIsPasswordEncoded() ? null : registrationForm.getPassword(),
+                registrationForm.getIsSecurityAnswer1Encoded() ? null : registrationForm.getSecurityAnswer1(),
+                registrationForm.getIsSecurityAnswer2Encoded() ? null : registrationForm.getSecurityAnswer2());
         if (!registrationForm.getIsPasswordEncoded()) {
-            String encodedPassword = encoderService.encode(registrationForm.getPassword());
-            registrationForm.setPassword(encodedPassword);
-            registrationForm.setConfirmPassword(encodedPassword);
+            registrationForm.setPassword(encoded.get(0));
+            registrationForm.setConfirmPassword(encoded.get(0));
             registrationForm.setIsPasswordEncoded(true);
         }
         if (!registrationForm.getIsSecurityAnswer1Encoded()) {
-            String encodedAnswer1 = encoderService.encode(registrationForm.getSecurityAnswer1());
-            registrationForm.setSecurityAnswer1(encodedAnswer1);
+            registrationForm.setSecurityAnswer1(encoded.get(1));
             registrationForm.setIsSecurityAnswer1Encoded(true);
         }
         if (!registrationForm.getIsSecurityAnswer2Encoded()) {
-            String encodedAnswer2 = encoderService.encode(registrationForm.getSecurityAnswer2());
-            registrationForm.setSecurityAnswer2(encodedAnswer2);
+            registrationForm.setSecurityAnswer2(encoded.get(2));
             registrationForm.setIsSecurityAnswer2Encoded(true);
         }
         Registration registration = new Registration();
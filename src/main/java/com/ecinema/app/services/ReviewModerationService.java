@@ -0,0 +1,281 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.objects.MultiPatternMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Scans reviews for flagged terms off the request thread. A submitted review is only offered to a bounded
+ * in-process queue, which a pool of {@link #NUMBER_OF_WORKERS} workers drains in batches of up to
+ * {@link #MAX_BATCH_SIZE} reviews. Each worker scans every review of its batch against the term list of the
+ * {@code ecinema.moderation.terms} property with one {@link MultiPatternMatcher} pass, and then marks the whole
+ * batch as scanned, and the reviews containing terms as flagged for the moderator queue, with one JDBC batch.
+ * <p>
+ * Reviews that are not offered to the queue, because it is full, the application stopped before they were
+ * scanned, or they were imported straight into the database, are left unscanned. A sweep finds them in batches
+ * when the application is ready and then every {@link #SWEEP_INTERVAL_IN_MINUTES} minutes, and puts them on a
+ * second, smaller queue of {@link #MAX_SWEPT_REVIEWS} reviews, blocking while it is full. Workers only take swept
+ * reviews to fill up a batch once the queue of submitted reviews is empty, so a bulk import of historical reviews
+ * is scanned at the pace of the workers while newly submitted reviews keep the whole submission queue and wait
+ * behind at most the batches already taken. A review that is already on either queue is not swept onto it again.
+ */
+@Service
+public class ReviewModerationService implements DisposableBean {
+
+    public static final int NUMBER_OF_WORKERS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    public static final int MAX_QUEUED_REVIEWS = 10_000;
+    public static final int MAX_SWEPT_REVIEWS = 1_000;
+    public static final int MAX_BATCH_SIZE = 100;
+    public static final long SWEEP_INTERVAL_IN_MINUTES = 10L;
+
+    private static final String MARK_SCANNED =
+            "UPDATE review SET is_scanned = true, is_flagged = ?, flagged_terms = ? " +
+                    "WHERE id = ? AND (is_scanned IS NULL OR is_scanned = false)";
+    private static final String FIND_UNSCANNED =
+            "SELECT id, review FROM review WHERE (is_scanned IS NULL OR is_scanned = false) AND id > ? " +
+                    "ORDER BY id LIMIT ?";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final BlockingQueue<PendingReview> submittedReviews = new LinkedBlockingQueue<>(MAX_QUEUED_REVIEWS);
+    private final BlockingQueue<PendingReview> sweptReviews = new LinkedBlockingQueue<>(MAX_SWEPT_REVIEWS);
+    private final Set<Long> queuedReviewIds = ConcurrentHashMap.newKeySet();
+    private final Lock queueLock = new ReentrantLock();
+    private final Condition reviewQueued = queueLock.newCondition();
+    private final JdbcTemplate jdbcTemplate;
+    private final MultiPatternMatcher matcher;
+    private ExecutorService workers;
+    private ScheduledExecutorService sweeper;
+
+    public ReviewModerationService(JdbcTemplate jdbcTemplate,
+                                   @Value("${ecinema.moderation.terms:}") List<String> terms) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.matcher = new MultiPatternMatcher(terms);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (workers != null) {
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(NUMBER_OF_WORKERS, runnable -> {
+            Thread thread = new Thread(runnable, "review-moderation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < NUMBER_OF_WORKERS; i++) {
+            workers.execute(this::scanQueuedReviews);
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "review-moderation-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepQuietly, 0L, SWEEP_INTERVAL_IN_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (workers != null) {
+            // reviews still queued are unscanned in the database and are swept after the next start
+            sweeper.shutdownNow();
+            workers.shutdownNow();
+            sweeper = null;
+            workers = null;
+            submittedReviews.clear();
+            sweptReviews.clear();
+            queuedReviewIds.clear();
+        }
+    }
+
+    /**
+     * Offers the review to the moderation queue without waiting. A review that does not fit in the queue is
+     * scanned by the next sweep.
+     *
+     * @param reviewId the review id
+     * @param review   the text of the review
+     * @return true if the review was queued
+     */
+    public boolean enqueue(Long reviewId, String review) {
+        if (reviewId == null) {
+            return false;
+        }
+        if (!queuedReviewIds.add(reviewId)) {
+            return true;
+        }
+        boolean isQueued = submittedReviews.offer(new PendingReview(reviewId, review));
+        if (isQueued) {
+            signalReviewQueued();
+        } else {
+            queuedReviewIds.remove(reviewId);
+            logger.debug("Moderation queue is full, review with id " + reviewId + " is left for the next sweep");
+        }
+        return isQueued;
+    }
+
+    /**
+     * Scans the reviews against the term list and marks them as scanned, and as flagged if they contain terms,
+     * with one batch. Reviews that were scanned already are left as they are, so a review that a moderator has
+     * cleared is not flagged again. The reviews are no longer counted as queued afterwards, even if the batch
+     * fails, so that the next sweep picks up the ones that are still unscanned.
+     *
+     * @param pendingReviews the reviews
+     * @return the number of reviews flagged
+     */
+    public int scan(List<PendingReview> pendingReviews) {
+        if (pendingReviews.isEmpty()) {
+            return 0;
+        }
+        try {
+            List<Object[]> batchArgs = new ArrayList<>();
+            int numberOfFlagged = 0;
+            for (PendingReview pendingReview : pendingReviews) {
+                List<String> flaggedTerms = matcher.findMatches(pendingReview.review());
+                boolean isFlagged = !flaggedTerms.isEmpty();
+                if (isFlagged) {
+                    numberOfFlagged++;
+                }
+                batchArgs.add(new Object[]{isFlagged, isFlagged ? String.join(", ", flaggedTerms) : null,
+                        pendingReview.reviewId()});
+            }
+            jdbcTemplate.batchUpdate(MARK_SCANNED, batchArgs);
+            logger.debug("Scanned " + pendingReviews.size() + " reviews, flagged " + numberOfFlagged);
+            return numberOfFlagged;
+        } finally {
+            pendingReviews.forEach(pendingReview -> queuedReviewIds.remove(pendingReview.reviewId()));
+        }
+    }
+
+    /**
+     * Puts every unscanned review that is not queued already onto the queue of swept reviews, reading them in
+     * batches of {@link #MAX_BATCH_SIZE} and waiting while the queue is full.
+     *
+     * @return the number of reviews queued
+     * @throws InterruptedException if interrupted while waiting on the queue
+     */
+    public int sweep()
+            throws InterruptedException {
+        int numberOfQueued = 0;
+        long lastReviewId = 0L;
+        while (true) {
+            List<PendingReview> unscannedReviews = jdbcTemplate.query(
+                    FIND_UNSCANNED, (resultSet, rowNum) -> new PendingReview(
+                            resultSet.getLong("id"), resultSet.getString("review")),
+                    lastReviewId, MAX_BATCH_SIZE);
+            for (PendingReview unscannedReview : unscannedReviews) {
+                if (!queuedReviewIds.add(unscannedReview.reviewId())) {
+                    continue;
+                }
+                try {
+                    sweptReviews.put(unscannedReview);
+                } catch (InterruptedException e) {
+                    queuedReviewIds.remove(unscannedReview.reviewId());
+                    throw e;
+                }
+                signalReviewQueued();
+                numberOfQueued++;
+            }
+            if (unscannedReviews.size() < MAX_BATCH_SIZE) {
+                break;
+            }
+            lastReviewId = unscannedReviews.get(unscannedReviews.size() - 1).reviewId();
+        }
+        if (numberOfQueued > 0) {
+            logger.debug("Swept " + numberOfQueued + " unscanned reviews onto the moderation queue");
+        }
+        return numberOfQueued;
+    }
+
+    public int queueDepth() {
+        return submittedReviews.size() + sweptReviews.size();
+    }
+
+    /**
+     * Takes the next batch of up to {@link #MAX_BATCH_SIZE} reviews, submitted reviews first and then swept
+     * reviews. While both queues are empty it blocks until a review is enqueued or swept onto either of them.
+     *
+     * @return the batch, never empty
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public List<PendingReview> takeBatch()
+            throws InterruptedException {
+        List<PendingReview> batch = new ArrayList<>();
+        while (true) {
+            submittedReviews.drainTo(batch, MAX_BATCH_SIZE);
+            sweptReviews.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+            if (!batch.isEmpty()) {
+                return batch;
+            }
+            // the queues are checked again under the lock, a review is only signalled once it is on a queue
+            queueLock.lock();
+            try {
+                while (submittedReviews.isEmpty() && sweptReviews.isEmpty()) {
+                    reviewQueued.await();
+                }
+            } finally {
+                queueLock.unlock();
+            }
+        }
+    }
+
+    private void signalReviewQueued() {
+        queueLock.lock();
+        try {
+            reviewQueued.signal();
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void scanQueuedReviews() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<PendingReview> batch;
+            try {
+                batch = takeBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                scan(batch);
+            } catch (RuntimeException e) {
+                // the reviews stay unscanned in the database and are picked up by the next sweep
+                logger.error("Failed to scan " + batch.size() + " reviews, retrying on the next sweep", e);
+            }
+        }
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Failed to sweep unscanned reviews, retrying on the next run", e);
+        }
+    }
+
+    /**
+     * A review waiting on the moderation queue.
+     *
+     * @param reviewId the review id
+     * @param review   the text of the review
+     */
+    public record PendingReview(Long reviewId, String review) {}
+
+}
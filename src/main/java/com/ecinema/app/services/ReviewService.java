@@ -6,6 +6,7 @@ import com.ecinema.app.domain.entities.Movie;
 import com.ecinema.app.domain.entities.Review;
 import com.ecinema.app.domain.enums.Vote;
 import com.ecinema.app.domain.forms.ReviewForm;
+import com.ecinema.app.domain.objects.ReviewWriter;
 import com.ecinema.app.domain.validators.ReviewValidator;
 import com.ecinema.app.exceptions.*;
 import com.ecinema.app.repositories.CustomerRepository;
@@ -13,14 +14,21 @@ import com.ecinema.app.repositories.MovieRepository;
 import com.ecinema.app.repositories.ReviewRepository;
 import com.ecinema.app.util.UtilMethods;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -30,11 +38,16 @@ public class ReviewService extends AbstractEntityService<Review, ReviewRepositor
     private final MovieRepository movieRepository;
     private final ReviewValidator reviewValidator;
     private final ReviewVoteService reviewVoteService;
+    private final MovieRatingService movieRatingService;
+    private final ReviewModerationService reviewModerationService;
 
     public ReviewService(ReviewRepository repository, MovieRepository movieRepository,
                          CustomerRepository customerRepository, ReviewValidator reviewValidator,
-                         ReviewVoteService reviewVoteService) {
+                         ReviewVoteService reviewVoteService, MovieRatingService movieRatingService,
+                         ReviewModerationService reviewModerationService) {
         super(repository);
+        this.reviewModerationService = reviewModerationService;
+        this.movieRatingService = movieRatingService;
         this.movieRepository = movieRepository;
         this.reviewValidator = reviewValidator;
         this.reviewVoteService = reviewVoteService;
@@ -62,30 +75,77 @@ public class ReviewService extends AbstractEntityService<Review, ReviewRepositor
         reviewVoteService.deleteAll(review.getReviewVotes());
     }
 
+    @Override
+    public void delete(Review review) {
+        // read the movie now, it is detached on delete
+        Movie movie = review.getMovie();
+        boolean isRated = movie != null && !Boolean.TRUE.equals(review.getIsCensored());
+        super.delete(review);
+        if (isRated) {
+            movieRatingService.removeRating(movie.getId(), review.getRating());
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        super.deleteAll();
+        movieRatingService.recomputeAll();
+    }
+
     @Override
     public ReviewDto convertToDto(Review review) {
-        ReviewDto reviewDTO = new ReviewDto();
-        reviewDTO.setToIReview(review);
-        reviewDTO.setId(review.getId());
-        reviewDTO.setIsCensored(review.getIsCensored());
-        reviewDTO.setCreationDateTime(review.getCreationDateTime());
-        reviewDTO.setCustomerId(
-                repository.findCustomerIdByReviewWithId(review.getId())
-                          .orElseThrow(() -> new NoEntityFoundException(
-                                  "customer id", "review id", review.getId())));
-        reviewDTO.setUserId(
-                repository.findUserIdByReviewWithId(review.getId())
-                        .orElseThrow(() -> new NoEntityFoundException(
-                                "user id", "review id", review.getId())));
-        reviewDTO.setWriter(
-                repository.findUsernameOfWriterForReviewWithId(review.getId())
-                        .orElseThrow(() -> new NoEntityFoundException(
-                                "username", "review id", review.getId())));
-        Map<Vote, List<Long>> mapOfVoterUserIds = reviewVoteService.mapOfVoterUserIds(review.getId());
-        reviewDTO.setUpvoteUserIds(mapOfVoterUserIds.get(Vote.UPVOTE));
-        reviewDTO.setDownvoteUserIds(mapOfVoterUserIds.get(Vote.DOWNVOTE));
-        logger.debug("convert review to DTO: " + reviewDTO);
-        return reviewDTO;
+        return convertToDto(List.of(review), null).get(0);
+    }
+
+    @Override
+    protected List<ReviewDto> convertToDto(Collection<Review> reviews) {
+        return convertToDto(reviews, null);
+    }
+
+    /**
+     * Converts the reviews to dtos with the same number of queries however many reviews there are. The writers
+     * of all reviews are found with one join and their votes are read from their vote counters. Only the votes of
+     * the viewing user are resolved, if there is one.
+     *
+     * @param reviews      the reviews
+     * @param viewerUserId the id of the viewing user, null if no user is logged in
+     * @return the review dtos in the order of the reviews
+     * @throws NoEntityFoundException if a review has no writer
+     */
+    public List<ReviewDto> convertToDto(Collection<Review> reviews, Long viewerUserId)
+            throws NoEntityFoundException {
+        if (reviews.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> reviewIds = reviews.stream().map(Review::getId).collect(Collectors.toList());
+        Map<Long, ReviewWriter> reviewWriters = repository.findAllReviewWritersByReviewWithIdIn(reviewIds).stream()
+                .collect(Collectors.toMap(ReviewWriter::getReviewId, Function.identity()));
+        Map<Long, Vote> viewerVotes = viewerUserId == null ? Map.of() :
+                reviewVoteService.mapOfVotesOfUser(viewerUserId, reviewIds);
+        List<ReviewDto> reviewDtos = new ArrayList<>();
+        for (Review review : reviews) {
+            ReviewWriter reviewWriter = reviewWriters.get(review.getId());
+            if (reviewWriter == null) {
+                throw new NoEntityFoundException("writer", "review id", review.getId());
+            }
+            ReviewDto reviewDTO = new ReviewDto();
+            reviewDTO.setToIReview(review);
+            reviewDTO.setId(review.getId());
+            reviewDTO.setIsCensored(review.getIsCensored());
+            reviewDTO.setIsFlagged(review.getIsFlagged());
+            reviewDTO.setFlaggedTerms(review.getFlaggedTerms());
+            reviewDTO.setCreationDateTime(review.getCreationDateTime());
+            reviewDTO.setCustomerId(reviewWriter.getCustomerId());
+            reviewDTO.setUserId(reviewWriter.getUserId());
+            reviewDTO.setWriter(reviewWriter.getUsername());
+            reviewDTO.setNumberOfUpvotes(reviewVoteService.numberOfVotes(review, Vote.UPVOTE));
+            reviewDTO.setNumberOfDownvotes(reviewVoteService.numberOfVotes(review, Vote.DOWNVOTE));
+            reviewDTO.setHelpfulnessScore(review.getHelpfulnessScore());
+            reviewDTO.setViewerVote(viewerVotes.get(review.getId()));
+            logger.debug("convert review to DTO: " + reviewDTO);
+            reviewDtos.add(reviewDTO);
+        }
+        return reviewDtos;
     }
 
     public void submitReviewForm(ReviewForm reviewForm)
@@ -117,25 +177,115 @@ public class ReviewService extends AbstractEntityService<Review, ReviewRepositor
         review.setReview(reviewForm.getReview());
         review.setCreationDateTime(LocalDateTime.now());
         review.setIsCensored(false);
+        review.setIsScanned(false);
+        review.setIsFlagged(false);
         repository.save(review);
+        movieRatingService.addRating(movie.getId(), review.getRating());
+        // scanned for flagged terms in the background, the submit does not wait on it
+        UtilMethods.afterCommit(() -> reviewModerationService.enqueue(review.getId(), review.getReview()));
         logger.debug("Instantiated and saved review for " + movie.getTitle() +
                              " by " + customer.getUser().getUsername());
     }
 
+    /**
+     * Censors or uncensors the review. Censored reviews are hidden and do not count towards the rating of the
+     * movie.
+     *
+     * @param reviewId the review id
+     * @param censor   true to censor the review, false to uncensor it
+     * @throws NoEntityFoundException if there is no review with the id
+     */
+    public void setReviewCensoredStatus(Long reviewId, boolean censor)
+            throws NoEntityFoundException {
+        Review review = repository.findById(reviewId).orElseThrow(
+                () -> new NoEntityFoundException("review", "id", reviewId));
+        if (Boolean.TRUE.equals(review.getIsCensored()) == censor) {
+            return;
+        }
+        review.setIsCensored(censor);
+        repository.save(review);
+        logger.debug("Set censored status of review with id " + reviewId + " to " + censor);
+        if (review.getMovie() == null) {
+            return;
+        }
+        if (censor) {
+            movieRatingService.removeRating(review.getMovie().getId(), review.getRating());
+        } else {
+            movieRatingService.addRating(review.getMovie().getId(), review.getRating());
+        }
+    }
+
+    /**
+     * Clears the flag of the review, removing it from the moderator queue, and censors it if the moderator
+     * decides so.
+     *
+     * @param reviewId the review id
+     * @param censor   true to censor the review, false to keep it visible
+     * @throws NoEntityFoundException if there is no review with the id
+     */
+    public void resolveFlaggedReview(Long reviewId, boolean censor)
+            throws NoEntityFoundException {
+        setReviewCensoredStatus(reviewId, censor);
+        Review review = repository.findById(reviewId).orElseThrow(
+                () -> new NoEntityFoundException("review", "id", reviewId));
+        review.setIsFlagged(false);
+        repository.save(review);
+        logger.debug("Resolved flagged review with id " + reviewId + ", censored: " + censor);
+    }
+
+    /**
+     * Finds the page of reviews waiting in the moderator queue, oldest first.
+     *
+     * @param pageable the pageable
+     * @return the page of review dtos
+     */
+    public Page<ReviewDto> findPageOfFlagged(Pageable pageable) {
+        Page<Review> pageOfReviews = repository.findAllFlagged(pageable);
+        return new PageImpl<>(convertToDto(pageOfReviews.getContent(), null),
+                              pageOfReviews.getPageable(), pageOfReviews.getTotalElements());
+    }
+
     public boolean existsByUserIdAndMovieId(Long userId, Long movieId)
             throws NoEntityFoundException {
         return repository.existsByUserWithIdAndMovieWithId(userId, movieId);
     }
 
-    public Page<ReviewDto> findPageByMovieIdAndNotCensored(Long movieId, Pageable pageable) {
-        return repository.findAllByMovieWithIdAndNotCensored(movieId, pageable)
-                         .map(this::convertToDto);
+    /**
+     * Finds the page of reviews of the movie that are not censored, with the votes of the viewing user resolved.
+     *
+     * @param movieId      the movie id
+     * @param viewerUserId the id of the viewing user, null if no user is logged in
+     * @param pageable     the pageable
+     * @return the page of review dtos
+     */
+    public Page<ReviewDto> findPageByMovieIdAndNotCensored(Long movieId, Long viewerUserId, Pageable pageable) {
+        Page<Review> pageOfReviews = repository.findAllByMovieWithIdAndNotCensored(movieId, pageable);
+        return new PageImpl<>(convertToDto(pageOfReviews.getContent(), viewerUserId),
+                              pageOfReviews.getPageable(), pageOfReviews.getTotalElements());
     }
 
-    public Integer findAverageRatingOfMovieWithId(Long movieId) {
-        Integer avgRating = repository.findAverageOfReviewRatingsForMovieWithId(movieId);
-        return avgRating == null ? 0 : avgRating;
+    /**
+     * Finds the slice of reviews of the movie that are not censored, ranked by
+     * {@link Review#getHelpfulnessScore()} with the most helpful first, with the votes of the viewing user resolved.
+     * The first slice is found if the helpfulness score and id of the last review of the previous slice are null,
+     * otherwise the slice is found by seeking past that review.
+     *
+     * @param movieId               the movie id
+     * @param viewerUserId          the id of the viewing user, null if no user is logged in
+     * @param afterHelpfulnessScore the helpfulness score of the last review of the previous slice, null if none
+     * @param afterReviewId         the id of the last review of the previous slice, null if none
+     * @param size                  the size of the slice
+     * @return the slice of review dtos
+     */
+    public Slice<ReviewDto> findSliceByMovieIdAndNotCensoredOrderByHelpfulness(
+            Long movieId, Long viewerUserId, Double afterHelpfulnessScore, Long afterReviewId, int size) {
+        PageRequest pageRequest = PageRequest.of(0, size);
+        Slice<Review> sliceOfReviews = afterHelpfulnessScore == null || afterReviewId == null ?
+                repository.findSliceByMovieWithIdAndNotCensoredOrderByHelpfulness(movieId, pageRequest) :
+                repository.findSliceByMovieWithIdAndNotCensoredOrderByHelpfulnessAfter(
+                        movieId, afterHelpfulnessScore, afterReviewId, pageRequest);
+        return new SliceImpl<>(convertToDto(sliceOfReviews.getContent(), viewerUserId),
+                               sliceOfReviews.getPageable(), sliceOfReviews.hasNext());
     }
 
 }
-
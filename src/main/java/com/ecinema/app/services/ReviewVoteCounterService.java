@@ -0,0 +1,287 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.enums.Vote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind buffer for the vote counters of {@link com.ecinema.app.domain.entities.Review}. A vote that is cast,
+ * changed or deleted only adds to the {@link LongAdder} of the review, which spreads concurrent votes on a hot
+ * review over several cells instead of contending on one row, so any number of votes on a review between two
+ * flushes costs one write. A single background thread flushes the deltas every {@link #FLUSH_INTERVAL_IN_SECONDS}
+ * seconds as one JDBC batch of atomic increments, and once more on shutdown. Deltas that fail to flush are put back
+ * and retried on the next flush. Votes share the read side of a lock and a flush only takes the write side to swap
+ * in an empty map, so the map it drains can no longer be written to and no vote is lost to the swap.
+ * <p>
+ * The rows of {@link com.ecinema.app.domain.entities.ReviewVote} stay the source of truth: the counters are rebuilt
+ * from them when the application is ready, which also fills in the counters of reviews voted on before they were
+ * kept, and then every {@link #REBUILD_INTERVAL_IN_HOURS} hours. A vote cast while the counters are rebuilt may be
+ * counted twice until the next rebuild.
+ * <p>
+ * Each flush also recomputes {@link com.ecinema.app.domain.entities.Review#getHelpfulnessScore()} of the reviews
+ * whose counters it changed, so ranking reviews by helpfulness only ever reads the indexed score.
+ */
+@Service
+public class ReviewVoteCounterService implements DisposableBean {
+
+    public static final long FLUSH_INTERVAL_IN_SECONDS = 5L;
+    public static final long REBUILD_INTERVAL_IN_HOURS = 24L;
+
+    private static final String ADD_TO_VOTE_COUNTERS =
+            "UPDATE review SET number_of_upvotes = COALESCE(number_of_upvotes, 0) + ?, " +
+                    "number_of_downvotes = COALESCE(number_of_downvotes, 0) + ? WHERE id = ?";
+    private static final String REBUILD_VOTE_COUNTERS =
+            "UPDATE review SET " +
+                    "number_of_upvotes = (SELECT COUNT(*) FROM review_vote rv " +
+                    "WHERE rv.review_id = review.id AND rv.vote = 'UPVOTE'), " +
+                    "number_of_downvotes = (SELECT COUNT(*) FROM review_vote rv " +
+                    "WHERE rv.review_id = review.id AND rv.vote = 'DOWNVOTE')";
+    private static final String REBUILD_VOTE_COUNTERS_OF_REVIEW = REBUILD_VOTE_COUNTERS + " WHERE id = ?";
+    // lower bound of the Wilson score interval at 95% confidence, (u + z²/2 - z * sqrt(u * d / n + z²/4)) / (n + z²)
+    // for u upvotes and d downvotes out of n votes with z = 1.96
+    private static final String HELPFULNESS_SCORE =
+            "CASE WHEN number_of_upvotes + number_of_downvotes = 0 THEN 0 " +
+                    "ELSE (number_of_upvotes + 1.9208 - 1.96 * SQRT(1.0 * number_of_upvotes * number_of_downvotes " +
+                    "/ (number_of_upvotes + number_of_downvotes) + 0.9604)) " +
+                    "/ (number_of_upvotes + number_of_downvotes + 3.8416) END";
+    private static final String UPDATE_HELPFULNESS_SCORE =
+            "UPDATE review SET helpfulness_score = " + HELPFULNESS_SCORE + " WHERE id = ?";
+    private static final String REBUILD_HELPFULNESS_SCORES =
+            "UPDATE review SET helpfulness_score = " + HELPFULNESS_SCORE;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Map<Long, VoteDeltas> voteDeltas = new ConcurrentHashMap<>();
+    private final Set<Long> reviewIdsWithStaleScores = new HashSet<>();
+    private ScheduledExecutorService executorService;
+
+    public ReviewVoteCounterService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (executorService != null) {
+            return;
+        }
+        executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "review-vote-counter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executorService.scheduleWithFixedDelay(this::rebuildQuietly, 0L, REBUILD_INTERVAL_IN_HOURS, TimeUnit.HOURS);
+        executorService.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_IN_SECONDS,
+                                               FLUSH_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public synchronized void destroy()
+            throws InterruptedException {
+        if (executorService != null) {
+            executorService.shutdown();
+            executorService.awaitTermination(FLUSH_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+            executorService = null;
+        }
+        flushQuietly();
+    }
+
+    /**
+     * Records that the vote of a voter on the review changed. Either vote is null if the voter had not voted or
+     * no longer votes on the review.
+     *
+     * @param reviewId the review id
+     * @param oldVote  the vote before, null if there was none
+     * @param newVote  the vote after, null if there is none
+     */
+    public void recordVoteChange(Long reviewId, Vote oldVote, Vote newVote) {
+        if (reviewId == null || oldVote == newVote) {
+            return;
+        }
+        swapLock.readLock().lock();
+        try {
+            VoteDeltas deltas = voteDeltas.get(reviewId);
+            if (deltas == null) {
+                deltas = voteDeltas.computeIfAbsent(reviewId, id -> new VoteDeltas());
+            }
+            if (oldVote != null) {
+                deltas.of(oldVote).decrement();
+            }
+            if (newVote != null) {
+                deltas.of(newVote).increment();
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of votes on the review that are not flushed yet, negative if more were taken back than
+     * were cast.
+     *
+     * @param reviewId the review id
+     * @param vote     the vote
+     * @return the number of pending votes
+     */
+    public long numberOfPendingVotes(Long reviewId, Vote vote) {
+        VoteDeltas deltas = voteDeltas.get(reviewId);
+        return deltas != null ? deltas.of(vote).sum() : 0L;
+    }
+
+    /**
+     * Returns the number of reviews with votes that are not flushed yet.
+     *
+     * @return the number of reviews
+     */
+    public int numberOfPendingUpdates() {
+        return (int) voteDeltas.values().stream().filter(
+                deltas -> deltas.upvotes.sum() != 0L || deltas.downvotes.sum() != 0L).count();
+    }
+
+    /**
+     * Adds the buffered deltas to the vote counters in one batch, then recomputes the helpfulness scores of the
+     * reviews whose counters changed in a second batch.
+     *
+     * @return the number of reviews whose vote counters were written
+     */
+    public synchronized int flush() {
+        Map<Long, VoteDeltas> drainedVoteDeltas = swap();
+        List<Object[]> batchArgs = new ArrayList<>();
+        drainedVoteDeltas.forEach((reviewId, deltas) -> {
+            long upvotes = deltas.upvotes.sum();
+            long downvotes = deltas.downvotes.sum();
+            if (upvotes != 0L || downvotes != 0L) {
+                batchArgs.add(new Object[]{upvotes, downvotes, reviewId});
+            }
+        });
+        if (!batchArgs.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(ADD_TO_VOTE_COUNTERS, batchArgs);
+            } catch (RuntimeException e) {
+                swapLock.readLock().lock();
+                try {
+                    for (Object[] args : batchArgs) {
+                        VoteDeltas deltas = voteDeltas.computeIfAbsent((Long) args[2], id -> new VoteDeltas());
+                        deltas.of(Vote.UPVOTE).add((Long) args[0]);
+                        deltas.of(Vote.DOWNVOTE).add((Long) args[1]);
+                    }
+                } finally {
+                    swapLock.readLock().unlock();
+                }
+                throw e;
+            }
+            logger.debug("Flushed vote counters of " + batchArgs.size() + " reviews");
+            batchArgs.forEach(args -> reviewIdsWithStaleScores.add((Long) args[2]));
+        }
+        if (!reviewIdsWithStaleScores.isEmpty()) {
+            // scores that fail to update are retried on the next flush, the counters are written already
+            jdbcTemplate.batchUpdate(UPDATE_HELPFULNESS_SCORE, reviewIdsWithStaleScores.stream().map(
+                    reviewId -> new Object[]{reviewId}).collect(Collectors.toList()));
+            reviewIdsWithStaleScores.clear();
+        }
+        return batchArgs.size();
+    }
+
+    /**
+     * Recounts the vote counters of every review from the review votes with one statement and then recomputes
+     * every helpfulness score with another. The buffered deltas are dropped since the review votes they stand for
+     * are counted.
+     *
+     * @return the number of reviews whose vote counters were rebuilt
+     */
+    public synchronized int rebuild() {
+        swap();
+        int numberOfReviews = jdbcTemplate.update(REBUILD_VOTE_COUNTERS);
+        jdbcTemplate.update(REBUILD_HELPFULNESS_SCORES);
+        reviewIdsWithStaleScores.clear();
+        logger.debug("Rebuilt vote counters of " + numberOfReviews + " reviews");
+        return numberOfReviews;
+    }
+
+    /**
+     * Recounts the vote counters and recomputes the helpfulness scores of the reviews from their review votes,
+     * for review votes that were deleted in bulk without recording the vote changes. The buffered deltas of the
+     * reviews are dropped since the review votes they stand for are counted.
+     *
+     * @param reviewIds the review ids
+     * @return the number of reviews whose vote counters were rebuilt
+     */
+    public synchronized int rebuild(Collection<Long> reviewIds) {
+        if (reviewIds.isEmpty()) {
+            return 0;
+        }
+        // on the write side like a swap, so no vote in progress adds to deltas that are no longer in the map
+        swapLock.writeLock().lock();
+        try {
+            reviewIds.forEach(voteDeltas::remove);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        List<Object[]> batchArgs = reviewIds.stream().map(
+                reviewId -> new Object[]{reviewId}).collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(REBUILD_VOTE_COUNTERS_OF_REVIEW, batchArgs);
+        jdbcTemplate.batchUpdate(UPDATE_HELPFULNESS_SCORE, batchArgs);
+        reviewIds.forEach(reviewIdsWithStaleScores::remove);
+        logger.debug("Rebuilt vote counters of " + reviewIds.size() + " reviews");
+        return reviewIds.size();
+    }
+
+    private Map<Long, VoteDeltas> swap() {
+        swapLock.writeLock().lock();
+        try {
+            Map<Long, VoteDeltas> swappedVoteDeltas = voteDeltas;
+            voteDeltas = new ConcurrentHashMap<>();
+            return swappedVoteDeltas;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush review vote counters, retrying later", e);
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.error("Failed to rebuild review vote counters, retrying on the next run", e);
+        }
+    }
+
+    private static final class VoteDeltas {
+
+        private final LongAdder upvotes = new LongAdder();
+        private final LongAdder downvotes = new LongAdder();
+
+        private LongAdder of(Vote vote) {
+            return vote == Vote.UPVOTE ? upvotes : downvotes;
+        }
+
+    }
+
+}
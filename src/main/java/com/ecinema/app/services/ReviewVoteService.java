@@ -5,17 +5,19 @@ import com.ecinema.app.domain.entities.Customer;
 import com.ecinema.app.domain.entities.Review;
 import com.ecinema.app.domain.entities.ReviewVote;
 import com.ecinema.app.domain.enums.Vote;
+import com.ecinema.app.domain.objects.Pair;
 import com.ecinema.app.exceptions.InvalidAssociationException;
 import com.ecinema.app.exceptions.NoEntityFoundException;
 import com.ecinema.app.repositories.CustomerRepository;
 import com.ecinema.app.repositories.ReviewRepository;
 import com.ecinema.app.repositories.ReviewVoteRepository;
+import com.ecinema.app.util.UtilMethods;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.EnumMap;
-import java.util.List;
+import java.util.Collection;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -23,12 +25,15 @@ public class ReviewVoteService extends AbstractEntityService<ReviewVote, ReviewV
 
     private final ReviewRepository reviewRepository;
     private final CustomerRepository customerRepository;
+    private final ReviewVoteCounterService reviewVoteCounterService;
 
     public ReviewVoteService(ReviewVoteRepository repository, ReviewRepository reviewRepository,
-                             CustomerRepository customerRepository) {
+                             CustomerRepository customerRepository,
+                             ReviewVoteCounterService reviewVoteCounterService) {
         super(repository);
         this.reviewRepository = reviewRepository;
         this.customerRepository = customerRepository;
+        this.reviewVoteCounterService = reviewVoteCounterService;
     }
 
     @Override
@@ -58,6 +63,9 @@ public class ReviewVoteService extends AbstractEntityService<ReviewVote, ReviewV
         // Detach Review
         Review review = reviewVote.getReview();
         if (review != null) {
+            Long reviewId = review.getId();
+            Vote vote = reviewVote.getVote();
+            UtilMethods.afterCommit(() -> reviewVoteCounterService.recordVoteChange(reviewId, vote, null));
             logger.debug("Detaching Review: " + review);
             reviewVote.setReview(null);
             review.getReviewVotes().remove(reviewVote);
@@ -71,20 +79,29 @@ public class ReviewVoteService extends AbstractEntityService<ReviewVote, ReviewV
         }
     }
 
+    /**
+     * Casts or changes the vote of the user on the review. Changing a vote takes one query to find it, casting a
+     * new one takes three. The vote counters of the review are updated through {@link ReviewVoteCounterService}
+     * once the vote is committed.
+     *
+     * @param userId   the user id
+     * @param reviewId the review id
+     * @param vote     the vote
+     * @throws InvalidAssociationException if the user wrote the review
+     * @throws NoEntityFoundException      if the user is not a customer or there is no review with the id
+     */
     public void voteOnReview(Long userId, Long reviewId, Vote vote)
             throws InvalidAssociationException, NoEntityFoundException {
-        if (reviewRepository.existsByUserWithIdAndReviewWithId(userId, reviewId)) {
-            throw new InvalidAssociationException("User cannot vote for his/her own review");
-        }
-        if (!customerRepository.existsByUserWithId(userId)) {
-            throw new NoEntityFoundException("customer", "user id", userId);
-        }
+        // a user who already voted on the review did not write it, so only new votes need the checks
         ReviewVote reviewVote = repository.findByUserWithIdAndReviewWithId(
                 userId, reviewId).orElseGet(() -> {
             Customer customer = customerRepository.findByUserWithId(userId).orElseThrow(
                     () -> new NoEntityFoundException("customer", "user id", userId));
             Review review = reviewRepository.findById(reviewId).orElseThrow(
                     () -> new NoEntityFoundException("review", "id", reviewId));
+            if (isWriterOf(customer, review)) {
+                throw new InvalidAssociationException("User cannot vote for his/her own review");
+            }
             ReviewVote newReviewVote = new ReviewVote();
             newReviewVote.setReview(review);
             review.getReviewVotes().add(newReviewVote);
@@ -92,15 +109,46 @@ public class ReviewVoteService extends AbstractEntityService<ReviewVote, ReviewV
             customer.getReviewVotes().add(newReviewVote);
             return newReviewVote;
         });
+        Vote oldVote = reviewVote.getVote();
+        if (oldVote == vote) {
+            return;
+        }
         reviewVote.setVote(vote);
         repository.save(reviewVote);
+        UtilMethods.afterCommit(() -> reviewVoteCounterService.recordVoteChange(reviewId, oldVote, vote));
+    }
+
+    /**
+     * Returns the number of votes of the review, counting the votes that are not flushed to its counters yet.
+     *
+     * @param review the review
+     * @param vote   the vote
+     * @return the number of votes
+     */
+    public int numberOfVotes(Review review, Vote vote) {
+        Integer numberOfVotes = vote == Vote.UPVOTE ? review.getNumberOfUpvotes() : review.getNumberOfDownvotes();
+        long numberOfPendingVotes = reviewVoteCounterService.numberOfPendingVotes(review.getId(), vote);
+        return (int) Math.max(0L, (numberOfVotes == null ? 0L : numberOfVotes) + numberOfPendingVotes);
+    }
+
+    /**
+     * Finds the vote of the user on each of the reviews. Reviews the user has not voted on are left out.
+     *
+     * @param userId    the user id
+     * @param reviewIds the review ids
+     * @return the vote of the user by review id
+     */
+    public Map<Long, Vote> mapOfVotesOfUser(Long userId, Collection<Long> reviewIds) {
+        return repository.findAllVotesByUserWithIdAndReviewWithIdIn(userId, reviewIds).stream().collect(
+                Collectors.toMap(Pair::getFirst, Pair::getSecond));
     }
 
-    public Map<Vote, List<Long>> mapOfVoterUserIds(Long reviewId) {
-        return new EnumMap<>(Vote.class) {{
-           put(Vote.UPVOTE, repository.findAllUserIdsByReviewWithIdAndVote(reviewId, Vote.UPVOTE));
-           put(Vote.DOWNVOTE, repository.findAllUserIdsByReviewWithIdAndVote(reviewId, Vote.DOWNVOTE));
-        }};
+    private static boolean isWriterOf(Customer customer, Review review) {
+        Customer writer = review.getWriter();
+        if (writer == null) {
+            return false;
+        }
+        return writer == customer || (writer.getId() != null && writer.getId().equals(customer.getId()));
     }
 
 }
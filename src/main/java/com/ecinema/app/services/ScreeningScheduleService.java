@@ -0,0 +1,70 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.objects.ScreeningInterval;
+import com.ecinema.app.domain.objects.ShowroomSchedule;
+import com.ecinema.app.repositories.ScreeningRepository;
+import com.ecinema.app.util.UtilMethods;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the schedule of each showroom. The {@link ShowroomSchedule} of a showroom is loaded with
+ * one lean query the first time its schedule is requested and is afterwards kept up to date by
+ * {@link ScreeningService} whenever a screening is created or deleted. Updates made within a transaction are
+ * applied only once the transaction commits.
+ */
+@Service
+public class ScreeningScheduleService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final Map<Long, ShowroomSchedule> schedules = new ConcurrentHashMap<>();
+    private final ScreeningRepository screeningRepository;
+
+    public ScreeningScheduleService(ScreeningRepository screeningRepository) {
+        this.screeningRepository = screeningRepository;
+    }
+
+    public ShowroomSchedule findScheduleByShowroomWithId(Long showroomId) {
+        return schedules.computeIfAbsent(showroomId, this::loadSchedule);
+    }
+
+    public List<ScreeningInterval> findAllOverlappingByShowroomWithId(
+            Long showroomId, LocalDateTime start, LocalDateTime end) {
+        return findScheduleByShowroomWithId(showroomId).findAllOverlapping(start, end);
+    }
+
+    public void add(Long showroomId, ScreeningInterval screeningInterval) {
+        if (showroomId == null) {
+            return;
+        }
+        UtilMethods.afterCommit(() -> schedules.computeIfPresent(showroomId, (id, schedule) -> {
+            schedule.add(screeningInterval);
+            return schedule;
+        }));
+    }
+
+    public void remove(Long showroomId, Long screeningId) {
+        if (showroomId == null) {
+            return;
+        }
+        UtilMethods.afterCommit(() -> schedules.computeIfPresent(showroomId, (id, schedule) -> {
+            schedule.remove(screeningId);
+            // drop empty schedules so that deleted showrooms do not linger
+            return schedule.isEmpty() ? null : schedule;
+        }));
+    }
+
+    private ShowroomSchedule loadSchedule(Long showroomId) {
+        ShowroomSchedule schedule = new ShowroomSchedule(
+                showroomId, screeningRepository.findAllScreeningIntervalsByShowroomWithId(showroomId));
+        logger.debug("Loaded showroom schedule: " + schedule);
+        return schedule;
+    }
+
+}
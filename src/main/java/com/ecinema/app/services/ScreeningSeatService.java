@@ -24,10 +24,13 @@ public class ScreeningSeatService extends AbstractEntityService<
         ScreeningSeat, ScreeningSeatRepository, ScreeningSeatDto> {
 
     private final TicketService ticketService;
+    private final SeatAvailabilityService seatAvailabilityService;
 
-    public ScreeningSeatService(ScreeningSeatRepository repository, TicketService ticketService) {
+    public ScreeningSeatService(ScreeningSeatRepository repository, TicketService ticketService,
+                                SeatAvailabilityService seatAvailabilityService) {
         super(repository);
         this.ticketService = ticketService;
+        this.seatAvailabilityService = seatAvailabilityService;
     }
 
     @Override
@@ -45,6 +48,7 @@ public class ScreeningSeatService extends AbstractEntityService<
         Screening screening = screeningSeat.getScreening();
         if (screening != null) {
             logger.debug("Detach screening " + screening);
+            seatAvailabilityService.evict(screening.getId());
             screening.getScreeningSeats().remove(screeningSeat);
             screeningSeat.setScreening(null);
         }
@@ -72,19 +76,14 @@ public class ScreeningSeatService extends AbstractEntityService<
 
     public Map<Letter, Set<ScreeningSeatDto>> findScreeningSeatMapByScreeningWithId(Long screeningId)
             throws InvalidAssociationException {
-        List<ScreeningSeatDto> screeningSeatDtos = findAllByScreeningWithId(screeningId);
-        if (screeningSeatDtos.isEmpty()) {
+        Map<Letter, Set<ScreeningSeatDto>> mapOfScreeningSeats =
+                seatAvailabilityService.findScreeningSeatMapByScreeningWithId(screeningId);
+        if (mapOfScreeningSeats.isEmpty()) {
             throw new InvalidAssociationException("No screening seats mapped to screening with id " + screeningId);
         }
-        Map<Letter, Set<ScreeningSeatDto>> mapOfScreeningSeats = new TreeMap<>();
-        for (ScreeningSeatDto screeningSeatDto : screeningSeatDtos) {
-            mapOfScreeningSeats.putIfAbsent(
-                    screeningSeatDto.getRowLetter(), new TreeSet<>(ISeat.SeatComparator.getInstance()));
-            mapOfScreeningSeats.get(screeningSeatDto.getRowLetter()).add(screeningSeatDto);
-        }
         logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
         logger.debug("Find screening seat map by screening with id: " + screeningId);
-        logger.debug("Screening seat map: " + screeningSeatDtos);
+        logger.debug("Screening seat map: " + mapOfScreeningSeats);
         return mapOfScreeningSeats;
     }
 
@@ -98,6 +97,7 @@ public class ScreeningSeatService extends AbstractEntityService<
         SeatBookingForm seatBookingForm = new SeatBookingForm();
         seatBookingForm.setScreeningId(screeningId);
         seatBookingForm.setScreeningSeatId(screeningSeatId);
+        seatBookingForm.setShowroomSeatId(screeningSeat.getShowroomSeat().getId());
         seatBookingForm.setTicketType(TicketType.ADULT);
         seatBookingForm.setTokensToApply(0);
         return seatBookingForm;
@@ -3,6 +3,13 @@ package com.ecinema.app.services;
 import com.ecinema.app.domain.dtos.ScreeningDto;
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.forms.ScreeningForm;
+import com.ecinema.app.domain.forms.ScreeningScheduleForm;
+import com.ecinema.app.domain.objects.MovieScreeningTime;
+import com.ecinema.app.domain.objects.ScreeningInterval;
+import com.ecinema.app.domain.objects.ScreeningScheduleResult;
+import com.ecinema.app.domain.objects.ScreeningSeatCount;
+import com.ecinema.app.domain.objects.ShowroomSchedule;
+import com.ecinema.app.domain.validators.ScreeningScheduleValidator;
 import com.ecinema.app.domain.validators.ScreeningValidator;
 import com.ecinema.app.exceptions.ClashException;
 import com.ecinema.app.exceptions.InvalidArgumentException;
@@ -12,13 +19,17 @@ import com.ecinema.app.repositories.ScreeningRepository;
 import com.ecinema.app.repositories.ShowroomRepository;
 import com.ecinema.app.repositories.TicketRepository;
 import com.ecinema.app.util.UtilMethods;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,20 +40,32 @@ public class ScreeningService extends AbstractEntityService<Screening, Screening
     private final TicketRepository ticketRepository;
     private final ShowroomRepository showroomRepository;
     private final ScreeningSeatService screeningSeatService;
+    private final ScreeningScheduleService screeningScheduleService;
     private final ScreeningValidator screeningValidator;
+    private final ScreeningScheduleValidator screeningScheduleValidator;
+    private final MovieSearchService movieSearchService;
+    private final MovieFacetService movieFacetService;
 
     public ScreeningService(ScreeningRepository repository,
                             MovieRepository movieRepository,
                             TicketRepository ticketRepository,
                             ShowroomRepository showroomRepository,
                             ScreeningSeatService screeningSeatService,
-                            ScreeningValidator screeningValidator) {
+                            ScreeningScheduleService screeningScheduleService,
+                            ScreeningValidator screeningValidator,
+                            ScreeningScheduleValidator screeningScheduleValidator,
+                            MovieSearchService movieSearchService,
+                            MovieFacetService movieFacetService) {
         super(repository);
         this.movieRepository = movieRepository;
         this.ticketRepository = ticketRepository;
         this.showroomRepository = showroomRepository;
         this.screeningSeatService = screeningSeatService;
+        this.screeningScheduleService = screeningScheduleService;
         this.screeningValidator = screeningValidator;
+        this.screeningScheduleValidator = screeningScheduleValidator;
+        this.movieSearchService = movieSearchService;
+        this.movieFacetService = movieFacetService;
     }
 
     @Override
@@ -61,7 +84,9 @@ public class ScreeningService extends AbstractEntityService<Screening, Screening
         if (showroom != null) {
             showroom.getScreenings().remove(screening);
             screening.setShowroom(null);
+            screeningScheduleService.remove(showroom.getId(), screening.getId());
         }
+        movieFacetService.removeScreening(screening.getId());
         // cascade delete ScreeningSeats
         logger.debug("Delete all associated screening seats");
         screeningSeatService.deleteAll(screening.getScreeningSeats());
@@ -69,6 +94,30 @@ public class ScreeningService extends AbstractEntityService<Screening, Screening
 
     @Override
     public ScreeningDto convertToDto(Screening screening) {
+        return convertToDto(List.of(screening)).get(0);
+    }
+
+    /**
+     * Converts the screenings to DTOs. The seat counts of all of them are read with one grouped count query,
+     * no showroom seat, screening seat, or ticket is loaded.
+     *
+     * @param screenings the screenings
+     * @return the screening DTOs in the same order
+     */
+    @Override
+    protected List<ScreeningDto> convertToDto(Collection<Screening> screenings) {
+        List<Long> screeningIds = screenings.stream().map(Screening::getId).filter(Objects::nonNull).toList();
+        Map<Long, ScreeningSeatCount> seatCounts = screeningIds.isEmpty() ? Map.of() :
+                repository.findAllSeatCountsByScreeningWithIdIn(screeningIds).stream().collect(
+                        Collectors.toMap(ScreeningSeatCount::getScreeningId, Function.identity()));
+        List<ScreeningDto> screeningDtos = new ArrayList<>();
+        for (Screening screening : screenings) {
+            screeningDtos.add(convertToDto(screening, seatCounts.get(screening.getId())));
+        }
+        return screeningDtos;
+    }
+
+    private ScreeningDto convertToDto(Screening screening, ScreeningSeatCount seatCount) {
         ScreeningDto screeningDTO = new ScreeningDto();
         screeningDTO.setId(screening.getId());
         Movie movie = screening.getMovie();
@@ -82,24 +131,16 @@ public class ScreeningService extends AbstractEntityService<Screening, Screening
         if (showroom != null) {
             screeningDTO.setShowroomId(showroom.getId());
             screeningDTO.setShowroomLetter(showroom.getShowroomLetter());
-            screeningDTO.setTotalSeatsInRoom(showroom.getShowroomSeats().size());
-        } else {
-            screeningDTO.setTotalSeatsInRoom(0);
         }
         screeningDTO.setShowDateTime(screening.getShowDateTime());
         screeningDTO.setEndDateTime(screening.getEndDateTime());
-        Set<ScreeningSeat> screeningSeats =  screening.getScreeningSeats();
-        if (!screeningSeats.isEmpty()) {
-            long numberOfSeatsBooked = screeningSeats.stream().filter(
-                    screeningSeat -> screeningSeat.getTicket() != null).count();
-            screeningDTO.setSeatsBooked((int) numberOfSeatsBooked);
-            screeningDTO.setSeatsAvailable(screeningDTO.getTotalSeatsInRoom() - (int) numberOfSeatsBooked);
-        } else {
-            screeningDTO.setSeatsBooked(0);
-            screeningDTO.setSeatsAvailable(0);
-        }
+        // screening seats are only materialized once held or booked, so every seat without a ticket is available
+        int numberOfSeats = seatCount != null ? seatCount.getNumberOfSeats().intValue() : 0;
+        int numberOfSeatsBooked = seatCount != null ? seatCount.getNumberOfSeatsBooked().intValue() : 0;
+        screeningDTO.setTotalSeatsInRoom(numberOfSeats);
+        screeningDTO.setSeatsBooked(numberOfSeatsBooked);
+        screeningDTO.setSeatsAvailable(numberOfSeats - numberOfSeatsBooked);
         logger.debug("Converted screening to DTO: " + screeningDTO);
-        logger.debug("Screening: " + screening);
         return screeningDTO;
     }
 
@@ -122,10 +163,12 @@ public class ScreeningService extends AbstractEntityService<Screening, Screening
         return onDeleteInfo;
     }
 
-    public Page<ScreeningDto> findAllByMovieWithTitleLike(String title, Pageable pageable) {
-        return repository.findAllByMovieWithTitleLike(
-                MovieService.convertTitleToSearchTitle(title), pageable)
-                         .map(this::convertToDto);
+    public Page<ScreeningDto> findAllByMovieSearch(String search, Pageable pageable) {
+        List<Long> movieIds = movieSearchService.searchAllMovieIds(search);
+        if (movieIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return convertToDto(repository.findAllByMovieWithIdIn(movieIds, pageable));
     }
 
     public void submitScreeningForm(ScreeningForm screeningForm)
@@ -148,19 +191,16 @@ public class ScreeningService extends AbstractEntityService<Screening, Screening
         LocalDateTime endDateTime = screeningForm.getShowDateTime()
                                                  .plusHours(movie.getDuration().getHours())
                                                  .plusMinutes(movie.getDuration().getMinutes());
-        Optional<ScreeningDto> optionalOverlap = findScreeningByShowroomAndInBetweenStartTimeAndEndTime(
-                showroom, screeningForm.getShowDateTime(), endDateTime);
-        if (optionalOverlap.isPresent()) {
-            ScreeningDto overlap = optionalOverlap.get();
-            throw new ClashException("Screening for " + movie.getTitle() +
-                                             " in showroom " + showroom.getShowroomLetter() +
-                                             " at " + UtilMethods.localDateTimeFormatted(
-                    screeningForm.getShowDateTime()) +
-                                             " cannot be created because it overlaps" +
-                                             " screening for " + overlap.getMovieTitle() +
-                                             " in showroom " + overlap.getShowroomLetter() +
-                                             " at " + UtilMethods.localDateTimeFormatted(
-                    overlap.getShowDateTime()));
+        List<ScreeningDto> overlaps = findAllScreeningsByShowroomIdAndInBetweenStartTimeAndEndTime(
+                showroom.getId(), screeningForm.getShowDateTime(), endDateTime);
+        if (!overlaps.isEmpty()) {
+            throw new ClashException(overlaps.stream().map(overlap -> "Screening for " + movie.getTitle() +
+                    " in showroom " + showroom.getShowroomLetter() +
+                    " at " + UtilMethods.localDateTimeFormatted(screeningForm.getShowDateTime()) +
+                    " cannot be created because it overlaps" +
+                    " screening for " + overlap.getMovieTitle() +
+                    " in showroom " + overlap.getShowroomLetter() +
+                    " at " + UtilMethods.localDateTimeFormatted(overlap.getShowDateTime())).toList());
         }
         Screening screening = new Screening();
         screening.setShowDateTime(screeningForm.getShowDateTime());
@@ -170,18 +210,121 @@ public class ScreeningService extends AbstractEntityService<Screening, Screening
         screening.setMovie(movie);
         movie.getScreenings().add(screening);
         repository.save(screening);
-        for (ShowroomSeat showroomSeat : showroom.getShowroomSeats()) {
-            ScreeningSeat screeningSeat = new ScreeningSeat();
-            screeningSeat.setShowroomSeat(showroomSeat);
-            showroomSeat.getScreeningSeats().add(screeningSeat);
-            screeningSeat.setScreening(screening);
-            screening.getScreeningSeats().add(screeningSeat);
-            screeningSeat.setTicket(null);
-            screeningSeatService.save(screeningSeat);
-        }
+        screeningScheduleService.add(showroom.getId(), new ScreeningInterval(
+                screening.getId(), screening.getShowDateTime(), screening.getEndDateTime()));
+        movieFacetService.addScreening(new MovieScreeningTime(
+                screening.getId(), movie.getId(), screening.getShowDateTime()));
         logger.debug("Saved and instantiated new screening: " + screening);
     }
 
+    /**
+     * Schedules the movie in every showroom of the form at every showtime of every day from the start date to the
+     * end date. All candidate slots are checked against the schedule of their showroom in one pass. Slots that
+     * are in the past or overlap an existing screening or an earlier slot of the same run are rejected, and the
+     * rest are inserted together in one transaction, so that JDBC batching applies.
+     *
+     * @param screeningScheduleForm the screening schedule form
+     * @return the screenings that were scheduled and the conflicts of the rejected slots
+     * @throws NoEntityFoundException   if the movie or any of the showrooms does not exist
+     * @throws InvalidArgumentException if the form is invalid
+     * @throws ClashException           if every slot is rejected
+     */
+    public ScreeningScheduleResult submitScreeningScheduleForm(ScreeningScheduleForm screeningScheduleForm)
+            throws NoEntityFoundException, InvalidArgumentException, ClashException {
+        logger.debug(UtilMethods.getLoggingSubjectDelimiterLine());
+        logger.debug("Add screening schedule");
+        List<String> errors = new ArrayList<>();
+        screeningScheduleValidator.validate(screeningScheduleForm, errors);
+        if (!errors.isEmpty()) {
+            throw new InvalidArgumentException(errors);
+        }
+        Movie movie = movieRepository
+                .findById(screeningScheduleForm.getMovieId())
+                .orElseThrow(() -> new NoEntityFoundException(
+                        "movie", "movie id", screeningScheduleForm.getMovieId()));
+        List<Long> showroomIds = screeningScheduleForm.getShowroomIds().stream().distinct().toList();
+        List<Showroom> showrooms = new ArrayList<>(showroomRepository.findAllById(showroomIds));
+        if (showrooms.size() != showroomIds.size()) {
+            Set<Long> foundIds = showrooms.stream().map(Showroom::getId).collect(Collectors.toSet());
+            throw new NoEntityFoundException(showroomIds.stream().filter(id -> !foundIds.contains(id))
+                    .map(id -> "No showroom found with id = " + id).toList());
+        }
+        showrooms.sort(Comparator.comparing(Showroom::getShowroomLetter));
+        List<LocalTime> showtimes = screeningScheduleForm.getShowtimes().stream().distinct().sorted().toList();
+        LocalDateTime now = LocalDateTime.now();
+        List<String> conflicts = new ArrayList<>();
+        List<Screening> screenings = new ArrayList<>();
+        for (Showroom showroom : showrooms) {
+            ShowroomSchedule schedule = screeningScheduleService.findScheduleByShowroomWithId(showroom.getId());
+            // slots are visited in order and all have the same duration, so a slot can only overlap an earlier
+            // slot of this run by overlapping the last one accepted
+            Screening lastAccepted = null;
+            for (LocalDate date = screeningScheduleForm.getStartDate();
+                 !date.isAfter(screeningScheduleForm.getEndDate()); date = date.plusDays(1)) {
+                for (LocalTime showtime : showtimes) {
+                    LocalDateTime showDateTime = LocalDateTime.of(date, showtime);
+                    LocalDateTime endDateTime = showDateTime.plusHours(movie.getDuration().getHours())
+                                                            .plusMinutes(movie.getDuration().getMinutes());
+                    String slot = "Screening for " + movie.getTitle() +
+                            " in showroom " + showroom.getShowroomLetter() +
+                            " at " + UtilMethods.localDateTimeFormatted(showDateTime) +
+                            " cannot be created because it";
+                    if (showDateTime.isBefore(now)) {
+                        conflicts.add(slot + " is in the past");
+                        continue;
+                    }
+                    List<ScreeningInterval> overlaps = schedule.findAllOverlapping(showDateTime, endDateTime);
+                    if (!overlaps.isEmpty()) {
+                        conflicts.add(slot + " overlaps " + overlaps.stream()
+                                .map(overlap -> "the screening at " +
+                                        UtilMethods.localDateTimeFormatted(overlap.getShowDateTime()))
+                                .collect(Collectors.joining(" and ")));
+                        continue;
+                    }
+                    if (lastAccepted != null && UtilMethods.localDateTimeOverlap(
+                            showDateTime, endDateTime,
+                            lastAccepted.getShowDateTime(), lastAccepted.getEndDateTime())) {
+                        conflicts.add(slot + " overlaps the screening at " + UtilMethods.localDateTimeFormatted(
+                                lastAccepted.getShowDateTime()) + " of this schedule");
+                        continue;
+                    }
+                    Screening screening = new Screening();
+                    screening.setShowDateTime(showDateTime);
+                    screening.setEndDateTime(endDateTime);
+                    screening.setShowroom(showroom);
+                    screening.setMovie(movie);
+                    // only keep the inverse sides in sync if they are already loaded, there is no need to read
+                    // the whole screening history of the movie and showroom just to append to it
+                    if (Hibernate.isInitialized(showroom.getScreenings())) {
+                        showroom.getScreenings().add(screening);
+                    }
+                    if (Hibernate.isInitialized(movie.getScreenings())) {
+                        movie.getScreenings().add(screening);
+                    }
+                    screenings.add(screening);
+                    lastAccepted = screening;
+                }
+            }
+        }
+        if (screenings.isEmpty()) {
+            throw new ClashException(conflicts);
+        }
+        repository.saveAll(screenings);
+        repository.flush();
+        List<ScreeningInterval> scheduledScreenings = new ArrayList<>();
+        for (Screening screening : screenings) {
+            ScreeningInterval screeningInterval = new ScreeningInterval(
+                    screening.getId(), screening.getShowDateTime(), screening.getEndDateTime());
+            screeningScheduleService.add(screening.getShowroom().getId(), screeningInterval);
+            movieFacetService.addScreening(new MovieScreeningTime(
+                    screening.getId(), movie.getId(), screening.getShowDateTime()));
+            scheduledScreenings.add(screeningInterval);
+        }
+        logger.debug("Scheduled " + scheduledScreenings.size() + " screenings, rejected " +
+                             conflicts.size() + " slots");
+        return new ScreeningScheduleResult(scheduledScreenings, conflicts);
+    }
+
     public Optional<ScreeningDto> findScreeningByShowroomAndInBetweenStartTimeAndEndTime(
             Showroom showroom, LocalDateTime startTime, LocalDateTime endTime) {
         return findScreeningByShowroomIdAndInBetweenStartTimeAndEndTime(
@@ -190,15 +333,20 @@ public class ScreeningService extends AbstractEntityService<Screening, Screening
 
     public Optional<ScreeningDto> findScreeningByShowroomIdAndInBetweenStartTimeAndEndTime(
             Long showroomId, LocalDateTime startTime, LocalDateTime endTime) {
-        List<Screening> screenings = repository.findAllByShowroomWithId(showroomId);
-        for (Screening screening : screenings) {
-            if (UtilMethods.localDateTimeOverlap(
-                    startTime, endTime,
-                    screening.getShowDateTime(), screening.getEndDateTime())) {
-                return Optional.of(convertToDto(screening));
-            }
+        return findAllScreeningsByShowroomIdAndInBetweenStartTimeAndEndTime(showroomId, startTime, endTime)
+                .stream().findFirst();
+    }
+
+    public List<ScreeningDto> findAllScreeningsByShowroomIdAndInBetweenStartTimeAndEndTime(
+            Long showroomId, LocalDateTime startTime, LocalDateTime endTime) {
+        List<Long> screeningIds = screeningScheduleService.findAllOverlappingByShowroomWithId(
+                showroomId, startTime, endTime).stream().map(ScreeningInterval::getScreeningId).toList();
+        if (screeningIds.isEmpty()) {
+            return new ArrayList<>();
         }
-        return Optional.empty();
+        return convertToDto(repository.findAllById(screeningIds).stream()
+                                      .sorted(Comparator.comparing(Screening::getShowDateTime))
+                                      .toList());
     }
 
     List<Long> findAllScreeningIdsByMovieId(Long movieId) {
@@ -206,49 +354,35 @@ public class ScreeningService extends AbstractEntityService<Screening, Screening
     }
 
     public Page<ScreeningDto> findPageByMovieId(Long movieId, Pageable pageable) {
-        return repository.findAllByMovieId(movieId, pageable).map(this::convertToDto);
+        return convertToDto(repository.findAllByMovieId(movieId, pageable));
     }
 
     public List<ScreeningDto> findAllByShowDateTimeLessThanEqual(LocalDateTime localDateTime) {
-        return repository.findAllByShowDateTimeLessThanEqual(localDateTime)
-                         .stream().map(this::convertToDto)
-                         .collect(Collectors.toList());
+        return convertToDto(repository.findAllByShowDateTimeLessThanEqual(localDateTime));
     }
 
     public List<ScreeningDto> findAllByShowDateTimeGreaterThanEqual(LocalDateTime localDateTime) {
-        return repository.findAllByShowDateTimeGreaterThanEqual(localDateTime)
-                         .stream().map(this::convertToDto)
-                         .collect(Collectors.toList());
+        return convertToDto(repository.findAllByShowDateTimeGreaterThanEqual(localDateTime));
     }
 
     public List<ScreeningDto> findAllByShowDateTimeBetween(LocalDateTime l1, LocalDateTime l2) {
-        return repository.findAllByShowDateTimeBetween(l1, l2)
-                         .stream().map(this::convertToDto)
-                         .collect(Collectors.toList());
+        return convertToDto(repository.findAllByShowDateTimeBetween(l1, l2));
     }
 
     public List<ScreeningDto> findAllByMovie(Movie movie) {
-        return repository.findAllByMovie(movie)
-                         .stream().map(this::convertToDto)
-                         .collect(Collectors.toList());
+        return convertToDto(repository.findAllByMovie(movie));
     }
 
     public List<ScreeningDto> findAllByMovieWithId(Long movieId) {
-        return repository.findAllByMovieWithId(movieId)
-                         .stream().map(this::convertToDto)
-                         .collect(Collectors.toList());
+        return convertToDto(repository.findAllByMovieWithId(movieId));
     }
 
     public List<ScreeningDto> findAllByShowroom(Showroom showroom) {
-        return repository.findAllByShowroom(showroom)
-                         .stream().map(this::convertToDto)
-                         .collect(Collectors.toList());
+        return convertToDto(repository.findAllByShowroom(showroom));
     }
 
     public List<ScreeningDto> findAllByShowroomWithId(Long showroomId) {
-        return repository.findAllByShowroomWithId(showroomId)
-                         .stream().map(this::convertToDto)
-                         .collect(Collectors.toList());
+        return convertToDto(repository.findAllByShowroomWithId(showroomId));
     }
 
 }
@@ -0,0 +1,149 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.dtos.ScreeningSeatDto;
+import com.ecinema.app.domain.enums.Letter;
+import com.ecinema.app.domain.objects.Pair;
+import com.ecinema.app.domain.objects.SeatAvailabilityBitmap;
+import com.ecinema.app.exceptions.NoEntityFoundException;
+import com.ecinema.app.repositories.ScreeningRepository;
+import com.ecinema.app.repositories.ScreeningSeatRepository;
+import com.ecinema.app.util.UtilMethods;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the seat availability of each screening. The {@link SeatAvailabilityBitmap} of a screening
+ * is loaded with two lean queries the first time its seats are requested and is afterwards kept up to date by
+ * {@link TicketService} whenever a seat is booked or released, so the view seats page does not hit the database.
+ * Updates made within a transaction are applied only once the transaction commits.
+ * <p>
+ * Each change is also pushed as a {@link ScreeningSeatDto} delta to everyone watching the seat map of the
+ * screening. All watchers of a screening share one multicast sink, so a change is emitted once no matter how many
+ * are watching, and each watcher buffers at most {@link #MAX_BUFFERED_DELTAS} deltas, dropping the oldest when
+ * it falls behind.
+ */
+@Service
+public class SeatAvailabilityService {
+
+    public static final int MAX_BUFFERED_DELTAS = 256;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final Map<Long, SeatAvailabilityBitmap> bitmaps = new ConcurrentHashMap<>();
+    private final Map<Long, Sinks.Many<ScreeningSeatDto>> sinks = new ConcurrentHashMap<>();
+    private final ScreeningRepository screeningRepository;
+    private final ScreeningSeatRepository screeningSeatRepository;
+
+    public SeatAvailabilityService(ScreeningRepository screeningRepository,
+                                   ScreeningSeatRepository screeningSeatRepository) {
+        this.screeningRepository = screeningRepository;
+        this.screeningSeatRepository = screeningSeatRepository;
+    }
+
+    public Optional<SeatAvailabilityBitmap> findBitmapByScreeningWithId(Long screeningId) {
+        return Optional.ofNullable(bitmaps.computeIfAbsent(screeningId, this::loadBitmap));
+    }
+
+    public Map<Letter, Set<ScreeningSeatDto>> findScreeningSeatMapByScreeningWithId(Long screeningId) {
+        return findBitmapByScreeningWithId(screeningId)
+                .map(SeatAvailabilityBitmap::toScreeningSeatMap)
+                .orElseGet(TreeMap::new);
+    }
+
+    public void setBooked(Long screeningId, Letter rowLetter, Integer seatNumber, boolean booked) {
+        if (screeningId == null) {
+            return;
+        }
+        UtilMethods.afterCommit(() -> {
+            SeatAvailabilityBitmap bitmap = bitmaps.computeIfPresent(screeningId, (id, b) -> {
+                b.setBooked(rowLetter, seatNumber, booked);
+                return b;
+            });
+            publish(new ScreeningSeatDto(null, screeningId,
+                                         bitmap != null ? bitmap.showroomSeatIdOf(rowLetter, seatNumber) : null,
+                                         rowLetter, seatNumber, booked));
+        });
+    }
+
+    /**
+     * Stream of the seat map deltas of the screening. The sink of the screening is created by the first watcher
+     * and removed again once its last watcher leaves, so only screenings that are being watched hold a sink.
+     *
+     * @param screeningId the screening id
+     * @return the flux of seat map deltas
+     * @throws NoEntityFoundException if there is no screening with the id that has not ended yet
+     */
+    public Flux<ScreeningSeatDto> streamSeatMapDeltasByScreeningWithId(Long screeningId)
+            throws NoEntityFoundException {
+        if (screeningId == null ||
+                !screeningRepository.existsByIdAndEndDateTimeAfter(screeningId, LocalDateTime.now())) {
+            throw new NoEntityFoundException("upcoming screening", "id", screeningId);
+        }
+        Sinks.Many<ScreeningSeatDto> sink = sinks.computeIfAbsent(
+                screeningId, id -> Sinks.many().multicast().directBestEffort());
+        return sink.asFlux()
+                   .onBackpressureBuffer(MAX_BUFFERED_DELTAS, BufferOverflowStrategy.DROP_OLDEST)
+                   .doFinally(signal -> removeSinkIfUnwatched(screeningId, sink));
+    }
+
+    public int numberOfSeatMapWatchers(Long screeningId) {
+        Sinks.Many<ScreeningSeatDto> sink = sinks.get(screeningId);
+        return sink != null ? sink.currentSubscriberCount() : 0;
+    }
+
+    public int numberOfWatchedScreenings() {
+        return sinks.size();
+    }
+
+    public void evict(Long screeningId) {
+        if (screeningId == null) {
+            return;
+        }
+        UtilMethods.afterCommit(() -> {
+            bitmaps.remove(screeningId);
+            Sinks.Many<ScreeningSeatDto> sink = sinks.remove(screeningId);
+            if (sink != null) {
+                sink.tryEmitComplete();
+            }
+        });
+    }
+
+    private SeatAvailabilityBitmap loadBitmap(Long screeningId) {
+        List<ScreeningSeatDto> screeningSeatDtos = screeningSeatRepository.findAllDtosByScreeningWithId(screeningId);
+        if (screeningSeatDtos.isEmpty()) {
+            return null;
+        }
+        Pair<Integer, Integer> layout = screeningRepository.findShowroomLayoutOfScreeningWithId(screeningId)
+                                                           .orElseGet(() -> new Pair<>(0, 0));
+        SeatAvailabilityBitmap bitmap = new SeatAvailabilityBitmap(
+                screeningId, layout.getFirst(), layout.getSecond(), screeningSeatDtos);
+        logger.debug("Loaded seat availability bitmap: " + bitmap);
+        return bitmap;
+    }
+
+    private void removeSinkIfUnwatched(Long screeningId, Sinks.Many<ScreeningSeatDto> sink) {
+        // only removes the sink if it is still mapped, after an evict a new watcher may have put a new one in its place
+        if (sink.currentSubscriberCount() == 0) {
+            sinks.remove(screeningId, sink);
+        }
+    }
+
+    private void publish(ScreeningSeatDto delta) {
+        Sinks.Many<ScreeningSeatDto> sink = sinks.get(delta.getScreeningId());
+        if (sink == null) {
+            return;
+        }
+        // emissions must be serialized, bookings of the same screening can commit concurrently
+        synchronized (sink) {
+            sink.tryEmitNext(delta);
+        }
+    }
+
+}
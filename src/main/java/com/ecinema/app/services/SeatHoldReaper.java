@@ -0,0 +1,73 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.objects.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Releases expired seat holds. A single background thread waits on {@link SeatHoldService} for holds to expire
+ * and hands them to {@link TicketService#releaseSeatHolds(java.util.Collection)} in batches of up to
+ * {@link #MAX_BATCH_SIZE}. Holds still in the database when the application starts are rescheduled first.
+ */
+@Service
+public class SeatHoldReaper implements DisposableBean {
+
+    public static final int MAX_BATCH_SIZE = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final TicketService ticketService;
+    private final SeatHoldService seatHoldService;
+    private Thread thread;
+
+    public SeatHoldReaper(TicketService ticketService, SeatHoldService seatHoldService) {
+        this.ticketService = ticketService;
+        this.seatHoldService = seatHoldService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        List<Pair<Long, LocalDateTime>> seatHolds = ticketService.findAllSeatHolds();
+        seatHolds.forEach(seatHold -> seatHoldService.scheduleRelease(seatHold.getFirst(), seatHold.getSecond()));
+        logger.debug("Rescheduled release of " + seatHolds.size() + " seat holds");
+        thread = new Thread(this::releaseExpiredSeatHolds, "seat-hold-reaper");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private void releaseExpiredSeatHolds() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Long> ticketIds;
+            try {
+                ticketIds = seatHoldService.awaitExpiredSeatHolds(MAX_BATCH_SIZE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                ticketService.releaseSeatHolds(ticketIds);
+            } catch (RuntimeException e) {
+                logger.error("Failed to release seat holds, retrying later", e);
+                seatHoldService.retryRelease(ticketIds);
+            }
+        }
+    }
+
+}
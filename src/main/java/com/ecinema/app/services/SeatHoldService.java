@@ -0,0 +1,57 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.objects.SeatHold;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+
+/**
+ * Keeps track of when each seat hold expires. Holds are kept in a {@link DelayQueue}, so finding the holds that
+ * have expired never touches the ticket table and waiting for the next expiration costs nothing until it is due.
+ * The holds themselves are released by {@link SeatHoldReaper}.
+ */
+@Service
+public class SeatHoldService {
+
+    public static final Duration SEAT_HOLD_DURATION = Duration.ofMinutes(10);
+    public static final Duration RELEASE_RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final DelayQueue<SeatHold> seatHolds = new DelayQueue<>();
+
+    public LocalDateTime expirationDateTimeOfSeatHoldCreatedAt(LocalDateTime creationDateTime) {
+        return creationDateTime.plus(SEAT_HOLD_DURATION);
+    }
+
+    public void scheduleRelease(Long ticketId, LocalDateTime creationDateTime) {
+        seatHolds.put(new SeatHold(ticketId, expirationDateTimeOfSeatHoldCreatedAt(creationDateTime)));
+    }
+
+    public void retryRelease(List<Long> ticketIds) {
+        LocalDateTime retryDateTime = LocalDateTime.now().plus(RELEASE_RETRY_DELAY);
+        ticketIds.forEach(ticketId -> seatHolds.put(new SeatHold(ticketId, retryDateTime)));
+    }
+
+    /**
+     * Blocks until at least one seat hold has expired, then drains up to the max number of expired seat holds.
+     *
+     * @param max the max number of seat holds to drain
+     * @return the ids of the tickets of the expired seat holds
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public List<Long> awaitExpiredSeatHolds(int max)
+            throws InterruptedException {
+        List<SeatHold> expiredSeatHolds = new ArrayList<>();
+        expiredSeatHolds.add(seatHolds.take());
+        seatHolds.drainTo(expiredSeatHolds, max - 1);
+        return expiredSeatHolds.stream().map(SeatHold::getTicketId).toList();
+    }
+
+    public int numberOfScheduledReleases() {
+        return seatHolds.size();
+    }
+
+}
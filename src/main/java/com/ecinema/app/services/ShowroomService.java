@@ -1,5 +1,6 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.CatalogCache;
 import com.ecinema.app.domain.dtos.ShowroomDto;
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.forms.ShowroomForm;
@@ -16,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -25,15 +27,17 @@ public class ShowroomService extends AbstractEntityService<Showroom, ShowroomRep
     private final ShowroomValidator showroomValidator;
     private final ScreeningService screeningService;
     private final TicketRepository ticketRepository;
+    private final CatalogCache catalogCache;
 
     public ShowroomService(ShowroomRepository repository, ShowroomSeatService showroomSeatService,
                            ScreeningService screeningService, ShowroomValidator showroomValidator,
-                           TicketRepository ticketRepository) {
+                           TicketRepository ticketRepository, CatalogCache catalogCache) {
         super(repository);
         this.showroomSeatService = showroomSeatService;
         this.screeningService = screeningService;
         this.showroomValidator = showroomValidator;
         this.ticketRepository = ticketRepository;
+        this.catalogCache = catalogCache;
     }
 
     @Override
@@ -45,6 +49,7 @@ public class ShowroomService extends AbstractEntityService<Showroom, ShowroomRep
         // cascade delete Screenings
         logger.debug("Delete all associated screenings");
         screeningService.deleteAll(showroom.getScreenings());
+        catalogCache.invalidateShowrooms();
     }
 
     @Override
@@ -65,8 +70,26 @@ public class ShowroomService extends AbstractEntityService<Showroom, ShowroomRep
                 () -> new NoEntityFoundException("showroom", "showroom letter", showroomLetter)));
     }
 
+    /**
+     * Finds every showroom, read through {@link CatalogCache}.
+     *
+     * @return the list of showroom dtos
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ShowroomDto> findAll() {
+        return new ArrayList<>(catalogCache.getAllShowrooms().computeIfAbsent(
+                Boolean.TRUE, all -> List.copyOf(super.findAll())));
+    }
+
+    /**
+     * Finds the letters of every showroom, read through {@link CatalogCache}.
+     *
+     * @return the list of showroom letters
+     */
+    @Transactional(readOnly = true)
     public List<Letter> findAllShowroomLetters() {
-        return repository.findAllShowroomLetters();
+        return findAll().stream().map(ShowroomDto::getShowroomLetter).collect(Collectors.toList());
     }
 
     public void submitShowroomForm(ShowroomForm showroomForm)
@@ -107,12 +130,22 @@ public class ShowroomService extends AbstractEntityService<Showroom, ShowroomRep
         }
         showroomSeatService.saveAll(showroomSeats);
         logger.debug("Saved collection of showroom seats: " + showroomSeats);
+        catalogCache.invalidateShowrooms();
     }
 
-    public ShowroomDto findByShowroomLetter(Letter showroomLetter) {
-        Showroom showroom = repository.findByShowroomLetter(showroomLetter).orElseThrow(
-                () -> new NoEntityFoundException("showroom", "room letter", showroomLetter));
-        return convertToDto(showroom);
+    /**
+     * Finds the showroom with the provided letter, read through {@link CatalogCache}.
+     *
+     * @param showroomLetter the showroom letter
+     * @return the showroom dto
+     * @throws NoEntityFoundException if there is no showroom with the letter
+     */
+    @Transactional(readOnly = true)
+    public ShowroomDto findByShowroomLetter(Letter showroomLetter)
+            throws NoEntityFoundException {
+        return catalogCache.getShowroomsByLetter().computeIfAbsent(showroomLetter, letter -> convertToDto(
+                repository.findByShowroomLetter(letter).orElseThrow(
+                        () -> new NoEntityFoundException("showroom", "room letter", letter))));
     }
 
     public ShowroomDto findByShowroomSeatsContains(ShowroomSeat showroomSeat) {
@@ -1,42 +1,64 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.domain.dtos.ScreeningSeatDto;
 import com.ecinema.app.domain.dtos.TicketDto;
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.enums.Letter;
 import com.ecinema.app.domain.enums.TicketStatus;
+import com.ecinema.app.domain.enums.TicketType;
 import com.ecinema.app.domain.forms.SeatBookingForm;
+import com.ecinema.app.domain.forms.SeatsBookingForm;
+import com.ecinema.app.domain.objects.Pair;
 import com.ecinema.app.domain.objects.SeatDesignation;
 import com.ecinema.app.exceptions.InvalidActionException;
 import com.ecinema.app.exceptions.NoEntityFoundException;
 import com.ecinema.app.exceptions.NoFieldFoundException;
 import com.ecinema.app.repositories.*;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class TicketService extends AbstractEntityService<Ticket, TicketRepository, TicketDto> {
 
+    public static final String SEAT_TAKEN = "Cannot purchase ticket for seat that's already booked";
+    public static final String SEAT_HOLD_EXPIRED = "Your hold on this seat has expired";
+    public static final String SEAT_NOT_HELD = "You do not hold this seat, choose it again from the seat map";
+    public static final int MAX_SEAT_HOLDS_PER_CUSTOMER = 8;
+    public static final String SEAT_HOLD_LIMIT_REACHED = "Cannot hold more than " + MAX_SEAT_HOLDS_PER_CUSTOMER +
+            " seats at once, book or let go of a held seat first";
+
     private final EmailService emailService;
     private final CustomerRepository customerRepository;
     private final PaymentCardRepository paymentCardRepository;
+    private final ScreeningRepository screeningRepository;
     private final ScreeningSeatRepository screeningSeatRepository;
+    private final ShowroomSeatRepository showroomSeatRepository;
+    private final SeatAvailabilityService seatAvailabilityService;
+    private final SeatHoldService seatHoldService;
 
     public TicketService(TicketRepository repository, EmailService emailService,
                          CustomerRepository customerRepository, PaymentCardRepository paymentCardRepository,
-                         ScreeningSeatRepository screeningSeatRepository) {
+                         ScreeningRepository screeningRepository, ScreeningSeatRepository screeningSeatRepository,
+                         ShowroomSeatRepository showroomSeatRepository,
+                         SeatAvailabilityService seatAvailabilityService, SeatHoldService seatHoldService) {
         super(repository);
         this.emailService = emailService;
         this.customerRepository = customerRepository;
         this.paymentCardRepository = paymentCardRepository;
+        this.screeningRepository = screeningRepository;
         this.screeningSeatRepository = screeningSeatRepository;
+        this.showroomSeatRepository = showroomSeatRepository;
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.seatHoldService = seatHoldService;
     }
 
     @Override
@@ -48,6 +70,11 @@ public class TicketService extends AbstractEntityService<Ticket, TicketRepositor
         if (screeningSeat != null) {
             screeningSeat.setTicket(null);
             ticket.setScreeningSeat(null);
+            if (screeningSeat.getScreening() != null && screeningSeat.getShowroomSeat() != null) {
+                seatAvailabilityService.setBooked(screeningSeat.getScreening().getId(),
+                                                  screeningSeat.getRowLetter(),
+                                                  screeningSeat.getSeatNumber(), false);
+            }
         }
         // detach Customer
         Customer customer = ticket.getTicketOwner();
@@ -63,81 +90,70 @@ public class TicketService extends AbstractEntityService<Ticket, TicketRepositor
             throws NoFieldFoundException {
         logger.debug("Convert ticket to DTO");
         logger.debug("Ticket: " + ticket);
-        TicketDto ticketDto = new TicketDto();
-        ticketDto.setId(ticket.getId());
-        Long userId = findUserIdOfTicket(ticket.getId())
-                .orElseThrow(() -> new NoFieldFoundException("user id", "ticket"));
-        ticketDto.setUserId(userId);
-        String email = findEmailOfTicketUserOwner(ticket.getId())
-                .orElseThrow(() -> new NoFieldFoundException("email", "ticket"));
-        ticketDto.setEmail(email);
-        String username = findUsernameOfTicketUserOwner(ticket.getId())
-                .orElseThrow(() -> new NoFieldFoundException("username", "ticket"));
-        ticketDto.setUsername(username);
-        String movieTitle = findMovieTitleAssociatedWithTicket(ticket.getId())
-                .orElseThrow(() -> new NoFieldFoundException("movie title", "ticket"));
-        ticketDto.setMovieTitle(movieTitle);
-        Letter showroomLetter = findShowroomLetterAssociatedWithTicket(ticket.getId())
-                .orElseThrow(() -> new NoFieldFoundException("showroom letter", "ticket"));
-        ticketDto.setShowroomLetter(showroomLetter);
-        LocalDateTime showDateTime = findShowDateTimeOfScreeningAssociatedWithTicket(ticket.getId())
-                .orElseThrow(() -> new NoFieldFoundException("showDateTime", "ticket"));
-        ticketDto.setShowDateTime(showDateTime);
-        ticketDto.setIsRefundable(showDateTimeQualifiesForTicketRefund(showDateTime));
-        LocalDateTime endDateTime = findEndDateTimeOfScreeningAssociatedWithTicket(ticket.getId())
-                .orElseThrow(() -> new NoFieldFoundException("endDateTime", "ticket"));
-        ticketDto.setEndDateTime(endDateTime);
-        SeatDesignation seatDesignation = findSeatDesignationOfTicket(ticket.getId())
-                .orElseThrow(() -> new NoFieldFoundException("seat designation", "ticket"));
-        PaymentCard paymentCard = ticket.getPaymentCard();
-        ticketDto.setPaymentCardId(paymentCard != null ? paymentCard.getId() : null);
-        ticketDto.setSeatDesignation(seatDesignation);
-        ticketDto.setTicketType(ticket.getTicketType());
-        ticketDto.setTicketStatus(ticket.getTicketStatus());
-        ticketDto.setCreationDateTime(ticket.getCreationDateTime());
+        TicketDto ticketDto = repository.findDtoById(ticket.getId())
+                .map(this::setIsRefundable)
+                .orElseThrow(() -> new NoFieldFoundException("ticket dto fields", "ticket"));
         logger.debug("Ticket DTO: " + ticketDto);
         return ticketDto;
     }
 
+    private TicketDto setIsRefundable(TicketDto ticketDto) {
+        ticketDto.setIsRefundable(showDateTimeQualifiesForTicketRefund(ticketDto.getShowDateTime()));
+        return ticketDto;
+    }
+
+    private List<TicketDto> withoutSeatHolds(List<TicketDto> ticketDtos) {
+        ticketDtos.removeIf(ticketDto -> ticketDto.getTicketStatus() == TicketStatus.LOCKED);
+        return ticketDtos;
+    }
+
+    private List<TicketDto> setIsRefundable(List<TicketDto> ticketDtos) {
+        ticketDtos.forEach(this::setIsRefundable);
+        return ticketDtos;
+    }
+
     public void bookTicket(SeatBookingForm seatBookingForm)
             throws NoEntityFoundException, InvalidActionException {
-        PaymentCard paymentCard = paymentCardRepository
-                .findById(seatBookingForm.getPaymentCardId())
-                .orElseThrow(() -> new NoEntityFoundException(
-                        "payment card", "id", seatBookingForm.getPaymentCardId()));
-        if (paymentCard.getExpirationDate().isBefore(LocalDate.now())) {
-            throw new InvalidActionException("Cannot purchase ticket with expired payment card");
-        }
+        PaymentCard paymentCard = findPaymentCardToPurchaseWith(seatBookingForm.getPaymentCardId());
         ScreeningSeat screeningSeat = screeningSeatRepository
                 .findById(seatBookingForm.getScreeningSeatId())
                 .orElseThrow(() -> new NoEntityFoundException(
                         "screening seat", "id", seatBookingForm.getScreeningSeatId()));
-        if (screeningSeat.getTicket() != null) {
-            throw new InvalidActionException("Cannot purchase ticket for seat that's already booked");
+        Ticket seatHold = screeningSeat.getTicket();
+        if (seatHold != null && seatHold.getTicketStatus() != TicketStatus.LOCKED) {
+            throw new InvalidActionException(SEAT_TAKEN);
         }
         Screening screening = screeningSeat.getScreening();
         if (screening.getShowDateTime().isBefore(LocalDateTime.now())) {
             throw new InvalidActionException("Cannot purchase ticket for past screening");
         }
-        Customer customer = customerRepository
-                .findByUserWithId(seatBookingForm.getUserId())
-                .orElseThrow(() -> new NoEntityFoundException(
-                        "customer", "user id", seatBookingForm.getUserId()));
-        if (!customer.getIsAuthorityValid()) {
-            throw new InvalidActionException("Cannot purchase ticket because your customer authority has been " +
-                                                     "invalidated by an administrator");
+        Customer customer = findCustomerToPurchaseFor(seatBookingForm.getUserId());
+        Ticket ticket;
+        if (seatHold != null) {
+            confirmSeatHold(seatHold, customer);
+            ticket = seatHold;
+        } else {
+            claimScreeningSeat(screeningSeat);
+            ticket = new Ticket();
+            ticket.setTicketOwner(customer);
+            customer.getTickets().add(ticket);
+            ticket.setScreeningSeat(screeningSeat);
+            screeningSeat.setTicket(ticket);
         }
-        Ticket ticket = new Ticket();
-        ticket.setTicketOwner(customer);
-        customer.getTickets().add(ticket);
         ticket.setPaymentCard(paymentCard);
         paymentCard.getPurchasedTickets().add(ticket);
-        ticket.setScreeningSeat(screeningSeat);
-        screeningSeat.setTicket(ticket);
         ticket.setTicketType(seatBookingForm.getTicketType());
         ticket.setTicketStatus(TicketStatus.VALID);
         ticket.setCreationDateTime(LocalDateTime.now());
-        save(ticket);
+        try {
+            save(ticket);
+            repository.flush();
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Unique screening seat constraint violated: " + e.getMessage());
+            throw new InvalidActionException(SEAT_TAKEN);
+        }
+        seatAvailabilityService.setBooked(screening.getId(), screeningSeat.getRowLetter(),
+                                          screeningSeat.getSeatNumber(), true);
         if (seatBookingForm.getTokensToApply() > 0) {
             customer.subtractTokens(seatBookingForm.getTokensToApply());
         }
@@ -145,6 +161,335 @@ public class TicketService extends AbstractEntityService<Ticket, TicketRepositor
                 convertToDto(ticket), seatBookingForm.getTokensToApply());
     }
 
+    /**
+     * Holds the seat of the screening for the customer of the user with the provided id while they fill out the
+     * book seat form. Screening seats are virtual until first held, so the screening seat is materialized here if
+     * it does not exist yet. The hold is a {@link TicketStatus#LOCKED} ticket, so the seat is claimed and shown as
+     * unavailable exactly like a booked seat, and it is released by {@link SeatHoldReaper} once
+     * {@link SeatHoldService#SEAT_HOLD_DURATION} has passed unless the customer books the seat first. Holding a
+     * seat the customer already holds reuses that hold, and a customer can hold at most
+     * {@link #MAX_SEAT_HOLDS_PER_CUSTOMER} seats that have not expired at once. Concurrent holds by the same
+     * customer may each pass the check, so the limit can be overshot by the number of requests in flight.
+     *
+     * @param userId         the user id
+     * @param screeningId    the screening id
+     * @param showroomSeatId the showroom seat id
+     * @return the id of the held screening seat
+     * @throws NoEntityFoundException if the customer, screening, or showroom seat does not exist
+     * @throws InvalidActionException if the seat is booked or held by someone else, or the customer holds too
+     *                                many seats
+     */
+    public Long holdSeat(Long userId, Long screeningId, Long showroomSeatId)
+            throws NoEntityFoundException, InvalidActionException {
+        Customer customer = findCustomerToPurchaseFor(userId);
+        ScreeningSeat screeningSeat = findOrMaterializeScreeningSeat(screeningId, showroomSeatId);
+        Ticket ticket = screeningSeat.getTicket();
+        if (ticket != null) {
+            if (isSeatHoldOf(ticket, customer)) {
+                return screeningSeat.getId();
+            }
+            throw new InvalidActionException(SEAT_TAKEN);
+        }
+        Screening screening = screeningSeat.getScreening();
+        if (screening.getShowDateTime().isBefore(LocalDateTime.now())) {
+            throw new InvalidActionException("Cannot purchase ticket for past screening");
+        }
+        long numberOfSeatHolds = repository.countByTicketOwnerWithIdAndTicketStatusAndCreationDateTimeAfter(
+                customer.getId(), TicketStatus.LOCKED, LocalDateTime.now().minus(SeatHoldService.SEAT_HOLD_DURATION));
+        if (numberOfSeatHolds >= MAX_SEAT_HOLDS_PER_CUSTOMER) {
+            throw new InvalidActionException(SEAT_HOLD_LIMIT_REACHED);
+        }
+        claimScreeningSeat(screeningSeat);
+        Ticket seatHold = new Ticket();
+        seatHold.setTicketOwner(customer);
+        customer.getTickets().add(seatHold);
+        seatHold.setScreeningSeat(screeningSeat);
+        screeningSeat.setTicket(seatHold);
+        seatHold.setTicketType(TicketType.ADULT);
+        seatHold.setTicketStatus(TicketStatus.LOCKED);
+        seatHold.setCreationDateTime(LocalDateTime.now());
+        try {
+            save(seatHold);
+            repository.flush();
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Unique screening seat constraint violated: " + e.getMessage());
+            throw new InvalidActionException(SEAT_TAKEN);
+        }
+        seatAvailabilityService.setBooked(screening.getId(), screeningSeat.getRowLetter(),
+                                          screeningSeat.getSeatNumber(), true);
+        seatHoldService.scheduleRelease(seatHold.getId(), seatHold.getCreationDateTime());
+        return screeningSeat.getId();
+    }
+
+    /**
+     * Finds the id of the screening seat that the customer of the user with the provided id holds for the showroom
+     * seat of the screening. Unlike {@link #holdSeat(Long, Long, Long)} this never creates a hold, so the book
+     * seat page can be loaded, reloaded or prefetched without locking seats.
+     *
+     * @param userId         the user id
+     * @param screeningId    the screening id
+     * @param showroomSeatId the showroom seat id
+     * @return the id of the held screening seat
+     * @throws NoEntityFoundException if the customer does not exist
+     * @throws InvalidActionException if the customer does not hold the seat or the hold has expired
+     */
+    public Long findScreeningSeatIdOfSeatHold(Long userId, Long screeningId, Long showroomSeatId)
+            throws NoEntityFoundException, InvalidActionException {
+        Customer customer = findCustomerToPurchaseFor(userId);
+        ScreeningSeat screeningSeat = screeningSeatRepository
+                .findByScreeningWithIdAndShowroomSeatWithId(screeningId, showroomSeatId)
+                .orElseThrow(() -> new InvalidActionException(SEAT_NOT_HELD));
+        Ticket seatHold = screeningSeat.getTicket();
+        if (seatHold == null || !isSeatHoldOf(seatHold, customer)) {
+            throw new InvalidActionException(SEAT_NOT_HELD);
+        }
+        if (seatHoldService.expirationDateTimeOfSeatHoldCreatedAt(seatHold.getCreationDateTime())
+                           .isBefore(LocalDateTime.now())) {
+            throw new InvalidActionException(SEAT_HOLD_EXPIRED);
+        }
+        return screeningSeat.getId();
+    }
+
+    /**
+     * Releases the seat holds with the provided ticket ids in one batch. Tickets that are no longer
+     * {@link TicketStatus#LOCKED} because the seat was booked in the meantime are left untouched.
+     *
+     * @param ticketIds the ticket ids of the seat holds
+     * @return the number of seat holds released
+     */
+    public int releaseSeatHolds(Collection<Long> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return 0;
+        }
+        List<ScreeningSeatDto> heldSeats = repository.findAllScreeningSeatDtosByIdInAndTicketStatus(
+                ticketIds, TicketStatus.LOCKED);
+        int released = repository.deleteAllByIdInAndTicketStatus(ticketIds, TicketStatus.LOCKED);
+        if (released != heldSeats.size()) {
+            Set<Long> stillBooked = new HashSet<>(screeningSeatRepository.findAllBookedIdsByIdIn(
+                    heldSeats.stream().map(ScreeningSeatDto::getId).toList()));
+            heldSeats.removeIf(heldSeat -> stillBooked.contains(heldSeat.getId()));
+        }
+        heldSeats.forEach(heldSeat -> seatAvailabilityService.setBooked(
+                heldSeat.getScreeningId(), heldSeat.getRowLetter(), heldSeat.getSeatNumber(), false));
+        logger.debug("Released " + released + " seat holds");
+        return released;
+    }
+
+    public List<Pair<Long, LocalDateTime>> findAllSeatHolds() {
+        return repository.findAllIdsAndCreationDateTimesByTicketStatus(TicketStatus.LOCKED);
+    }
+
+    private boolean isSeatHoldOf(Ticket ticket, Customer customer) {
+        return ticket.getTicketStatus() == TicketStatus.LOCKED && ticket.getTicketOwner() != null &&
+                ticket.getTicketOwner().getId().equals(customer.getId());
+    }
+
+    /**
+     * Turns the customer's seat hold into a booked ticket. The status change is conditional on the ticket still
+     * being {@link TicketStatus#LOCKED}, so a hold that is released concurrently cannot also be booked.
+     *
+     * @param seatHold the seat hold
+     * @param customer the customer booking the seat
+     * @throws InvalidActionException if the seat is held by someone else or the hold has expired
+     */
+    private void confirmSeatHold(Ticket seatHold, Customer customer)
+            throws InvalidActionException {
+        if (!isSeatHoldOf(seatHold, customer)) {
+            throw new InvalidActionException(SEAT_TAKEN);
+        }
+        if (repository.updateTicketStatusIfEquals(
+                seatHold.getId(), TicketStatus.VALID, TicketStatus.LOCKED) == 0) {
+            throw new InvalidActionException(SEAT_HOLD_EXPIRED);
+        }
+    }
+
+    /**
+     * Books all of the seats of the form for one customer and payment card. Either every seat is booked or, if any
+     * one of them cannot be, none are. Screening seats that have not been materialized yet are inserted together,
+     * the seats are claimed in showroom seat id order so that concurrent batches over overlapping seats cannot
+     * deadlock, the tickets are inserted in one JDBC batch, and a single confirmation email listing every seat is
+     * sent. Seats the customer holds are booked by confirming the hold, as {@link #bookTicket(SeatBookingForm)}
+     * does, instead of being rejected as taken.
+     *
+     * @param seatsBookingForm the seats booking form
+     * @throws NoEntityFoundException if the payment card, customer, screening, or any of the seats does not exist
+     * @throws InvalidActionException if any of the seats cannot be booked, or a hold of the customer on one of them
+     *                                has expired
+     */
+    public void bookTickets(SeatsBookingForm seatsBookingForm)
+            throws NoEntityFoundException, InvalidActionException {
+        List<Long> showroomSeatIds = seatsBookingForm.getShowroomSeatIds().stream()
+                .distinct().sorted().toList();
+        if (showroomSeatIds.isEmpty()) {
+            throw new InvalidActionException("Must choose at least one seat to book");
+        }
+        PaymentCard paymentCard = findPaymentCardToPurchaseWith(seatsBookingForm.getPaymentCardId());
+        Screening screening = screeningRepository.findById(seatsBookingForm.getScreeningId()).orElseThrow(
+                () -> new NoEntityFoundException("screening", "id", seatsBookingForm.getScreeningId()));
+        if (screening.getShowDateTime().isBefore(LocalDateTime.now())) {
+            throw new InvalidActionException("Cannot purchase ticket for past screening");
+        }
+        Customer customer = findCustomerToPurchaseFor(seatsBookingForm.getUserId());
+        List<ScreeningSeat> screeningSeats = new ArrayList<>(screeningSeatRepository
+                .findAllByScreeningWithIdAndShowroomSeatWithIdIn(screening.getId(), showroomSeatIds));
+        List<String> errors = new ArrayList<>();
+        for (ScreeningSeat screeningSeat : screeningSeats) {
+            Ticket ticket = screeningSeat.getTicket();
+            if (ticket != null && !isSeatHoldOf(ticket, customer)) {
+                errors.add(SEAT_TAKEN + ": " + screeningSeat.getRowLetter() + screeningSeat.getSeatNumber());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new InvalidActionException(errors.toArray(new String[0]));
+        }
+        Set<Long> materializedIds = screeningSeats.stream()
+                .map(screeningSeat -> screeningSeat.getShowroomSeat().getId()).collect(Collectors.toSet());
+        List<Long> virtualIds = showroomSeatIds.stream().filter(id -> !materializedIds.contains(id)).toList();
+        if (!virtualIds.isEmpty()) {
+            screeningSeats.addAll(materializeScreeningSeats(screening, virtualIds));
+        }
+        screeningSeats.sort(Comparator.comparing(screeningSeat -> screeningSeat.getShowroomSeat().getId()));
+        List<Ticket> tickets = new ArrayList<>();
+        LocalDateTime creationDateTime = LocalDateTime.now();
+        for (ScreeningSeat screeningSeat : screeningSeats) {
+            Ticket ticket = screeningSeat.getTicket();
+            if (ticket != null) {
+                confirmSeatHold(ticket, customer);
+            } else {
+                claimScreeningSeat(screeningSeat);
+                ticket = new Ticket();
+                ticket.setTicketOwner(customer);
+                customer.getTickets().add(ticket);
+                ticket.setScreeningSeat(screeningSeat);
+                screeningSeat.setTicket(ticket);
+            }
+            ticket.setPaymentCard(paymentCard);
+            paymentCard.getPurchasedTickets().add(ticket);
+            ticket.setTicketType(seatsBookingForm.getTicketType());
+            ticket.setTicketStatus(TicketStatus.VALID);
+            ticket.setCreationDateTime(creationDateTime);
+            tickets.add(ticket);
+        }
+        try {
+            saveAll(tickets);
+            repository.flush();
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Unique screening seat constraint violated: " + e.getMessage());
+            throw new InvalidActionException(SEAT_TAKEN);
+        }
+        for (ScreeningSeat screeningSeat : screeningSeats) {
+            seatAvailabilityService.setBooked(screening.getId(), screeningSeat.getRowLetter(),
+                                              screeningSeat.getSeatNumber(), true);
+        }
+        if (seatsBookingForm.getTokensToApply() > 0) {
+            customer.subtractTokens(seatsBookingForm.getTokensToApply());
+        }
+        List<TicketDto> ticketDtos = setIsRefundable(repository.findAllDtosByIdIn(
+                tickets.stream().map(Ticket::getId).toList()));
+        sendPurchaseConfirmationEmail(ticketDtos, seatsBookingForm.getTokensToApply());
+    }
+
+    private ScreeningSeat findOrMaterializeScreeningSeat(Long screeningId, Long showroomSeatId)
+            throws NoEntityFoundException, InvalidActionException {
+        Optional<ScreeningSeat> screeningSeat = screeningSeatRepository
+                .findByScreeningWithIdAndShowroomSeatWithId(screeningId, showroomSeatId);
+        if (screeningSeat.isPresent()) {
+            return screeningSeat.get();
+        }
+        Screening screening = screeningRepository.findById(screeningId).orElseThrow(
+                () -> new NoEntityFoundException("screening", "id", screeningId));
+        return materializeScreeningSeats(screening, List.of(showroomSeatId)).get(0);
+    }
+
+    /**
+     * Inserts the screening seats of the screening for the showroom seats with the provided ids. The unique
+     * constraint on screening and showroom seat means that if another transaction materializes one of the same
+     * seats first, this one fails with {@link #SEAT_TAKEN}.
+     *
+     * @param screening       the screening
+     * @param showroomSeatIds the showroom seat ids
+     * @return the materialized screening seats
+     * @throws NoEntityFoundException if any of the showroom seats does not exist
+     * @throws InvalidActionException if any of the showroom seats is not in the showroom of the screening or
+     *                                was materialized concurrently
+     */
+    private List<ScreeningSeat> materializeScreeningSeats(Screening screening, List<Long> showroomSeatIds)
+            throws NoEntityFoundException, InvalidActionException {
+        List<ShowroomSeat> showroomSeats = showroomSeatRepository.findAllById(showroomSeatIds);
+        if (showroomSeats.size() != showroomSeatIds.size()) {
+            Set<Long> foundIds = showroomSeats.stream().map(ShowroomSeat::getId).collect(Collectors.toSet());
+            throw new NoEntityFoundException(showroomSeatIds.stream().filter(id -> !foundIds.contains(id))
+                    .map(id -> "No showroom seat found with id = " + id).toList());
+        }
+        List<ScreeningSeat> screeningSeats = new ArrayList<>();
+        for (ShowroomSeat showroomSeat : showroomSeats) {
+            if (showroomSeat.getShowroom() == null || screening.getShowroom() == null ||
+                    !showroomSeat.getShowroom().getId().equals(screening.getShowroom().getId())) {
+                throw new InvalidActionException("Seat " + showroomSeat.getRowLetter() +
+                                                         showroomSeat.getSeatNumber() +
+                                                         " is not in the showroom of the screening");
+            }
+            ScreeningSeat screeningSeat = new ScreeningSeat();
+            screeningSeat.setShowroomSeat(showroomSeat);
+            showroomSeat.getScreeningSeats().add(screeningSeat);
+            screeningSeat.setScreening(screening);
+            screening.getScreeningSeats().add(screeningSeat);
+            screeningSeats.add(screeningSeat);
+        }
+        try {
+            screeningSeatRepository.saveAll(screeningSeats);
+            screeningSeatRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Unique screening and showroom seat constraint violated: " + e.getMessage());
+            throw new InvalidActionException(SEAT_TAKEN);
+        }
+        return screeningSeats;
+    }
+
+    private PaymentCard findPaymentCardToPurchaseWith(Long paymentCardId)
+            throws NoEntityFoundException, InvalidActionException {
+        PaymentCard paymentCard = paymentCardRepository.findById(paymentCardId).orElseThrow(
+                () -> new NoEntityFoundException("payment card", "id", paymentCardId));
+        if (paymentCard.getExpirationDate().isBefore(LocalDate.now())) {
+            throw new InvalidActionException("Cannot purchase ticket with expired payment card");
+        }
+        return paymentCard;
+    }
+
+    private Customer findCustomerToPurchaseFor(Long userId)
+            throws NoEntityFoundException, InvalidActionException {
+        Customer customer = customerRepository.findByUserWithId(userId).orElseThrow(
+                () -> new NoEntityFoundException("customer", "user id", userId));
+        if (!customer.getIsAuthorityValid()) {
+            throw new InvalidActionException("Cannot purchase ticket because your customer authority has been " +
+                                                     "invalidated by an administrator");
+        }
+        return customer;
+    }
+
+    /**
+     * Claims the screening seat for the current transaction. The claim is a conditional update of the seat's
+     * claim version, so of all the transactions that read the seat while it was free only one can succeed. Losing
+     * transactions get {@link #SEAT_TAKEN} instead of a duplicate ticket.
+     *
+     * @param screeningSeat the screening seat to claim
+     * @throws InvalidActionException if the seat was claimed by another transaction
+     */
+    private void claimScreeningSeat(ScreeningSeat screeningSeat)
+            throws InvalidActionException {
+        int claimed;
+        try {
+            claimed = screeningSeatRepository.claimScreeningSeat(
+                    screeningSeat.getId(), screeningSeat.getClaimVersion());
+        } catch (ConcurrencyFailureException e) {
+            logger.debug("Concurrent claim of screening seat: " + e.getMessage());
+            claimed = 0;
+        }
+        if (claimed == 0) {
+            throw new InvalidActionException(SEAT_TAKEN);
+        }
+    }
+
     public void refundTicket(Long ticketId)
             throws NoEntityFoundException, InvalidActionException, NoFieldFoundException {
         if (!existsById(ticketId)) {
@@ -154,6 +499,9 @@ public class TicketService extends AbstractEntityService<Ticket, TicketRepositor
             throw new InvalidActionException("Ticket with id " + ticketId + " is not refundable");
         }
         TicketDto ticketDto = findById(ticketId);
+        if (ticketDto.getTicketStatus() == TicketStatus.LOCKED) {
+            throw new InvalidActionException("Ticket with id " + ticketId + " is a seat hold and not refundable");
+        }
         if (ticketDto.getPaymentCardId() == null ||
                 !paymentCardRepository.existsById(ticketDto.getPaymentCardId())) {
             Customer customer = customerRepository.findByUserWithId(ticketDto.getUserId()).orElseThrow(
@@ -212,22 +560,21 @@ public class TicketService extends AbstractEntityService<Ticket, TicketRepositor
     }
 
     public List<TicketDto> findAllByUserWithId(Long userId) {
-        return convertToDto(repository.findAllByUserWithId(userId));
+        return setIsRefundable(withoutSeatHolds(repository.findAllDtosByUserWithId(userId)));
     }
 
     public List<TicketDto> findAllByUserWithIdAndShowDateTimeIsBefore(Long userId, LocalDateTime localDateTime) {
-       return repository.findAllIdsByUserWithIdAndShowDateTimeIsBefore(userId, localDateTime)
-               .stream().map(this::convertToDto).collect(Collectors.toList());
+        return setIsRefundable(withoutSeatHolds(
+                repository.findAllDtosByUserWithIdAndShowDateTimeIsBefore(userId, localDateTime)));
     }
 
     public List<TicketDto> findAllByUserWithIdAndShowDateTimeIsAfter(Long userId, LocalDateTime localDateTime) {
-        return repository.findAllIdsByUserWithIdAndShowDateTimeIsAfter(userId, localDateTime)
-                .stream().map(this::convertToDto).collect(Collectors.toList());
+        return setIsRefundable(withoutSeatHolds(
+                repository.findAllDtosByUserWithIdAndShowDateTimeIsAfter(userId, localDateTime)));
     }
 
     public List<TicketDto> findAllByTicketStatus(TicketStatus ticketStatus) {
-        return convertToDto(
-                repository.findAllByTicketStatus(ticketStatus));
+        return setIsRefundable(repository.findAllDtosByTicketStatus(ticketStatus));
     }
 
     private void sendPurchaseConfirmationEmail(TicketDto ticketDto, Integer tokensApplied) {
@@ -235,6 +582,27 @@ public class TicketService extends AbstractEntityService<Ticket, TicketRepositor
         sendEmail(ticketDto, "Ticket Purchase Confirmation", "purchased", append);
     }
 
+    private void sendPurchaseConfirmationEmail(List<TicketDto> ticketDtos, Integer tokensApplied) {
+        TicketDto first = ticketDtos.get(0);
+        StringBuilder message = new StringBuilder("You have just purchased the following tickets:\n")
+                .append("\tMovie: ").append(first.getMovieTitle()).append("\n")
+                .append("\tShowroom: ").append(first.getShowroomLetter()).append("\n")
+                .append("\tShowtime: ").append(first.showDateTimeFormatted()).append("\n")
+                .append("\tEndtime: ").append(first.endDateTimeFormatted()).append("\n")
+                .append("\tPayment Card Id: ").append(first.getPaymentCardId()).append("\n")
+                .append("\tPurchased at: ").append(first.creationDateTimeFormatted()).append("\n");
+        for (TicketDto ticketDto : ticketDtos) {
+            message.append("\tSeat Designation: ").append(ticketDto.getSeatDesignation())
+                   .append(", Ticket Type: ").append(ticketDto.ticketTypeFormatted())
+                   .append(", Ticket Status: ").append(ticketDto.getTicketStatus()).append("\n");
+        }
+        if (tokensApplied > 0) {
+            message.append("\n").append(tokensApplied).append(" tokens were applied to this purchase");
+        }
+        emailService.sendFromBusinessEmail(
+                first.getEmail(), message.toString(), "Ticket Purchase Confirmation");
+    }
+
     private void sendRefundConfirmationEmail(TicketDto ticketDto) {
         PaymentCard paymentCard = paymentCardRepository.findById(ticketDto.getPaymentCardId()).orElse(null);
         String append = paymentCard != null ? "Refunded funds to payment card associated with ticket " :
@@ -0,0 +1,129 @@
+package com.ecinema.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for {@link com.ecinema.app.domain.entities.User#getLastActivityDateTime()}. Recording
+ * activity only puts the latest activity date time of the user into a concurrent map, so a user who makes many
+ * requests between two flushes costs one write. A single background thread flushes the map every
+ * {@link #FLUSH_INTERVAL_IN_SECONDS} seconds as one JDBC batch, and the map is drained once more on shutdown.
+ * Updates that fail are put back and retried on the next flush.
+ */
+@Service
+public class UserActivityService implements DisposableBean {
+
+    public static final long FLUSH_INTERVAL_IN_SECONDS = 5L;
+
+    // user is left unquoted exactly as in the statements Hibernate generates for the entity, so it resolves to the
+    // same table on every database the entity does; quoting it would make the name case-sensitive on H2, which
+    // stores the unquoted name as USER, and turn it into a string literal on MySQL
+    private static final String UPDATE_LAST_ACTIVITY_DATE_TIME =
+            "UPDATE user SET last_activity_date_time = ? WHERE id = ?";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final Map<Long, LocalDateTime> lastActivityDateTimes = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private ScheduledExecutorService executorService;
+
+    public UserActivityService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (executorService != null) {
+            return;
+        }
+        executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-activity-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executorService.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_IN_SECONDS,
+                                               FLUSH_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public synchronized void destroy()
+            throws InterruptedException {
+        if (executorService != null) {
+            executorService.shutdown();
+            executorService.awaitTermination(FLUSH_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+            executorService = null;
+        }
+        flushQuietly();
+    }
+
+    public void recordActivityOfUserWithId(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        lastActivityDateTimes.merge(userId, now, UserActivityService::latest);
+    }
+
+    public int numberOfPendingUpdates() {
+        return lastActivityDateTimes.size();
+    }
+
+    /**
+     * Writes the buffered activity date times in one batch.
+     *
+     * @return the number of users whose last activity date time was written
+     */
+    public int flush() {
+        List<Long> userIds = new ArrayList<>(lastActivityDateTimes.keySet());
+        List<Object[]> batchArgs = new ArrayList<>();
+        Map<Long, LocalDateTime> flushed = new HashMap<>();
+        for (Long userId : userIds) {
+            // activity recorded after the removal starts a new entry that the next flush picks up
+            LocalDateTime lastActivityDateTime = lastActivityDateTimes.remove(userId);
+            if (lastActivityDateTime != null) {
+                flushed.put(userId, lastActivityDateTime);
+                batchArgs.add(new Object[]{Timestamp.valueOf(lastActivityDateTime), userId});
+            }
+        }
+        if (batchArgs.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_ACTIVITY_DATE_TIME, batchArgs);
+        } catch (RuntimeException e) {
+            flushed.forEach((userId, lastActivityDateTime) -> lastActivityDateTimes.merge(
+                    userId, lastActivityDateTime, UserActivityService::latest));
+            throw e;
+        }
+        logger.debug("Flushed last activity date time of " + batchArgs.size() + " users");
+        return batchArgs.size();
+    }
+
+    private static LocalDateTime latest(LocalDateTime first, LocalDateTime second) {
+        return second.isAfter(first) ? second : first;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush last activity date times, retrying later", e);
+        }
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.UserPrincipalCache;
+import com.ecinema.app.beans.UserViewCache;
 import com.ecinema.app.domain.dtos.UserAuthorityDto;
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.contracts.IPassword;
@@ -7,6 +9,7 @@ import com.ecinema.app.domain.contracts.IRegistration;
 import com.ecinema.app.domain.dtos.UserDto;
 import com.ecinema.app.domain.enums.UserAuthority;
 import com.ecinema.app.domain.forms.UserProfileForm;
+import com.ecinema.app.domain.objects.UserPrincipal;
 import com.ecinema.app.domain.validators.RegistrationValidator;
 import com.ecinema.app.domain.validators.UserProfileValidator;
 import com.ecinema.app.exceptions.ClashException;
@@ -16,6 +19,7 @@ import com.ecinema.app.repositories.UserRepository;
 import com.ecinema.app.util.UtilMethods;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -27,7 +31,8 @@ import java.util.stream.Collectors;
 
 @Service
 @Transactional
-public class UserService extends AbstractEntityService<User, UserRepository, UserDto> implements UserDetailsService {
+public class UserService extends AbstractEntityService<User, UserRepository, UserDto>
+        implements UserDetailsService, UserDetailsPasswordService {
 
     private final AdminService adminService;
     private final EncoderService encoderService;
@@ -35,6 +40,9 @@ public class UserService extends AbstractEntityService<User, UserRepository, Use
     private final ModeratorService moderatorService;
     private final UserProfileValidator userProfileValidator;
     private final RegistrationValidator registrationValidator;
+    private final UserViewCache userViewCache;
+    private final UserPrincipalCache userPrincipalCache;
+    private final CascadeDeletionService cascadeDeletionService;
 
     /**
      * Instantiates a new User service.
@@ -43,12 +51,16 @@ public class UserService extends AbstractEntityService<User, UserRepository, Use
      * @param customerService  the customer role def service
      * @param moderatorService the moderator role def service
      * @param adminService     the admin service
+     * @param userViewCache    the request-scoped cache of user views
+     * @param userPrincipalCache the cache of authentication principals
+     * @param cascadeDeletionService the service that deletes customers with their dependents
      */
     @Autowired
     public UserService(UserRepository repository, CustomerService customerService,
                        ModeratorService moderatorService, AdminService adminService,
                        EncoderService encoderService, UserProfileValidator userProfileValidator,
-                       RegistrationValidator registrationValidator) {
+                       RegistrationValidator registrationValidator, UserViewCache userViewCache,
+                       UserPrincipalCache userPrincipalCache, CascadeDeletionService cascadeDeletionService) {
         super(repository);
         this.adminService = adminService;
         this.encoderService = encoderService;
@@ -56,6 +68,9 @@ public class UserService extends AbstractEntityService<User, UserRepository, Use
         this.moderatorService = moderatorService;
         this.userProfileValidator = userProfileValidator;
         this.registrationValidator = registrationValidator;
+        this.userViewCache = userViewCache;
+        this.userPrincipalCache = userPrincipalCache;
+        this.cascadeDeletionService = cascadeDeletionService;
     }
 
     @Override
@@ -63,6 +78,8 @@ public class UserService extends AbstractEntityService<User, UserRepository, Use
         logger.debug("User Service on delete");
         Set<UserAuthority> userAuthorities = user.getAuthorities();
         logger.debug("User roles: " + userAuthorities);
+        userViewCache.evict(user.getId());
+        userPrincipalCache.evictUserWithId(user.getId());
         for (UserAuthority userAuthority : userAuthorities) {
             logger.debug("Deleting user role: " + userAuthority);
             switch (userAuthority) {
@@ -93,6 +110,12 @@ public class UserService extends AbstractEntityService<User, UserRepository, Use
         return userDto;
     }
 
+    @Override
+    public UserDto findById(Long id)
+            throws NoEntityFoundException {
+        return userViewCache.computeIfAbsent(id, super::findById);
+    }
+
     /**
      * Edit profile.
      *
@@ -113,14 +136,34 @@ public class UserService extends AbstractEntityService<User, UserRepository, Use
         user.setLastName(userProfileForm.getLastName());
         user.setBirthDate(userProfileForm.getBirthDate());
         repository.save(user);
+        userViewCache.evict(user.getId());
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String s)
             throws UsernameNotFoundException {
-        return repository.findByUsernameOrEmail(s).orElseThrow(
-                () -> new UsernameNotFoundException("No user found with username or email " + s));
+        UserPrincipal userPrincipal = repository.findPrincipalByUsername(s)
+                .or(() -> repository.findPrincipalByEmail(s))
+                .orElseThrow(() -> new UsernameNotFoundException("No user found with username or email " + s));
+        return userPrincipal.withAuthorities(
+                repository.findAllUserAuthoritiesByUserWithId(userPrincipal.getId()));
+    }
+
+    /**
+     * Called by the authentication provider after a successful login when the stored password hash was made
+     * with a weaker BCrypt strength than the current one.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (!(user instanceof UserPrincipal userPrincipal)) {
+            return user;
+        }
+        logger.debug("Rehashing password of user with id " + userPrincipal.getId());
+        repository.updatePasswordOfUserWithId(userPrincipal.getId(), newPassword);
+        userPrincipalCache.evictUserWithId(userPrincipal.getId());
+        return userPrincipal.withPassword(newPassword);
     }
 
     public void updateLastActivityDateTimeOfUserWithId(Long userId)
@@ -278,9 +321,7 @@ public class UserService extends AbstractEntityService<User, UserRepository, Use
 
     public Set<UserAuthority> userAuthorities(Long userId)
             throws NoEntityFoundException {
-        User user = repository.findById(userId).orElseThrow(
-                () -> new NoEntityFoundException("user", "id", userId));
-        return new HashSet<>(user.getUserAuthorities().keySet());
+        return new HashSet<>(findById(userId).getUserAuthorities());
     }
 
     public List<String> userAuthoritiesAsListOfStrings(Long userId)
@@ -293,6 +334,8 @@ public class UserService extends AbstractEntityService<User, UserRepository, Use
     protected void addUserAuthorityToUser(User user, Set<UserAuthority> userAuthorities)
             throws NoEntityFoundException, InvalidArgumentException, ClashException {
         logger.debug("Adding "+ userAuthorities + " authorities to user " + user);
+        userViewCache.evict(user.getId());
+        userPrincipalCache.evictUserWithId(user.getId());
         List<UserAuthority> authoritiesAlreadyInstantiated = UtilMethods.findAllKeysThatMapContainsIfAny(
                 user.getUserAuthorities(), userAuthorities);
         if (!authoritiesAlreadyInstantiated.isEmpty()) {
@@ -346,18 +389,26 @@ public class UserService extends AbstractEntityService<User, UserRepository, Use
             throws NoEntityFoundException, InvalidArgumentException {
         User user = repository.findById(userId).orElseThrow(
                 () -> new NoEntityFoundException("User", "id", userId));
+        userViewCache.evict(userId);
+        userPrincipalCache.evictUserWithId(userId);
         for (UserAuthority userAuthority : userAuthorities) {
             AbstractUserAuthority iUserAuthority = user.getUserAuthorities().get(userAuthority);
             if (iUserAuthority != null) {
                 switch (userAuthority) {
                     case ADMIN -> adminService.delete((Admin) iUserAuthority);
-                    case CUSTOMER -> customerService.delete((Customer) iUserAuthority);
+                    case CUSTOMER -> submitCustomerDeletion(iUserAuthority.getId());
                     case MODERATOR -> moderatorService.delete((Moderator) iUserAuthority);
                 }
             }
         }
     }
 
+    private void submitCustomerDeletion(Long customerId) {
+        // the customer is deleted with its tickets, reviews and payment cards as a background job, which evicts the
+        // principal of the user again once the customer is gone
+        UtilMethods.afterCommit(() -> cascadeDeletionService.submitCustomerDeletion(customerId));
+    }
+
     public void requestPasswordChange(IPassword iPassword)
             throws InvalidArgumentException {
 
@@ -5,6 +5,8 @@ import com.ecinema.app.domain.forms.RegistrationForm;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.ui.Model;
 
 import java.time.LocalDate;
@@ -161,6 +163,25 @@ public class UtilMethods {
         return !start1.isAfter(end2) && !start2.isAfter(end1);
     }
 
+    /**
+     * Runs the runnable once the current transaction commits, or right away if there is no transaction.
+     * In-memory indexes use this so that they never reflect changes that are later rolled back.
+     *
+     * @param runnable the runnable
+     */
+    public static void afterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+
     /**
      * Convert list to page.
      *
@@ -170,7 +191,7 @@ public class UtilMethods {
      * @return the page
      */
     public static <T> Page<T> convertListToPage(List<T> list, Pageable pageable) {
-        int start = (int) pageable.getOffset();
+        int start = (int) Math.min(pageable.getOffset(), list.size());
         int end = Math.min((start + pageable.getPageSize()), list.size());
         return new PageImpl<>(list.subList(start, end), pageable, list.size());
     }
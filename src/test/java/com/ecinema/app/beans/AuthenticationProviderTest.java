@@ -0,0 +1,86 @@
+package com.ecinema.app.beans;
+
+import com.ecinema.app.domain.enums.UserAuthority;
+import com.ecinema.app.domain.objects.UserPrincipal;
+import com.ecinema.app.repositories.UserRepository;
+import com.ecinema.app.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationProviderTest {
+
+    private HashingExecutor hashingExecutor;
+    private DaoAuthenticationProvider daoAuthenticationProvider;
+    @Mock
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        hashingExecutor = new HashingExecutor();
+        UserPrincipalCache userPrincipalCache = new UserPrincipalCache();
+        UserService userService = new UserService(
+                userRepository, null, null, null, null, null, null,
+                new UserViewCache(), userPrincipalCache, null);
+        daoAuthenticationProvider = new AuthenticationProvider(
+                userService, hashingExecutor, new BCryptPasswordEncoder(5),
+                userPrincipalCache).daoAuthenticationProvider();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.destroy();
+    }
+
+    @Test
+    void loginWithWeakerStoredHashSavesNewHash() {
+        // given
+        String weakerHash = new BCryptPasswordEncoder(4).encode("password");
+        givenPrincipalWithPasswordHash(weakerHash);
+        // when
+        Authentication authentication = daoAuthenticationProvider.authenticate(
+                new UsernamePasswordAuthenticationToken("test", "password"));
+        // then
+        assertTrue(authentication.isAuthenticated());
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository, times(1)).updatePasswordOfUserWithId(eq(1L), newHash.capture());
+        assertTrue(newHash.getValue().startsWith("$2a$05$"));
+        assertTrue(new BCryptPasswordEncoder().matches("password", newHash.getValue()));
+    }
+
+    @Test
+    void loginWithCurrentStoredHashDoesNotSaveNewHash() {
+        // given
+        givenPrincipalWithPasswordHash(new BCryptPasswordEncoder(5).encode("password"));
+        // when
+        Authentication authentication = daoAuthenticationProvider.authenticate(
+                new UsernamePasswordAuthenticationToken("test", "password"));
+        // then
+        assertTrue(authentication.isAuthenticated());
+        verify(userRepository, never()).updatePasswordOfUserWithId(anyLong(), anyString());
+    }
+
+    private void givenPrincipalWithPasswordHash(String passwordHash) {
+        UserPrincipal userPrincipal = new UserPrincipal(
+                1L, "test", passwordHash, true, false, false, false);
+        given(userRepository.findPrincipalByUsername("test")).willReturn(Optional.of(userPrincipal));
+        given(userRepository.findAllUserAuthoritiesByUserWithId(1L)).willReturn(List.of(UserAuthority.CUSTOMER));
+    }
+
+}
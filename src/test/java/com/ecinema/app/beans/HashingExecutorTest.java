@@ -0,0 +1,89 @@
+package com.ecinema.app.beans;
+
+import com.ecinema.app.domain.objects.HashingStats;
+import com.ecinema.app.exceptions.FatalErrorException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashingExecutorTest {
+
+    private HashingExecutor hashingExecutor;
+
+    @BeforeEach
+    void setUp() {
+        hashingExecutor = new HashingExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.destroy();
+    }
+
+    @Test
+    void submitRunsHashOnPool() {
+        // when
+        String threadName = hashingExecutor.await(hashingExecutor.submit(() -> Thread.currentThread().getName()));
+        // then
+        assertTrue(threadName.startsWith("hashing-"));
+    }
+
+    @Test
+    void submitFailsWhenQueueIsFull()
+            throws InterruptedException {
+        // given
+        CountDownLatch workersBusy = new CountDownLatch(HashingExecutor.NUMBER_OF_WORKERS);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < HashingExecutor.NUMBER_OF_WORKERS; i++) {
+                futures.add(hashingExecutor.submit(() -> {
+                    workersBusy.countDown();
+                    return release.await(10L, TimeUnit.SECONDS);
+                }));
+            }
+            assertTrue(workersBusy.await(10L, TimeUnit.SECONDS));
+            for (int i = 0; i < HashingExecutor.MAX_QUEUED_HASHES; i++) {
+                futures.add(hashingExecutor.submit(() -> true));
+            }
+            // when
+            assertEquals(HashingExecutor.MAX_QUEUED_HASHES, hashingExecutor.stats().getQueueDepth());
+            assertEquals(HashingExecutor.NUMBER_OF_WORKERS, hashingExecutor.stats().getActiveWorkers());
+            assertThrows(FatalErrorException.class, () -> hashingExecutor.submit(() -> true));
+        } finally {
+            release.countDown();
+        }
+        // then
+        for (Future<Boolean> future : futures) {
+            assertTrue(hashingExecutor.await(future));
+        }
+        HashingStats stats = hashingExecutor.stats();
+        assertEquals(0, stats.getQueueDepth());
+        assertEquals(1L, stats.getRejectedHashes());
+        // the queue takes hashes again once it has drained
+        assertTrue(hashingExecutor.await(hashingExecutor.submit(() -> true)));
+    }
+
+    @Test
+    void awaitRethrowsRuntimeExceptionOfHash() {
+        // given
+        Future<String> future = hashingExecutor.submit(() -> {
+            throw new IllegalArgumentException("bad hash");
+        });
+        // when
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                                                  () -> hashingExecutor.await(future));
+        // then
+        assertEquals("bad hash", e.getMessage());
+        assertNull(hashingExecutor.await(null));
+    }
+
+}
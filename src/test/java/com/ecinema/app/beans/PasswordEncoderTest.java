@@ -0,0 +1,39 @@
+package com.ecinema.app.beans;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncoderTest {
+
+    private final PasswordEncoder passwordEncoder = new PasswordEncoder();
+
+    @Test
+    void calibrateStrengthStaysWithinBounds() {
+        // when
+        int strength = passwordEncoder.calibrateStrength();
+        // then
+        assertTrue(strength >= PasswordEncoder.MIN_STRENGTH);
+        assertTrue(strength <= PasswordEncoder.MAX_STRENGTH);
+    }
+
+    @Test
+    void bCryptPasswordEncoderUsesCalibratedStrength() {
+        // given
+        PasswordEncoder fixedPasswordEncoder = new PasswordEncoder() {
+            @Override
+            protected int calibrateStrength() {
+                return 5;
+            }
+        };
+        // when
+        BCryptPasswordEncoder bCryptPasswordEncoder = fixedPasswordEncoder.bCryptPasswordEncoder();
+        String hash = bCryptPasswordEncoder.encode("password");
+        // then
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertTrue(bCryptPasswordEncoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+        assertFalse(bCryptPasswordEncoder.upgradeEncoding(hash));
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.ecinema.app.controllers;
 
+import com.ecinema.app.beans.HashingExecutor;
 import com.ecinema.app.configs.InitializationConfig;
 import com.ecinema.app.domain.entities.User;
 import com.ecinema.app.repositories.UserRepository;
@@ -11,11 +12,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -34,6 +43,9 @@ class LoginControllerTest {
     @Autowired
     private EncoderService encoderService;
 
+    @Autowired
+    private HashingExecutor hashingExecutor;
+
     @MockBean
     private InitializationConfig config;
 
@@ -72,6 +84,26 @@ class LoginControllerTest {
                .andExpect(redirectedUrl("/login-success"));
     }
 
+    @Test
+    void successLoginRehashesPasswordOfOutdatedStrength()
+            throws Exception {
+        User user = new User();
+        user.setEmail("User456");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password123?!"));
+        user.setIsAccountEnabled(true);
+        user.setIsAccountExpired(false);
+        user.setIsAccountLocked(false);
+        user.setIsCredentialsExpired(false);
+        userRepository.save(user);
+        mockMvc.perform(post("/perform-login")
+                                .param("username", "User456")
+                                .param("password", "password123?!"))
+               .andExpect(redirectedUrl("/login-success"));
+        String rehashedPassword = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertFalse(rehashedPassword.startsWith("$2a$04$"));
+        assertTrue(encoderService.matches("password123?!", rehashedPassword));
+    }
+
     @Test
     void failLogin()
             throws Exception {
@@ -81,6 +113,51 @@ class LoginControllerTest {
                .andExpect(redirectedUrl("/login-error"));
     }
 
+    @Test
+    void loginWhenHashingQueueIsFullRedirectsToBusyPage()
+            throws Exception {
+        User user = new User();
+        user.setEmail("User789");
+        user.setPassword(encoderService.encode("password123?!"));
+        user.setIsAccountEnabled(true);
+        user.setIsAccountExpired(false);
+        user.setIsAccountLocked(false);
+        user.setIsCredentialsExpired(false);
+        userRepository.save(user);
+        CountDownLatch workersBusy = new CountDownLatch(HashingExecutor.NUMBER_OF_WORKERS);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < HashingExecutor.NUMBER_OF_WORKERS; i++) {
+                futures.add(hashingExecutor.submit(() -> {
+                    workersBusy.countDown();
+                    return release.await(10L, TimeUnit.SECONDS);
+                }));
+            }
+            assertTrue(workersBusy.await(10L, TimeUnit.SECONDS));
+            for (int i = 0; i < HashingExecutor.MAX_QUEUED_HASHES; i++) {
+                futures.add(hashingExecutor.submit(() -> true));
+            }
+            mockMvc.perform(post("/perform-login")
+                                    .param("username", "User789")
+                                    .param("password", "password123?!"))
+                   .andExpect(redirectedUrl("/login-busy"));
+        } finally {
+            release.countDown();
+        }
+        for (Future<Boolean> future : futures) {
+            hashingExecutor.await(future);
+        }
+    }
+
+    @Test
+    void loginBusyShowsTryAgainMessage()
+            throws Exception {
+        mockMvc.perform(get("/login-busy"))
+               .andExpect(status().isOk())
+               .andExpect(model().attribute("error", "The server is too busy right now, please try again in a moment"));
+    }
+
     @Test
     @WithMockUser
     void loggedInUserCannotAccessLoginPage()
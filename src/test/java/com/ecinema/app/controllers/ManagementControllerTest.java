@@ -13,7 +13,10 @@ import com.ecinema.app.domain.entities.Showroom;
 import com.ecinema.app.domain.entities.User;
 import com.ecinema.app.domain.enums.*;
 import com.ecinema.app.domain.forms.*;
+import com.ecinema.app.domain.objects.DeletionJob;
 import com.ecinema.app.domain.objects.Duration;
+import com.ecinema.app.domain.objects.ScreeningInterval;
+import com.ecinema.app.domain.objects.ScreeningScheduleResult;
 import com.ecinema.app.domain.validators.MovieValidator;
 import com.ecinema.app.domain.validators.ScreeningValidator;
 import com.ecinema.app.exceptions.ClashException;
@@ -41,6 +44,7 @@ import org.springframework.web.context.WebApplicationContext;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.Month;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -107,6 +111,9 @@ class ManagementControllerTest {
     @MockBean
     private InitializationConfig initializationConfig;
 
+    @MockBean
+    private CascadeDeletionService cascadeDeletionService;
+
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders
@@ -313,16 +320,13 @@ class ManagementControllerTest {
     @WithMockUser(username = "user", authorities = {"ADMIN"})
     void postDeleteMovie()
         throws Exception {
-        MovieDto movieDto = new MovieDto();
-        movieDto.setId(1L);
-        doAnswer(invocationOnMock -> {
-            movieRepository.deleteById(1L);
-            return null;
-        }).when(movieService).delete(1L);
+        given(cascadeDeletionService.submitMovieDeletion(1L))
+                .willReturn(new DeletionJob(1L, "Delete movie with id 1"));
         mockMvc.perform(post("/delete-movie/" + 1L))
                 .andExpect(result -> model().attributeExists("success"))
                 .andExpect(redirectedUrlPattern("/delete-movie-search**"));
-        verify(movieRepository, times(1)).deleteById(1L);
+        verify(cascadeDeletionService, times(1)).submitMovieDeletion(1L);
+        verify(movieService, never()).delete(anyLong());
     }
 
     @Test
@@ -484,6 +488,38 @@ class ManagementControllerTest {
                 .andExpect(result -> model().attributeExists("errors"));
     }
 
+    @Test
+    @WithMockUser(username = "user", authorities = {"ADMIN"})
+    void postAddScreeningSchedule()
+            throws Exception {
+        ScreeningScheduleResult result = new ScreeningScheduleResult(
+                List.of(new ScreeningInterval(1L, LocalDateTime.now(), LocalDateTime.now().plusHours(2))),
+                List.of("conflict"));
+        given(screeningService.submitScreeningScheduleForm(any(ScreeningScheduleForm.class)))
+                .willReturn(result);
+        mockMvc.perform(post("/add-screening-schedule/" + 1L)
+                                .param("showroomIds", "2", "3")
+                                .param("startDate", "2030-01-01")
+                                .param("endDate", "2030-01-28")
+                                .param("showtimes", "12:00", "19:30"))
+               .andExpect(redirectedUrlPattern("/add-screening-search**"))
+               .andExpect(flash().attribute("success", "Successfully added 1 screenings"))
+               .andExpect(flash().attribute("errors", List.of("conflict")));
+        verify(screeningService).submitScreeningScheduleForm(argThat(screeningScheduleForm ->
+                screeningScheduleForm.getMovieId().equals(1L) &&
+                        screeningScheduleForm.getShowroomIds().equals(List.of(2L, 3L)) &&
+                        screeningScheduleForm.getShowtimes().equals(
+                                List.of(LocalTime.NOON, LocalTime.of(19, 30)))));
+    }
+
+    @Test
+    @WithMockUser(username = "user", authorities = {"CUSTOMER", "MODERATOR"})
+    void failToPostAddScreeningSchedule()
+            throws Exception {
+        mockMvc.perform(post("/add-screening-schedule/" + 1L))
+               .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(username = "user", authorities = {"ADMIN"})
     void showChooseScreeningToDeletePage1()
@@ -517,7 +553,7 @@ class ManagementControllerTest {
         given(showroomRepository.findAllShowroomLetters()).willReturn(showroomLettersInUse);
         Page<Screening> screenings = new PageImpl<>(new ArrayList<>());
         Page<ScreeningDto> screeningDtos = screenings.map(screeningService::convertToDto);
-        given(screeningService.findAllByMovieWithTitleLike(
+        given(screeningService.findAllByMovieSearch(
                 anyString(), any(Pageable.class))).willReturn(screeningDtos);
         mockMvc.perform(get("/choose-screening-to-delete")
                                 .param("search", "TEST")
@@ -578,10 +614,12 @@ class ManagementControllerTest {
     @WithMockUser(username = "user", authorities = {"ADMIN"})
     void deleteScreening()
             throws Exception {
-        doNothing().when(screeningService).delete(anyLong());
+        given(cascadeDeletionService.submitScreeningDeletion(1L))
+                .willReturn(new DeletionJob(1L, "Delete screening with id 1"));
         mockMvc.perform(post("/delete-screening/" + 1L))
                 .andExpect(redirectedUrlPattern("/management**"))
                 .andExpect(result -> model().attributeExists("success"));
+        verify(cascadeDeletionService, times(1)).submitScreeningDeletion(1L);
     }
 
     @Test
@@ -605,7 +643,7 @@ class ManagementControllerTest {
     void throwExceptionOnDeleteScreening()
         throws Exception {
         NoEntityFoundException e = new NoEntityFoundException("screening", "id", 1L);
-        doThrow(e).when(screeningService).delete(anyLong());
+        doThrow(e).when(cascadeDeletionService).submitScreeningDeletion(anyLong());
         mockMvc.perform(post("/delete-screening/" + 1L))
                 .andExpect(redirectedUrlPattern("/management**"))
                 .andExpect(result -> model().attribute("errors", e.getErrors()));
@@ -715,10 +753,12 @@ class ManagementControllerTest {
     @WithMockUser(username = "user", authorities = {"ADMIN"})
     void deleteShowroom()
             throws Exception {
-        doNothing().when(showroomService).delete(Letter.A);
+        given(cascadeDeletionService.submitShowroomDeletion(Letter.A))
+                .willReturn(new DeletionJob(1L, "Delete showroom A"));
         mockMvc.perform(post("/delete-showroom/" + Letter.A))
                 .andExpect(redirectedUrlPattern("/management**"))
                 .andExpect(result -> model().attributeExists("success"));
+        verify(cascadeDeletionService, times(1)).submitShowroomDeletion(Letter.A);
     }
 
     @Test
@@ -742,7 +782,7 @@ class ManagementControllerTest {
     void throwsExceptionOnAttemptToDeleteShowroom()
         throws Exception {
         NoEntityFoundException e = new NoEntityFoundException("showroom", "showroom letter", Letter.A);
-        doThrow(e).when(showroomService).delete(Letter.A);
+        doThrow(e).when(cascadeDeletionService).submitShowroomDeletion(Letter.A);
         mockMvc.perform(post("/delete-showroom/" + Letter.A))
                 .andExpect(redirectedUrlPattern("/management**"))
                 .andExpect(result -> model().attribute("errors", e.getErrors()))
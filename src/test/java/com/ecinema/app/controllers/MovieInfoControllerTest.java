@@ -2,9 +2,17 @@ package com.ecinema.app.controllers;
 
 import com.ecinema.app.configs.InitializationConfig;
 import com.ecinema.app.domain.dtos.MovieDto;
+import com.ecinema.app.domain.dtos.MovieRatingDto;
 import com.ecinema.app.domain.dtos.ReviewDto;
 import com.ecinema.app.domain.dtos.ScreeningDto;
+import com.ecinema.app.domain.enums.MovieCategory;
+import com.ecinema.app.domain.enums.MsrbRating;
+import com.ecinema.app.domain.enums.TypeaheadType;
+import com.ecinema.app.domain.objects.MovieFacetFilter;
+import com.ecinema.app.domain.objects.TypeaheadSuggestion;
+import com.ecinema.app.services.MovieRatingService;
 import com.ecinema.app.services.MovieService;
+import com.ecinema.app.services.MovieTypeaheadService;
 import com.ecinema.app.services.ReviewService;
 import com.ecinema.app.services.ScreeningService;
 import lombok.RequiredArgsConstructor;
@@ -22,14 +30,19 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.internal.bytebuddy.matcher.ElementMatchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.hamcrest.Matchers.hasToString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -51,6 +64,12 @@ class MovieInfoControllerTest {
     @MockBean
     private ScreeningService screeningService;
 
+    @MockBean
+    private MovieTypeaheadService movieTypeaheadService;
+
+    @MockBean
+    private MovieRatingService movieRatingService;
+
     @MockBean
     private InitializationConfig config;
 
@@ -69,7 +88,7 @@ class MovieInfoControllerTest {
         Page<MovieDto> pageOfDtos = new PageImpl<>(new ArrayList<>());
         given(movieService.findAll(any(PageRequest.class)))
                 .willReturn(pageOfDtos);
-        given(movieService.findAllByLikeTitle(anyString(), any(PageRequest.class)))
+        given(movieService.findAllBySearch(anyString(), any(PageRequest.class)))
                 .willReturn(pageOfDtos);
         mockMvc.perform(get("/movies"))
                .andDo(print())
@@ -81,7 +100,7 @@ class MovieInfoControllerTest {
     void searchMovie()
             throws Exception {
         Page<MovieDto> pageOfDtos = new PageImpl<>(new ArrayList<>());
-        given(movieService.findAllByLikeTitle(eq("dune"), any(PageRequest.class)))
+        given(movieService.findAllBySearch(eq("dune"), any(PageRequest.class)))
                 .willReturn(pageOfDtos);
         mockMvc.perform(get("/movies")
                                 .param("search", "dune"))
@@ -91,17 +110,59 @@ class MovieInfoControllerTest {
                        "movies", is(Map.of(0, pageOfDtos.getContent()))));
     }
 
+    @Test
+    void browseMoviesByFacets()
+            throws Exception {
+        Page<MovieDto> pageOfDtos = new PageImpl<>(new ArrayList<>());
+        MovieFacetFilter movieFacetFilter = new MovieFacetFilter(
+                List.of(MovieCategory.SCI_FI), List.of(MsrbRating.PG13, MsrbRating.R), true);
+        given(movieService.findAllBySearchAndFacets(eq("dune"), any(MovieFacetFilter.class), any(PageRequest.class)))
+                .willReturn(pageOfDtos);
+        mockMvc.perform(get("/movies")
+                                .param("search", "dune")
+                                .param("category", "SCI_FI")
+                                .param("rating", "PG13", "R")
+                                .param("nowShowing", "true"))
+               .andDo(print())
+               .andExpect(status().isOk())
+               .andExpect(model().attribute("facetFilter", hasToString(movieFacetFilter.toString())));
+        verify(movieService, never()).findAllBySearch(anyString(), any(PageRequest.class));
+    }
+
+    @Test
+    void typeahead()
+            throws Exception {
+        given(movieTypeaheadService.suggest("du", 5)).willReturn(List.of(
+                new TypeaheadSuggestion("Dune", TypeaheadType.MOVIE, 1L, 3L),
+                new TypeaheadSuggestion("Dustin Hoffman", TypeaheadType.CAST, null, 1L)));
+        mockMvc.perform(get("/movies/typeahead")
+                                .param("prefix", "du")
+                                .param("limit", "5"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$[0].text").value("Dune"))
+               .andExpect(jsonPath("$[0].type").value("MOVIE"))
+               .andExpect(jsonPath("$[0].movieId").value(1))
+               .andExpect(jsonPath("$[1].text").value("Dustin Hoffman"));
+    }
+
     @Test
     void movieInfoPage()
             throws Exception {
         MovieDto movieDto = new MovieDto();
         movieDto.setId(1L);
         given(movieService.findById(1L)).willReturn(movieDto);
+        MovieRatingDto movieRatingDto = new MovieRatingDto();
+        movieRatingDto.setMovieId(1L);
+        movieRatingDto.setNumberOfRatings(3);
+        movieRatingDto.setSumOfRatings(22L);
+        movieRatingDto.setHistogram(List.of(0, 0, 0, 0, 0, 0, 1, 0, 1, 0, 1));
+        given(movieRatingService.findByMovieId(1L)).willReturn(movieRatingDto);
         mockMvc.perform(get("/movie-info")
                                 .param("id", String.valueOf(movieDto.getId())))
                .andDo(print())
                .andExpect(status().isOk())
-               .andExpect(result -> model().attribute("movie", movieDto));
+               .andExpect(model().attribute("movie", movieDto))
+               .andExpect(model().attribute("movieRating", movieRatingDto));
     }
 
     @Test
@@ -112,7 +173,7 @@ class MovieInfoControllerTest {
         given(movieService.findByTitle("dune")).willReturn(movieDto);
         PageRequest pageRequest = PageRequest.of(0, 6);
         Page<ReviewDto> pageOfDtos = new PageImpl<>(new ArrayList<>());
-        given(reviewService.findPageByMovieIdAndNotCensored(movieDto.getId(), pageRequest))
+        given(reviewService.findPageByMovieIdAndNotCensored(eq(movieDto.getId()), any(), eq(pageRequest)))
                 .willReturn(pageOfDtos);
         mockMvc.perform(get("/movie-reviews")
                                 .param("id", String.valueOf(movieDto.getId())))
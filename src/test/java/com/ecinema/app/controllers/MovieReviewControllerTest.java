@@ -106,7 +106,7 @@ class MovieReviewControllerTest {
         List<ReviewDto> reviews = new ArrayList<>(
                 Collections.nCopies(10, new ReviewDto()));
         given(reviewService.findPageByMovieIdAndNotCensored(
-                1L, PageRequest.of(0, 6)))
+                eq(1L), any(), eq(PageRequest.of(0, 6))))
                 .willReturn(UtilMethods.convertListToPage(
                         reviews, PageRequest.of(0, 6)));
         mockMvc.perform(get("/movie-reviews")
@@ -346,7 +346,7 @@ class MovieReviewControllerTest {
     private void setUpReviews(Page<ReviewDto> reviews) {
         PageRequest pageRequest = PageRequest.of(0, 6);
         given(reviewService.findPageByMovieIdAndNotCensored(
-                2L, pageRequest)).willReturn(reviews);
+                eq(2L), any(), eq(pageRequest))).willReturn(reviews);
     }
 
     private void setUpCustomerPrivileges() {
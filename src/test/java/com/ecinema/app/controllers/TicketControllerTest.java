@@ -20,17 +20,21 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -63,6 +67,9 @@ class TicketControllerTest {
     @MockBean
     private SecurityContext securityContext;
 
+    @MockBean
+    private SeatAvailabilityService seatAvailabilityService;
+
     @MockBean
     private InitializationConfig config;
 
@@ -95,16 +102,46 @@ class TicketControllerTest {
                 .andExpect(result -> model().attribute("seatIdsForm", new LongListForm()));
     }
 
+    @Test
+    @WithAnonymousUser
+    void streamSeatMap()
+            throws Exception {
+        ScreeningSeatDto delta = new ScreeningSeatDto(2L, 1L, 3L, Letter.A, 1, true);
+        given(seatAvailabilityService.streamSeatMapDeltasByScreeningWithId(1L))
+                .willReturn(Flux.just(delta));
+        MvcResult mvcResult = mockMvc.perform(get("/view-seats/stream")
+                                                      .param("id", String.valueOf(1L)))
+                                     .andExpect(status().isOk())
+                                     .andExpect(request().asyncStarted())
+                                     .andReturn();
+        // the response completes once the deltas end, the keep-alive does not hold it open
+        mockMvc.perform(asyncDispatch(mvcResult))
+               .andExpect(status().isOk())
+               .andExpect(content().string(containsString("event:seat")));
+        verify(seatAvailabilityService).streamSeatMapDeltasByScreeningWithId(1L);
+    }
+
+    @Test
+    @WithAnonymousUser
+    void failToStreamSeatMapOfEndedScreening()
+            throws Exception {
+        given(seatAvailabilityService.streamSeatMapDeltasByScreeningWithId(1L))
+                .willThrow(new NoEntityFoundException("upcoming screening", "id", 1L));
+        mockMvc.perform(get("/view-seats/stream")
+                                .param("id", String.valueOf(1L)))
+               .andExpect(status().isNotFound());
+    }
+
     @Test
     @WithMockUser(username = "user", authorities = {"CUSTOMER"})
     void showBookSeatPage()
         throws Exception {
         setUpCustomer();
         given(screeningService.existsById(1L)).willReturn(true);
-        given(screeningSeatService.screeningSeatIsBooked(2L)).willReturn(false);
         given(customerService.numberOfTokensOwnedByUser(1L)).willReturn(6);
         ScreeningDto screening = new ScreeningDto();
         given(screeningService.findById(1L)).willReturn(screening);
+        given(ticketService.findScreeningSeatIdOfSeatHold(1L, 1L, 3L)).willReturn(2L);
         ScreeningSeatDto screeningSeat = new ScreeningSeatDto();
         given(screeningSeatService.findById(2L)).willReturn(screeningSeat);
         SeatBookingForm seatBookingForm = new SeatBookingForm();
@@ -115,11 +152,11 @@ class TicketControllerTest {
         given(paymentCardService.findAllByCardUserWithId(1L)).willReturn(paymentCards);
         mockMvc.perform(get("/book-seat")
                                 .param("screeningId", String.valueOf(1L))
-                                .param("seatId", String.valueOf(2L)))
+                                .param("seatId", String.valueOf(3L)))
                .andExpect(status().isOk())
                .andExpect(result -> model().attribute("screeningId", 1L))
                .andExpect(result -> model().attribute("screening", screening))
-               .andExpect(result -> model().attribute("seatId", 2L))
+               .andExpect(result -> model().attribute("seatId", 3L))
                .andExpect(result -> model().attribute("screeningSeat", screeningSeat))
                .andExpect(result -> model().attribute("tokens", 6))
                .andExpect(result -> model().attribute("paymentCards", paymentCards))
@@ -128,6 +165,7 @@ class TicketControllerTest {
                        "userId", is(1L))))
                .andExpect(result -> model().attribute("seatBookingForm", hasProperty(
                        "screeningSeatId", is(2L))));
+        verify(ticketService, never()).holdSeat(any(), any(), any());
     }
 
     @Test
@@ -169,7 +207,8 @@ class TicketControllerTest {
             throws Exception {
         setUpCustomer();
         given(screeningService.existsById(1L)).willReturn(true);
-        given(screeningSeatService.screeningSeatIsBooked(2L)).willReturn(true);
+        doThrow(new InvalidActionException(TicketService.SEAT_NOT_HELD))
+                .when(ticketService).findScreeningSeatIdOfSeatHold(1L, 1L, 2L);
         mockMvc.perform(get("/book-seat")
                                 .param("screeningId",String.valueOf(1L))
                                 .param("seatId", String.valueOf(2L)))
@@ -177,6 +216,46 @@ class TicketControllerTest {
                .andExpect(result -> model().attributeExists("errors"));
     }
 
+    @Test
+    @WithMockUser(username = "user", authorities = {"CUSTOMER"})
+    void holdSeat()
+            throws Exception {
+        setUpCustomer();
+        given(screeningService.existsById(1L)).willReturn(true);
+        given(ticketService.holdSeat(1L, 1L, 3L)).willReturn(2L);
+        mockMvc.perform(post("/hold-seat")
+                                .param("screeningId", String.valueOf(1L))
+                                .param("seatId", String.valueOf(3L)))
+               .andExpect(redirectedUrlPattern("/book-seat**"));
+        verify(ticketService).holdSeat(1L, 1L, 3L);
+    }
+
+    @Test
+    @WithMockUser(username = "user", authorities = {"CUSTOMER"})
+    void failToHoldSeat()
+            throws Exception {
+        setUpCustomer();
+        given(screeningService.existsById(1L)).willReturn(true);
+        doThrow(new InvalidActionException(TicketService.SEAT_HOLD_LIMIT_REACHED))
+                .when(ticketService).holdSeat(1L, 1L, 3L);
+        mockMvc.perform(post("/hold-seat")
+                                .param("screeningId", String.valueOf(1L))
+                                .param("seatId", String.valueOf(3L)))
+               .andExpect(redirectedUrlPattern("/view-seats**"))
+               .andExpect(result -> model().attributeExists("errors"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", authorities = {"MODERATOR", "ADMIN"})
+    void failToHoldSeatIfNotCustomer()
+            throws Exception {
+        mockMvc.perform(post("/hold-seat")
+                                .param("screeningId", String.valueOf(1L))
+                                .param("seatId", String.valueOf(3L)))
+               .andExpect(status().isForbidden());
+        verify(ticketService, never()).holdSeat(any(), any(), any());
+    }
+
     @Test
     @WithMockUser(username = "user", authorities = {"CUSTOMER"})
     void bookSeats()
@@ -0,0 +1,114 @@
+package com.ecinema.app.repositories;
+
+import com.ecinema.app.domain.entities.Movie;
+import com.ecinema.app.domain.entities.MovieRating;
+import com.ecinema.app.domain.entities.Review;
+import com.ecinema.app.domain.objects.RatingCount;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class MovieRatingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private MovieRatingRepository movieRatingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @AfterEach
+    void tearDown() {
+        movieRatingRepository.deleteAll();
+        reviewRepository.deleteAll();
+        movieRepository.deleteAll();
+    }
+
+    @Test
+    void addRatings() {
+        // given
+        MovieRating movieRating = new MovieRating();
+        movieRating.setMovieId(1L);
+        movieRatingRepository.save(movieRating);
+        testEntityManager.flush();
+        // when
+        int updated = movieRatingRepository.addRatings(1L, 7, 1);
+        movieRatingRepository.addRatings(1L, 7, 1);
+        movieRatingRepository.addRatings(1L, 10, 1);
+        movieRatingRepository.addRatings(1L, 7, -1);
+        int missing = movieRatingRepository.addRatings(2L, 7, 1);
+        testEntityManager.clear();
+        // then
+        assertEquals(1, updated);
+        assertEquals(0, missing);
+        MovieRating test = movieRatingRepository.findByMovieId(1L).orElseThrow();
+        assertEquals(2, test.getNumberOfRatings());
+        assertEquals(17L, test.getSumOfRatings());
+        assertEquals(List.of(0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 1), test.getHistogram());
+        assertEquals(8.5d, test.getAverageRating());
+    }
+
+    @Test
+    void deleteByMovieId() {
+        // given
+        MovieRating movieRating1 = new MovieRating();
+        movieRating1.setMovieId(1L);
+        MovieRating movieRating2 = new MovieRating();
+        movieRating2.setMovieId(2L);
+        movieRatingRepository.saveAll(List.of(movieRating1, movieRating2));
+        testEntityManager.flush();
+        // when
+        int deleted = movieRatingRepository.deleteByMovieId(1L);
+        testEntityManager.clear();
+        // then
+        assertEquals(1, deleted);
+        assertTrue(movieRatingRepository.findByMovieId(1L).isEmpty());
+        assertTrue(movieRatingRepository.findByMovieId(2L).isPresent());
+    }
+
+    @Test
+    void findAllRatingCounts() {
+        // given
+        Movie movie1 = new Movie();
+        Movie movie2 = new Movie();
+        movieRepository.save(movie1);
+        movieRepository.save(movie2);
+        int[] ratings = {3, 3, 8, 5};
+        for (int i = 0; i < ratings.length; i++) {
+            Review review = new Review();
+            review.setMovie(i < 3 ? movie1 : movie2);
+            review.setRating(ratings[i]);
+            review.setIsCensored(false);
+            reviewRepository.save(review);
+        }
+        Review censored = new Review();
+        censored.setMovie(movie1);
+        censored.setRating(8);
+        censored.setIsCensored(true);
+        reviewRepository.save(censored);
+        // when
+        Map<Long, Map<Integer, Long>> test = reviewRepository.findAllRatingCounts().stream().collect(
+                Collectors.groupingBy(RatingCount::getMovieId, Collectors.toMap(
+                        RatingCount::getStars, RatingCount::getNumberOfRatings)));
+        List<RatingCount> testOfMovie1 = reviewRepository.findAllRatingCountsByMovieWithId(movie1.getId());
+        // then
+        assertEquals(Map.of(3, 2L, 8, 1L), test.get(movie1.getId()));
+        assertEquals(Map.of(5, 1L), test.get(movie2.getId()));
+        assertEquals(2, testOfMovie1.size());
+    }
+
+}
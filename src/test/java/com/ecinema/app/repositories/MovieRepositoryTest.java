@@ -6,6 +6,7 @@ import com.ecinema.app.util.UtilMethods;
 import com.ecinema.app.domain.enums.MovieCategory;
 import com.ecinema.app.domain.enums.MsrbRating;
 import com.ecinema.app.domain.objects.Duration;
+import com.ecinema.app.domain.objects.Pair;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -276,4 +277,55 @@ class MovieRepositoryTest {
         assertFalse(test5);
     }
 
-}
\ No newline at end of file
+    @Test
+    void findAllSearchTexts() {
+        // given
+        Movie movie1 = new Movie();
+        movie1.setTitle("Dune");
+        movie1.setDirector("Denis Villeneuve");
+        movie1.setSynopsis("Spice");
+        movie1.setCast(List.of("Timothee Chalamet", "Zendaya"));
+        movie1.setWriters(List.of("Jon Spaihts"));
+        movieRepository.save(movie1);
+        Movie movie2 = new Movie();
+        movie2.setTitle("Arrival");
+        movieRepository.save(movie2);
+        // when
+        List<Pair<Long, String>> titles = movieRepository.findAllTitles();
+        List<Pair<Long, String>> castMembers = movieRepository.findAllCastMembers();
+        List<Pair<Long, String>> writers = movieRepository.findAllWriters();
+        // then
+        assertEquals(Map.of(movie1.getId(), "Dune", movie2.getId(), "Arrival"),
+                     titles.stream().collect(Collectors.toMap(Pair::getFirst, Pair::getSecond)));
+        assertEquals(Set.of("Timothee Chalamet", "Zendaya"),
+                     castMembers.stream().map(Pair::getSecond).collect(Collectors.toSet()));
+        assertTrue(castMembers.stream().allMatch(castMember -> movie1.getId().equals(castMember.getFirst())));
+        assertEquals(1, writers.size());
+        assertEquals("Denis Villeneuve", movieRepository.findAllDirectors().stream().filter(
+                director -> movie1.getId().equals(director.getFirst())).findFirst().orElseThrow().getSecond());
+        assertEquals(2, movieRepository.findAllSynopses().size());
+    }
+
+    @Test
+    void findAllFacets() {
+        // given
+        Movie movie1 = new Movie();
+        movie1.setMsrbRating(MsrbRating.PG13);
+        movie1.setMovieCategories(List.of(MovieCategory.SCI_FI, MovieCategory.EPIC));
+        movieRepository.save(movie1);
+        Movie movie2 = new Movie();
+        movie2.setMsrbRating(MsrbRating.R);
+        movieRepository.save(movie2);
+        // when
+        List<Pair<Long, MsrbRating>> msrbRatings = movieRepository.findAllMsrbRatings();
+        List<Pair<Long, MovieCategory>> movieCategories = movieRepository.findAllMovieCategories();
+        // then
+        assertEquals(Map.of(movie1.getId(), MsrbRating.PG13, movie2.getId(), MsrbRating.R),
+                     msrbRatings.stream().collect(Collectors.toMap(Pair::getFirst, Pair::getSecond)));
+        assertEquals(Set.of(MovieCategory.SCI_FI, MovieCategory.EPIC),
+                     movieCategories.stream().map(Pair::getSecond).collect(Collectors.toSet()));
+        assertTrue(movieCategories.stream().allMatch(
+                movieCategory -> movie1.getId().equals(movieCategory.getFirst())));
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.ecinema.app.repositories;
+
+import com.ecinema.app.domain.entities.OutboxEmail;
+import com.ecinema.app.domain.enums.EmailStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class OutboxEmailRepositoryTest {
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Test
+    void findAllDueByStatus() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEmail due1 = outboxEmail(EmailStatus.PENDING, now.minusMinutes(1));
+        OutboxEmail due2 = outboxEmail(EmailStatus.PENDING, now.minusMinutes(2));
+        OutboxEmail due3 = outboxEmail(EmailStatus.PENDING, now.minusMinutes(3));
+        outboxEmail(EmailStatus.PENDING, now.plusMinutes(1));
+        outboxEmail(EmailStatus.DEAD_LETTER, now.minusMinutes(4));
+        // when
+        List<OutboxEmail> outboxEmails = outboxEmailRepository.findAllDueByStatus(
+                EmailStatus.PENDING, now, PageRequest.of(0, 2));
+        List<OutboxEmail> deadLetters = outboxEmailRepository.findAllByStatus(EmailStatus.DEAD_LETTER);
+        // then
+        assertEquals(List.of(due3, due2), outboxEmails);
+        assertEquals(1, deadLetters.size());
+        assertEquals(List.of(due3, due2, due1), outboxEmailRepository.findAllDueByStatus(
+                EmailStatus.PENDING, now, PageRequest.of(0, 10)));
+    }
+
+    private OutboxEmail outboxEmail(EmailStatus status, LocalDateTime nextAttemptDateTime) {
+        OutboxEmail outboxEmail = new OutboxEmail();
+        outboxEmail.setRecipient("test@gmail.com");
+        outboxEmail.setSubject("Subject");
+        outboxEmail.setBody("Body");
+        outboxEmail.setStatus(status);
+        outboxEmail.setAttempts(0);
+        outboxEmail.setNextAttemptDateTime(nextAttemptDateTime);
+        return outboxEmailRepository.save(outboxEmail);
+    }
+
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -107,4 +108,27 @@ class PaymentCardRepositoryTest {
         assertFalse(isFalse2);
     }
 
-}
\ No newline at end of file
+    @Test
+    void deleteAllByCardOwnerWithId() {
+        // given
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Customer customer = new Customer();
+            customerRepository.save(customer);
+            customers.add(customer);
+            for (int j = 0; j < 2; j++) {
+                PaymentCard paymentCard = new PaymentCard();
+                paymentCard.setCardOwner(customer);
+                customer.getPaymentCards().add(paymentCard);
+                paymentCardRepository.save(paymentCard);
+            }
+        }
+        // when
+        int numberDeleted = paymentCardRepository.deleteAllByCardOwnerWithId(customers.get(0).getId());
+        // then
+        assertEquals(2, numberDeleted);
+        assertTrue(paymentCardRepository.findDistinctByCardCustomerWithId(customers.get(0).getId()).isEmpty());
+        assertEquals(2, paymentCardRepository.findDistinctByCardCustomerWithId(customers.get(1).getId()).size());
+    }
+
+}
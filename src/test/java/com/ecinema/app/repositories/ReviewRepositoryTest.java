@@ -5,13 +5,17 @@ import com.ecinema.app.domain.entities.Movie;
 import com.ecinema.app.domain.entities.Review;
 import com.ecinema.app.domain.entities.User;
 import com.ecinema.app.domain.enums.UserAuthority;
+import com.ecinema.app.domain.objects.ReviewWriter;
 import com.ecinema.app.util.UtilMethods;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -89,6 +93,39 @@ class ReviewRepositoryTest {
         assertEquals(control, test);
     }
 
+    @Test
+    void findSliceByMovieWithIdAndNotCensoredOrderByHelpfulness() {
+        // given
+        Movie movie = new Movie();
+        movieRepository.save(movie);
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Review review = new Review();
+            review.setMovie(movie);
+            movie.getReviews().add(review);
+            review.setIsCensored(i == 9);
+            review.setHelpfulnessScore(i % 3 / 3d);
+            reviewRepository.save(review);
+            reviews.add(review);
+        }
+        List<Review> control = reviews.stream()
+                .filter(review -> !review.getIsCensored())
+                .sorted(Comparator.comparing(Review::getHelpfulnessScore)
+                                  .thenComparing(Review::getId).reversed())
+                .collect(Collectors.toList());
+        // when
+        Slice<Review> slice1 = reviewRepository.findSliceByMovieWithIdAndNotCensoredOrderByHelpfulness(
+                movie.getId(), PageRequest.of(0, 5));
+        Review last = slice1.getContent().get(4);
+        Slice<Review> slice2 = reviewRepository.findSliceByMovieWithIdAndNotCensoredOrderByHelpfulnessAfter(
+                movie.getId(), last.getHelpfulnessScore(), last.getId(), PageRequest.of(0, 5));
+        // then
+        assertTrue(slice1.hasNext());
+        assertFalse(slice2.hasNext());
+        assertEquals(control.subList(0, 5), slice1.getContent());
+        assertEquals(control.subList(5, 9), slice2.getContent());
+    }
+
     @Test
     void findAverageOfReviews() {
         // given
@@ -197,4 +234,56 @@ class ReviewRepositoryTest {
         assertEquals(user.getUsername(), usernameOptional.get());
     }
 
-}
\ No newline at end of file
+    @Test
+    void findAllReviewWritersByReviewWithIdIn() {
+        // given
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User user = new User();
+            user.setUsername("TestUser" + i);
+            userRepository.save(user);
+            Customer customer = new Customer();
+            customer.setUser(user);
+            user.getUserAuthorities().put(UserAuthority.CUSTOMER, customer);
+            customerRepository.save(customer);
+            Review review = new Review();
+            review.setWriter(customer);
+            customer.getReviews().add(review);
+            reviewRepository.save(review);
+            reviews.add(review);
+        }
+        // when
+        List<ReviewWriter> reviewWriters = reviewRepository.findAllReviewWritersByReviewWithIdIn(
+                List.of(reviews.get(0).getId(), reviews.get(2).getId()));
+        // then
+        assertEquals(2, reviewWriters.size());
+        for (ReviewWriter reviewWriter : reviewWriters) {
+            Review review = reviews.stream().filter(r -> r.getId().equals(reviewWriter.getReviewId()))
+                                   .findFirst().orElseThrow();
+            assertEquals(review.getWriter().getId(), reviewWriter.getCustomerId());
+            assertEquals(review.getWriter().getUser().getId(), reviewWriter.getUserId());
+            assertEquals(review.getWriter().getUser().getUsername(), reviewWriter.getUsername());
+        }
+        assertNotEquals(reviewWriters.get(0).getReviewId(), reviewWriters.get(1).getReviewId());
+    }
+
+    @Test
+    void deleteAllByIdIn() {
+        // given
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Review review = new Review();
+            reviewRepository.save(review);
+            reviews.add(review);
+        }
+        // when
+        int numberDeleted = reviewRepository.deleteAllByIdIn(
+                List.of(reviews.get(0).getId(), reviews.get(2).getId()));
+        // then
+        assertEquals(2, numberDeleted);
+        assertFalse(reviewRepository.existsById(reviews.get(0).getId()));
+        assertTrue(reviewRepository.existsById(reviews.get(1).getId()));
+        assertFalse(reviewRepository.existsById(reviews.get(2).getId()));
+    }
+
+}
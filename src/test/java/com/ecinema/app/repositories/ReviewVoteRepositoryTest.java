@@ -6,6 +6,7 @@ import com.ecinema.app.domain.entities.ReviewVote;
 import com.ecinema.app.domain.entities.User;
 import com.ecinema.app.domain.enums.UserAuthority;
 import com.ecinema.app.domain.enums.Vote;
+import com.ecinema.app.domain.objects.Pair;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -261,4 +262,79 @@ class ReviewVoteRepositoryTest {
         assertEquals(mapOfUserIds.get(Vote.DOWNVOTE), downvoteUserIds);
     }
 
-}
\ No newline at end of file
+    @Test
+    void findAllVotesByUserWithIdAndReviewWithIdIn() {
+        // given
+        Review review1 = new Review();
+        Review review2 = new Review();
+        reviewRepository.save(review1);
+        reviewRepository.save(review2);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            userRepository.save(user);
+            Customer customer = new Customer();
+            customer.setUser(user);
+            user.getUserAuthorities().put(UserAuthority.CUSTOMER, customer);
+            customerRepository.save(customer);
+            users.add(user);
+            Review review = i < 4 ? review1 : review2;
+            ReviewVote reviewVote = new ReviewVote();
+            reviewVote.setVote(i % 2 == 0 ? Vote.UPVOTE : Vote.DOWNVOTE);
+            reviewVote.setReview(review);
+            review.getReviewVotes().add(reviewVote);
+            reviewVote.setVoter(customer);
+            customer.getReviewVotes().add(reviewVote);
+            reviewVoteRepository.save(reviewVote);
+        }
+        List<Long> reviewIds = List.of(review1.getId(), review2.getId());
+        // when
+        List<Pair<Long, Vote>> votesOfUser = reviewVoteRepository
+                .findAllVotesByUserWithIdAndReviewWithIdIn(users.get(4).getId(), reviewIds);
+        // then
+        assertEquals(1, votesOfUser.size());
+        assertEquals(review2.getId(), votesOfUser.get(0).getFirst());
+        assertEquals(Vote.UPVOTE, votesOfUser.get(0).getSecond());
+    }
+
+    @Test
+    void deleteAllByVoterWithIdAndReviewWithIdIn() {
+        // given
+        Customer voter = new Customer();
+        customerRepository.save(voter);
+        Customer otherVoter = new Customer();
+        customerRepository.save(otherVoter);
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Review review = new Review();
+            reviewRepository.save(review);
+            reviews.add(review);
+        }
+        List<ReviewVote> reviewVotes = new ArrayList<>();
+        for (Review review : reviews) {
+            ReviewVote reviewVote = new ReviewVote();
+            reviewVote.setVoter(voter);
+            voter.getReviewVotes().add(reviewVote);
+            reviewVote.setReview(review);
+            review.getReviewVotes().add(reviewVote);
+            reviewVoteRepository.save(reviewVote);
+            reviewVotes.add(reviewVote);
+        }
+        ReviewVote otherReviewVote = new ReviewVote();
+        otherReviewVote.setVoter(otherVoter);
+        otherVoter.getReviewVotes().add(otherReviewVote);
+        otherReviewVote.setReview(reviews.get(0));
+        reviews.get(0).getReviewVotes().add(otherReviewVote);
+        reviewVoteRepository.save(otherReviewVote);
+        // when
+        int numberDeleted = reviewVoteRepository.deleteAllByVoterWithIdAndReviewWithIdIn(
+                voter.getId(), List.of(reviews.get(0).getId(), reviews.get(1).getId()));
+        // then
+        assertEquals(2, numberDeleted);
+        assertFalse(reviewVoteRepository.existsById(reviewVotes.get(0).getId()));
+        assertFalse(reviewVoteRepository.existsById(reviewVotes.get(1).getId()));
+        assertTrue(reviewVoteRepository.existsById(reviewVotes.get(2).getId()));
+        assertTrue(reviewVoteRepository.existsById(otherReviewVote.getId()));
+    }
+
+}
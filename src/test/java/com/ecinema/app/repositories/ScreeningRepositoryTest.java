@@ -2,6 +2,9 @@ package com.ecinema.app.repositories;
 
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.enums.Letter;
+import com.ecinema.app.domain.objects.MovieScreeningTime;
+import com.ecinema.app.domain.objects.ScreeningInterval;
+import com.ecinema.app.domain.objects.ScreeningSeatCount;
 import com.ecinema.app.util.UtilMethods;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +32,15 @@ class ScreeningRepositoryTest {
     @Autowired
     private ShowroomRepository showroomRepository;
 
+    @Autowired
+    private ShowroomSeatRepository showroomSeatRepository;
+
+    @Autowired
+    private ScreeningSeatRepository screeningSeatRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
     @Test
     void findAllByShowDateTimeLessThanEqual() {
         // given
@@ -280,4 +292,126 @@ class ScreeningRepositoryTest {
         assertEquals(screeningIds, test);
     }
 
-}
\ No newline at end of file
+    @Test
+    void findAllScreeningIntervalsByShowroomWithId() {
+        // given
+        Showroom showroom = new Showroom();
+        showroom.setShowroomLetter(Letter.A);
+        showroomRepository.save(showroom);
+        Showroom otherShowroom = new Showroom();
+        otherShowroom.setShowroomLetter(Letter.B);
+        showroomRepository.save(otherShowroom);
+        LocalDateTime showDateTime = LocalDateTime.of(2030, 1, 1, 12, 0);
+        Screening screening = new Screening();
+        screening.setShowDateTime(showDateTime);
+        screening.setEndDateTime(showDateTime.plusHours(2));
+        screening.setShowroom(showroom);
+        showroom.getScreenings().add(screening);
+        screeningRepository.save(screening);
+        Screening otherScreening = new Screening();
+        otherScreening.setShowDateTime(showDateTime);
+        otherScreening.setEndDateTime(showDateTime.plusHours(2));
+        otherScreening.setShowroom(otherShowroom);
+        otherShowroom.getScreenings().add(otherScreening);
+        screeningRepository.save(otherScreening);
+        // when
+        List<ScreeningInterval> test = screeningRepository
+                .findAllScreeningIntervalsByShowroomWithId(showroom.getId());
+        // then
+        assertEquals(List.of(new ScreeningInterval(
+                screening.getId(), showDateTime, showDateTime.plusHours(2))), test);
+    }
+
+    @Test
+    void findAllSeatCountsByScreeningWithIdIn() {
+        // given
+        Showroom showroom = new Showroom();
+        showroom.setShowroomLetter(Letter.A);
+        showroomRepository.save(showroom);
+        List<ShowroomSeat> showroomSeats = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            ShowroomSeat showroomSeat = new ShowroomSeat();
+            showroomSeat.setRowLetter(Letter.A);
+            showroomSeat.setSeatNumber(i);
+            showroomSeat.setShowroom(showroom);
+            showroom.getShowroomSeats().add(showroomSeat);
+            showroomSeatRepository.save(showroomSeat);
+            showroomSeats.add(showroomSeat);
+        }
+        List<Screening> screenings = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Screening screening = new Screening();
+            screening.setShowroom(showroom);
+            showroom.getScreenings().add(screening);
+            screeningRepository.save(screening);
+            screenings.add(screening);
+        }
+        // first screening: one booked seat and one materialized but released seat, second: nothing booked
+        for (int i = 0; i < 2; i++) {
+            ScreeningSeat screeningSeat = new ScreeningSeat();
+            screeningSeat.setScreening(screenings.get(0));
+            screeningSeat.setShowroomSeat(showroomSeats.get(i));
+            screeningSeatRepository.save(screeningSeat);
+            if (i == 0) {
+                Ticket ticket = new Ticket();
+                ticket.setScreeningSeat(screeningSeat);
+                screeningSeat.setTicket(ticket);
+                ticketRepository.save(ticket);
+            }
+        }
+        // when
+        List<ScreeningSeatCount> test = screeningRepository.findAllSeatCountsByScreeningWithIdIn(
+                screenings.stream().map(Screening::getId).toList());
+        // then
+        assertEquals(2, test.size());
+        for (ScreeningSeatCount seatCount : test) {
+            assertEquals(3L, seatCount.getNumberOfSeats());
+            assertEquals(seatCount.getScreeningId().equals(screenings.get(0).getId()) ? 1L : 0L,
+                         seatCount.getNumberOfSeatsBooked());
+        }
+    }
+
+    @Test
+    void findAllMovieScreeningTimesNotBefore() {
+        // given
+        Movie movie = new Movie();
+        movieRepository.save(movie);
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+        Screening pastScreening = new Screening();
+        pastScreening.setShowDateTime(now.minusHours(1));
+        pastScreening.setMovie(movie);
+        movie.getScreenings().add(pastScreening);
+        screeningRepository.save(pastScreening);
+        Screening upcomingScreening = new Screening();
+        upcomingScreening.setShowDateTime(now.plusHours(1));
+        upcomingScreening.setMovie(movie);
+        movie.getScreenings().add(upcomingScreening);
+        screeningRepository.save(upcomingScreening);
+        // when
+        List<MovieScreeningTime> test = screeningRepository.findAllMovieScreeningTimesNotBefore(now);
+        // then
+        assertEquals(1, test.size());
+        assertEquals(upcomingScreening.getId(), test.get(0).getScreeningId());
+        assertEquals(movie.getId(), test.get(0).getMovieId());
+        assertEquals(now.plusHours(1), test.get(0).getShowDateTime());
+    }
+
+    @Test
+    void existsByIdAndEndDateTimeAfter() {
+        // given
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+        Screening pastScreening = new Screening();
+        pastScreening.setShowDateTime(now.minusHours(3));
+        pastScreening.setEndDateTime(now.minusHours(1));
+        screeningRepository.save(pastScreening);
+        Screening runningScreening = new Screening();
+        runningScreening.setShowDateTime(now.minusHours(1));
+        runningScreening.setEndDateTime(now.plusHours(1));
+        screeningRepository.save(runningScreening);
+        // then
+        assertFalse(screeningRepository.existsByIdAndEndDateTimeAfter(pastScreening.getId(), now));
+        assertTrue(screeningRepository.existsByIdAndEndDateTimeAfter(runningScreening.getId(), now));
+        assertFalse(screeningRepository.existsByIdAndEndDateTimeAfter(runningScreening.getId() + 1L, now));
+    }
+
+}
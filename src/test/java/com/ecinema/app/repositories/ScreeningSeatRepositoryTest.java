@@ -1,7 +1,9 @@
 package com.ecinema.app.repositories;
 
+import com.ecinema.app.domain.dtos.ScreeningSeatDto;
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.enums.Letter;
+import com.ecinema.app.domain.objects.Pair;
 import com.ecinema.app.exceptions.NoEntityFoundException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -129,4 +131,103 @@ class ScreeningSeatRepositoryTest {
         assertEquals(screeningSeat, screeningSeatOptional2.get());
     }
 
-}
\ No newline at end of file
+    @Test
+    void findAllDtosByScreeningWithIdAndShowroomLayout() {
+        // given
+        Showroom showroom = new Showroom();
+        showroom.setShowroomLetter(Letter.A);
+        showroom.setNumberOfRows(1);
+        showroom.setNumberOfSeatsPerRow(2);
+        showroomRepository.save(showroom);
+        Screening screening = new Screening();
+        screening.setShowroom(showroom);
+        showroom.getScreenings().add(screening);
+        screeningRepository.save(screening);
+        List<ScreeningSeat> screeningSeats = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            ShowroomSeat showroomSeat = new ShowroomSeat();
+            showroomSeat.setRowLetter(Letter.A);
+            showroomSeat.setSeatNumber(i);
+            showroomSeat.setShowroom(showroom);
+            showroom.getShowroomSeats().add(showroomSeat);
+            showroomSeatRepository.save(showroomSeat);
+            ScreeningSeat screeningSeat = new ScreeningSeat();
+            screeningSeat.setShowroomSeat(showroomSeat);
+            showroomSeat.getScreeningSeats().add(screeningSeat);
+            screeningSeat.setScreening(screening);
+            screening.getScreeningSeats().add(screeningSeat);
+            screeningSeatRepository.save(screeningSeat);
+            screeningSeats.add(screeningSeat);
+        }
+        // virtual seat, no screening seat has been materialized for it
+        ShowroomSeat virtualShowroomSeat = new ShowroomSeat();
+        virtualShowroomSeat.setRowLetter(Letter.B);
+        virtualShowroomSeat.setSeatNumber(1);
+        virtualShowroomSeat.setShowroom(showroom);
+        showroom.getShowroomSeats().add(virtualShowroomSeat);
+        showroomSeatRepository.save(virtualShowroomSeat);
+        Ticket ticket = new Ticket();
+        ticket.setScreeningSeat(screeningSeats.get(1));
+        screeningSeats.get(1).setTicket(ticket);
+        ticketRepository.save(ticket);
+        // when
+        List<ScreeningSeatDto> screeningSeatDtos = screeningSeatRepository
+                .findAllDtosByScreeningWithId(screening.getId());
+        Optional<Pair<Integer, Integer>> layout = screeningRepository
+                .findShowroomLayoutOfScreeningWithId(screening.getId());
+        // then
+        assertEquals(3, screeningSeatDtos.size());
+        for (ScreeningSeatDto screeningSeatDto : screeningSeatDtos) {
+            assertEquals(screening.getId(), screeningSeatDto.getScreeningId());
+            if (screeningSeatDto.getId() == null) {
+                assertEquals(virtualShowroomSeat.getId(), screeningSeatDto.getShowroomSeatId());
+                assertEquals(Letter.B, screeningSeatDto.getRowLetter());
+                assertFalse(screeningSeatDto.getIsBooked());
+                continue;
+            }
+            ScreeningSeat screeningSeat = screeningSeatDto.getId().equals(screeningSeats.get(0).getId()) ?
+                    screeningSeats.get(0) : screeningSeats.get(1);
+            assertEquals(screeningSeat.getShowroomSeat().getId(), screeningSeatDto.getShowroomSeatId());
+            assertEquals(screeningSeat.getRowLetter(), screeningSeatDto.getRowLetter());
+            assertEquals(screeningSeat.getSeatNumber(), screeningSeatDto.getSeatNumber());
+            assertEquals(screeningSeat.getTicket() != null, screeningSeatDto.getIsBooked());
+        }
+        assertTrue(layout.isPresent());
+        assertEquals(1, layout.get().getFirst());
+        assertEquals(2, layout.get().getSecond());
+    }
+
+    @Test
+    void deleteAllByScreeningWithIdIn() {
+        // given
+        List<ShowroomSeat> showroomSeats = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ShowroomSeat showroomSeat = new ShowroomSeat();
+            showroomSeatRepository.save(showroomSeat);
+            showroomSeats.add(showroomSeat);
+        }
+        List<Screening> screenings = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Screening screening = new Screening();
+            screeningRepository.save(screening);
+            screenings.add(screening);
+            for (ShowroomSeat showroomSeat : showroomSeats) {
+                ScreeningSeat screeningSeat = new ScreeningSeat();
+                screeningSeat.setShowroomSeat(showroomSeat);
+                showroomSeat.getScreeningSeats().add(screeningSeat);
+                screeningSeat.setScreening(screening);
+                screening.getScreeningSeats().add(screeningSeat);
+                screeningSeatRepository.save(screeningSeat);
+            }
+        }
+        // when
+        int numberDeleted = screeningSeatRepository.deleteAllByScreeningWithIdIn(
+                List.of(screenings.get(0).getId(), screenings.get(1).getId()));
+        // then
+        assertEquals(10, numberDeleted);
+        assertTrue(screeningSeatRepository.findAllByScreeningWithId(screenings.get(0).getId()).isEmpty());
+        assertTrue(screeningSeatRepository.findAllByScreeningWithId(screenings.get(1).getId()).isEmpty());
+        assertEquals(5, screeningSeatRepository.findAllByScreeningWithId(screenings.get(2).getId()).size());
+    }
+
+}
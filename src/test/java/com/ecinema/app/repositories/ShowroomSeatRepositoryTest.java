@@ -140,4 +140,30 @@ class ShowroomSeatRepositoryTest {
         assertEquals(showroomSeat, showroomSeatOptional2.get());
     }
 
-}
\ No newline at end of file
+    @Test
+    void deleteAllByShowroomWithId() {
+        // given
+        List<Showroom> showrooms = new ArrayList<>();
+        for (Letter showroomLetter : List.of(Letter.A, Letter.B)) {
+            Showroom showroom = new Showroom();
+            showroom.setShowroomLetter(showroomLetter);
+            showroomRepository.save(showroom);
+            showrooms.add(showroom);
+            for (int i = 0; i < 4; i++) {
+                ShowroomSeat showroomSeat = new ShowroomSeat();
+                showroomSeat.setRowLetter(Letter.A);
+                showroomSeat.setSeatNumber(i);
+                showroomSeat.setShowroom(showroom);
+                showroom.getShowroomSeats().add(showroomSeat);
+                showroomSeatRepository.save(showroomSeat);
+            }
+        }
+        // when
+        int numberDeleted = showroomSeatRepository.deleteAllByShowroomWithId(showrooms.get(0).getId());
+        // then
+        assertEquals(4, numberDeleted);
+        assertTrue(showroomSeatRepository.findAllByShowroomWithId(showrooms.get(0).getId()).isEmpty());
+        assertEquals(4, showroomSeatRepository.findAllByShowroomWithId(showrooms.get(1).getId()).size());
+    }
+
+}
@@ -1,9 +1,12 @@
 package com.ecinema.app.repositories;
 
+import com.ecinema.app.domain.dtos.TicketDto;
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.enums.Letter;
+import com.ecinema.app.domain.enums.TicketType;
 import com.ecinema.app.domain.enums.UserAuthority;
 import com.ecinema.app.domain.objects.Duration;
+import com.ecinema.app.domain.objects.SeatDesignation;
 import com.ecinema.app.util.UtilMethods;
 import com.ecinema.app.domain.enums.TicketStatus;
 import org.junit.jupiter.api.AfterEach;
@@ -197,33 +200,24 @@ class TicketRepositoryTest {
         Screening screening1 = new Screening();
         screening1.setShowDateTime(LocalDateTime.now().minusHours(1));
         screeningRepository.save(screening1);
-        ShowroomSeat showroomSeat1 = new ShowroomSeat();
-        showroomSeat1.setRowLetter(Letter.A);
-        showroomSeat1.setSeatNumber(1);
-        showroomSeatRepository.save(showroomSeat1);
-        ScreeningSeat screeningSeat1 = new ScreeningSeat();
-        screeningSeat1.setShowroomSeat(showroomSeat1);
-        showroomSeat1.getScreeningSeats().add(screeningSeat1);
-        screeningSeat1.setScreening(screening1);
-        screening1.getScreeningSeats().add(screeningSeat1);
-        screeningSeatRepository.save(screeningSeat1);
         Screening screening2 = new Screening();
         screening2.setShowDateTime(LocalDateTime.now().plusHours(1));
         screeningRepository.save(screening2);
-        ShowroomSeat showroomSeat2 = new ShowroomSeat();
-        showroomSeat2.setRowLetter(Letter.A);
-        showroomSeat2.setSeatNumber(1);
-        showroomSeatRepository.save(showroomSeat2);
-        ScreeningSeat screeningSeat2 = new ScreeningSeat();
-        screeningSeat2.setShowroomSeat(showroomSeat2);
-        showroomSeat2.getScreeningSeats().add(screeningSeat2);
-        screeningSeat2.setScreening(screening2);
-        screening2.getScreeningSeats().add(screeningSeat2);
-        screeningSeatRepository.save(screeningSeat2);
         List<Ticket> tickets = new ArrayList<>();
         for (int i = 0; i < 10; i++) {
+            Screening screening = i % 2 == 0 ? screening1 : screening2;
+            ShowroomSeat showroomSeat = new ShowroomSeat();
+            showroomSeat.setRowLetter(Letter.A);
+            showroomSeat.setSeatNumber(i);
+            showroomSeatRepository.save(showroomSeat);
+            ScreeningSeat screeningSeat = new ScreeningSeat();
+            screeningSeat.setShowroomSeat(showroomSeat);
+            showroomSeat.getScreeningSeats().add(screeningSeat);
+            screeningSeat.setScreening(screening);
+            screening.getScreeningSeats().add(screeningSeat);
+            screeningSeatRepository.save(screeningSeat);
             Ticket ticket = new Ticket();
-            ticket.setScreeningSeat(i % 2 == 0 ? screeningSeat1 : screeningSeat2);
+            ticket.setScreeningSeat(screeningSeat);
             ticket.setTicketOwner(customer);
             customer.getTickets().add(ticket);
             ticketRepository.save(ticket);
@@ -245,4 +239,118 @@ class TicketRepositoryTest {
         assertEquals(controlTicketIdsOfCurrentTickets, idsOfCurrentTickets);
     }
 
-}
\ No newline at end of file
+    @Test
+    void queriesForTicketDtoProjection() {
+        // given
+        User user = new User();
+        user.setUsername("TestUser123");
+        user.setEmail("test@gmail.com");
+        userRepository.save(user);
+        Customer customer = new Customer();
+        customer.setUser(user);
+        user.getUserAuthorities().put(UserAuthority.CUSTOMER, customer);
+        customerRepository.save(customer);
+        Showroom showroom = new Showroom();
+        showroom.setShowroomLetter(Letter.C);
+        showroomRepository.save(showroom);
+        Movie movie = new Movie();
+        movie.setTitle("Test Title");
+        movie.setDuration(Duration.of(1, 30));
+        movieRepository.save(movie);
+        Screening screening = new Screening();
+        screening.setShowroom(showroom);
+        showroom.getScreenings().add(screening);
+        screening.setMovie(movie);
+        movie.getScreenings().add(screening);
+        LocalDateTime showDateTime = LocalDateTime.now().plusDays(1).withNano(0);
+        screening.setShowDateTime(showDateTime);
+        screening.setEndDateTime(showDateTime.plusHours(1).plusMinutes(30));
+        screeningRepository.save(screening);
+        ShowroomSeat showroomSeat = new ShowroomSeat();
+        showroomSeat.setRowLetter(Letter.D);
+        showroomSeat.setSeatNumber(9);
+        showroomSeat.setShowroom(showroom);
+        showroom.getShowroomSeats().add(showroomSeat);
+        showroomSeatRepository.save(showroomSeat);
+        ScreeningSeat screeningSeat = new ScreeningSeat();
+        screeningSeat.setShowroomSeat(showroomSeat);
+        showroomSeat.getScreeningSeats().add(screeningSeat);
+        screeningSeat.setScreening(screening);
+        screening.getScreeningSeats().add(screeningSeat);
+        screeningSeatRepository.save(screeningSeat);
+        Ticket ticket = new Ticket();
+        ticket.setTicketOwner(customer);
+        customer.getTickets().add(ticket);
+        ticket.setScreeningSeat(screeningSeat);
+        screeningSeat.setTicket(ticket);
+        ticket.setTicketType(TicketType.CHILD);
+        ticket.setTicketStatus(TicketStatus.VALID);
+        ticketRepository.save(ticket);
+        // when
+        TicketDto ticketDto = ticketRepository.findDtoById(ticket.getId())
+                .orElseThrow(IllegalStateException::new);
+        List<TicketDto> ticketDtosOfUser = ticketRepository.findAllDtosByUserWithId(user.getId());
+        List<TicketDto> ticketDtosBefore = ticketRepository.findAllDtosByUserWithIdAndShowDateTimeIsBefore(
+                user.getId(), LocalDateTime.now());
+        List<TicketDto> ticketDtosAfter = ticketRepository.findAllDtosByUserWithIdAndShowDateTimeIsAfter(
+                user.getId(), LocalDateTime.now());
+        List<TicketDto> ticketDtosWithStatus = ticketRepository.findAllDtosByTicketStatus(TicketStatus.VALID);
+        // then
+        assertEquals(ticket.getId(), ticketDto.getId());
+        assertEquals(user.getId(), ticketDto.getUserId());
+        assertEquals("test@gmail.com", ticketDto.getEmail());
+        assertEquals("TestUser123", ticketDto.getUsername());
+        assertEquals("Test Title", ticketDto.getMovieTitle());
+        assertNull(ticketDto.getPaymentCardId());
+        assertEquals(TicketType.CHILD, ticketDto.getTicketType());
+        assertEquals(TicketStatus.VALID, ticketDto.getTicketStatus());
+        assertEquals(Letter.C, ticketDto.getShowroomLetter());
+        assertEquals(showDateTime, ticketDto.getShowDateTime());
+        assertEquals(showDateTime.plusHours(1).plusMinutes(30), ticketDto.getEndDateTime());
+        assertEquals(SeatDesignation.of(Letter.D, 9), ticketDto.getSeatDesignation());
+        assertEquals(List.of(ticketDto), ticketDtosOfUser);
+        assertTrue(ticketDtosBefore.isEmpty());
+        assertEquals(List.of(ticketDto), ticketDtosAfter);
+        assertEquals(List.of(ticketDto), ticketDtosWithStatus);
+    }
+
+    @Test
+    void deleteAllByScreeningWithIdIn() {
+        // given
+        Showroom showroom = new Showroom();
+        showroom.setShowroomLetter(Letter.A);
+        showroomRepository.save(showroom);
+        ShowroomSeat showroomSeat = new ShowroomSeat();
+        showroomSeat.setRowLetter(Letter.A);
+        showroomSeat.setSeatNumber(1);
+        showroomSeat.setShowroom(showroom);
+        showroom.getShowroomSeats().add(showroomSeat);
+        showroomSeatRepository.save(showroomSeat);
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Screening screening = new Screening();
+            screening.setShowroom(showroom);
+            showroom.getScreenings().add(screening);
+            screeningRepository.save(screening);
+            ScreeningSeat screeningSeat = new ScreeningSeat();
+            screeningSeat.setShowroomSeat(showroomSeat);
+            showroomSeat.getScreeningSeats().add(screeningSeat);
+            screeningSeat.setScreening(screening);
+            screening.getScreeningSeats().add(screeningSeat);
+            screeningSeatRepository.save(screeningSeat);
+            Ticket ticket = new Ticket();
+            ticket.setScreeningSeat(screeningSeat);
+            screeningSeat.setTicket(ticket);
+            ticketRepository.save(ticket);
+            tickets.add(ticket);
+        }
+        Long screeningId = tickets.get(0).getScreeningSeat().getScreening().getId();
+        // when
+        int numberDeleted = ticketRepository.deleteAllByScreeningWithIdIn(List.of(screeningId));
+        // then
+        assertEquals(1, numberDeleted);
+        assertFalse(ticketRepository.existsById(tickets.get(0).getId()));
+        assertTrue(ticketRepository.existsById(tickets.get(1).getId()));
+    }
+
+}
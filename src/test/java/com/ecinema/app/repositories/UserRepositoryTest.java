@@ -1,6 +1,9 @@
 package com.ecinema.app.repositories;
 
+import com.ecinema.app.domain.entities.Customer;
 import com.ecinema.app.domain.entities.User;
+import com.ecinema.app.domain.enums.UserAuthority;
+import com.ecinema.app.domain.objects.UserPrincipal;
 import com.ecinema.app.util.UtilMethods;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -94,6 +97,39 @@ class UserRepositoryTest {
         assertEquals(user, userOptional2.get());
     }
 
+    @Test
+    void findPrincipalByUsernameOrEmailWithAuthorities() {
+        // given
+        User user = new User();
+        user.setUsername("test123");
+        user.setEmail("test123@gmail.com");
+        user.setPassword("password hash");
+        user.setIsAccountEnabled(true);
+        user.setIsAccountLocked(false);
+        user.setIsAccountExpired(false);
+        user.setIsCredentialsExpired(false);
+        Customer customer = new Customer();
+        customer.setUser(user);
+        user.getUserAuthorities().put(UserAuthority.CUSTOMER, customer);
+        userRepository.save(user);
+        // when
+        Optional<UserPrincipal> principalOptional1 = userRepository.findPrincipalByUsername("test123");
+        Optional<UserPrincipal> principalOptional2 = userRepository.findPrincipalByEmail("test123@gmail.com");
+        List<UserAuthority> userAuthorities = userRepository.findAllUserAuthoritiesByUserWithId(user.getId());
+        // then
+        assertTrue(principalOptional1.isPresent());
+        assertTrue(principalOptional2.isPresent());
+        UserPrincipal userPrincipal = principalOptional1.get();
+        assertEquals(user.getId(), userPrincipal.getId());
+        assertEquals("test123", userPrincipal.getUsername());
+        assertEquals("password hash", userPrincipal.getPassword());
+        assertTrue(userPrincipal.isEnabled());
+        assertTrue(userPrincipal.isAccountNonLocked());
+        assertEquals(userPrincipal, principalOptional2.get());
+        assertEquals(List.of(UserAuthority.CUSTOMER), userAuthorities);
+        assertTrue(userRepository.findPrincipalByEmail("test123").isEmpty());
+    }
+
     @Test
     void failFindIdByUsername() {
         // given
@@ -1,5 +1,7 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.HashingExecutor;
+import com.ecinema.app.beans.UserPrincipalCache;
 import com.ecinema.app.domain.dtos.AdminDto;
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.enums.UserAuthority;
@@ -32,9 +34,9 @@ class AdminServiceTest {
     void setUp() {
         PasswordValidator passwordValidator = new PasswordValidator();
         BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-        encoderService = new EncoderService(passwordEncoder);
+        encoderService = new EncoderService(passwordEncoder, new HashingExecutor());
         adminService = new AdminService(adminRepository, userRepository,
-                                        passwordValidator, encoderService);
+                                        passwordValidator, encoderService, new UserPrincipalCache());
     }
 
     @Test
@@ -0,0 +1,167 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.beans.CatalogCache;
+import com.ecinema.app.beans.UserPrincipalCache;
+import com.ecinema.app.domain.entities.*;
+import com.ecinema.app.domain.enums.Letter;
+import com.ecinema.app.domain.objects.DeletionJob;
+import com.ecinema.app.repositories.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the deletion of a showroom of {@link CascadeDeletionService} against the schema that Hibernate generates,
+ * so that the bulk deletes are checked to run in an order that the foreign keys allow. The test does not run in a
+ * transaction of its own, each chunk commits in its own transaction as it does in the application.
+ */
+@DataJpaTest
+@ExtendWith(MockitoExtension.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CascadeDeletionServiceSchemaTest {
+
+    private CascadeDeletionService cascadeDeletionService;
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ShowroomRepository showroomRepository;
+    @Autowired
+    private ScreeningRepository screeningRepository;
+    @Autowired
+    private ScreeningSeatRepository screeningSeatRepository;
+    @Autowired
+    private ShowroomSeatRepository showroomSeatRepository;
+    @Autowired
+    private TicketRepository ticketRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private ReviewVoteRepository reviewVoteRepository;
+    @Autowired
+    private PaymentCardRepository paymentCardRepository;
+    @Mock
+    private MovieService movieService;
+    @Mock
+    private CustomerService customerService;
+    @Mock
+    private ScreeningService screeningService;
+    @Mock
+    private ShowroomSeatService showroomSeatService;
+    @Mock
+    private ScreeningScheduleService screeningScheduleService;
+    @Mock
+    private MovieFacetService movieFacetService;
+    @Mock
+    private SeatAvailabilityService seatAvailabilityService;
+    @Mock
+    private MovieRatingService movieRatingService;
+    @Mock
+    private ReviewVoteCounterService reviewVoteCounterService;
+    @Mock
+    private CatalogCache catalogCache;
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // by the time the showroom itself is deleted its collections are empty, so its services have nothing to do
+        ShowroomService showroomService = new ShowroomService(
+                showroomRepository, showroomSeatService, screeningService,
+                null, ticketRepository, catalogCache);
+        cascadeDeletionService = new CascadeDeletionService(
+                transactionManager, movieService, showroomService, customerService, screeningScheduleService,
+                movieFacetService, seatAvailabilityService, movieRatingService, reviewVoteCounterService,
+                showroomRepository, screeningRepository, screeningSeatRepository, showroomSeatRepository,
+                ticketRepository, reviewRepository, reviewVoteRepository, paymentCardRepository, userPrincipalCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cascadeDeletionService.destroy();
+        ticketRepository.deleteAllInBatch();
+        screeningSeatRepository.deleteAllInBatch();
+        screeningRepository.deleteAllInBatch();
+        showroomSeatRepository.deleteAllInBatch();
+        showroomRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deleteShowroomWithScreeningsSeatsAndTickets() {
+        // given
+        Showroom showroom = transactionTemplate.execute(status -> createShowroom(Letter.A, 3));
+        Showroom otherShowroom = transactionTemplate.execute(status -> createShowroom(Letter.B, 1));
+        DeletionJob job = new DeletionJob(1L, "Delete showroom A");
+        // when
+        cascadeDeletionService.deleteShowroom(showroom.getId(), job);
+        // then
+        assertFalse(showroomRepository.existsById(showroom.getId()));
+        assertTrue(showroomRepository.existsById(otherShowroom.getId()));
+        assertTrue(screeningRepository.findAllScreeningIdsByShowroomId(showroom.getId()).isEmpty());
+        assertTrue(showroomSeatRepository.findAllByShowroomWithId(showroom.getId()).isEmpty());
+        List<Long> otherScreeningIds = screeningRepository.findAllScreeningIdsByShowroomId(otherShowroom.getId());
+        assertEquals(1, otherScreeningIds.size());
+        assertEquals(1, ticketRepository.count());
+        assertEquals(2, screeningSeatRepository.count());
+        assertEquals(2, showroomSeatRepository.count());
+        // 3 tickets, 6 screening seats, 3 screenings, 2 showroom seats and the showroom
+        assertEquals(3 + 6 + 3 + 2 + 1, job.getNumberOfRowsDeleted());
+        verify(seatAvailabilityService, times(3)).evict(anyLong());
+    }
+
+    private Showroom createShowroom(Letter showroomLetter, int numberOfScreenings) {
+        Showroom showroom = new Showroom();
+        showroom.setShowroomLetter(showroomLetter);
+        showroomRepository.save(showroom);
+        List<ShowroomSeat> showroomSeats = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            ShowroomSeat showroomSeat = new ShowroomSeat();
+            showroomSeat.setRowLetter(Letter.A);
+            showroomSeat.setSeatNumber(i);
+            showroomSeat.setShowroom(showroom);
+            showroom.getShowroomSeats().add(showroomSeat);
+            showroomSeatRepository.save(showroomSeat);
+            showroomSeats.add(showroomSeat);
+        }
+        for (int i = 0; i < numberOfScreenings; i++) {
+            Screening screening = new Screening();
+            screening.setShowroom(showroom);
+            showroom.getScreenings().add(screening);
+            screeningRepository.save(screening);
+            for (ShowroomSeat showroomSeat : showroomSeats) {
+                ScreeningSeat screeningSeat = new ScreeningSeat();
+                screeningSeat.setShowroomSeat(showroomSeat);
+                showroomSeat.getScreeningSeats().add(screeningSeat);
+                screeningSeat.setScreening(screening);
+                screening.getScreeningSeats().add(screeningSeat);
+                screeningSeatRepository.save(screeningSeat);
+            }
+            // one of the two seats of each screening is booked
+            ScreeningSeat bookedSeat = screening.getScreeningSeats().first();
+            Ticket ticket = new Ticket();
+            ticket.setScreeningSeat(bookedSeat);
+            bookedSeat.setTicket(ticket);
+            ticketRepository.save(ticket);
+        }
+        return showroom;
+    }
+
+}
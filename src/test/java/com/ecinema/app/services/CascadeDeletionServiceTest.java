@@ -0,0 +1,203 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.beans.UserPrincipalCache;
+import com.ecinema.app.domain.dtos.CustomerDto;
+import com.ecinema.app.domain.enums.DeletionJobStatus;
+import com.ecinema.app.domain.objects.DeletionJob;
+import com.ecinema.app.domain.objects.Pair;
+import com.ecinema.app.exceptions.NoEntityFoundException;
+import com.ecinema.app.repositories.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CascadeDeletionServiceTest {
+
+    private CascadeDeletionService cascadeDeletionService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private MovieService movieService;
+    @Mock
+    private ShowroomService showroomService;
+    @Mock
+    private CustomerService customerService;
+    @Mock
+    private ScreeningScheduleService screeningScheduleService;
+    @Mock
+    private MovieFacetService movieFacetService;
+    @Mock
+    private SeatAvailabilityService seatAvailabilityService;
+    @Mock
+    private MovieRatingService movieRatingService;
+    @Mock
+    private ReviewVoteCounterService reviewVoteCounterService;
+    @Mock
+    private ShowroomRepository showroomRepository;
+    @Mock
+    private ScreeningRepository screeningRepository;
+    @Mock
+    private ScreeningSeatRepository screeningSeatRepository;
+    @Mock
+    private ShowroomSeatRepository showroomSeatRepository;
+    @Mock
+    private TicketRepository ticketRepository;
+    @Mock
+    private ReviewRepository reviewRepository;
+    @Mock
+    private ReviewVoteRepository reviewVoteRepository;
+    @Mock
+    private PaymentCardRepository paymentCardRepository;
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    @BeforeEach
+    void setUp() {
+        cascadeDeletionService = new CascadeDeletionService(
+                transactionManager, movieService, showroomService, customerService, screeningScheduleService,
+                movieFacetService, seatAvailabilityService, movieRatingService, reviewVoteCounterService,
+                showroomRepository, screeningRepository, screeningSeatRepository, showroomSeatRepository,
+                ticketRepository, reviewRepository, reviewVoteRepository, paymentCardRepository, userPrincipalCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cascadeDeletionService.destroy();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deleteShowroomDeletesScreeningsInChunksBeforeShowroomSeats() {
+        // given
+        List<Long> screeningIds = LongStream.rangeClosed(1L, CascadeDeletionService.SCREENINGS_PER_CHUNK + 5L)
+                                            .boxed().collect(Collectors.toList());
+        given(screeningRepository.findAllScreeningIdsByShowroomId(1L)).willReturn(screeningIds);
+        given(screeningRepository.findAllShowroomIdsByScreeningWithIdIn(anyCollection()))
+                .willReturn(List.of(new Pair<>(1L, 1L)));
+        given(ticketRepository.deleteAllByScreeningWithIdIn(anyCollection())).willReturn(2);
+        given(screeningSeatRepository.deleteAllByScreeningWithIdIn(anyCollection())).willReturn(3);
+        given(screeningRepository.deleteAllByIdIn(anyCollection())).willReturn(1);
+        given(showroomSeatRepository.deleteAllByShowroomWithId(1L)).willReturn(10);
+        DeletionJob job = new DeletionJob(1L, "Delete showroom A");
+        // when
+        cascadeDeletionService.deleteShowroom(1L, job);
+        // then
+        InOrder inOrder = inOrder(ticketRepository, screeningSeatRepository, screeningRepository,
+                                  showroomSeatRepository, showroomService);
+        inOrder.verify(ticketRepository).deleteAllByScreeningWithIdIn(
+                screeningIds.subList(0, CascadeDeletionService.SCREENINGS_PER_CHUNK));
+        inOrder.verify(screeningSeatRepository).deleteAllByScreeningWithIdIn(anyCollection());
+        inOrder.verify(screeningRepository).deleteAllByIdIn(anyCollection());
+        inOrder.verify(ticketRepository).deleteAllByScreeningWithIdIn(
+                screeningIds.subList(CascadeDeletionService.SCREENINGS_PER_CHUNK, screeningIds.size()));
+        inOrder.verify(screeningSeatRepository).deleteAllByScreeningWithIdIn(anyCollection());
+        inOrder.verify(screeningRepository).deleteAllByIdIn(anyCollection());
+        inOrder.verify(showroomSeatRepository).deleteAllByShowroomWithId(1L);
+        inOrder.verify(showroomService).delete(1L);
+        verify(seatAvailabilityService, times(screeningIds.size())).evict(anyLong());
+        verify(movieFacetService, times(screeningIds.size())).removeScreening(anyLong());
+        verify(transactionManager, times(4)).commit(any());
+        assertEquals(2 * (2 + 3 + 1) + 10 + 1, job.getNumberOfRowsDeleted());
+    }
+
+    @Test
+    void deleteMovieDeletesReviewVotesBeforeReviews() {
+        // given
+        List<Long> reviewIds = List.of(1L, 2L, 3L);
+        given(screeningRepository.findAllScreeningIdsByMovieId(1L)).willReturn(new ArrayList<>());
+        given(reviewRepository.findAllIdsByMovieWithId(eq(1L), any(Pageable.class)))
+                .willReturn(reviewIds).willReturn(new ArrayList<>());
+        given(reviewVoteRepository.deleteAllByReviewWithIdIn(reviewIds)).willReturn(5);
+        given(reviewRepository.deleteAllByIdIn(reviewIds)).willReturn(3);
+        DeletionJob job = new DeletionJob(1L, "Delete movie with id 1");
+        // when
+        cascadeDeletionService.deleteMovie(1L, job);
+        // then
+        InOrder inOrder = inOrder(reviewVoteRepository, reviewRepository, movieService);
+        inOrder.verify(reviewVoteRepository).deleteAllByReviewWithIdIn(reviewIds);
+        inOrder.verify(reviewRepository).deleteAllByIdIn(reviewIds);
+        inOrder.verify(movieService).delete(1L);
+        verify(ticketRepository, never()).deleteAllByScreeningWithIdIn(anyCollection());
+        assertEquals(5 + 3 + 1, job.getNumberOfRowsDeleted());
+    }
+
+    @Test
+    void deleteCustomerRebuildsVoteCountersAndRecomputesRatings() {
+        // given
+        given(ticketRepository.findAllIdsByCustomerWithId(eq(1L), any(Pageable.class)))
+                .willReturn(List.of(4L)).willReturn(new ArrayList<>());
+        given(ticketRepository.findAllScreeningIdsByTicketWithIdIn(List.of(4L))).willReturn(List.of(7L));
+        given(ticketRepository.deleteAllByIdIn(List.of(4L))).willReturn(1);
+        given(reviewVoteRepository.findAllReviewIdsByVoterWithId(eq(1L), any(Pageable.class)))
+                .willReturn(List.of(8L, 9L)).willReturn(new ArrayList<>());
+        given(reviewVoteRepository.deleteAllByVoterWithIdAndReviewWithIdIn(1L, List.of(8L, 9L))).willReturn(2);
+        given(reviewRepository.findAllIdsByWriterWithId(eq(1L), any(Pageable.class)))
+                .willReturn(List.of(10L)).willReturn(new ArrayList<>());
+        given(reviewRepository.findAllMovieIdsByReviewWithIdIn(List.of(10L))).willReturn(List.of(3L));
+        given(paymentCardRepository.deleteAllByCardOwnerWithId(1L)).willReturn(1);
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setUserId(5L);
+        given(customerService.findById(1L)).willReturn(customerDto);
+        DeletionJob job = new DeletionJob(1L, "Delete customer with id 1");
+        // when
+        cascadeDeletionService.deleteCustomer(1L, job);
+        // then
+        verify(seatAvailabilityService).evict(7L);
+        verify(reviewVoteCounterService).rebuild(List.of(8L, 9L));
+        verify(reviewVoteRepository).deleteAllByReviewWithIdIn(List.of(10L));
+        verify(reviewRepository).deleteAllByIdIn(List.of(10L));
+        verify(movieRatingService).recompute(3L);
+        InOrder inOrder = inOrder(paymentCardRepository, customerService, userPrincipalCache);
+        inOrder.verify(paymentCardRepository).deleteAllByCardOwnerWithId(1L);
+        inOrder.verify(customerService).delete(1L);
+        inOrder.verify(userPrincipalCache).evictUserWithId(5L);
+        assertEquals(1 + 2 + 1 + 1, job.getNumberOfRowsDeleted());
+    }
+
+    @Test
+    void submitFailsIfEntityDoesNotExist() {
+        // given
+        given(movieService.existsById(1L)).willReturn(false);
+        // then
+        assertThrows(NoEntityFoundException.class, () -> cascadeDeletionService.submitMovieDeletion(1L));
+        assertTrue(cascadeDeletionService.findAllJobs().isEmpty());
+    }
+
+    @Test
+    void submittedJobRunsInBackground()
+            throws NoEntityFoundException, InterruptedException {
+        // given
+        given(screeningRepository.existsById(1L)).willReturn(true);
+        given(screeningRepository.findAllShowroomIdsByScreeningWithIdIn(List.of(1L)))
+                .willReturn(List.of(new Pair<>(1L, 2L)));
+        given(screeningRepository.deleteAllByIdIn(List.of(1L))).willReturn(1);
+        // when
+        DeletionJob job = cascadeDeletionService.submitScreeningDeletion(1L);
+        for (int i = 0; i < 100 && !job.isFinished(); i++) {
+            Thread.sleep(10L);
+        }
+        // then
+        assertEquals(DeletionJobStatus.COMPLETED, job.getStatus());
+        assertEquals(1L, job.getNumberOfRowsDeleted());
+        assertEquals(List.of(job), cascadeDeletionService.findAllJobs());
+        verify(screeningScheduleService).remove(2L, 1L);
+    }
+
+}
@@ -1,5 +1,8 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.HashingExecutor;
+import com.ecinema.app.beans.UserPrincipalCache;
+import com.ecinema.app.beans.UserViewCache;
 import com.ecinema.app.domain.entities.ChangePassword;
 import com.ecinema.app.domain.entities.User;
 import com.ecinema.app.domain.forms.ChangePasswordForm;
@@ -39,14 +42,16 @@ class ChangePasswordServiceTest {
     void setUp() {
         passwordValidator = new PasswordValidator();
         passwordEncoder = new BCryptPasswordEncoder();
-        encoderService = new EncoderService(passwordEncoder);
+        encoderService = new EncoderService(passwordEncoder, new HashingExecutor());
         userService = new UserService(
                 userRepository, null, null,
                 null, encoderService,
-                null, null);
+                null, null, new UserViewCache(), new UserPrincipalCache(),
+                null);
         changePasswordService = new ChangePasswordService(
                 changePasswordRepository, emailService,
-                encoderService, userRepository, passwordValidator);
+                encoderService, userRepository, passwordValidator,
+                new UserPrincipalCache());
     }
 
     @Test
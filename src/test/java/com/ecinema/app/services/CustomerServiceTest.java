@@ -28,7 +28,11 @@ import static org.mockito.Mockito.*;
 class CustomerServiceTest {
 
     private TicketService ticketService;
+    private SeatAvailabilityService seatAvailabilityService;
     private ReviewService reviewService;
+    private MovieRatingService movieRatingService;
+    @Mock
+    private ReviewModerationService reviewModerationService;
     private CustomerService customerService;
     private ReviewVoteService reviewVoteService;
     private PaymentCardService paymentCardService;
@@ -41,6 +45,8 @@ class CustomerServiceTest {
     @Mock
     private ReviewRepository reviewRepository;
     @Mock
+    private MovieRatingRepository movieRatingRepository;
+    @Mock
     private CustomerRepository customerRepository;
     @Mock
     private ReviewVoteRepository reviewVoteRepository;
@@ -54,14 +60,22 @@ class CustomerServiceTest {
      */
     @BeforeEach
     void setUp() {
+        seatAvailabilityService = new SeatAvailabilityService(
+                null, screeningSeatRepository);
         ticketService = new TicketService(
                 ticketRepository, emailService, customerRepository,
-                paymentCardRepository, screeningSeatRepository);
+                paymentCardRepository, null, screeningSeatRepository, null,
+                seatAvailabilityService,
+                new SeatHoldService());
         reviewVoteService = new ReviewVoteService(
-                reviewVoteRepository, reviewRepository, customerRepository);
+                reviewVoteRepository, reviewRepository, customerRepository,
+                new ReviewVoteCounterService(null));
+        movieRatingService = new MovieRatingService(
+                movieRatingRepository, reviewRepository, null);
         reviewService = new ReviewService(
                 reviewRepository, null,
-                customerRepository, null, reviewVoteService);
+                customerRepository, null, reviewVoteService,
+                movieRatingService, reviewModerationService);
         paymentCardService = new PaymentCardService(paymentCardRepository, null,
                                                     customerRepository, null);
         customerService = new CustomerService(
@@ -0,0 +1,167 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.entities.OutboxEmail;
+import com.ecinema.app.domain.enums.EmailStatus;
+import com.ecinema.app.repositories.OutboxEmailRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailServiceTest {
+
+    private EmailService emailService;
+    private SmtpStandIn smtpStandIn;
+    @Mock
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @BeforeEach
+    void setUp() {
+        smtpStandIn = new SmtpStandIn();
+        emailService = new EmailService(smtpStandIn, outboxEmailRepository, new EmailOutboxService());
+    }
+
+    @Test
+    void sendWritesToOutbox() {
+        // when
+        emailService.sendFromBusinessEmail("test@gmail.com", "Body", "Subject");
+        // then
+        ArgumentCaptor<OutboxEmail> outboxEmailCaptor = ArgumentCaptor.forClass(OutboxEmail.class);
+        verify(outboxEmailRepository).save(outboxEmailCaptor.capture());
+        OutboxEmail outboxEmail = outboxEmailCaptor.getValue();
+        assertEquals("test@gmail.com", outboxEmail.getRecipient());
+        assertEquals(emailService.getBusinessEmail(), outboxEmail.getSender());
+        assertEquals(EmailStatus.PENDING, outboxEmail.getStatus());
+        assertEquals(0, outboxEmail.getAttempts());
+        assertTrue(smtpStandIn.delivered.isEmpty());
+    }
+
+    @Test
+    void dispatchBatchOverOneConnection() {
+        // given
+        OutboxEmail outboxEmail1 = outboxEmail(1L, "test1@gmail.com", 0);
+        OutboxEmail outboxEmail2 = outboxEmail(2L, "test2@gmail.com", 0);
+        given(outboxEmailRepository.findAllDueByStatus(eq(EmailStatus.PENDING), any(), any(Pageable.class)))
+                .willReturn(List.of(outboxEmail1, outboxEmail2));
+        // when
+        int numberDispatched = emailService.dispatchPendingEmails(50);
+        // then
+        assertEquals(2, numberDispatched);
+        assertEquals(1, smtpStandIn.numberOfConnections);
+        assertEquals(List.of("test1@gmail.com", "test2@gmail.com"), smtpStandIn.delivered);
+        verify(outboxEmailRepository).deleteAllInBatch(List.of(outboxEmail1, outboxEmail2));
+        verify(outboxEmailRepository).saveAll(List.of());
+    }
+
+    @Test
+    void failedEmailIsRetriedWithBackoff() {
+        // given
+        OutboxEmail outboxEmail1 = outboxEmail(1L, "test1@gmail.com", 0);
+        OutboxEmail outboxEmail2 = outboxEmail(2L, "rejected@gmail.com", 1);
+        given(outboxEmailRepository.findAllDueByStatus(eq(EmailStatus.PENDING), any(), any(Pageable.class)))
+                .willReturn(List.of(outboxEmail1, outboxEmail2));
+        smtpStandIn.rejectedRecipients.add("rejected@gmail.com");
+        // when
+        emailService.dispatchPendingEmails(50);
+        // then
+        assertEquals(List.of("test1@gmail.com"), smtpStandIn.delivered);
+        verify(outboxEmailRepository).deleteAllInBatch(List.of(outboxEmail1));
+        verify(outboxEmailRepository).saveAll(List.of(outboxEmail2));
+        assertEquals(EmailStatus.PENDING, outboxEmail2.getStatus());
+        assertEquals(2, outboxEmail2.getAttempts());
+        assertNotNull(outboxEmail2.getLastError());
+        LocalDateTime expectedNextAttempt = LocalDateTime.now().plusSeconds(
+                2 * EmailService.BASE_RETRY_DELAY_IN_SECONDS);
+        assertFalse(outboxEmail2.getNextAttemptDateTime().isAfter(expectedNextAttempt));
+        assertTrue(outboxEmail2.getNextAttemptDateTime().isAfter(expectedNextAttempt.minusSeconds(5)));
+    }
+
+    @Test
+    void emailIsDeadLetteredAfterMaxAttempts() {
+        // given
+        OutboxEmail outboxEmail = outboxEmail(1L, "test@gmail.com", EmailService.MAX_ATTEMPTS - 1);
+        given(outboxEmailRepository.findAllDueByStatus(eq(EmailStatus.PENDING), any(), any(Pageable.class)))
+                .willReturn(List.of(outboxEmail));
+        smtpStandIn.down = true;
+        // when
+        emailService.dispatchPendingEmails(50);
+        // then
+        assertTrue(smtpStandIn.delivered.isEmpty());
+        assertEquals(EmailStatus.DEAD_LETTER, outboxEmail.getStatus());
+        assertEquals(EmailService.MAX_ATTEMPTS, outboxEmail.getAttempts());
+        verify(outboxEmailRepository).saveAll(List.of(outboxEmail));
+    }
+
+    private OutboxEmail outboxEmail(Long id, String recipient, int attempts) {
+        OutboxEmail outboxEmail = new OutboxEmail();
+        outboxEmail.setId(id);
+        outboxEmail.setSender("ecinema@gmail.com");
+        outboxEmail.setRecipient(recipient);
+        outboxEmail.setSubject("Subject");
+        outboxEmail.setBody("Body");
+        outboxEmail.setStatus(EmailStatus.PENDING);
+        outboxEmail.setAttempts(attempts);
+        outboxEmail.setNextAttemptDateTime(LocalDateTime.now());
+        return outboxEmail;
+    }
+
+    /**
+     * In-process stand-in for the SMTP server. It replaces only the transport of JavaMailSenderImpl, so messages
+     * are built and failures are reported exactly as against a real server: one connection per call of send,
+     * rejected recipients reported as failed messages and a server that is down failing every message.
+     */
+    private static class SmtpStandIn extends JavaMailSenderImpl {
+
+        private final List<String> delivered = new ArrayList<>();
+        private final Set<String> rejectedRecipients = new HashSet<>();
+        private int numberOfConnections;
+        private boolean down;
+
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages)
+                throws MailException {
+            Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+            if (down) {
+                for (int i = 0; i < mimeMessages.length; i++) {
+                    failedMessages.put(originalMessages != null ? originalMessages[i] : mimeMessages[i],
+                                       new MessagingException("Connection refused"));
+                }
+                throw new MailSendException("Mail server connection failed", null, failedMessages);
+            }
+            numberOfConnections++;
+            for (int i = 0; i < mimeMessages.length; i++) {
+                try {
+                    String recipient = mimeMessages[i].getAllRecipients()[0].toString();
+                    if (rejectedRecipients.contains(recipient)) {
+                        throw new MessagingException("550 Mailbox unavailable");
+                    }
+                    delivered.add(recipient);
+                } catch (MessagingException e) {
+                    failedMessages.put(originalMessages != null ? originalMessages[i] : mimeMessages[i], e);
+                }
+            }
+            if (!failedMessages.isEmpty()) {
+                throw new MailSendException(failedMessages);
+            }
+        }
+
+    }
+
+}
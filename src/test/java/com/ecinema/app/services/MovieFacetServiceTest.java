@@ -0,0 +1,117 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.entities.Movie;
+import com.ecinema.app.domain.enums.MovieCategory;
+import com.ecinema.app.domain.enums.MsrbRating;
+import com.ecinema.app.domain.objects.MovieFacetCounts;
+import com.ecinema.app.domain.objects.MovieFacetFilter;
+import com.ecinema.app.domain.objects.MovieScreeningTime;
+import com.ecinema.app.domain.objects.Pair;
+import com.ecinema.app.repositories.MovieRepository;
+import com.ecinema.app.repositories.ScreeningRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieFacetServiceTest {
+
+    private MovieFacetService movieFacetService;
+    @Mock
+    private MovieRepository movieRepository;
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    @BeforeEach
+    void setUp() {
+        movieFacetService = new MovieFacetService(movieRepository, screeningRepository);
+        given(movieRepository.findAllMsrbRatings()).willReturn(List.of(
+                new Pair<>(1L, MsrbRating.PG13), new Pair<>(2L, MsrbRating.R),
+                new Pair<>(3L, MsrbRating.PG13), new Pair<>(4L, MsrbRating.G)));
+        given(movieRepository.findAllMovieCategories()).willReturn(List.of(
+                new Pair<>(1L, MovieCategory.SCI_FI), new Pair<>(1L, MovieCategory.EPIC),
+                new Pair<>(2L, MovieCategory.HORROR), new Pair<>(3L, MovieCategory.SCI_FI)));
+        LocalDateTime now = LocalDateTime.now();
+        given(screeningRepository.findAllMovieScreeningTimesNotBefore(any())).willReturn(List.of(
+                new MovieScreeningTime(1L, 1L, now.plusDays(1)), new MovieScreeningTime(2L, 2L, now.plusDays(2)),
+                new MovieScreeningTime(3L, 3L, now.minusDays(1))));
+    }
+
+    @Test
+    void findAllMovieIdsByFacets() {
+        // then
+        assertEquals(List.of(1L, 2L, 3L, 4L), movieFacetService.findAllMovieIds(
+                new MovieFacetFilter(null, null, false), null));
+        assertEquals(List.of(1L, 3L), movieFacetService.findAllMovieIds(
+                new MovieFacetFilter(List.of(MovieCategory.SCI_FI), null, false), null));
+        assertEquals(List.of(1L), movieFacetService.findAllMovieIds(
+                new MovieFacetFilter(List.of(MovieCategory.SCI_FI, MovieCategory.EPIC), null, false), null));
+        assertEquals(List.of(1L, 2L, 3L), movieFacetService.findAllMovieIds(
+                new MovieFacetFilter(null, List.of(MsrbRating.PG13, MsrbRating.R), false), null));
+        // a screening that has started does not make its movie now showing
+        assertEquals(List.of(1L, 2L), movieFacetService.findAllMovieIds(
+                new MovieFacetFilter(null, null, true), null));
+        // candidates keep their order
+        assertEquals(List.of(3L, 1L), movieFacetService.findAllMovieIds(
+                new MovieFacetFilter(List.of(MovieCategory.SCI_FI), null, false), List.of(4L, 3L, 1L)));
+        assertTrue(movieFacetService.findAllMovieIds(
+                new MovieFacetFilter(List.of(MovieCategory.DARK), null, false), null).isEmpty());
+    }
+
+    @Test
+    void countFacets() {
+        // when
+        MovieFacetCounts counts = movieFacetService.countFacets(
+                new MovieFacetFilter(null, List.of(MsrbRating.PG13), true), null);
+        // then
+        assertEquals(1, counts.getNumberOfMovies());
+        assertEquals(1, counts.getMovieCategoryCounts().get(MovieCategory.EPIC));
+        assertEquals(0, counts.getMovieCategoryCounts().get(MovieCategory.HORROR));
+        // the rating counts ignore the selected ratings, the now showing count ignores now showing
+        assertEquals(1, counts.getMsrbRatingCounts().get(MsrbRating.PG13));
+        assertEquals(1, counts.getMsrbRatingCounts().get(MsrbRating.R));
+        assertEquals(0, counts.getMsrbRatingCounts().get(MsrbRating.G));
+        assertEquals(1, counts.getNowShowingCount());
+        assertEquals(2, movieFacetService.countFacets(new MovieFacetFilter(null, null, false), List.of(1L, 3L))
+                                         .getMovieCategoryCounts().get(MovieCategory.SCI_FI));
+    }
+
+    @Test
+    void facetsAreUpdatedIncrementally() {
+        // given
+        MovieFacetFilter sciFi = new MovieFacetFilter(List.of(MovieCategory.SCI_FI), null, false);
+        MovieFacetFilter nowShowing = new MovieFacetFilter(null, null, true);
+        assertEquals(List.of(1L, 3L), movieFacetService.findAllMovieIds(sciFi, null));
+        Movie movie = new Movie();
+        movie.setId(5L);
+        movie.setMsrbRating(MsrbRating.PG);
+        movie.setMovieCategories(Set.of(MovieCategory.SCI_FI));
+        // when
+        movieFacetService.index(movie);
+        movieFacetService.remove(1L);
+        movieFacetService.addScreening(new MovieScreeningTime(4L, 5L, LocalDateTime.now().plusHours(1)));
+        movieFacetService.removeScreening(2L);
+        // then
+        assertEquals(List.of(3L, 5L), movieFacetService.findAllMovieIds(sciFi, null));
+        assertEquals(List.of(5L), movieFacetService.findAllMovieIds(nowShowing, null));
+        // when
+        movie.setMovieCategories(Set.of());
+        movieFacetService.index(movie);
+        // then
+        assertEquals(List.of(3L), movieFacetService.findAllMovieIds(sciFi, null));
+        assertEquals(List.of(5L), movieFacetService.findAllMovieIds(nowShowing, null));
+        verify(movieRepository, times(1)).findAllMsrbRatings();
+    }
+
+}
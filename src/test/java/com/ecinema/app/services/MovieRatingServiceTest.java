@@ -0,0 +1,129 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.dtos.MovieRatingDto;
+import com.ecinema.app.domain.entities.MovieRating;
+import com.ecinema.app.domain.objects.RatingCount;
+import com.ecinema.app.repositories.MovieRatingRepository;
+import com.ecinema.app.repositories.MovieRepository;
+import com.ecinema.app.repositories.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieRatingServiceTest {
+
+    private MovieRatingService movieRatingService;
+    @Mock
+    private MovieRatingRepository movieRatingRepository;
+    @Mock
+    private ReviewRepository reviewRepository;
+    @Mock
+    private MovieRepository movieRepository;
+
+    @BeforeEach
+    void setUp() {
+        movieRatingService = new MovieRatingService(movieRatingRepository, reviewRepository, movieRepository);
+    }
+
+    @Test
+    void addAndRemoveRating() {
+        // given
+        given(movieRatingRepository.addRatings(1L, 7, 1)).willReturn(1);
+        given(movieRatingRepository.addRatings(1L, 7, -1)).willReturn(1);
+        // when
+        movieRatingService.addRating(1L, 7);
+        movieRatingService.removeRating(1L, 7);
+        movieRatingService.addRating(1L, 11);
+        movieRatingService.addRating(1L, null);
+        // then
+        verify(movieRatingRepository).addRatings(1L, 7, 1);
+        verify(movieRatingRepository).addRatings(1L, 7, -1);
+        verify(movieRatingRepository, never()).addRatings(anyLong(), eq(11), anyInt());
+        verify(reviewRepository, never()).findAllRatingCountsByMovieWithId(anyLong());
+    }
+
+    @Test
+    void addRatingCountsReviewsWhenAggregatesMissing() {
+        // given
+        given(movieRatingRepository.addRatings(1L, 8, 1)).willReturn(0);
+        given(movieRatingRepository.findByMovieIdForUpdate(1L)).willReturn(Optional.empty());
+        given(reviewRepository.findAllRatingCountsByMovieWithId(1L)).willReturn(List.of(
+                new RatingCount(1L, 8, 2L), new RatingCount(1L, 3, 1L)));
+        // when
+        movieRatingService.addRating(1L, 8);
+        // then
+        ArgumentCaptor<MovieRating> captor = ArgumentCaptor.forClass(MovieRating.class);
+        verify(movieRatingRepository).save(captor.capture());
+        MovieRating movieRating = captor.getValue();
+        assertEquals(1L, movieRating.getMovieId());
+        assertEquals(3, movieRating.getNumberOfRatings());
+        assertEquals(19L, movieRating.getSumOfRatings());
+        assertEquals(List.of(0, 0, 0, 1, 0, 0, 0, 0, 2, 0, 0), movieRating.getHistogram());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recomputeAll() {
+        // given
+        MovieRating correct = new MovieRating();
+        correct.setMovieId(1L);
+        correct.setHistogram(List.of(0, 0, 0, 0, 0, 1, 0, 0, 0, 0, 0));
+        MovieRating drifted = new MovieRating();
+        drifted.setMovieId(2L);
+        drifted.setHistogram(List.of(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 5));
+        MovieRating orphaned = new MovieRating();
+        orphaned.setMovieId(4L);
+        given(movieRatingRepository.findAllForUpdate()).willReturn(List.of(correct, drifted, orphaned));
+        given(reviewRepository.findAllRatingCounts()).willReturn(List.of(
+                new RatingCount(1L, 5, 1L), new RatingCount(2L, 10, 4L), new RatingCount(3L, 2, 1L)));
+        given(movieRepository.findAllMovieIds()).willReturn(List.of(1L, 2L, 3L));
+        // when
+        int repaired = movieRatingService.recomputeAll();
+        // then
+        assertEquals(3, repaired);
+        ArgumentCaptor<List<MovieRating>> saved = ArgumentCaptor.forClass(List.class);
+        verify(movieRatingRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        assertEquals(drifted, saved.getValue().get(0));
+        assertEquals(4, drifted.getNumberOfRatings());
+        assertEquals(3L, saved.getValue().get(1).getMovieId());
+        assertEquals(2L, saved.getValue().get(1).getSumOfRatings());
+        ArgumentCaptor<Collection<MovieRating>> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(movieRatingRepository).deleteAll(deleted.capture());
+        assertEquals(List.of(orphaned), List.copyOf(deleted.getValue()));
+    }
+
+    @Test
+    void findAllByMovieIds() {
+        // given
+        MovieRating movieRating = new MovieRating();
+        movieRating.setMovieId(1L);
+        movieRating.setHistogram(List.of(0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 1));
+        given(movieRatingRepository.findAllByMovieIdIn(List.of(1L, 2L))).willReturn(List.of(movieRating));
+        // when
+        Map<Long, MovieRatingDto> movieRatings = movieRatingService.findAllByMovieIds(List.of(1L, 2L));
+        // then
+        MovieRatingDto movieRatingDto = movieRatings.get(1L);
+        assertEquals(2, movieRatingDto.getNumberOfRatings());
+        assertEquals(9d, movieRatingDto.getAverageRating());
+        assertEquals(9, movieRatingDto.getAverageStars());
+        assertEquals(50, movieRatingDto.percentageOf(10));
+        assertEquals(0, movieRatings.get(2L).getNumberOfRatings());
+        assertEquals(11, movieRatings.get(2L).getHistogram().size());
+        verify(movieRatingRepository, never()).save(any());
+    }
+
+}
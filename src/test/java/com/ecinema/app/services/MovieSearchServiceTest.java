@@ -0,0 +1,106 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.entities.Movie;
+import com.ecinema.app.domain.objects.Pair;
+import com.ecinema.app.repositories.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieSearchServiceTest {
+
+    private MovieSearchService movieSearchService;
+    @Mock
+    private MovieRepository movieRepository;
+
+    @BeforeEach
+    void setUp() {
+        movieSearchService = new MovieSearchService(movieRepository);
+        given(movieRepository.findAllTitles()).willReturn(List.of(
+                new Pair<>(1L, "Dune"),
+                new Pair<>(2L, "Spider-Man: No Way Home"),
+                new Pair<>(3L, "Blade Runner 2049"),
+                new Pair<>(4L, "Arrival")));
+        given(movieRepository.findAllDirectors()).willReturn(List.of(
+                new Pair<>(1L, "Denis Villeneuve"),
+                new Pair<>(2L, "Jon Watts"),
+                new Pair<>(3L, "Denis Villeneuve"),
+                new Pair<>(4L, "Denis Villeneuve")));
+        given(movieRepository.findAllCastMembers()).willReturn(List.of(
+                new Pair<>(1L, "Timothée Chalamet"),
+                new Pair<>(2L, "Zendaya"),
+                new Pair<>(3L, "Ryan Gosling")));
+        given(movieRepository.findAllWriters()).willReturn(List.of(
+                new Pair<>(1L, "Jon Spaihts")));
+        given(movieRepository.findAllSynopses()).willReturn(List.of(
+                new Pair<>(1L, "A noble family becomes embroiled in a war for the desert planet Arrakis"),
+                new Pair<>(4L, "A linguist works with the military to communicate with alien lifeforms")));
+    }
+
+    @Test
+    void searchRanksByFieldAndMatch() {
+        // title outranks director, an exact match outranks a prefix
+        assertEquals(List.of(4L), movieSearchService.searchAllMovieIds("arrival"));
+        assertEquals(List.of(1L, 3L, 4L), movieSearchService.searchAllMovieIds("villeneuve"));
+        assertEquals(List.of(2L, 1L), movieSearchService.searchAllMovieIds("jon"));
+        assertEquals(List.of(1L, 3L, 4L), movieSearchService.searchAllMovieIds("denis dune"));
+        assertEquals(List.of(1L), movieSearchService.searchAllMovieIds("chalamet"));
+        assertEquals(List.of(2L), movieSearchService.searchAllMovieIds("spiderman"));
+        assertEquals(List.of(4L), movieSearchService.searchAllMovieIds("aliens"));
+        // the index is loaded only once
+        verify(movieRepository, times(1)).findAllTitles();
+    }
+
+    @Test
+    void searchToleratesTypos() {
+        assertEquals(List.of(1L, 3L, 4L), movieSearchService.searchAllMovieIds("vilenueve"));
+        assertEquals(List.of(3L), movieSearchService.searchAllMovieIds("goslign"));
+        assertEquals(List.of(2L), movieSearchService.searchAllMovieIds("zendya"));
+        assertEquals(List.of(), movieSearchService.searchAllMovieIds("xyzzy"));
+    }
+
+    @Test
+    void searchIsPaged() {
+        Page<Long> page = movieSearchService.searchMovieIds("villeneuve", PageRequest.of(1, 2));
+        assertEquals(List.of(4L), page.getContent());
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+    }
+
+    @Test
+    void indexIsUpdatedIncrementally() {
+        // given
+        assertEquals(List.of(), movieSearchService.searchAllMovieIds("oppenheimer"));
+        Movie movie = new Movie();
+        movie.setId(5L);
+        movie.setTitle("Oppenheimer");
+        movie.setDirector("Christopher Nolan");
+        movie.setCast(List.of("Cillian Murphy"));
+        // when
+        movieSearchService.index(movie);
+        // then
+        assertEquals(List.of(5L), movieSearchService.searchAllMovieIds("oppenheimer"));
+        assertEquals(List.of(5L), movieSearchService.searchAllMovieIds("nolan"));
+        // when
+        movie.setTitle("Tenet");
+        movieSearchService.index(movie);
+        movieSearchService.remove(1L);
+        // then
+        assertEquals(List.of(), movieSearchService.searchAllMovieIds("oppenheimer"));
+        assertEquals(List.of(5L), movieSearchService.searchAllMovieIds("tenet"));
+        assertEquals(List.of(), movieSearchService.searchAllMovieIds("dune"));
+        verify(movieRepository, times(1)).findAllTitles();
+    }
+
+}
@@ -1,5 +1,8 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.CatalogCache;
+import com.ecinema.app.beans.UserPrincipalCache;
+import com.ecinema.app.beans.UserViewCache;
 import com.ecinema.app.beans.SecurityContext;
 import com.ecinema.app.domain.dtos.*;
 import com.ecinema.app.domain.entities.*;
@@ -9,6 +12,7 @@ import com.ecinema.app.domain.objects.Duration;
 import com.ecinema.app.repositories.*;
 import com.ecinema.app.domain.validators.MovieValidator;
 import com.ecinema.app.domain.validators.ReviewValidator;
+import com.ecinema.app.exceptions.NoEntityFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,6 +28,8 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class MovieServiceTest {
@@ -31,7 +37,11 @@ class MovieServiceTest {
     private UserService userService;
     private MovieService movieService;
     private ReviewService reviewService;
+    private MovieRatingService movieRatingService;
+    @Mock
+    private ReviewModerationService reviewModerationService;
     private TicketService ticketService;
+    private SeatAvailabilityService seatAvailabilityService;
     private MovieValidator movieValidator;
     private ShowroomService showroomService;
     private CustomerService customerService;
@@ -42,11 +52,16 @@ class MovieServiceTest {
     private PaymentCardService paymentCardService;
     private ShowroomSeatService showroomSeatService;
     private ScreeningSeatService screeningSeatService;
+    private MovieSearchService movieSearchService;
+    private MovieFacetService movieFacetService;
+    private CatalogCache catalogCache;
     @Mock
     private MovieRepository movieRepository;
     @Mock
     private ReviewRepository reviewRepository;
     @Mock
+    private MovieRatingRepository movieRatingRepository;
+    @Mock
     private TicketRepository ticketRepository;
     @Mock
     private ShowroomRepository showroomRepository;
@@ -67,41 +82,89 @@ class MovieServiceTest {
 
     @BeforeEach
     void setUp() {
+        movieSearchService = new MovieSearchService(movieRepository);
+        movieFacetService = new MovieFacetService(movieRepository, screeningRepository);
+        catalogCache = new CatalogCache(EvictionPolicyType.W_TINY_LFU);
         securityContext = new SecurityContext();
         reviewValidator = new ReviewValidator();
         movieValidator = new MovieValidator();
         reviewVoteService = new ReviewVoteService(
-                reviewVoteRepository, reviewRepository, customerRepository);
+                reviewVoteRepository, reviewRepository, customerRepository,
+                new ReviewVoteCounterService(null));
+        movieRatingService = new MovieRatingService(
+                movieRatingRepository, reviewRepository, movieRepository);
         reviewService = new ReviewService(
                 reviewRepository, movieRepository,
-                customerRepository, reviewValidator, reviewVoteService);
+                customerRepository, reviewValidator, reviewVoteService,
+                movieRatingService, reviewModerationService);
+        seatAvailabilityService = new SeatAvailabilityService(
+                screeningRepository, screeningSeatRepository);
         ticketService = new TicketService(
                 ticketRepository, null, customerRepository,
-                paymentCardRepository, screeningSeatRepository);
+                paymentCardRepository, screeningRepository, screeningSeatRepository, showroomSeatRepository,
+                seatAvailabilityService,
+                new SeatHoldService());
         paymentCardService = new PaymentCardService(
                 paymentCardRepository, null,
                 customerRepository, null);
         screeningSeatService = new ScreeningSeatService(
-                screeningSeatRepository, ticketService);
+                screeningSeatRepository, ticketService, seatAvailabilityService);
         screeningService = new ScreeningService(
                 screeningRepository, movieRepository, ticketRepository,
-                showroomRepository, screeningSeatService, null);
+                showroomRepository, screeningSeatService,
+                new ScreeningScheduleService(screeningRepository), null, null,
+                movieSearchService, movieFacetService);
         customerService = new CustomerService(
                 customerRepository, screeningSeatRepository,
                 null, reviewService, ticketService,
                 paymentCardService, reviewVoteService, securityContext);
         movieService = new MovieService(
                 movieRepository, reviewService,
-                screeningService, movieValidator);
+                screeningService, movieValidator, movieSearchService,
+                new MovieTypeaheadService(movieRepository), movieFacetService, catalogCache, movieRatingService);
         showroomSeatService = new ShowroomSeatService(
                 showroomSeatRepository, screeningSeatService);
         showroomService = new ShowroomService(
                 showroomRepository, showroomSeatService,
-                screeningService, null, ticketRepository);
+                screeningService, null, ticketRepository, catalogCache);
         userService = new UserService(
                 userRepository, customerService,
                 null, null, null,
-                null, null);
+                null, null, new UserViewCache(), new UserPrincipalCache(),
+                null);
+    }
+
+    @Test
+    void moviesAreCachedUntilMovieSaved() {
+        // given
+        Movie movie = new Movie();
+        movie.setId(1L);
+        movie.setTitle("Dune");
+        movie.setSearchTitle("DUNE");
+        given(movieRepository.findById(1L)).willReturn(Optional.of(movie));
+        given(movieRepository.findBySearchTitle("DUNE")).willReturn(Optional.of(movie));
+        // when
+        movieService.findById(1L);
+        MovieDto movieDto = movieService.findById(1L);
+        movieService.findByTitle("dune");
+        movieService.findByTitle("D u n e");
+        // then
+        assertEquals("Dune", movieDto.getTitle());
+        verify(movieRepository, times(1)).findById(1L);
+        verify(movieRepository, times(1)).findBySearchTitle("DUNE");
+        assertEquals(1, catalogCache.stats().get("movies").getHits());
+        assertEquals(1, catalogCache.stats().get("moviesBySearchTitle").getHits());
+        // when
+        movie.setTitle("Dune: Part One");
+        movieService.save(movie);
+        // then
+        assertEquals("Dune: Part One", movieService.findById(1L).getTitle());
+        movieService.findByTitle("dune");
+        verify(movieRepository, times(2)).findById(1L);
+        verify(movieRepository, times(2)).findBySearchTitle("DUNE");
+        assertThrows(NoEntityFoundException.class, () -> movieService.findById(2L));
+        assertThrows(NoEntityFoundException.class, () -> movieService.findById(2L));
+        assertEquals(0, catalogCache.stats().get("movies").getEvictions());
     }
 
     @Test
@@ -0,0 +1,89 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.entities.Movie;
+import com.ecinema.app.domain.enums.TypeaheadType;
+import com.ecinema.app.domain.objects.Pair;
+import com.ecinema.app.domain.objects.TypeaheadSuggestion;
+import com.ecinema.app.repositories.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieTypeaheadServiceTest {
+
+    private MovieTypeaheadService movieTypeaheadService;
+    @Mock
+    private MovieRepository movieRepository;
+
+    @BeforeEach
+    void setUp() {
+        movieTypeaheadService = new MovieTypeaheadService(movieRepository);
+        given(movieRepository.findAllNumbersOfReviews()).willReturn(List.of(
+                new Pair<>(1L, 4L), new Pair<>(2L, 0L), new Pair<>(3L, 9L)));
+        given(movieRepository.findAllTitles()).willReturn(List.of(
+                new Pair<>(1L, "Dune"), new Pair<>(2L, "Dunkirk"), new Pair<>(3L, "Blade Runner 2049")));
+        given(movieRepository.findAllDirectors()).willReturn(List.of(
+                new Pair<>(1L, "Denis Villeneuve"), new Pair<>(2L, "Christopher Nolan"),
+                new Pair<>(3L, "Denis Villeneuve")));
+        given(movieRepository.findAllCastMembers()).willReturn(List.of(
+                new Pair<>(1L, "Timothee Chalamet"), new Pair<>(2L, "Tom Hardy")));
+        given(movieRepository.findAllWriters()).willReturn(List.of());
+    }
+
+    @Test
+    void suggestMostPopularFirst() {
+        // when
+        List<TypeaheadSuggestion> suggestions = movieTypeaheadService.suggest("du", 10);
+        List<TypeaheadSuggestion> denis = movieTypeaheadService.suggest("denis v", 10);
+        // then
+        assertEquals(List.of("Dune", "Dunkirk"), suggestions.stream().map(TypeaheadSuggestion::getText).toList());
+        assertEquals(1L, suggestions.get(0).getMovieId());
+        assertEquals(5L, suggestions.get(0).getWeight());
+        // a person weighs the sum of the movies that credit them
+        assertEquals(1, denis.size());
+        assertEquals(TypeaheadType.DIRECTOR, denis.get(0).getType());
+        assertNull(denis.get(0).getMovieId());
+        assertEquals(15L, denis.get(0).getWeight());
+        assertEquals(List.of("Timothee Chalamet", "Tom Hardy"), movieTypeaheadService.suggest("T", 10).stream()
+                .map(TypeaheadSuggestion::getText).toList());
+        assertEquals(1, movieTypeaheadService.suggest("T", 1).size());
+        assertTrue(movieTypeaheadService.suggest("", 10).isEmpty());
+        assertTrue(movieTypeaheadService.suggest("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void suggestionsAreUpdatedIncrementally() {
+        // given
+        assertEquals(15L, movieTypeaheadService.suggest("denis", 10).get(0).getWeight());
+        Movie movie = new Movie();
+        movie.setId(4L);
+        movie.setTitle("Arrival");
+        movie.setDirector("Denis Villeneuve");
+        movie.setCast(List.of("Amy Adams"));
+        given(movieRepository.countReviewsOfMovieWithId(4L)).willReturn(2L);
+        // when
+        movieTypeaheadService.index(movie);
+        // then
+        assertEquals(18L, movieTypeaheadService.suggest("denis", 10).get(0).getWeight());
+        assertEquals("Arrival", movieTypeaheadService.suggest("arr", 10).get(0).getText());
+        // when
+        movieTypeaheadService.remove(3L);
+        movieTypeaheadService.remove(1L);
+        // then
+        assertEquals(3L, movieTypeaheadService.suggest("denis", 10).get(0).getWeight());
+        assertEquals(List.of("Dunkirk"), movieTypeaheadService.suggest("du", 10).stream()
+                .map(TypeaheadSuggestion::getText).toList());
+        assertTrue(movieTypeaheadService.suggest("timothee", 10).isEmpty());
+        verify(movieRepository, times(1)).findAllTitles();
+    }
+
+}
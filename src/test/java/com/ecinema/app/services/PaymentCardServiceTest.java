@@ -1,5 +1,6 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.HashingExecutor;
 import com.ecinema.app.beans.SecurityContext;
 import com.ecinema.app.domain.dtos.PaymentCardDto;
 import com.ecinema.app.domain.entities.Customer;
@@ -34,7 +35,11 @@ import static org.mockito.Mockito.verify;
 class PaymentCardServiceTest {
 
     private ReviewService reviewService;
+    private MovieRatingService movieRatingService;
+    @Mock
+    private ReviewModerationService reviewModerationService;
     private TicketService ticketService;
+    private SeatAvailabilityService seatAvailabilityService;
     private CustomerService customerService;
     private AddressValidator addressValidator;
     private PaymentCardService paymentCardService;
@@ -48,6 +53,8 @@ class PaymentCardServiceTest {
     @Mock
     private ReviewRepository reviewRepository;
     @Mock
+    private MovieRatingRepository movieRatingRepository;
+    @Mock
     private TicketRepository ticketRepository;
     @Mock
     private CustomerRepository customerRepository;
@@ -56,17 +63,24 @@ class PaymentCardServiceTest {
     void setUp() {
         securityContext = new SecurityContext();
         addressValidator = new AddressValidator();
-        encoderService = new EncoderService(new BCryptPasswordEncoder());
+        encoderService = new EncoderService(new BCryptPasswordEncoder(), new HashingExecutor());
         paymentCardValidator = new PaymentCardValidator(addressValidator);
         paymentCardService = new PaymentCardService(
                 paymentCardRepository, encoderService,
                 customerRepository, paymentCardValidator);
+        movieRatingService = new MovieRatingService(
+                movieRatingRepository, reviewRepository, null);
         reviewService = new ReviewService(
                 reviewRepository, null,
-                customerRepository, null, null);
+                customerRepository, null, null,
+                movieRatingService, reviewModerationService);
+        seatAvailabilityService = new SeatAvailabilityService(
+                null, screeningSeatRepository);
         ticketService = new TicketService(
                 ticketRepository, null, customerRepository,
-                paymentCardRepository, screeningSeatRepository);
+                paymentCardRepository, null, screeningSeatRepository, null,
+                seatAvailabilityService,
+                new SeatHoldService());
         customerService = new CustomerService(
                 customerRepository, screeningSeatRepository,
                 null, reviewService, ticketService,
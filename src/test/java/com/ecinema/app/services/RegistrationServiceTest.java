@@ -1,5 +1,7 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.UserPrincipalCache;
+import com.ecinema.app.beans.UserViewCache;
 import com.ecinema.app.configs.InitializationConfig;
 import com.ecinema.app.domain.dtos.UserDto;
 import com.ecinema.app.domain.entities.Customer;
@@ -24,6 +26,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -65,7 +68,8 @@ class RegistrationServiceTest {
         userService = new UserService(
                 userRepository, customerService, null, null,
                 encoderService, userProfileValidator,
-                registrationValidator);
+                registrationValidator, new UserViewCache(), new UserPrincipalCache(),
+                null);
         registrationService = new RegistrationService(
                 registrationRepository, userService, emailService,
                 encoderService, registrationValidator);
@@ -76,7 +80,8 @@ class RegistrationServiceTest {
         // given
         doNothing().when(emailService).sendFromBusinessEmail(
                 anyString(), anyString(), anyString());
-        given(encoderService.encode(anyString())).willReturn("ENCODED123?!");
+        given(encoderService.encodeAll("password123?!", "Answer 1", "Answer 2"))
+                .willReturn(List.of("ENCODED123?!", "ENCODED123?!", "ENCODED123?!"));
         RegistrationForm registrationForm = new RegistrationForm();
         registrationForm.setEmail("test@gmail.com");
         registrationForm.setUsername("TestUser123");
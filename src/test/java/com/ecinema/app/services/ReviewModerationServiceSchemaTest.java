@@ -0,0 +1,104 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.entities.Review;
+import com.ecinema.app.repositories.ReviewRepository;
+import com.ecinema.app.services.ReviewModerationService.PendingReview;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the scan and the sweep of {@link ReviewModerationService} against the schema that Hibernate generates, so
+ * that the table and column names of its hand-written SQL are checked against the {@link Review} entity.
+ */
+@DataJpaTest
+class ReviewModerationServiceSchemaTest {
+
+    private ReviewModerationService reviewModerationService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @BeforeEach
+    void setUp() {
+        reviewModerationService = new ReviewModerationService(jdbcTemplate, List.of("idiot", "click here"));
+    }
+
+    @Test
+    void scanMarksReviewsAsScannedAndFlagged() {
+        // given
+        Review flaggedReview = createReview("Only an idiot would click here", false);
+        Review cleanReview = createReview("A fine film", null);
+        Review clearedReview = createReview("Idiot of a villain, in a good way", true);
+        List<PendingReview> pendingReviews = List.of(
+                new PendingReview(flaggedReview.getId(), flaggedReview.getReview()),
+                new PendingReview(cleanReview.getId(), cleanReview.getReview()),
+                new PendingReview(clearedReview.getId(), clearedReview.getReview()));
+        // when
+        int numberFlagged = reviewModerationService.scan(pendingReviews);
+        testEntityManager.clear();
+        // then
+        assertEquals(2, numberFlagged);
+        Review scannedFlaggedReview = findReview(flaggedReview.getId());
+        assertTrue(scannedFlaggedReview.getIsScanned());
+        assertTrue(scannedFlaggedReview.getIsFlagged());
+        assertEquals("idiot, click here", scannedFlaggedReview.getFlaggedTerms());
+        Review scannedCleanReview = findReview(cleanReview.getId());
+        assertTrue(scannedCleanReview.getIsScanned());
+        assertFalse(scannedCleanReview.getIsFlagged());
+        assertNull(scannedCleanReview.getFlaggedTerms());
+        // a review that was scanned before, and cleared by a moderator, is not flagged again
+        assertFalse(findReview(clearedReview.getId()).getIsFlagged());
+    }
+
+    @Test
+    void sweepQueuesOnlyUnscannedReviews()
+            throws InterruptedException {
+        // given
+        Set<Long> unscannedReviewIds = new HashSet<>();
+        for (int i = 0; i < ReviewModerationService.MAX_BATCH_SIZE + 5; i++) {
+            // reviews written before the column existed have no value in it
+            Review review = createReview("review " + i, i % 2 == 0 ? false : null);
+            unscannedReviewIds.add(review.getId());
+        }
+        createReview("scanned review", true);
+        // when
+        int numberQueued = reviewModerationService.sweep();
+        // then
+        assertEquals(unscannedReviewIds.size(), numberQueued);
+        List<PendingReview> queuedReviews = new ArrayList<>();
+        while (queuedReviews.size() < numberQueued) {
+            queuedReviews.addAll(reviewModerationService.takeBatch());
+        }
+        assertEquals(unscannedReviewIds, queuedReviews.stream().map(PendingReview::reviewId)
+                                                      .collect(Collectors.toSet()));
+        assertTrue(queuedReviews.stream().allMatch(pendingReview -> pendingReview.review().startsWith("review")));
+    }
+
+    private Review createReview(String text, Boolean isScanned) {
+        Review review = new Review();
+        review.setReview(text);
+        review.setIsScanned(isScanned);
+        review.setIsFlagged(false);
+        return reviewRepository.saveAndFlush(review);
+    }
+
+    private Review findReview(Long reviewId) {
+        return reviewRepository.findById(reviewId).orElseThrow(IllegalStateException::new);
+    }
+
+}
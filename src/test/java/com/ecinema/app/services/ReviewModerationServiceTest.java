@@ -0,0 +1,165 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.services.ReviewModerationService.PendingReview;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewModerationServiceTest {
+
+    private ReviewModerationService reviewModerationService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        reviewModerationService = new ReviewModerationService(
+                jdbcTemplate, List.of("idiot", "click here", "he", "hero"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scanFlagsReviewsWithTermsInOneBatch() {
+        // given
+        List<PendingReview> pendingReviews = List.of(
+                new PendingReview(1L, "Only an IDIOT would skip this, click   here... no, Click Here!"),
+                new PendingReview(2L, "The hero of the story is heroic"),
+                new PendingReview(3L, "Idiotic plot, but the theme works"),
+                new PendingReview(4L, null));
+        // when
+        int numberFlagged = reviewModerationService.scan(pendingReviews);
+        // then
+        assertEquals(2, numberFlagged);
+        ArgumentCaptor<List<Object[]>> batchArgsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batchArgsCaptor.capture());
+        List<Object[]> batchArgs = batchArgsCaptor.getValue();
+        assertEquals(4, batchArgs.size());
+        assertArrayEquals(new Object[]{true, "idiot, click here", 1L}, batchArgs.get(0));
+        assertArrayEquals(new Object[]{true, "hero", 2L}, batchArgs.get(1));
+        assertArrayEquals(new Object[]{false, null, 3L}, batchArgs.get(2));
+        assertArrayEquals(new Object[]{false, null, 4L}, batchArgs.get(3));
+    }
+
+    @Test
+    void scanOfNoReviewsWritesNothing() {
+        assertEquals(0, reviewModerationService.scan(new ArrayList<>()));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void enqueueDoesNotScan() {
+        // when
+        boolean isQueued = reviewModerationService.enqueue(1L, "idiot");
+        // then
+        assertTrue(isQueued);
+        assertFalse(reviewModerationService.enqueue(null, "idiot"));
+        assertEquals(1, reviewModerationService.queueDepth());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sweepQueuesUnscannedReviewsInBatches()
+            throws InterruptedException {
+        // given
+        List<PendingReview> firstBatch = LongStream.rangeClosed(1L, ReviewModerationService.MAX_BATCH_SIZE)
+                .mapToObj(id -> new PendingReview(id, "review " + id)).collect(Collectors.toList());
+        List<PendingReview> secondBatch = List.of(new PendingReview(1000L, "review 1000"));
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(0L), anyInt()))
+                .willReturn(firstBatch);
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class),
+                                 eq((long) ReviewModerationService.MAX_BATCH_SIZE), anyInt()))
+                .willReturn(secondBatch);
+        // when
+        int numberQueued = reviewModerationService.sweep();
+        // then
+        assertEquals(ReviewModerationService.MAX_BATCH_SIZE + 1, numberQueued);
+        assertEquals(ReviewModerationService.MAX_BATCH_SIZE + 1, reviewModerationService.queueDepth());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sweepSkipsReviewsThatAreQueuedAlready()
+            throws InterruptedException {
+        // given
+        reviewModerationService.enqueue(1L, "review 1");
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(0L), anyInt()))
+                .willReturn(List.of(new PendingReview(1L, "review 1"), new PendingReview(2L, "review 2")));
+        // when
+        int numberQueuedFirst = reviewModerationService.sweep();
+        int numberQueuedSecond = reviewModerationService.sweep();
+        // then
+        assertEquals(1, numberQueuedFirst);
+        assertEquals(0, numberQueuedSecond);
+        assertEquals(2, reviewModerationService.queueDepth());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submittedReviewsAreTakenBeforeSweptReviews()
+            throws InterruptedException {
+        // given
+        List<PendingReview> unscannedReviews = LongStream.rangeClosed(1L, ReviewModerationService.MAX_BATCH_SIZE - 1)
+                .mapToObj(id -> new PendingReview(id, "review " + id)).collect(Collectors.toList());
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(0L), anyInt()))
+                .willReturn(unscannedReviews);
+        reviewModerationService.sweep();
+        reviewModerationService.enqueue(1000L, "review 1000");
+        reviewModerationService.enqueue(1001L, "review 1001");
+        // when
+        List<PendingReview> firstBatch = reviewModerationService.takeBatch();
+        reviewModerationService.scan(firstBatch);
+        List<PendingReview> secondBatch = reviewModerationService.takeBatch();
+        // then
+        assertEquals(ReviewModerationService.MAX_BATCH_SIZE, firstBatch.size());
+        assertEquals(1000L, firstBatch.get(0).reviewId());
+        assertEquals(1001L, firstBatch.get(1).reviewId());
+        assertEquals(1L, firstBatch.get(2).reviewId());
+        assertEquals(1, secondBatch.size());
+        assertEquals(0, reviewModerationService.queueDepth());
+        // the scanned reviews are no longer queued, so a review left unscanned is swept again
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(0L), anyInt()))
+                .willReturn(List.of(unscannedReviews.get(0)));
+        assertEquals(1, reviewModerationService.sweep());
+    }
+
+    @Test
+    void takeBatchBlocksUntilReviewIsEnqueued()
+            throws InterruptedException {
+        // given
+        List<PendingReview> batch = new ArrayList<>();
+        Thread worker = new Thread(() -> {
+            try {
+                batch.addAll(reviewModerationService.takeBatch());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.start();
+        worker.join(200L);
+        assertTrue(worker.isAlive());
+        // when
+        reviewModerationService.enqueue(1L, "review 1");
+        worker.join(5_000L);
+        // then
+        assertFalse(worker.isAlive());
+        assertEquals(List.of(new PendingReview(1L, "review 1")), batch);
+    }
+
+}
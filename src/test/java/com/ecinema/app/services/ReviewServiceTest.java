@@ -1,11 +1,17 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.CatalogCache;
+import com.ecinema.app.domain.enums.EvictionPolicyType;
+import com.ecinema.app.beans.UserPrincipalCache;
+import com.ecinema.app.beans.UserViewCache;
 import com.ecinema.app.beans.SecurityContext;
 import com.ecinema.app.domain.dtos.ReviewDto;
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.enums.UserAuthority;
 import com.ecinema.app.domain.enums.Vote;
 import com.ecinema.app.domain.forms.ReviewForm;
+import com.ecinema.app.domain.objects.Pair;
+import com.ecinema.app.domain.objects.ReviewWriter;
 import com.ecinema.app.domain.validators.MovieValidator;
 import com.ecinema.app.domain.validators.ReviewValidator;
 import com.ecinema.app.repositories.*;
@@ -14,13 +20,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class ReviewServiceTest {
@@ -34,9 +47,15 @@ class ReviewServiceTest {
     private SecurityContext securityContext;
     private MovieValidator movieValidator;
     private ReviewService reviewService;
+    private MovieRatingService movieRatingService;
+    @Mock
+    private ReviewModerationService reviewModerationService;
     private TicketService ticketService;
+    private SeatAvailabilityService seatAvailabilityService;
     private MovieService movieService;
     private UserService userService;
+    private MovieSearchService movieSearchService;
+    private MovieFacetService movieFacetService;
     @Mock
     private ScreeningSeatRepository screeningSeatRepository;
     @Mock
@@ -52,6 +71,8 @@ class ReviewServiceTest {
     @Mock
     private ReviewRepository reviewRepository;
     @Mock
+    private MovieRatingRepository movieRatingRepository;
+    @Mock
     private TicketRepository ticketRepository;
     @Mock
     private MovieRepository movieRepository;
@@ -60,36 +81,51 @@ class ReviewServiceTest {
 
     @BeforeEach
     void setUp() {
+        movieSearchService = new MovieSearchService(movieRepository);
+        movieFacetService = new MovieFacetService(movieRepository, screeningRepository);
         securityContext = new SecurityContext();
         movieValidator = new MovieValidator();
         reviewValidator = new ReviewValidator();
         reviewVoteService = new ReviewVoteService(
-                reviewVoteRepository, reviewRepository, customerRepository);
+                reviewVoteRepository, reviewRepository, customerRepository,
+                new ReviewVoteCounterService(null));
         paymentCardService = new PaymentCardService(
                 paymentCardRepository, null,
                 customerRepository, null);
+        movieRatingService = new MovieRatingService(
+                movieRatingRepository, reviewRepository, movieRepository);
         reviewService = new ReviewService(
                 reviewRepository, movieRepository,
-                customerRepository, reviewValidator, reviewVoteService);
+                customerRepository, reviewValidator, reviewVoteService,
+                movieRatingService, reviewModerationService);
+        seatAvailabilityService = new SeatAvailabilityService(
+                screeningRepository, screeningSeatRepository);
         ticketService = new TicketService(
                 ticketRepository, null, customerRepository,
-                paymentCardRepository, screeningSeatRepository);
+                paymentCardRepository, screeningRepository, screeningSeatRepository, null,
+                seatAvailabilityService,
+                new SeatHoldService());
         screeningSeatService = new ScreeningSeatService(
-                screeningSeatRepository, ticketService);
+                screeningSeatRepository, ticketService, seatAvailabilityService);
         screeningService = new ScreeningService(
                 screeningRepository, movieRepository, ticketRepository,
-                showroomRepository, screeningSeatService, null);
+                showroomRepository, screeningSeatService,
+                new ScreeningScheduleService(screeningRepository), null, null,
+                movieSearchService, movieFacetService);
         customerService = new CustomerService(
                 customerRepository, screeningSeatRepository,
                 null, reviewService, ticketService,
                 paymentCardService, reviewVoteService, securityContext);
         movieService = new MovieService(
                 movieRepository, reviewService,
-                screeningService, movieValidator);
+                screeningService, movieValidator, movieSearchService,
+                new MovieTypeaheadService(movieRepository), movieFacetService,
+                new CatalogCache(EvictionPolicyType.W_TINY_LFU), movieRatingService);
         userService = new UserService(
                 userRepository, customerService,
                 null, null, null,
-                null, null);
+                null, null, new UserViewCache(), new UserPrincipalCache(),
+                null);
     }
 
     @Test
@@ -133,30 +169,16 @@ class ReviewServiceTest {
     @Test
     void convertToDto() {
         // given
-        given(reviewRepository.findCustomerIdByReviewWithId(1L))
-                .willReturn(Optional.of(2L));
-        given(reviewRepository.findUserIdByReviewWithId(1L))
-                .willReturn(Optional.of(3L));
-        given(reviewRepository.findUsernameOfWriterForReviewWithId(1L))
-                .willReturn(Optional.of("username"));
+        given(reviewRepository.findAllReviewWritersByReviewWithIdIn(List.of(1L)))
+                .willReturn(List.of(new ReviewWriter(1L, 2L, 3L, "username")));
         Review review = new Review();
         review.setId(1L);
         review.setReview("test review");
         review.setRating(7);
         review.setIsCensored(false);
         review.setCreationDateTime(LocalDateTime.of(2022, Month.APRIL, 28, 22, 55));
-        Map<Vote, List<Long>> mapOfVoterUserIds = new EnumMap<>(Vote.class) {{
-           put(Vote.UPVOTE, new ArrayList<>());
-           put(Vote.DOWNVOTE, new ArrayList<>());
-        }};
-        for (int i = 0; i < 10; i++) {
-            Vote vote = i % 2 == 0 ? Vote.UPVOTE : Vote.DOWNVOTE;
-            mapOfVoterUserIds.get(vote).add((long) i);
-        }
-        given(reviewVoteRepository.findAllUserIdsByReviewWithIdAndVote(1L, Vote.UPVOTE))
-                .willReturn(mapOfVoterUserIds.get(Vote.UPVOTE));
-        given(reviewVoteRepository.findAllUserIdsByReviewWithIdAndVote(1L, Vote.DOWNVOTE))
-                .willReturn(mapOfVoterUserIds.get(Vote.DOWNVOTE));
+        review.setNumberOfUpvotes(5);
+        review.setNumberOfDownvotes(4);
         given(reviewRepository.findById(1L)).willReturn(Optional.of(review));
         // when
         ReviewDto reviewDto = reviewService.convertToDto(1L);
@@ -170,8 +192,90 @@ class ReviewServiceTest {
         assertEquals(review.getIsCensored(), reviewDto.getIsCensored());
         assertEquals(LocalDateTime.of(2022, Month.APRIL, 28, 22, 55),
                      reviewDto.getCreationDateTime());
-        assertEquals(mapOfVoterUserIds.get(Vote.UPVOTE), reviewDto.getUpvoteUserIds());
-        assertEquals(mapOfVoterUserIds.get(Vote.DOWNVOTE), reviewDto.getDownvoteUserIds());
+        assertEquals(5, reviewDto.getNumberOfUpvotes());
+        assertEquals(4, reviewDto.getNumberOfDownvotes());
+        assertNull(reviewDto.getViewerVote());
+    }
+
+    @Test
+    void findPageByMovieIdAndNotCensored() {
+        // given
+        List<Review> reviews = new ArrayList<>();
+        for (long i = 1L; i <= 3L; i++) {
+            Review review = new Review();
+            review.setId(i);
+            reviews.add(review);
+        }
+        PageRequest pageRequest = PageRequest.of(0, 3);
+        given(reviewRepository.findAllByMovieWithIdAndNotCensored(4L, pageRequest))
+                .willReturn(new PageImpl<>(reviews, pageRequest, 7L));
+        given(reviewRepository.findAllReviewWritersByReviewWithIdIn(List.of(1L, 2L, 3L)))
+                .willReturn(List.of(new ReviewWriter(3L, 30L, 300L, "writer3"),
+                                    new ReviewWriter(1L, 10L, 100L, "writer1"),
+                                    new ReviewWriter(2L, 20L, 200L, "writer2")));
+        reviews.get(1).setNumberOfUpvotes(2);
+        given(reviewVoteRepository.findAllVotesByUserWithIdAndReviewWithIdIn(5L, List.of(1L, 2L, 3L)))
+                .willReturn(List.of(new Pair<>(2L, Vote.UPVOTE), new Pair<>(3L, Vote.DOWNVOTE)));
+        // when
+        Page<ReviewDto> page = reviewService.findPageByMovieIdAndNotCensored(4L, 5L, pageRequest);
+        // then
+        assertEquals(7L, page.getTotalElements());
+        assertEquals(List.of("writer1", "writer2", "writer3"), page.getContent().stream()
+                .map(ReviewDto::getWriter).collect(Collectors.toList()));
+        assertEquals(0, page.getContent().get(0).getNumberOfUpvotes());
+        assertEquals(2, page.getContent().get(1).getNumberOfUpvotes());
+        assertEquals(0, page.getContent().get(1).getNumberOfDownvotes());
+        assertNull(page.getContent().get(0).getViewerVote());
+        assertEquals(Vote.UPVOTE, page.getContent().get(1).getViewerVote());
+        assertEquals(Vote.DOWNVOTE, page.getContent().get(2).getViewerVote());
+    }
+
+    @Test
+    void findSliceByMovieIdAndNotCensoredOrderByHelpfulness() {
+        // given
+        List<Review> reviews = new ArrayList<>();
+        for (long i = 1L; i <= 2L; i++) {
+            Review review = new Review();
+            review.setId(i);
+            review.setHelpfulnessScore(1d / i);
+            reviews.add(review);
+        }
+        PageRequest pageRequest = PageRequest.of(0, 2);
+        given(reviewRepository.findSliceByMovieWithIdAndNotCensoredOrderByHelpfulnessAfter(
+                4L, 0.75d, 9L, pageRequest)).willReturn(new SliceImpl<>(reviews, pageRequest, true));
+        given(reviewRepository.findAllReviewWritersByReviewWithIdIn(List.of(1L, 2L)))
+                .willReturn(List.of(new ReviewWriter(1L, 10L, 100L, "writer1"),
+                                    new ReviewWriter(2L, 20L, 200L, "writer2")));
+        // when
+        Slice<ReviewDto> slice = reviewService.findSliceByMovieIdAndNotCensoredOrderByHelpfulness(
+                4L, null, 0.75d, 9L, 2);
+        // then
+        assertTrue(slice.hasNext());
+        assertEquals(List.of("writer1", "writer2"), slice.getContent().stream()
+                .map(ReviewDto::getWriter).collect(Collectors.toList()));
+        assertEquals(1d, slice.getContent().get(0).getHelpfulnessScore());
+        assertEquals(0.5d, slice.getContent().get(1).getHelpfulnessScore());
+    }
+
+    @Test
+    void resolveFlaggedReview() {
+        // given
+        Movie movie = new Movie();
+        movie.setId(2L);
+        Review review = new Review();
+        review.setId(1L);
+        review.setMovie(movie);
+        review.setRating(8);
+        review.setIsCensored(false);
+        review.setIsFlagged(true);
+        given(reviewRepository.findById(1L)).willReturn(Optional.of(review));
+        given(movieRatingRepository.addRatings(2L, 8, -1)).willReturn(1);
+        // when
+        reviewService.resolveFlaggedReview(1L, true);
+        // then
+        assertTrue(review.getIsCensored());
+        assertFalse(review.getIsFlagged());
+        verify(movieRatingRepository).addRatings(2L, 8, -1);
     }
 
     @Test
@@ -192,6 +296,7 @@ class ReviewServiceTest {
         movieService.save(movie);
         given(reviewRepository.existsByWriterAndMovie(customer, movie))
                 .willReturn(false);
+        given(movieRatingRepository.addRatings(2L, 10, 1)).willReturn(1);
         // when
         String reviewStr = "This movie is absolute garbage, I don't even know why I paid to see it.";
         ReviewForm reviewForm = new ReviewForm();
@@ -209,6 +314,10 @@ class ReviewServiceTest {
         assertEquals(10, review.getRating());
         assertEquals(reviewStr, review.getReview());
         assertFalse(review.getIsCensored());
+        assertFalse(review.getIsScanned());
+        assertFalse(review.getIsFlagged());
+        verify(movieRatingRepository).addRatings(2L, 10, 1);
+        verify(reviewModerationService).enqueue(review.getId(), reviewStr);
     }
 
 }
\ No newline at end of file
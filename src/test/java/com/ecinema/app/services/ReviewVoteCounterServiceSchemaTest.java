@@ -0,0 +1,163 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.entities.Review;
+import com.ecinema.app.domain.entities.ReviewVote;
+import com.ecinema.app.domain.enums.Vote;
+import com.ecinema.app.repositories.ReviewRepository;
+import com.ecinema.app.repositories.ReviewVoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the flush and the rebuilds of {@link ReviewVoteCounterService} against the schema that Hibernate generates,
+ * so that the table and column names of its hand-written SQL are checked against the {@link Review} and
+ * {@link ReviewVote} entities, and the helpfulness score it computes in SQL is checked against the Wilson score.
+ */
+@DataJpaTest
+class ReviewVoteCounterServiceSchemaTest {
+
+    private ReviewVoteCounterService reviewVoteCounterService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private ReviewVoteRepository reviewVoteRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @BeforeEach
+    void setUp() {
+        reviewVoteCounterService = new ReviewVoteCounterService(jdbcTemplate);
+    }
+
+    @Test
+    void flushAddsToVoteCountersAndScoresHelpfulness() {
+        // given
+        Review review = createReview(1, 1);
+        Review otherReview = createReview(0, 0);
+        for (int i = 0; i < 3; i++) {
+            reviewVoteCounterService.recordVoteChange(review.getId(), null, Vote.UPVOTE);
+        }
+        reviewVoteCounterService.recordVoteChange(review.getId(), Vote.UPVOTE, Vote.DOWNVOTE);
+        // when
+        int numberFlushed = reviewVoteCounterService.flush();
+        testEntityManager.clear();
+        // then
+        assertEquals(1, numberFlushed);
+        assertCounters(review.getId(), 3, 2);
+        assertCounters(otherReview.getId(), 0, 0);
+        assertEquals(0d, findReview(otherReview.getId()).getHelpfulnessScore());
+    }
+
+    @Test
+    void rebuildRecountsEveryReviewFromReviewVotes() {
+        // given
+        Review review = createReview(7, 7);
+        addReviewVotes(review, 2, 1);
+        Review otherReview = createReview(3, 0);
+        addReviewVotes(otherReview, 0, 1);
+        Review reviewWithoutVotes = createReview(1, 1);
+        reviewVoteCounterService.recordVoteChange(review.getId(), null, Vote.UPVOTE);
+        // when
+        int numberRebuilt = reviewVoteCounterService.rebuild();
+        testEntityManager.clear();
+        // then
+        assertTrue(numberRebuilt >= 3);
+        assertCounters(review.getId(), 2, 1);
+        assertCounters(otherReview.getId(), 0, 1);
+        assertCounters(reviewWithoutVotes.getId(), 0, 0);
+        assertEquals(0L, reviewVoteCounterService.numberOfPendingVotes(review.getId(), Vote.UPVOTE));
+    }
+
+    @Test
+    void rebuildOfReviewsRecountsOnlyThoseReviews() {
+        // given
+        Review review = createReview(7, 7);
+        addReviewVotes(review, 4, 0);
+        Review otherReview = createReview(5, 5);
+        addReviewVotes(otherReview, 1, 1);
+        reviewVoteCounterService.recordVoteChange(review.getId(), null, Vote.DOWNVOTE);
+        // when
+        int numberRebuilt = reviewVoteCounterService.rebuild(List.of(review.getId()));
+        testEntityManager.clear();
+        // then
+        assertEquals(1, numberRebuilt);
+        assertCounters(review.getId(), 4, 0);
+        Review notRebuilt = findReview(otherReview.getId());
+        assertEquals(5, notRebuilt.getNumberOfUpvotes());
+        assertEquals(5, notRebuilt.getNumberOfDownvotes());
+        assertEquals(0L, reviewVoteCounterService.numberOfPendingVotes(review.getId(), Vote.DOWNVOTE));
+    }
+
+    @Test
+    void helpfulnessScoreIsLowerBoundOfWilsonScore() {
+        // given
+        Review fewVotes = createReview(0, 0);
+        Review manyVotes = createReview(0, 0);
+        reviewVoteCounterService.recordVoteChange(fewVotes.getId(), null, Vote.UPVOTE);
+        for (int i = 0; i < 90; i++) {
+            reviewVoteCounterService.recordVoteChange(manyVotes.getId(), null, Vote.UPVOTE);
+        }
+        for (int i = 0; i < 10; i++) {
+            reviewVoteCounterService.recordVoteChange(manyVotes.getId(), null, Vote.DOWNVOTE);
+        }
+        // when
+        reviewVoteCounterService.flush();
+        testEntityManager.clear();
+        // then
+        double fewVotesScore = findReview(fewVotes.getId()).getHelpfulnessScore();
+        double manyVotesScore = findReview(manyVotes.getId()).getHelpfulnessScore();
+        assertEquals(wilsonScore(1, 0), fewVotesScore, 1e-6);
+        assertEquals(wilsonScore(90, 10), manyVotesScore, 1e-6);
+        // one upvote out of one ranks below ninety out of a hundred
+        assertTrue(fewVotesScore < manyVotesScore);
+    }
+
+    private Review createReview(int numberOfUpvotes, int numberOfDownvotes) {
+        Review review = new Review();
+        review.setNumberOfUpvotes(numberOfUpvotes);
+        review.setNumberOfDownvotes(numberOfDownvotes);
+        return reviewRepository.saveAndFlush(review);
+    }
+
+    private void addReviewVotes(Review review, int numberOfUpvotes, int numberOfDownvotes) {
+        for (int i = 0; i < numberOfUpvotes + numberOfDownvotes; i++) {
+            ReviewVote reviewVote = new ReviewVote();
+            reviewVote.setVote(i < numberOfUpvotes ? Vote.UPVOTE : Vote.DOWNVOTE);
+            reviewVote.setReview(review);
+            review.getReviewVotes().add(reviewVote);
+            reviewVoteRepository.saveAndFlush(reviewVote);
+        }
+    }
+
+    private Review findReview(Long reviewId) {
+        return reviewRepository.findById(reviewId).orElseThrow(IllegalStateException::new);
+    }
+
+    private void assertCounters(Long reviewId, int numberOfUpvotes, int numberOfDownvotes) {
+        Review review = findReview(reviewId);
+        assertEquals(numberOfUpvotes, review.getNumberOfUpvotes());
+        assertEquals(numberOfDownvotes, review.getNumberOfDownvotes());
+        assertEquals(wilsonScore(numberOfUpvotes, numberOfDownvotes), review.getHelpfulnessScore(), 1e-6);
+    }
+
+    private static double wilsonScore(int numberOfUpvotes, int numberOfDownvotes) {
+        int n = numberOfUpvotes + numberOfDownvotes;
+        if (n == 0) {
+            return 0d;
+        }
+        double z = 1.96;
+        double p = (double) numberOfUpvotes / n;
+        return (p + z * z / (2 * n) - z * Math.sqrt((p * (1 - p) + z * z / (4 * n)) / n)) / (1 + z * z / n);
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.enums.Vote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewVoteCounterServiceTest {
+
+    private static final String ADD_TO_VOTE_COUNTERS = "UPDATE review SET number_of_upvotes";
+    private static final String UPDATE_HELPFULNESS_SCORE = "UPDATE review SET helpfulness_score";
+
+    private ReviewVoteCounterService reviewVoteCounterService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        reviewVoteCounterService = new ReviewVoteCounterService(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushCoalescesVotesOfSameReviewIntoOneUpdate() {
+        // given
+        reviewVoteCounterService.recordVoteChange(1L, null, Vote.UPVOTE);
+        reviewVoteCounterService.recordVoteChange(1L, null, Vote.UPVOTE);
+        reviewVoteCounterService.recordVoteChange(1L, Vote.UPVOTE, Vote.DOWNVOTE);
+        reviewVoteCounterService.recordVoteChange(2L, null, Vote.DOWNVOTE);
+        reviewVoteCounterService.recordVoteChange(2L, Vote.DOWNVOTE, null);
+        reviewVoteCounterService.recordVoteChange(3L, Vote.UPVOTE, Vote.UPVOTE);
+        assertEquals(1L, reviewVoteCounterService.numberOfPendingVotes(1L, Vote.UPVOTE));
+        assertEquals(1L, reviewVoteCounterService.numberOfPendingVotes(1L, Vote.DOWNVOTE));
+        // when
+        int numberFlushed = reviewVoteCounterService.flush();
+        // then
+        assertEquals(1, numberFlushed);
+        assertEquals(0, reviewVoteCounterService.numberOfPendingUpdates());
+        assertEquals(0L, reviewVoteCounterService.numberOfPendingVotes(1L, Vote.UPVOTE));
+        ArgumentCaptor<List<Object[]>> batchArgsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith(ADD_TO_VOTE_COUNTERS), batchArgsCaptor.capture());
+        List<Object[]> batchArgs = batchArgsCaptor.getValue();
+        assertEquals(1, batchArgs.size());
+        assertArrayEquals(new Object[]{1L, 1L, 1L}, batchArgs.get(0));
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith(UPDATE_HELPFULNESS_SCORE), batchArgsCaptor.capture());
+        assertArrayEquals(new Object[]{1L}, batchArgsCaptor.getValue().get(0));
+        assertEquals(0, reviewVoteCounterService.flush());
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void concurrentVotesOnHotReviewAreNotLost()
+            throws InterruptedException {
+        // given
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 8; i++) {
+            executorService.submit(() -> {
+                start.await();
+                for (int j = 0; j < 1000; j++) {
+                    reviewVoteCounterService.recordVoteChange(1L, null, Vote.UPVOTE);
+                }
+                return null;
+            });
+        }
+        // when
+        start.countDown();
+        executorService.shutdown();
+        int numberOfFlushes = 0;
+        while (!executorService.awaitTermination(1L, TimeUnit.MILLISECONDS)) {
+            numberOfFlushes += reviewVoteCounterService.flush();
+        }
+        numberOfFlushes += reviewVoteCounterService.flush();
+        numberOfFlushes += reviewVoteCounterService.flush();
+        // then
+        ArgumentCaptor<List<Object[]>> batchArgsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(numberOfFlushes)).batchUpdate(
+                startsWith(ADD_TO_VOTE_COUNTERS), batchArgsCaptor.capture());
+        long numberOfUpvotes = batchArgsCaptor.getAllValues().stream().flatMap(List::stream)
+                                              .mapToLong(args -> (Long) args[0]).sum();
+        assertEquals(8000L, numberOfUpvotes);
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        // given
+        reviewVoteCounterService.recordVoteChange(1L, null, Vote.UPVOTE);
+        given(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .willThrow(new DataAccessResourceFailureException("down"));
+        // when
+        assertThrows(DataAccessResourceFailureException.class, () -> reviewVoteCounterService.flush());
+        // then
+        assertEquals(1, reviewVoteCounterService.numberOfPendingUpdates());
+        assertEquals(1L, reviewVoteCounterService.numberOfPendingVotes(1L, Vote.UPVOTE));
+    }
+
+    @Test
+    void failedHelpfulnessScoreUpdateIsRetriedWithoutCountingVotesAgain() {
+        // given
+        reviewVoteCounterService.recordVoteChange(1L, null, Vote.UPVOTE);
+        given(jdbcTemplate.batchUpdate(startsWith(ADD_TO_VOTE_COUNTERS), anyList()))
+                .willReturn(new int[]{1});
+        given(jdbcTemplate.batchUpdate(startsWith(UPDATE_HELPFULNESS_SCORE), anyList()))
+                .willThrow(new DataAccessResourceFailureException("down"))
+                .willReturn(new int[]{1});
+        // when
+        assertThrows(DataAccessResourceFailureException.class, () -> reviewVoteCounterService.flush());
+        int numberFlushed = reviewVoteCounterService.flush();
+        // then
+        assertEquals(0, numberFlushed);
+        assertEquals(0, reviewVoteCounterService.numberOfPendingUpdates());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith(ADD_TO_VOTE_COUNTERS), anyList());
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith(UPDATE_HELPFULNESS_SCORE), anyList());
+    }
+
+    @Test
+    void rebuildDropsPendingVotes() {
+        // given
+        reviewVoteCounterService.recordVoteChange(1L, null, Vote.UPVOTE);
+        given(jdbcTemplate.update(anyString())).willReturn(4);
+        // when
+        int numberRebuilt = reviewVoteCounterService.rebuild();
+        // then
+        assertEquals(4, numberRebuilt);
+        assertEquals(0, reviewVoteCounterService.numberOfPendingUpdates());
+        assertEquals(0, reviewVoteCounterService.flush());
+        verify(jdbcTemplate).update(startsWith(UPDATE_HELPFULNESS_SCORE));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void destroyDrainsPendingVotes()
+            throws InterruptedException {
+        // given
+        reviewVoteCounterService.recordVoteChange(1L, null, Vote.DOWNVOTE);
+        // when
+        reviewVoteCounterService.destroy();
+        // then
+        assertEquals(0, reviewVoteCounterService.numberOfPendingUpdates());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith(ADD_TO_VOTE_COUNTERS), anyList());
+    }
+
+}
@@ -16,17 +16,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ReviewVoteServiceTest {
 
     private ReviewVoteService reviewVoteService;
+    private ReviewVoteCounterService reviewVoteCounterService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
     @Mock
     private ReviewVoteRepository reviewVoteRepository;
     @Mock
@@ -36,8 +41,9 @@ class ReviewVoteServiceTest {
 
     @BeforeEach
     void setUp() {
+        reviewVoteCounterService = new ReviewVoteCounterService(jdbcTemplate);
         reviewVoteService = new ReviewVoteService(
-                reviewVoteRepository, reviewRepository, customerRepository);
+                reviewVoteRepository, reviewRepository, customerRepository, reviewVoteCounterService);
     }
 
     @Test
@@ -65,7 +71,10 @@ class ReviewVoteServiceTest {
     void cascadeOnDelete() {
         // given
         ReviewVote reviewVote = new ReviewVote();
+        reviewVote.setVote(Vote.UPVOTE);
         Review review = new Review();
+        review.setId(2L);
+        review.setNumberOfUpvotes(3);
         reviewVote.setReview(review);
         review.getReviewVotes().add(reviewVote);
         Customer customer = new Customer();
@@ -82,6 +91,7 @@ class ReviewVoteServiceTest {
         assertNull(reviewVote.getVoter());
         assertFalse(review.getReviewVotes().contains(reviewVote));
         assertFalse(customer.getReviewVotes().contains(reviewVote));
+        assertEquals(2, reviewVoteService.numberOfVotes(review, Vote.UPVOTE));
     }
 
     @Test
@@ -97,7 +107,6 @@ class ReviewVoteServiceTest {
         customer.setId(3L);
         given(customerRepository.findByUserWithId(1L)).willReturn(
                 Optional.of(customer));
-        given(customerRepository.existsByUserWithId(1L)).willReturn(true);
         // when
         reviewVoteService.voteOnReview(1L, 2L, Vote.UPVOTE);
         // then
@@ -109,46 +118,63 @@ class ReviewVoteServiceTest {
         assertEquals(Vote.UPVOTE, reviewVote.getVote());
         assertTrue(review.getReviewVotes().contains(reviewVote));
         assertTrue(customer.getReviewVotes().contains(reviewVote));
+        assertEquals(1L, reviewVoteCounterService.numberOfPendingVotes(2L, Vote.UPVOTE));
+        assertEquals(0L, reviewVoteCounterService.numberOfPendingVotes(2L, Vote.DOWNVOTE));
     }
 
     @Test
     void voteOnReview2() {
         // given
-        given(reviewRepository.existsByUserWithIdAndReviewWithId(1L, 2L))
-                .willReturn(false);
-        given(customerRepository.existsByUserWithId(1L)).willReturn(true);
-        Customer customer = new Customer();
-        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
         Review review = new Review();
-        given(reviewRepository.findById(2L)).willReturn(Optional.of(review));
+        review.setId(2L);
+        review.setNumberOfUpvotes(1);
+        ReviewVote reviewVote = new ReviewVote();
+        reviewVote.setReview(review);
+        reviewVote.setVote(Vote.UPVOTE);
+        given(reviewVoteRepository.findByUserWithIdAndReviewWithId(1L, 2L))
+                .willReturn(Optional.of(reviewVote));
         // when
         reviewVoteService.voteOnReview(1L, 2L, Vote.DOWNVOTE);
         // then
-        ArgumentCaptor<ReviewVote> reviewVoteArgumentCaptor = ArgumentCaptor.forClass(ReviewVote.class);
-        verify(reviewVoteRepository).save(reviewVoteArgumentCaptor.capture());
-        ReviewVote reviewVote = reviewVoteArgumentCaptor.getValue();
+        verify(reviewVoteRepository).save(reviewVote);
         assertEquals(Vote.DOWNVOTE, reviewVote.getVote());
-        assertEquals(review, reviewVote.getReview());
-        assertTrue(review.getReviewVotes().contains(reviewVote));
-        assertEquals(customer, reviewVote.getVoter());
-        assertTrue(customer.getReviewVotes().contains(reviewVote));
+        assertEquals(0, reviewVoteService.numberOfVotes(review, Vote.UPVOTE));
+        assertEquals(1, reviewVoteService.numberOfVotes(review, Vote.DOWNVOTE));
+        verifyNoInteractions(customerRepository, reviewRepository);
+    }
+
+    @Test
+    void voteOnReviewAgain() {
+        // given
+        ReviewVote reviewVote = new ReviewVote();
+        reviewVote.setVote(Vote.UPVOTE);
+        given(reviewVoteRepository.findByUserWithIdAndReviewWithId(1L, 2L))
+                .willReturn(Optional.of(reviewVote));
+        // when
+        reviewVoteService.voteOnReview(1L, 2L, Vote.UPVOTE);
+        // then
+        verify(reviewVoteRepository, never()).save(any());
+        assertEquals(0, reviewVoteCounterService.numberOfPendingUpdates());
     }
 
     @Test
     void failToVoteOnReview1() {
         // given
-        given(reviewRepository.existsByUserWithIdAndReviewWithId(1L, 2L)).willReturn(true);
+        Customer customer = new Customer();
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
+        Review review = new Review();
+        review.setWriter(customer);
+        given(reviewRepository.findById(2L)).willReturn(Optional.of(review));
         // then
         assertThrows(InvalidAssociationException.class,
                      () -> reviewVoteService.voteOnReview(1L, 2L, Vote.UPVOTE));
+        verify(reviewVoteRepository, never()).save(any());
     }
 
     @Test
     void failToVoteOnReview2() {
         // given
-        given(reviewRepository.existsByUserWithIdAndReviewWithId(1L, 2L))
-                .willReturn(false);
-        given(customerRepository.existsByUserWithId(1L)).willReturn(false);
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.empty());
         // then
         assertThrows(NoEntityFoundException.class,
                      () -> reviewVoteService.voteOnReview(1L, 2L, Vote.UPVOTE));
@@ -157,21 +183,22 @@ class ReviewVoteServiceTest {
     @Test
     void failToVoteOnReview3() {
         // given
-        given(reviewRepository.existsByUserWithIdAndReviewWithId(1L, 2L))
-                .willReturn(false);
-        given(customerRepository.existsByUserWithId(1L)).willReturn(true);
-        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.empty());
+        Customer customer = new Customer();
+        customer.setId(3L);
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
+        Customer writer = new Customer();
+        writer.setId(3L);
+        Review review = new Review();
+        review.setWriter(writer);
+        given(reviewRepository.findById(2L)).willReturn(Optional.of(review));
         // then
-        assertThrows(NoEntityFoundException.class,
+        assertThrows(InvalidAssociationException.class,
                      () -> reviewVoteService.voteOnReview(1L, 2L, Vote.UPVOTE));
     }
 
     @Test
     void failToVoteOnReview4() {
         // given
-        given(reviewRepository.existsByUserWithIdAndReviewWithId(1L, 2L))
-                .willReturn(false);
-        given(customerRepository.existsByUserWithId(1L)).willReturn(true);
         Customer customer = new Customer();
         given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
         given(reviewRepository.findById(2L)).willReturn(Optional.empty());
@@ -180,4 +207,4 @@ class ReviewVoteServiceTest {
                      () -> reviewVoteService.voteOnReview(1L, 2L, Vote.UPVOTE));
     }
 
-}
\ No newline at end of file
+}
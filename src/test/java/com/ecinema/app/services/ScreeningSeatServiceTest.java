@@ -1,10 +1,18 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.CatalogCache;
+import com.ecinema.app.domain.enums.EvictionPolicyType;
+import com.ecinema.app.domain.dtos.ScreeningSeatDto;
+import com.ecinema.app.domain.entities.Screening;
 import com.ecinema.app.domain.entities.ScreeningSeat;
 import com.ecinema.app.domain.entities.Showroom;
 import com.ecinema.app.domain.entities.ShowroomSeat;
 import com.ecinema.app.domain.entities.Ticket;
 import com.ecinema.app.domain.enums.Letter;
+import com.ecinema.app.domain.objects.Pair;
+import com.ecinema.app.exceptions.InvalidAssociationException;
+import com.ecinema.app.exceptions.NoEntityFoundException;
+import com.ecinema.app.repositories.ScreeningRepository;
 import com.ecinema.app.repositories.ScreeningSeatRepository;
 import com.ecinema.app.repositories.ShowroomRepository;
 import com.ecinema.app.repositories.ShowroomSeatRepository;
@@ -14,13 +22,24 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ScreeningSeatServiceTest {
 
     private TicketService ticketService;
+    private SeatAvailabilityService seatAvailabilityService;
     private ShowroomService showroomService;
     private ShowroomSeatService showroomSeatService;
     private ScreeningSeatService screeningSeatService;
@@ -32,19 +51,26 @@ class ScreeningSeatServiceTest {
     private ShowroomSeatRepository showroomSeatRepository;
     @Mock
     private ShowroomRepository showroomRepository;
+    @Mock
+    private ScreeningRepository screeningRepository;
 
     @BeforeEach
     void setUp() {
+        seatAvailabilityService = new SeatAvailabilityService(
+                screeningRepository, screeningSeatRepository);
         ticketService = new TicketService(
                 ticketRepository, null, null,
-                null, screeningSeatRepository);
+                null, screeningRepository, screeningSeatRepository, showroomSeatRepository,
+                seatAvailabilityService,
+                new SeatHoldService());
         screeningSeatService = new ScreeningSeatService(
-                screeningSeatRepository, ticketService);
+                screeningSeatRepository, ticketService, seatAvailabilityService);
         showroomSeatService = new ShowroomSeatService(
                 showroomSeatRepository, screeningSeatService);
         showroomService = new ShowroomService(
                 showroomRepository, showroomSeatService,
-                null, null, ticketRepository);
+                null, null, ticketRepository,
+                new CatalogCache(EvictionPolicyType.W_TINY_LFU));
     }
 
     @Test
@@ -78,4 +104,88 @@ class ScreeningSeatServiceTest {
         assertNull(screeningSeat.getTicket());
     }
 
-}
\ No newline at end of file
+    @Test
+    void findScreeningSeatMapByScreeningWithId() {
+        // given
+        List<ScreeningSeatDto> screeningSeatDtos = List.of(
+                new ScreeningSeatDto(null, 1L, 13L, Letter.B, 1, false),
+                new ScreeningSeatDto(1L, 1L, 11L, Letter.A, 1, true),
+                new ScreeningSeatDto(2L, 1L, 12L, Letter.A, 2, false));
+        given(screeningSeatRepository.findAllDtosByScreeningWithId(1L))
+                .willReturn(screeningSeatDtos);
+        given(screeningRepository.findShowroomLayoutOfScreeningWithId(1L))
+                .willReturn(Optional.of(new Pair<>(2, 2)));
+        // when
+        Map<Letter, Set<ScreeningSeatDto>> mapOfScreeningSeats =
+                screeningSeatService.findScreeningSeatMapByScreeningWithId(1L);
+        seatAvailabilityService.setBooked(1L, Letter.A, 2, true);
+        seatAvailabilityService.setBooked(1L, Letter.A, 1, false);
+        Map<Letter, Set<ScreeningSeatDto>> updatedMapOfScreeningSeats =
+                screeningSeatService.findScreeningSeatMapByScreeningWithId(1L);
+        // then
+        assertEquals(2, mapOfScreeningSeats.size());
+        assertEquals(List.of(1L, 2L), mapOfScreeningSeats.get(Letter.A).stream()
+                .map(ScreeningSeatDto::getId).toList());
+        assertEquals(List.of(true, false), mapOfScreeningSeats.get(Letter.A).stream()
+                .map(ScreeningSeatDto::getIsBooked).toList());
+        assertEquals(List.of(false, true), updatedMapOfScreeningSeats.get(Letter.A).stream()
+                .map(ScreeningSeatDto::getIsBooked).toList());
+        assertEquals(1, updatedMapOfScreeningSeats.get(Letter.B).size());
+        ScreeningSeatDto virtualScreeningSeat = updatedMapOfScreeningSeats.get(Letter.B).iterator().next();
+        assertNull(virtualScreeningSeat.getId());
+        assertEquals(13L, virtualScreeningSeat.getShowroomSeatId());
+        verify(screeningSeatRepository, times(1)).findAllDtosByScreeningWithId(1L);
+    }
+
+    @Test
+    void failToFindScreeningSeatMapOfScreeningWithoutSeats() {
+        // given
+        given(screeningSeatRepository.findAllDtosByScreeningWithId(1L))
+                .willReturn(List.of());
+        // then
+        assertThrows(InvalidAssociationException.class,
+                     () -> screeningSeatService.findScreeningSeatMapByScreeningWithId(1L));
+    }
+
+    @Test
+    void streamSeatMapDeltasToAllWatchers() {
+        // given
+        given(screeningRepository.existsByIdAndEndDateTimeAfter(eq(1L), any(LocalDateTime.class)))
+                .willReturn(true);
+        List<ScreeningSeatDto> received1 = new ArrayList<>();
+        List<ScreeningSeatDto> received2 = new ArrayList<>();
+        Disposable watcher1 = seatAvailabilityService.streamSeatMapDeltasByScreeningWithId(1L)
+                                                     .subscribe(received1::add);
+        Disposable watcher2 = seatAvailabilityService.streamSeatMapDeltasByScreeningWithId(1L)
+                                                     .subscribe(received2::add);
+        // when
+        seatAvailabilityService.setBooked(1L, Letter.A, 1, true);
+        seatAvailabilityService.setBooked(2L, Letter.A, 1, true);
+        seatAvailabilityService.setBooked(1L, Letter.B, 2, false);
+        // then
+        assertEquals(2, seatAvailabilityService.numberOfSeatMapWatchers(1L));
+        assertEquals(received1, received2);
+        assertEquals(2, received1.size());
+        assertEquals(Letter.A, received1.get(0).getRowLetter());
+        assertTrue(received1.get(0).getIsBooked());
+        assertEquals(Letter.B, received1.get(1).getRowLetter());
+        assertFalse(received1.get(1).getIsBooked());
+        watcher1.dispose();
+        assertEquals(1, seatAvailabilityService.numberOfWatchedScreenings());
+        watcher2.dispose();
+        assertEquals(0, seatAvailabilityService.numberOfSeatMapWatchers(1L));
+        assertEquals(0, seatAvailabilityService.numberOfWatchedScreenings());
+    }
+
+    @Test
+    void failToStreamSeatMapDeltasOfEndedScreening() {
+        // given
+        given(screeningRepository.existsByIdAndEndDateTimeAfter(eq(1L), any(LocalDateTime.class)))
+                .willReturn(false);
+        // then
+        assertThrows(NoEntityFoundException.class,
+                     () -> seatAvailabilityService.streamSeatMapDeltasByScreeningWithId(1L));
+        assertEquals(0, seatAvailabilityService.numberOfWatchedScreenings());
+    }
+
+}
@@ -1,11 +1,19 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.CatalogCache;
+import com.ecinema.app.domain.enums.EvictionPolicyType;
 import com.ecinema.app.domain.dtos.ScreeningDto;
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.forms.ScreeningForm;
+import com.ecinema.app.domain.forms.ScreeningScheduleForm;
+import com.ecinema.app.domain.objects.ScreeningInterval;
+import com.ecinema.app.domain.objects.ScreeningScheduleResult;
+import com.ecinema.app.domain.objects.ScreeningSeatCount;
+import com.ecinema.app.exceptions.ClashException;
 import com.ecinema.app.repositories.*;
 import com.ecinema.app.domain.objects.Duration;
 import com.ecinema.app.domain.enums.Letter;
+import com.ecinema.app.domain.validators.ScreeningScheduleValidator;
 import com.ecinema.app.domain.validators.ScreeningValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,14 +23,23 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,15 +47,24 @@ class ScreeningServiceTest {
 
     private ScreeningService screeningService;
     private ScreeningSeatService screeningSeatService;
+    private ScreeningScheduleService screeningScheduleService;
     private TicketService ticketService;
+    private SeatAvailabilityService seatAvailabilityService;
     private MovieService movieService;
     private ShowroomSeatService showroomSeatService;
     private ShowroomService showroomService;
     private ReviewService reviewService;
+    private MovieRatingService movieRatingService;
+    @Mock
+    private ReviewModerationService reviewModerationService;
     private ScreeningValidator screeningValidator;
+    private MovieSearchService movieSearchService;
+    private MovieFacetService movieFacetService;
     @Mock
     private ReviewRepository reviewRepository;
     @Mock
+    private MovieRatingRepository movieRatingRepository;
+    @Mock
     private MovieRepository movieRepository;
     @Mock
     private ScreeningRepository screeningRepository;
@@ -53,27 +79,41 @@ class ScreeningServiceTest {
 
     @BeforeEach
     void setUp() {
+        movieSearchService = new MovieSearchService(movieRepository);
+        movieFacetService = new MovieFacetService(movieRepository, screeningRepository);
         screeningValidator = new ScreeningValidator();
+        seatAvailabilityService = new SeatAvailabilityService(
+                screeningRepository, screeningSeatRepository);
         ticketService = new TicketService(
                 ticketRepository, null, null,
-                null, screeningSeatRepository);
+                null, screeningRepository, screeningSeatRepository, showroomSeatRepository,
+                seatAvailabilityService,
+                new SeatHoldService());
         screeningSeatService = new ScreeningSeatService(
-                screeningSeatRepository, ticketService);
+                screeningSeatRepository, ticketService, seatAvailabilityService);
+        screeningScheduleService = new ScreeningScheduleService(screeningRepository);
         screeningService = new ScreeningService(
                 screeningRepository, movieRepository, null,
-                showroomRepository, screeningSeatService,
-                screeningValidator);
+                showroomRepository, screeningSeatService, screeningScheduleService,
+                screeningValidator, new ScreeningScheduleValidator(),
+                movieSearchService, movieFacetService);
         showroomSeatService = new ShowroomSeatService(
                 showroomSeatRepository, screeningSeatService);
         showroomService = new ShowroomService(
                 showroomRepository, showroomSeatService,
-                screeningService, null, ticketRepository);
+                screeningService, null, ticketRepository,
+                new CatalogCache(EvictionPolicyType.W_TINY_LFU));
+        movieRatingService = new MovieRatingService(
+                movieRatingRepository, reviewRepository, movieRepository);
         reviewService = new ReviewService(
                 reviewRepository, movieRepository,
-                null, null, null);
+                null, null, null,
+                movieRatingService, reviewModerationService);
         movieService = new MovieService(
                 movieRepository, reviewService,
-                screeningService, null);
+                screeningService, null, movieSearchService,
+                new MovieTypeaheadService(movieRepository), movieFacetService,
+                new CatalogCache(EvictionPolicyType.W_TINY_LFU), movieRatingService);
     }
 
     @Test
@@ -190,6 +230,32 @@ class ScreeningServiceTest {
         assertNotNull(screeningDto);
     }
 
+    @Test
+    void findPageOfScreeningDtosWithOneSeatCountQuery() {
+        // given
+        List<Screening> screenings = new ArrayList<>();
+        for (long id = 1L; id <= 2L; id++) {
+            Screening screening = new Screening();
+            screening.setId(id);
+            screenings.add(screening);
+        }
+        PageRequest pageRequest = PageRequest.of(0, 2);
+        given(screeningRepository.findAllByMovieId(3L, pageRequest))
+                .willReturn(new PageImpl<>(screenings, pageRequest, 5));
+        given(screeningRepository.findAllSeatCountsByScreeningWithIdIn(List.of(1L, 2L)))
+                .willReturn(List.of(new ScreeningSeatCount(2L, 40L, 15L),
+                                    new ScreeningSeatCount(1L, 40L, 0L)));
+        // when
+        Page<ScreeningDto> screeningDtos = screeningService.findPageByMovieId(3L, pageRequest);
+        // then
+        assertEquals(5, screeningDtos.getTotalElements());
+        assertEquals(List.of(1L, 2L), screeningDtos.stream().map(ScreeningDto::getId).toList());
+        assertEquals(List.of(40, 40), screeningDtos.stream().map(ScreeningDto::getTotalSeatsInRoom).toList());
+        assertEquals(List.of(0, 15), screeningDtos.stream().map(ScreeningDto::getSeatsBooked).toList());
+        assertEquals(List.of(40, 25), screeningDtos.stream().map(ScreeningDto::getSeatsAvailable).toList());
+        verify(screeningRepository, times(1)).findAllSeatCountsByScreeningWithIdIn(any());
+    }
+
     @Test
     void submitScreeningForm() {
         // given
@@ -222,9 +288,116 @@ class ScreeningServiceTest {
         Screening screening = screeningArgumentCaptor.getValue();
         assertEquals(movie, screening.getMovie());
         assertEquals(showroom, screening.getShowroom());
-        assertTrue(screening.getScreeningSeats().stream().allMatch(
-                screeningSeat -> screeningSeat != null &&
-                        showroom.getShowroomSeats().contains(screeningSeat.getShowroomSeat())));
+        assertTrue(screening.getScreeningSeats().isEmpty());
+    }
+
+    @Test
+    void findAllScreeningsOverlapping() {
+        // given
+        LocalDateTime noon = LocalDateTime.of(2030, Month.JANUARY, 1, 12, 0);
+        given(screeningRepository.findAllScreeningIntervalsByShowroomWithId(2L)).willReturn(List.of(
+                new ScreeningInterval(1L, noon.minusHours(2), noon),
+                new ScreeningInterval(3L, noon.plusMinutes(30), noon.plusHours(2)),
+                new ScreeningInterval(4L, noon.plusHours(8), noon.plusHours(10))));
+        List<Screening> screenings = new ArrayList<>();
+        for (long id : List.of(1L, 3L)) {
+            Screening screening = new Screening();
+            screening.setId(id);
+            screening.setShowDateTime(id == 1L ? noon.minusHours(2) : noon.plusMinutes(30));
+            screenings.add(screening);
+        }
+        given(screeningRepository.findAllById(List.of(1L, 3L))).willReturn(screenings);
+        // when
+        List<ScreeningDto> overlaps = screeningService
+                .findAllScreeningsByShowroomIdAndInBetweenStartTimeAndEndTime(
+                        2L, noon.minusMinutes(30), noon.plusHours(1));
+        screeningScheduleService.remove(2L, 3L);
+        screeningScheduleService.add(2L, new ScreeningInterval(5L, noon.plusHours(3), noon.plusHours(4)));
+        List<ScreeningInterval> overlapsAfterUpdate = screeningScheduleService
+                .findAllOverlappingByShowroomWithId(2L, noon.minusMinutes(30), noon.plusHours(9));
+        // then
+        assertEquals(List.of(1L, 3L), overlaps.stream().map(ScreeningDto::getId).toList());
+        assertEquals(List.of(1L, 5L, 4L), overlapsAfterUpdate.stream()
+                .map(ScreeningInterval::getScreeningId).toList());
+        verify(screeningRepository, times(1)).findAllScreeningIntervalsByShowroomWithId(2L);
+    }
+
+    @Test
+    void submitScreeningScheduleForm() {
+        // given
+        Movie movie = new Movie();
+        movie.setId(1L);
+        movie.setTitle("Dune");
+        movie.setDuration(Duration.of(2, 0));
+        given(movieRepository.findById(1L)).willReturn(Optional.of(movie));
+        List<Showroom> showrooms = new ArrayList<>();
+        for (long id = 2L; id <= 3L; id++) {
+            Showroom showroom = new Showroom();
+            showroom.setId(id);
+            showroom.setShowroomLetter(id == 2L ? Letter.A : Letter.B);
+            showrooms.add(showroom);
+        }
+        given(showroomRepository.findAllById(List.of(2L, 3L))).willReturn(showrooms);
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        LocalDateTime existingShowDateTime = LocalDateTime.of(firstDay.plusDays(1), LocalTime.of(12, 30));
+        given(screeningRepository.findAllScreeningIntervalsByShowroomWithId(2L)).willReturn(List.of(
+                new ScreeningInterval(4L, existingShowDateTime, existingShowDateTime.plusHours(2))));
+        given(screeningRepository.findAllScreeningIntervalsByShowroomWithId(3L)).willReturn(List.of());
+        ScreeningScheduleForm screeningScheduleForm = new ScreeningScheduleForm();
+        screeningScheduleForm.setMovieId(1L);
+        screeningScheduleForm.setShowroomIds(List.of(2L, 3L));
+        screeningScheduleForm.setStartDate(firstDay);
+        screeningScheduleForm.setEndDate(firstDay.plusDays(1));
+        screeningScheduleForm.setShowtimes(List.of(LocalTime.of(13, 0), LocalTime.NOON));
+        // when
+        ScreeningScheduleResult result = screeningService.submitScreeningScheduleForm(screeningScheduleForm);
+        // then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<Screening>> screeningsArgumentCaptor = ArgumentCaptor.forClass(Iterable.class);
+        verify(screeningRepository).saveAll(screeningsArgumentCaptor.capture());
+        List<Screening> screenings = new ArrayList<>();
+        screeningsArgumentCaptor.getValue().forEach(screenings::add);
+        // showroom A: first day at noon, showroom B: both days at noon, every 1 PM slot overlaps the noon slot
+        assertEquals(3, screenings.size());
+        assertEquals(3, result.getScheduledScreenings().size());
+        assertEquals(5, result.getConflicts().size());
+        assertTrue(screenings.stream().allMatch(screening ->
+                screening.getShowDateTime().toLocalTime().equals(LocalTime.NOON) &&
+                        screening.getEndDateTime().equals(screening.getShowDateTime().plusHours(2)) &&
+                        screening.getMovie() == movie));
+        assertEquals(1, screenings.stream().filter(
+                screening -> screening.getShowroom() == showrooms.get(0)).count());
+        assertEquals(2, screenings.stream().filter(
+                screening -> screening.getShowroom() == showrooms.get(1)).count());
+    }
+
+    @Test
+    void failToSubmitScreeningScheduleFormWhenEverySlotConflicts() {
+        // given
+        Movie movie = new Movie();
+        movie.setId(1L);
+        movie.setTitle("Dune");
+        movie.setDuration(Duration.of(2, 0));
+        given(movieRepository.findById(1L)).willReturn(Optional.of(movie));
+        Showroom showroom = new Showroom();
+        showroom.setId(2L);
+        showroom.setShowroomLetter(Letter.A);
+        given(showroomRepository.findAllById(List.of(2L))).willReturn(List.of(showroom));
+        LocalDateTime showDateTime = LocalDateTime.of(LocalDate.now().plusDays(1), LocalTime.NOON);
+        given(screeningRepository.findAllScreeningIntervalsByShowroomWithId(2L)).willReturn(List.of(
+                new ScreeningInterval(4L, showDateTime, showDateTime.plusHours(2))));
+        ScreeningScheduleForm screeningScheduleForm = new ScreeningScheduleForm();
+        screeningScheduleForm.setMovieId(1L);
+        screeningScheduleForm.setShowroomIds(List.of(2L));
+        screeningScheduleForm.setStartDate(showDateTime.toLocalDate());
+        screeningScheduleForm.setEndDate(showDateTime.toLocalDate());
+        screeningScheduleForm.setShowtimes(List.of(LocalTime.NOON));
+        // when
+        ClashException e = assertThrows(ClashException.class,
+                                        () -> screeningService.submitScreeningScheduleForm(screeningScheduleForm));
+        // then
+        assertEquals(1, e.getErrors().size());
+        verify(screeningRepository, never()).saveAll(any());
     }
 
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.CatalogCache;
+import com.ecinema.app.domain.enums.EvictionPolicyType;
 import com.ecinema.app.domain.entities.ScreeningSeat;
 import com.ecinema.app.domain.entities.Showroom;
 import com.ecinema.app.domain.entities.ShowroomSeat;
@@ -23,6 +25,7 @@ import static org.mockito.Mockito.verify;
 class ShowroomSeatServiceTest {
 
     private TicketService ticketService;
+    private SeatAvailabilityService seatAvailabilityService;
     private ScreeningSeatService screeningSeatService;
     private ShowroomSeatService showroomSeatService;
     private ShowroomService showroomService;
@@ -37,16 +40,21 @@ class ShowroomSeatServiceTest {
 
     @BeforeEach
     void setUp() {
+        seatAvailabilityService = new SeatAvailabilityService(
+                null, screeningSeatRepository);
         ticketService = new TicketService(
                 ticketRepository, null, null,
-                null, screeningSeatRepository);
+                null, null, screeningSeatRepository, showroomSeatRepository,
+                seatAvailabilityService,
+                new SeatHoldService());
         screeningSeatService = new ScreeningSeatService(
-                screeningSeatRepository, ticketService);
+                screeningSeatRepository, ticketService, seatAvailabilityService);
         showroomSeatService = new ShowroomSeatService(
                 showroomSeatRepository,screeningSeatService);
         showroomService = new ShowroomService(
                 showroomRepository, showroomSeatService,
-                null, null, ticketRepository);
+                null, null, ticketRepository,
+                new CatalogCache(EvictionPolicyType.W_TINY_LFU));
     }
 
     @Test
@@ -1,5 +1,7 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.CatalogCache;
+import com.ecinema.app.domain.enums.EvictionPolicyType;
 import com.ecinema.app.domain.dtos.ShowroomDto;
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.forms.ShowroomForm;
@@ -20,6 +22,7 @@ import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,8 +33,10 @@ class ShowroomServiceTest {
     private ScreeningService screeningService;
     private ScreeningSeatService screeningSeatService;
     private TicketService ticketService;
+    private SeatAvailabilityService seatAvailabilityService;
     private ShowroomValidator showroomValidator;
     private ScreeningValidator screeningValidator;
+    private CatalogCache catalogCache;
     @Mock
     private ShowroomRepository showroomRepository;
     @Mock
@@ -53,20 +58,28 @@ class ShowroomServiceTest {
     void setUp() {
         showroomValidator = new ShowroomValidator();
         screeningValidator = new ScreeningValidator();
+        catalogCache = new CatalogCache(EvictionPolicyType.W_TINY_LFU);
+        seatAvailabilityService = new SeatAvailabilityService(
+                screeningRepository, screeningSeatRepository);
         ticketService = new TicketService(
                 ticketRepository, null, null,
-                null, screeningSeatRepository);
+                null, screeningRepository, screeningSeatRepository, showroomSeatRepository,
+                seatAvailabilityService,
+                new SeatHoldService());
         screeningSeatService = new ScreeningSeatService(
-                screeningSeatRepository, ticketService);
+                screeningSeatRepository, ticketService, seatAvailabilityService);
         screeningService = new ScreeningService(
                 screeningRepository, movieRepository, null,
                 showroomRepository,  screeningSeatService,
-                screeningValidator);
+                new ScreeningScheduleService(screeningRepository),
+                screeningValidator, null,
+                new MovieSearchService(movieRepository),
+                new MovieFacetService(movieRepository, screeningRepository));
         showroomSeatService = new ShowroomSeatService(
                 showroomSeatRepository, screeningSeatService);
         showroomService = new ShowroomService(
                 showroomRepository, showroomSeatService,
-                screeningService, showroomValidator, ticketRepository);
+                screeningService, showroomValidator, ticketRepository, catalogCache);
     }
 
     @Test
@@ -183,4 +196,38 @@ class ShowroomServiceTest {
                 showroomSeat -> showroomSeat.getRowLetter().equals(Letter.A)).count());
     }
 
-}
\ No newline at end of file
+    @Test
+    void showroomsAreCachedUntilShowroomFormSubmitted() {
+        // given
+        Showroom showroom = new Showroom();
+        showroom.setId(1L);
+        showroom.setShowroomLetter(Letter.A);
+        given(showroomRepository.findAll()).willReturn(List.of(showroom));
+        given(showroomRepository.findByShowroomLetter(Letter.A)).willReturn(Optional.of(showroom));
+        // when
+        showroomService.findAll();
+        showroomService.findAll();
+        List<Letter> showroomLetters = showroomService.findAllShowroomLetters();
+        showroomService.findByShowroomLetter(Letter.A);
+        ShowroomDto showroomDto = showroomService.findByShowroomLetter(Letter.A);
+        // then
+        assertEquals(List.of(Letter.A), showroomLetters);
+        assertEquals(1L, showroomDto.getId());
+        verify(showroomRepository, times(1)).findAll();
+        verify(showroomRepository, times(1)).findByShowroomLetter(Letter.A);
+        assertEquals(2, catalogCache.stats().get("allShowrooms").getHits());
+        assertEquals(1, catalogCache.stats().get("allShowrooms").getMisses());
+        // when
+        ShowroomForm showroomForm = new ShowroomForm();
+        showroomForm.setShowroomLetter(Letter.B);
+        showroomForm.setNumberOfRows(1);
+        showroomForm.setNumberOfSeatsPerRow(1);
+        showroomService.submitShowroomForm(showroomForm);
+        showroomService.findAll();
+        showroomService.findByShowroomLetter(Letter.A);
+        // then
+        verify(showroomRepository, times(2)).findAll();
+        verify(showroomRepository, times(2)).findByShowroomLetter(Letter.A);
+    }
+
+}
@@ -0,0 +1,207 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.configs.InitializationConfig;
+import com.ecinema.app.domain.entities.*;
+import com.ecinema.app.domain.enums.Letter;
+import com.ecinema.app.domain.enums.TicketType;
+import com.ecinema.app.domain.forms.SeatBookingForm;
+import com.ecinema.app.domain.objects.Duration;
+import com.ecinema.app.exceptions.InvalidActionException;
+import com.ecinema.app.repositories.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TicketServiceConcurrencyTest {
+
+    private static final int NUMBER_OF_BUYERS = 32;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ShowroomRepository showroomRepository;
+
+    @Autowired
+    private ScreeningRepository screeningRepository;
+
+    @Autowired
+    private PaymentCardRepository paymentCardRepository;
+
+    @Autowired
+    private ShowroomSeatRepository showroomSeatRepository;
+
+    @Autowired
+    private ScreeningSeatRepository screeningSeatRepository;
+
+    @Autowired
+    private SeatAvailabilityService seatAvailabilityService;
+
+    @MockBean
+    private EmailService emailService;
+
+    @MockBean
+    private InitializationConfig config;
+
+    private final List<SeatBookingForm> seatBookingForms = new ArrayList<>();
+    private Long showroomSeatId;
+
+    @BeforeEach
+    void setUp() {
+        Movie movie = new Movie();
+        movie.setTitle("Dune");
+        movie.setSearchTitle("DUNE");
+        movie.setDuration(Duration.of(2, 35));
+        movieRepository.save(movie);
+        Showroom showroom = new Showroom();
+        showroom.setShowroomLetter(Letter.A);
+        showroom.setNumberOfRows(1);
+        showroom.setNumberOfSeatsPerRow(1);
+        showroomRepository.save(showroom);
+        ShowroomSeat showroomSeat = new ShowroomSeat();
+        showroomSeat.setRowLetter(Letter.A);
+        showroomSeat.setSeatNumber(1);
+        showroomSeat.setShowroom(showroom);
+        showroomSeatRepository.save(showroomSeat);
+        showroomSeatId = showroomSeat.getId();
+        Screening screening = new Screening();
+        screening.setMovie(movie);
+        screening.setShowroom(showroom);
+        screening.setShowDateTime(LocalDateTime.now().plusDays(7));
+        screening.setEndDateTime(LocalDateTime.now().plusDays(7).plusHours(3));
+        screeningRepository.save(screening);
+        ScreeningSeat screeningSeat = new ScreeningSeat();
+        screeningSeat.setScreening(screening);
+        screeningSeat.setShowroomSeat(showroomSeat);
+        screeningSeatRepository.save(screeningSeat);
+        for (int i = 0; i < NUMBER_OF_BUYERS; i++) {
+            User user = new User();
+            user.setUsername("buyer" + i);
+            user.setEmail("buyer" + i + "@gmail.com");
+            userRepository.save(user);
+            Customer customer = new Customer();
+            customer.setUser(user);
+            customer.setIsAuthorityValid(true);
+            customerRepository.save(customer);
+            PaymentCard paymentCard = new PaymentCard();
+            paymentCard.setCardOwner(customer);
+            paymentCard.setExpirationDate(LocalDate.now().plusYears(1));
+            paymentCardRepository.save(paymentCard);
+            SeatBookingForm seatBookingForm = new SeatBookingForm();
+            seatBookingForm.setUserId(user.getId());
+            seatBookingForm.setScreeningId(screening.getId());
+            seatBookingForm.setPaymentCardId(paymentCard.getId());
+            seatBookingForm.setScreeningSeatId(screeningSeat.getId());
+            seatBookingForm.setTicketType(TicketType.ADULT);
+            seatBookingForm.setTokensToApply(0);
+            seatBookingForms.add(seatBookingForm);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+        paymentCardRepository.deleteAll();
+        customerRepository.deleteAll();
+        userRepository.deleteAll();
+        screeningSeatRepository.deleteAll();
+        screeningRepository.deleteAll();
+        showroomSeatRepository.deleteAll();
+        showroomRepository.deleteAll();
+        movieRepository.deleteAll();
+    }
+
+    @Test
+    void onlyOneOfManyConcurrentBookingsOfSameSeatSucceeds()
+            throws InterruptedException {
+        // given
+        ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_BUYERS);
+        CountDownLatch startingGun = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger seatTakenFailures = new AtomicInteger();
+        List<Throwable> unexpectedFailures = new CopyOnWriteArrayList<>();
+        // when
+        for (SeatBookingForm seatBookingForm : seatBookingForms) {
+            executorService.execute(() -> {
+                try {
+                    startingGun.await();
+                    ticketService.bookTicket(seatBookingForm);
+                    successes.incrementAndGet();
+                } catch (InvalidActionException e) {
+                    if (e.getErrors().contains(TicketService.SEAT_TAKEN)) {
+                        seatTakenFailures.incrementAndGet();
+                    } else {
+                        unexpectedFailures.add(e);
+                    }
+                } catch (Throwable t) {
+                    unexpectedFailures.add(t);
+                }
+            });
+        }
+        startingGun.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+        // then
+        assertTrue(unexpectedFailures.isEmpty(), "Unexpected failures: " + unexpectedFailures);
+        assertEquals(1, successes.get());
+        assertEquals(NUMBER_OF_BUYERS - 1, seatTakenFailures.get());
+        assertEquals(1, ticketRepository.count());
+    }
+
+    @Test
+    void seatHoldIsReleasedUnlessBooked() {
+        // given
+        SeatBookingForm holder = seatBookingForms.get(0);
+        SeatBookingForm other = seatBookingForms.get(1);
+        ticketService.holdSeat(holder.getUserId(), holder.getScreeningId(), showroomSeatId);
+        Long seatHoldId = ticketService.findAllSeatHolds().get(0).getFirst();
+        // when
+        InvalidActionException e = assertThrows(
+                InvalidActionException.class, () -> ticketService.bookTicket(other));
+        boolean bookedWhileHeld = seatAvailabilityService.findBitmapByScreeningWithId(
+                holder.getScreeningId()).orElseThrow().isBooked(Letter.A, 1);
+        int released = ticketService.releaseSeatHolds(List.of(seatHoldId));
+        boolean bookedAfterRelease = seatAvailabilityService.findBitmapByScreeningWithId(
+                holder.getScreeningId()).orElseThrow().isBooked(Letter.A, 1);
+        ticketService.holdSeat(holder.getUserId(), holder.getScreeningId(), showroomSeatId);
+        Long secondSeatHoldId = ticketService.findAllSeatHolds().get(0).getFirst();
+        ticketService.bookTicket(holder);
+        int releasedAfterBooking = ticketService.releaseSeatHolds(List.of(secondSeatHoldId));
+        // then
+        assertTrue(e.getErrors().contains(TicketService.SEAT_TAKEN));
+        assertTrue(bookedWhileHeld);
+        assertEquals(1, released);
+        assertFalse(bookedAfterRelease);
+        assertEquals(0, releasedAfterBooking);
+        assertEquals(1, ticketRepository.count());
+        assertTrue(ticketService.findAllSeatHolds().isEmpty());
+        assertTrue(seatAvailabilityService.findBitmapByScreeningWithId(
+                holder.getScreeningId()).orElseThrow().isBooked(Letter.A, 1));
+    }
+
+}
@@ -1,9 +1,12 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.CatalogCache;
 import com.ecinema.app.beans.SecurityContext;
+import com.ecinema.app.domain.dtos.TicketDto;
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.enums.*;
 import com.ecinema.app.domain.forms.SeatBookingForm;
+import com.ecinema.app.domain.forms.SeatsBookingForm;
 import com.ecinema.app.exceptions.InvalidActionException;
 import com.ecinema.app.exceptions.NoEntityFoundException;
 import com.ecinema.app.repositories.*;
@@ -27,12 +30,17 @@ import static org.mockito.Mockito.*;
 class TicketServiceTest {
 
     private TicketService ticketService;
+    private SeatAvailabilityService seatAvailabilityService;
+    private SeatHoldService seatHoldService;
     private ScreeningService screeningService;
     private ShowroomService showroomService;
     private ShowroomSeatService showroomSeatService;
     private ScreeningSeatService screeningSeatService;
     private CustomerService customerService;
     private ReviewService reviewService;
+    private MovieRatingService movieRatingService;
+    @Mock
+    private ReviewModerationService reviewModerationService;
     private PaymentCardService paymentCardService;
     private SecurityContext securityContext;
     @Mock
@@ -52,6 +60,8 @@ class TicketServiceTest {
     @Mock
     private ReviewRepository reviewRepository;
     @Mock
+    private MovieRatingRepository movieRatingRepository;
+    @Mock
     private PaymentCardRepository paymentCardRepository;
     @Mock
     private MovieRepository movieRepository;
@@ -59,19 +69,30 @@ class TicketServiceTest {
     @BeforeEach
     void setUp() {
         securityContext = new SecurityContext();
+        seatHoldService = new SeatHoldService();
+        seatAvailabilityService = new SeatAvailabilityService(
+                screeningRepository, screeningSeatRepository);
         ticketService = new TicketService(
                 ticketRepository, emailService, customerRepository,
-                paymentCardRepository, screeningSeatRepository);
+                paymentCardRepository, screeningRepository, screeningSeatRepository, showroomSeatRepository,
+                seatAvailabilityService,
+                seatHoldService);
         screeningSeatService = new ScreeningSeatService(
-                screeningSeatRepository, ticketService);
+                screeningSeatRepository, ticketService, seatAvailabilityService);
         showroomSeatService = new ShowroomSeatService(
                 showroomSeatRepository, screeningSeatService);
         screeningService = new ScreeningService(
                 screeningRepository, movieRepository, null,
-                showroomRepository,  screeningSeatService, null);
+                showroomRepository,  screeningSeatService,
+                new ScreeningScheduleService(screeningRepository), null, null,
+                new MovieSearchService(movieRepository),
+                new MovieFacetService(movieRepository, screeningRepository));
+        movieRatingService = new MovieRatingService(
+                movieRatingRepository, reviewRepository, movieRepository);
         reviewService = new ReviewService(
                 reviewRepository, movieRepository,
-                null, null, null);
+                null, null, null,
+                movieRatingService, reviewModerationService);
         paymentCardService = new PaymentCardService(
                 paymentCardRepository, null,
                 null, null);
@@ -81,7 +102,8 @@ class TicketServiceTest {
                 paymentCardService, null, securityContext);
         showroomService = new ShowroomService(
                 showroomRepository, showroomSeatService,
-                screeningService, null, ticketRepository);
+                screeningService, null, ticketRepository,
+                new CatalogCache(EvictionPolicyType.W_TINY_LFU));
     }
 
     @Test
@@ -159,29 +181,17 @@ class TicketServiceTest {
         ShowroomSeat showroomSeat = new ShowroomSeat();
         showroomSeat.setRowLetter(Letter.A);
         showroomSeat.setSeatNumber(1);
-        given(ticketRepository.findShowroomSeatAssociatedWithTicket(any()))
-                .willReturn(Optional.of(showroomSeat));
         ScreeningSeat screeningSeat = new ScreeningSeat();
         screeningSeat.setShowroomSeat(showroomSeat);
         showroomSeat.getScreeningSeats().add(screeningSeat);
         screeningSeat.setScreening(screening);
         given(screeningSeatRepository.findById(3L)).willReturn(Optional.of(screeningSeat));
+        given(screeningSeatRepository.claimScreeningSeat(any(), any())).willReturn(1);
         doNothing().when(emailService).sendFromBusinessEmail(anyString(), anyString(), anyString());
-        given(ticketRepository.findUserIdOfTicket(any())).willReturn(Optional.of(1L));
-        given(ticketRepository.findShowDateTimeOfScreeningAssociatedWithTicket(any()))
-                .willReturn(Optional.of(LocalDateTime.now().plusDays(4)));
-        given(ticketRepository.findEmailOfTicketUserOwner(any()))
-                .willReturn(Optional.of("user@gmail.com"));
-        given(ticketRepository.findUsernameOfTicketUserOwner(any()))
-                .willReturn(Optional.of("user"));
-        given(ticketRepository.findMovieTitleAssociatedWithTicket(any()))
-                .willReturn(Optional.of("Movie Title"));
-        given(ticketRepository.findShowroomLetterAssociatedWithTicket(any()))
-                .willReturn(Optional.of(Letter.A));
-        given(ticketRepository.findShowDateTimeOfScreeningAssociatedWithTicket(any()))
-                .willReturn(Optional.of(LocalDateTime.now().plusDays(5)));
-        given(ticketRepository.findEndDateTimeOfScreeningAssociatedWithTicket(any()))
-                .willReturn(Optional.of(LocalDateTime.now().plusDays(5)));
+        given(ticketRepository.findDtoById(any())).willReturn(Optional.of(new TicketDto(
+                null, 1L, "user@gmail.com", "user", "Movie Title", 2L, TicketType.ADULT, Letter.A,
+                TicketStatus.VALID, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(5),
+                LocalDateTime.now(), Letter.A, 1)));
         // when
         SeatBookingForm seatBookingForm = new SeatBookingForm();
         seatBookingForm.setUserId(1L);
@@ -204,6 +214,457 @@ class TicketServiceTest {
         assertEquals(TicketStatus.VALID, ticket.getTicketStatus());
     }
 
+    @Test
+    void failToBookTicketWhenSeatClaimIsLost() {
+        // given
+        Customer customer = new Customer();
+        customer.setIsAuthorityValid(true);
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
+        PaymentCard paymentCard = new PaymentCard();
+        paymentCard.setExpirationDate(LocalDate.now().plusYears(1));
+        given(paymentCardRepository.findById(2L)).willReturn(Optional.of(paymentCard));
+        Screening screening = new Screening();
+        screening.setShowDateTime(LocalDateTime.now().plusHours(1));
+        ScreeningSeat screeningSeat = new ScreeningSeat();
+        screeningSeat.setId(3L);
+        screeningSeat.setScreening(screening);
+        given(screeningSeatRepository.findById(3L)).willReturn(Optional.of(screeningSeat));
+        given(screeningSeatRepository.claimScreeningSeat(3L, 0L)).willReturn(0);
+        SeatBookingForm seatBookingForm = new SeatBookingForm();
+        seatBookingForm.setUserId(1L);
+        seatBookingForm.setTokensToApply(0);
+        seatBookingForm.setPaymentCardId(2L);
+        seatBookingForm.setScreeningSeatId(3L);
+        seatBookingForm.setTicketType(TicketType.ADULT);
+        // when
+        InvalidActionException e = assertThrows(
+                InvalidActionException.class, () -> ticketService.bookTicket(seatBookingForm));
+        // then
+        assertTrue(e.getErrors().contains(TicketService.SEAT_TAKEN));
+        verify(ticketRepository, never()).save(any());
+    }
+
+    @Test
+    void holdSeat() {
+        // given
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setIsAuthorityValid(true);
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
+        Screening screening = new Screening();
+        screening.setShowDateTime(LocalDateTime.now().plusHours(1));
+        ScreeningSeat screeningSeat = new ScreeningSeat();
+        screeningSeat.setId(3L);
+        screeningSeat.setScreening(screening);
+        given(screeningSeatRepository.findByScreeningWithIdAndShowroomSeatWithId(4L, 5L))
+                .willReturn(Optional.of(screeningSeat));
+        given(screeningSeatRepository.claimScreeningSeat(3L, 0L)).willReturn(1);
+        // when
+        Long screeningSeatId = ticketService.holdSeat(1L, 4L, 5L);
+        ticketService.holdSeat(1L, 4L, 5L);
+        // then
+        assertEquals(3L, screeningSeatId);
+        ArgumentCaptor<Ticket> ticketArgumentCaptor = ArgumentCaptor.forClass(Ticket.class);
+        verify(ticketRepository, times(1)).save(ticketArgumentCaptor.capture());
+        Ticket seatHold = ticketArgumentCaptor.getValue();
+        assertEquals(TicketStatus.LOCKED, seatHold.getTicketStatus());
+        assertEquals(customer, seatHold.getTicketOwner());
+        assertEquals(seatHold, screeningSeat.getTicket());
+        assertNull(seatHold.getPaymentCard());
+        assertEquals(1, seatHoldService.numberOfScheduledReleases());
+    }
+
+    @Test
+    void holdSeatOfVirtualScreeningSeat() {
+        // given
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setIsAuthorityValid(true);
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
+        Showroom showroom = new Showroom();
+        showroom.setId(6L);
+        Screening screening = new Screening();
+        screening.setId(4L);
+        screening.setShowroom(showroom);
+        screening.setShowDateTime(LocalDateTime.now().plusHours(1));
+        ShowroomSeat showroomSeat = new ShowroomSeat();
+        showroomSeat.setId(5L);
+        showroomSeat.setShowroom(showroom);
+        given(screeningSeatRepository.findByScreeningWithIdAndShowroomSeatWithId(4L, 5L))
+                .willReturn(Optional.empty());
+        given(screeningRepository.findById(4L)).willReturn(Optional.of(screening));
+        given(showroomSeatRepository.findAllById(List.of(5L))).willReturn(List.of(showroomSeat));
+        given(screeningSeatRepository.claimScreeningSeat(any(), any())).willReturn(1);
+        // when
+        ticketService.holdSeat(1L, 4L, 5L);
+        // then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<ScreeningSeat>> screeningSeatsArgumentCaptor =
+                ArgumentCaptor.forClass(Iterable.class);
+        verify(screeningSeatRepository).saveAll(screeningSeatsArgumentCaptor.capture());
+        ScreeningSeat screeningSeat = screeningSeatsArgumentCaptor.getValue().iterator().next();
+        assertEquals(screening, screeningSeat.getScreening());
+        assertEquals(showroomSeat, screeningSeat.getShowroomSeat());
+        assertTrue(screening.getScreeningSeats().contains(screeningSeat));
+        assertEquals(TicketStatus.LOCKED, screeningSeat.getTicket().getTicketStatus());
+        verify(ticketRepository, times(1)).save(screeningSeat.getTicket());
+    }
+
+    @Test
+    void failToHoldSeatHeldByOtherCustomer() {
+        // given
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setIsAuthorityValid(true);
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
+        Customer otherCustomer = new Customer();
+        otherCustomer.setId(2L);
+        Ticket seatHold = new Ticket();
+        seatHold.setTicketOwner(otherCustomer);
+        seatHold.setTicketStatus(TicketStatus.LOCKED);
+        ScreeningSeat screeningSeat = new ScreeningSeat();
+        screeningSeat.setTicket(seatHold);
+        given(screeningSeatRepository.findByScreeningWithIdAndShowroomSeatWithId(4L, 5L))
+                .willReturn(Optional.of(screeningSeat));
+        // when
+        InvalidActionException e = assertThrows(
+                InvalidActionException.class, () -> ticketService.holdSeat(1L, 4L, 5L));
+        // then
+        assertTrue(e.getErrors().contains(TicketService.SEAT_TAKEN));
+        verify(screeningSeatRepository, never()).claimScreeningSeat(any(), any());
+    }
+
+    @Test
+    void failToHoldMoreSeatsThanLimit() {
+        // given
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setIsAuthorityValid(true);
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
+        Screening screening = new Screening();
+        screening.setShowDateTime(LocalDateTime.now().plusHours(1));
+        ScreeningSeat screeningSeat = new ScreeningSeat();
+        screeningSeat.setId(3L);
+        screeningSeat.setScreening(screening);
+        given(screeningSeatRepository.findByScreeningWithIdAndShowroomSeatWithId(4L, 5L))
+                .willReturn(Optional.of(screeningSeat));
+        given(ticketRepository.countByTicketOwnerWithIdAndTicketStatusAndCreationDateTimeAfter(
+                eq(1L), eq(TicketStatus.LOCKED), any(LocalDateTime.class)))
+                .willReturn((long) TicketService.MAX_SEAT_HOLDS_PER_CUSTOMER);
+        // when
+        InvalidActionException e = assertThrows(
+                InvalidActionException.class, () -> ticketService.holdSeat(1L, 4L, 5L));
+        // then
+        assertTrue(e.getErrors().contains(TicketService.SEAT_HOLD_LIMIT_REACHED));
+        verify(screeningSeatRepository, never()).claimScreeningSeat(any(), any());
+        verify(ticketRepository, never()).save(any());
+    }
+
+    @Test
+    void findScreeningSeatIdOfSeatHold() {
+        // given
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setIsAuthorityValid(true);
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
+        Ticket seatHold = new Ticket();
+        seatHold.setTicketOwner(customer);
+        seatHold.setTicketStatus(TicketStatus.LOCKED);
+        seatHold.setCreationDateTime(LocalDateTime.now());
+        ScreeningSeat screeningSeat = new ScreeningSeat();
+        screeningSeat.setId(3L);
+        screeningSeat.setTicket(seatHold);
+        given(screeningSeatRepository.findByScreeningWithIdAndShowroomSeatWithId(4L, 5L))
+                .willReturn(Optional.of(screeningSeat));
+        given(screeningSeatRepository.findByScreeningWithIdAndShowroomSeatWithId(4L, 6L))
+                .willReturn(Optional.empty());
+        // when
+        Long screeningSeatId = ticketService.findScreeningSeatIdOfSeatHold(1L, 4L, 5L);
+        InvalidActionException e = assertThrows(
+                InvalidActionException.class, () -> ticketService.findScreeningSeatIdOfSeatHold(1L, 4L, 6L));
+        seatHold.setCreationDateTime(LocalDateTime.now().minus(SeatHoldService.SEAT_HOLD_DURATION).minusSeconds(1));
+        InvalidActionException expired = assertThrows(
+                InvalidActionException.class, () -> ticketService.findScreeningSeatIdOfSeatHold(1L, 4L, 5L));
+        // then
+        assertEquals(3L, screeningSeatId);
+        assertTrue(e.getErrors().contains(TicketService.SEAT_NOT_HELD));
+        assertTrue(expired.getErrors().contains(TicketService.SEAT_HOLD_EXPIRED));
+        verify(ticketRepository, never()).save(any());
+        verify(screeningSeatRepository, never()).claimScreeningSeat(any(), any());
+    }
+
+    @Test
+    void bookTicketForSeatHold() {
+        // given
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setIsAuthorityValid(true);
+        customer.setTokens(0);
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
+        PaymentCard paymentCard = new PaymentCard();
+        paymentCard.setExpirationDate(LocalDate.now().plusYears(1));
+        given(paymentCardRepository.findById(2L)).willReturn(Optional.of(paymentCard));
+        Screening screening = new Screening();
+        screening.setShowDateTime(LocalDateTime.now().plusHours(1));
+        ScreeningSeat screeningSeat = new ScreeningSeat();
+        screeningSeat.setScreening(screening);
+        Ticket seatHold = new Ticket();
+        seatHold.setId(4L);
+        seatHold.setTicketOwner(customer);
+        customer.getTickets().add(seatHold);
+        seatHold.setTicketStatus(TicketStatus.LOCKED);
+        seatHold.setScreeningSeat(screeningSeat);
+        screeningSeat.setTicket(seatHold);
+        given(screeningSeatRepository.findById(3L)).willReturn(Optional.of(screeningSeat));
+        given(ticketRepository.updateTicketStatusIfEquals(4L, TicketStatus.VALID, TicketStatus.LOCKED))
+                .willReturn(1);
+        doNothing().when(emailService).sendFromBusinessEmail(anyString(), anyString(), anyString());
+        given(ticketRepository.findDtoById(4L)).willReturn(Optional.of(new TicketDto(
+                4L, 1L, "user@gmail.com", "user", "Movie Title", 2L, TicketType.CHILD, Letter.A,
+                TicketStatus.VALID, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(5),
+                LocalDateTime.now(), Letter.A, 1)));
+        SeatBookingForm seatBookingForm = new SeatBookingForm();
+        seatBookingForm.setUserId(1L);
+        seatBookingForm.setTokensToApply(0);
+        seatBookingForm.setPaymentCardId(2L);
+        seatBookingForm.setScreeningSeatId(3L);
+        seatBookingForm.setTicketType(TicketType.CHILD);
+        // when
+        ticketService.bookTicket(seatBookingForm);
+        // then
+        verify(screeningSeatRepository, never()).claimScreeningSeat(any(), any());
+        verify(ticketRepository).save(seatHold);
+        assertEquals(TicketStatus.VALID, seatHold.getTicketStatus());
+        assertEquals(TicketType.CHILD, seatHold.getTicketType());
+        assertEquals(paymentCard, seatHold.getPaymentCard());
+        assertEquals(1, customer.getTickets().size());
+    }
+
+    @Test
+    void failToBookTicketForExpiredSeatHold() {
+        // given
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setIsAuthorityValid(true);
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
+        PaymentCard paymentCard = new PaymentCard();
+        paymentCard.setExpirationDate(LocalDate.now().plusYears(1));
+        given(paymentCardRepository.findById(2L)).willReturn(Optional.of(paymentCard));
+        Screening screening = new Screening();
+        screening.setShowDateTime(LocalDateTime.now().plusHours(1));
+        ScreeningSeat screeningSeat = new ScreeningSeat();
+        screeningSeat.setScreening(screening);
+        Ticket seatHold = new Ticket();
+        seatHold.setId(4L);
+        seatHold.setTicketOwner(customer);
+        seatHold.setTicketStatus(TicketStatus.LOCKED);
+        screeningSeat.setTicket(seatHold);
+        given(screeningSeatRepository.findById(3L)).willReturn(Optional.of(screeningSeat));
+        given(ticketRepository.updateTicketStatusIfEquals(4L, TicketStatus.VALID, TicketStatus.LOCKED))
+                .willReturn(0);
+        SeatBookingForm seatBookingForm = new SeatBookingForm();
+        seatBookingForm.setUserId(1L);
+        seatBookingForm.setTokensToApply(0);
+        seatBookingForm.setPaymentCardId(2L);
+        seatBookingForm.setScreeningSeatId(3L);
+        seatBookingForm.setTicketType(TicketType.ADULT);
+        // when
+        InvalidActionException e = assertThrows(
+                InvalidActionException.class, () -> ticketService.bookTicket(seatBookingForm));
+        // then
+        assertTrue(e.getErrors().contains(TicketService.SEAT_HOLD_EXPIRED));
+        verify(ticketRepository, never()).save(any());
+    }
+
+    @Test
+    void bookTickets() {
+        // given
+        Customer customer = new Customer();
+        customer.setIsAuthorityValid(true);
+        customer.setTokens(5);
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
+        PaymentCard paymentCard = new PaymentCard();
+        paymentCard.setExpirationDate(LocalDate.now().plusYears(1));
+        given(paymentCardRepository.findById(2L)).willReturn(Optional.of(paymentCard));
+        Showroom showroom = new Showroom();
+        showroom.setId(3L);
+        Screening screening = new Screening();
+        screening.setId(4L);
+        screening.setShowroom(showroom);
+        screening.setShowDateTime(LocalDateTime.now().plusHours(1));
+        given(screeningRepository.findById(4L)).willReturn(Optional.of(screening));
+        List<ShowroomSeat> showroomSeats = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            ShowroomSeat showroomSeat = new ShowroomSeat();
+            showroomSeat.setId((long) i);
+            showroomSeat.setRowLetter(Letter.A);
+            showroomSeat.setSeatNumber(i);
+            showroomSeat.setShowroom(showroom);
+            showroomSeats.add(showroomSeat);
+        }
+        // the first seat has already been materialized, the second is still virtual
+        ScreeningSeat screeningSeat = new ScreeningSeat();
+        screeningSeat.setId(1L);
+        screeningSeat.setShowroomSeat(showroomSeats.get(0));
+        screeningSeat.setScreening(screening);
+        given(screeningSeatRepository.findAllByScreeningWithIdAndShowroomSeatWithIdIn(4L, List.of(1L, 2L)))
+                .willReturn(List.of(screeningSeat));
+        given(showroomSeatRepository.findAllById(List.of(2L))).willReturn(List.of(showroomSeats.get(1)));
+        given(screeningSeatRepository.claimScreeningSeat(any(), any())).willReturn(1);
+        doNothing().when(emailService).sendFromBusinessEmail(anyString(), anyString(), anyString());
+        List<TicketDto> ticketDtos = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            ticketDtos.add(new TicketDto(
+                    null, 1L, "user@gmail.com", "user", "Movie Title", 2L, TicketType.ADULT, Letter.A,
+                    TicketStatus.VALID, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(5),
+                    LocalDateTime.now(), Letter.A, i));
+        }
+        given(ticketRepository.findAllDtosByIdIn(any())).willReturn(ticketDtos);
+        SeatsBookingForm seatsBookingForm = new SeatsBookingForm();
+        seatsBookingForm.setUserId(1L);
+        seatsBookingForm.setScreeningId(4L);
+        seatsBookingForm.setTokensToApply(3);
+        seatsBookingForm.setPaymentCardId(2L);
+        seatsBookingForm.setShowroomSeatIds(List.of(2L, 1L, 2L));
+        seatsBookingForm.setTicketType(TicketType.ADULT);
+        // when
+        ticketService.bookTickets(seatsBookingForm);
+        // then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<Ticket>> ticketsArgumentCaptor = ArgumentCaptor.forClass(Iterable.class);
+        verify(ticketRepository).saveAll(ticketsArgumentCaptor.capture());
+        List<Ticket> tickets = new ArrayList<>();
+        ticketsArgumentCaptor.getValue().forEach(tickets::add);
+        assertEquals(2, tickets.size());
+        assertEquals(2, customer.getTokens());
+        for (int i = 0; i < 2; i++) {
+            Ticket ticket = tickets.get(i);
+            assertEquals(customer, ticket.getTicketOwner());
+            assertEquals(paymentCard, ticket.getPaymentCard());
+            assertEquals(showroomSeats.get(i), ticket.getScreeningSeat().getShowroomSeat());
+            assertEquals(screening, ticket.getScreeningSeat().getScreening());
+            assertEquals(ticket, ticket.getScreeningSeat().getTicket());
+            assertEquals(TicketStatus.VALID, ticket.getTicketStatus());
+        }
+        assertEquals(screeningSeat, tickets.get(0).getScreeningSeat());
+        verify(screeningSeatRepository, times(1)).saveAll(any());
+        verify(screeningSeatRepository, times(2)).claimScreeningSeat(any(), any());
+        verify(emailService, times(1)).sendFromBusinessEmail(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void bookTicketsConfirmsSeatHoldOfCustomer() {
+        // given
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setIsAuthorityValid(true);
+        customer.setTokens(0);
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
+        PaymentCard paymentCard = new PaymentCard();
+        paymentCard.setExpirationDate(LocalDate.now().plusYears(1));
+        given(paymentCardRepository.findById(2L)).willReturn(Optional.of(paymentCard));
+        Screening screening = new Screening();
+        screening.setId(4L);
+        screening.setShowDateTime(LocalDateTime.now().plusHours(1));
+        given(screeningRepository.findById(4L)).willReturn(Optional.of(screening));
+        List<ScreeningSeat> screeningSeats = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            ShowroomSeat showroomSeat = new ShowroomSeat();
+            showroomSeat.setId((long) i);
+            showroomSeat.setRowLetter(Letter.A);
+            showroomSeat.setSeatNumber(i);
+            ScreeningSeat screeningSeat = new ScreeningSeat();
+            screeningSeat.setId((long) i);
+            screeningSeat.setShowroomSeat(showroomSeat);
+            screeningSeat.setScreening(screening);
+            screeningSeats.add(screeningSeat);
+        }
+        // the customer holds the second seat from the book seat page
+        Ticket seatHold = new Ticket();
+        seatHold.setId(5L);
+        seatHold.setTicketOwner(customer);
+        customer.getTickets().add(seatHold);
+        seatHold.setTicketStatus(TicketStatus.LOCKED);
+        seatHold.setScreeningSeat(screeningSeats.get(1));
+        screeningSeats.get(1).setTicket(seatHold);
+        given(screeningSeatRepository.findAllByScreeningWithIdAndShowroomSeatWithIdIn(4L, List.of(1L, 2L)))
+                .willReturn(screeningSeats);
+        given(screeningSeatRepository.claimScreeningSeat(1L, 0L)).willReturn(1);
+        given(ticketRepository.updateTicketStatusIfEquals(5L, TicketStatus.VALID, TicketStatus.LOCKED))
+                .willReturn(1);
+        doNothing().when(emailService).sendFromBusinessEmail(anyString(), anyString(), anyString());
+        given(ticketRepository.findAllDtosByIdIn(any())).willReturn(List.of(new TicketDto(
+                5L, 1L, "user@gmail.com", "user", "Movie Title", 2L, TicketType.ADULT, Letter.A,
+                TicketStatus.VALID, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(5),
+                LocalDateTime.now(), Letter.A, 2)));
+        SeatsBookingForm seatsBookingForm = new SeatsBookingForm();
+        seatsBookingForm.setUserId(1L);
+        seatsBookingForm.setScreeningId(4L);
+        seatsBookingForm.setTokensToApply(0);
+        seatsBookingForm.setPaymentCardId(2L);
+        seatsBookingForm.setShowroomSeatIds(List.of(1L, 2L));
+        seatsBookingForm.setTicketType(TicketType.ADULT);
+        // when
+        ticketService.bookTickets(seatsBookingForm);
+        // then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<Ticket>> ticketsArgumentCaptor = ArgumentCaptor.forClass(Iterable.class);
+        verify(ticketRepository).saveAll(ticketsArgumentCaptor.capture());
+        List<Ticket> tickets = new ArrayList<>();
+        ticketsArgumentCaptor.getValue().forEach(tickets::add);
+        assertEquals(2, tickets.size());
+        assertEquals(seatHold, tickets.get(1));
+        assertEquals(TicketStatus.VALID, seatHold.getTicketStatus());
+        assertEquals(paymentCard, seatHold.getPaymentCard());
+        assertEquals(2, customer.getTickets().size());
+        verify(screeningSeatRepository, times(1)).claimScreeningSeat(any(), any());
+    }
+
+    @Test
+    void failToBookTicketsWhenAnySeatIsBooked() {
+        // given
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setIsAuthorityValid(true);
+        given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
+        PaymentCard paymentCard = new PaymentCard();
+        paymentCard.setExpirationDate(LocalDate.now().plusYears(1));
+        given(paymentCardRepository.findById(2L)).willReturn(Optional.of(paymentCard));
+        Screening screening = new Screening();
+        screening.setId(4L);
+        screening.setShowDateTime(LocalDateTime.now().plusHours(1));
+        given(screeningRepository.findById(4L)).willReturn(Optional.of(screening));
+        List<ScreeningSeat> screeningSeats = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            ShowroomSeat showroomSeat = new ShowroomSeat();
+            showroomSeat.setId((long) i);
+            showroomSeat.setRowLetter(Letter.A);
+            showroomSeat.setSeatNumber(i);
+            ScreeningSeat screeningSeat = new ScreeningSeat();
+            screeningSeat.setId((long) i);
+            screeningSeat.setShowroomSeat(showroomSeat);
+            screeningSeat.setScreening(screening);
+            screeningSeats.add(screeningSeat);
+        }
+        screeningSeats.get(1).setTicket(new Ticket());
+        given(screeningSeatRepository.findAllByScreeningWithIdAndShowroomSeatWithIdIn(4L, List.of(1L, 2L)))
+                .willReturn(screeningSeats);
+        SeatsBookingForm seatsBookingForm = new SeatsBookingForm();
+        seatsBookingForm.setUserId(1L);
+        seatsBookingForm.setScreeningId(4L);
+        seatsBookingForm.setTokensToApply(0);
+        seatsBookingForm.setPaymentCardId(2L);
+        seatsBookingForm.setShowroomSeatIds(List.of(1L, 2L));
+        seatsBookingForm.setTicketType(TicketType.ADULT);
+        // when
+        assertThrows(InvalidActionException.class, () -> ticketService.bookTickets(seatsBookingForm));
+        // then
+        verify(screeningSeatRepository, never()).claimScreeningSeat(any(), any());
+        verify(screeningSeatRepository, never()).saveAll(any());
+        verify(ticketRepository, never()).saveAll(any());
+        assertNull(screeningSeats.get(0).getTicket());
+    }
+
     @Test
     void ticketIsRefundable1() {
         // given
@@ -234,26 +695,12 @@ class TicketServiceTest {
         ticket.setTicketType(TicketType.ADULT);
         Customer customer = new Customer();
         given(customerRepository.findByUserWithId(1L)).willReturn(Optional.of(customer));
-        given(ticketRepository.findUserIdOfTicket(1L)).willReturn(Optional.of(1L));
         given(ticketRepository.findShowDateTimeOfScreeningAssociatedWithTicket(1L))
                 .willReturn(Optional.of(LocalDateTime.now().plusDays(4)));
-        given(ticketRepository.findEmailOfTicketUserOwner(1L))
-                .willReturn(Optional.of("user@gmail.com"));
-        given(ticketRepository.findUsernameOfTicketUserOwner(1L))
-                .willReturn(Optional.of("user"));
-        given(ticketRepository.findMovieTitleAssociatedWithTicket(1L))
-                .willReturn(Optional.of("Movie Title"));
-        given(ticketRepository.findShowroomLetterAssociatedWithTicket(1L))
-                .willReturn(Optional.of(Letter.A));
-        given(ticketRepository.findShowDateTimeOfScreeningAssociatedWithTicket(1L))
-                .willReturn(Optional.of(LocalDateTime.now().plusDays(5)));
-        given(ticketRepository.findEndDateTimeOfScreeningAssociatedWithTicket(1L))
-                .willReturn(Optional.of(LocalDateTime.now().plusDays(5)));
-        ShowroomSeat showroomSeat = new ShowroomSeat();
-        showroomSeat.setRowLetter(Letter.A);
-        showroomSeat.setSeatNumber(1);
-        given(ticketRepository.findShowroomSeatAssociatedWithTicket(1L))
-                .willReturn(Optional.of(showroomSeat));
+        given(ticketRepository.findDtoById(1L)).willReturn(Optional.of(new TicketDto(
+                1L, 1L, "user@gmail.com", "user", "Movie Title", null, TicketType.ADULT, Letter.A,
+                TicketStatus.VALID, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(5),
+                LocalDateTime.now(), Letter.A, 1)));
         given(ticketRepository.existsById(1L)).willReturn(true);
         given(ticketRepository.findById(1L)).willReturn(Optional.of(ticket));
         doNothing().when(emailService).sendFromBusinessEmail(anyString(), anyString(), anyString());
@@ -0,0 +1,63 @@
+package com.ecinema.app.services;
+
+import com.ecinema.app.domain.entities.User;
+import com.ecinema.app.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the flush of {@link UserActivityService} against the schema that Hibernate generates, so that the table
+ * and column names of its hand-written SQL are checked against the {@link User} entity.
+ */
+@DataJpaTest
+class UserActivityServiceSchemaTest {
+
+    private UserActivityService userActivityService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @BeforeEach
+    void setUp() {
+        userActivityService = new UserActivityService(jdbcTemplate);
+    }
+
+    @Test
+    void flushWritesLastActivityDateTimeOfUser() {
+        // given
+        User user = new User();
+        user.setEmail("test@gmail.com");
+        user.setLastActivityDateTime(LocalDateTime.now().minusDays(1));
+        User otherUser = new User();
+        otherUser.setEmail("other@gmail.com");
+        userRepository.saveAndFlush(user);
+        userRepository.saveAndFlush(otherUser);
+        LocalDateTime before = LocalDateTime.now();
+        userActivityService.recordActivityOfUserWithId(user.getId());
+        // when
+        int numberFlushed = userActivityService.flush();
+        testEntityManager.clear();
+        // then
+        assertEquals(1, numberFlushed);
+        LocalDateTime lastActivityDateTime = userRepository.findById(user.getId())
+                                                           .orElseThrow(IllegalStateException::new)
+                                                           .getLastActivityDateTime();
+        // the column may store less precision than LocalDateTime.now()
+        assertFalse(lastActivityDateTime.isBefore(before.minus(Duration.ofMillis(1))));
+        assertNull(userRepository.findById(otherUser.getId()).orElseThrow(IllegalStateException::new)
+                                 .getLastActivityDateTime());
+    }
+
+}
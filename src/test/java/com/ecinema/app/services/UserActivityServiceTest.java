@@ -0,0 +1,83 @@
+package com.ecinema.app.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserActivityServiceTest {
+
+    private UserActivityService userActivityService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userActivityService = new UserActivityService(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushCoalescesActivityOfSameUserIntoOneBatch() {
+        // given
+        userActivityService.recordActivityOfUserWithId(1L);
+        userActivityService.recordActivityOfUserWithId(2L);
+        userActivityService.recordActivityOfUserWithId(1L);
+        userActivityService.recordActivityOfUserWithId(null);
+        // when
+        int numberFlushed = userActivityService.flush();
+        // then
+        assertEquals(2, numberFlushed);
+        assertEquals(0, userActivityService.numberOfPendingUpdates());
+        ArgumentCaptor<List<Object[]>> batchArgsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batchArgsCaptor.capture());
+        List<Object[]> batchArgs = batchArgsCaptor.getValue();
+        assertEquals(2, batchArgs.size());
+        for (Object[] args : batchArgs) {
+            assertTrue(args[0] instanceof Timestamp);
+            assertTrue(List.of(1L, 2L).contains((Long) args[1]));
+        }
+        assertEquals(0, userActivityService.flush());
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        // given
+        userActivityService.recordActivityOfUserWithId(1L);
+        given(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .willThrow(new DataAccessResourceFailureException("down"));
+        // when
+        assertThrows(DataAccessResourceFailureException.class, () -> userActivityService.flush());
+        // then
+        assertEquals(1, userActivityService.numberOfPendingUpdates());
+    }
+
+    @Test
+    void destroyDrainsPendingActivity()
+            throws InterruptedException {
+        // given
+        userActivityService.start();
+        userActivityService.recordActivityOfUserWithId(1L);
+        // when
+        userActivityService.destroy();
+        // then
+        assertEquals(0, userActivityService.numberOfPendingUpdates());
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+}
@@ -1,18 +1,27 @@
 package com.ecinema.app.services;
 
+import com.ecinema.app.beans.UserPrincipalCache;
+import com.ecinema.app.beans.UserViewCache;
 import com.ecinema.app.beans.SecurityContext;
 import com.ecinema.app.domain.entities.*;
 import com.ecinema.app.domain.enums.UserAuthority;
 import com.ecinema.app.domain.validators.*;
 import com.ecinema.app.repositories.*;
 import com.ecinema.app.domain.dtos.UserDto;
+import com.ecinema.app.domain.forms.UserProfileForm;
+import com.ecinema.app.domain.objects.UserPrincipal;
 import com.ecinema.app.exceptions.ClashException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,7 +34,11 @@ class UserServiceTest {
     private UserService userService;
     private AdminService adminService;
     private ReviewService reviewService;
+    private MovieRatingService movieRatingService;
+    @Mock
+    private ReviewModerationService reviewModerationService;
     private TicketService ticketService;
+    private SeatAvailabilityService seatAvailabilityService;
     private EmailValidator emailValidator;
     private CustomerService customerService;
     private SecurityContext securityContext;
@@ -39,10 +52,14 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private CascadeDeletionService cascadeDeletionService;
+    @Mock
     private AdminRepository adminRepository;
     @Mock
     private ReviewRepository reviewRepository;
     @Mock
+    private MovieRatingRepository movieRatingRepository;
+    @Mock
     private TicketRepository ticketRepository;
     @Mock
     private CustomerRepository customerRepository;
@@ -66,18 +83,26 @@ class UserServiceTest {
                 emailValidator, userProfileValidator,
                 usernameValidator, PasswordValidator);
         reviewVoteService = new ReviewVoteService(
-                reviewVoteRepository, reviewRepository, customerRepository);
+                reviewVoteRepository, reviewRepository, customerRepository,
+                new ReviewVoteCounterService(null));
+        movieRatingService = new MovieRatingService(
+                movieRatingRepository, reviewRepository, null);
         reviewService = new ReviewService(
                 reviewRepository, null,
-                null, null, reviewVoteService);
+                null, null, reviewVoteService,
+                movieRatingService, reviewModerationService);
+        seatAvailabilityService = new SeatAvailabilityService(
+                null, screeningSeatRepository);
         ticketService = new TicketService(
                 ticketRepository, null, customerRepository,
-                paymentCardRepository, screeningSeatRepository);
+                paymentCardRepository, null, screeningSeatRepository, null,
+                seatAvailabilityService,
+                new SeatHoldService());
         paymentCardService = new PaymentCardService(
                 paymentCardRepository, null,
                 null, null);
         adminService = new AdminService(adminRepository, userRepository,
-                                        null, null);
+                                        null, null, new UserPrincipalCache());
         customerService = new CustomerService(
                 customerRepository, screeningSeatRepository,
                 null, reviewService, ticketService,
@@ -88,7 +113,8 @@ class UserServiceTest {
                 userRepository, customerService,
                 moderatorService, adminService,
                 null,  userProfileValidator,
-                registrationValidator);
+                registrationValidator, new UserViewCache(), new UserPrincipalCache(),
+                cascadeDeletionService);
     }
 
     @Test
@@ -139,6 +165,28 @@ class UserServiceTest {
                              1L, UserAuthority.CUSTOMER));
     }
 
+    @Test
+    void removeCustomerAuthoritySubmitsCustomerDeletion() {
+        // given
+        User user = new User();
+        user.setId(1L);
+        Admin admin = new Admin();
+        admin.setId(2L);
+        admin.setUser(user);
+        user.getUserAuthorities().put(UserAuthority.ADMIN, admin);
+        Customer customer = new Customer();
+        customer.setId(3L);
+        customer.setUser(user);
+        user.getUserAuthorities().put(UserAuthority.CUSTOMER, customer);
+        given(userRepository.findById(1L)).willReturn(Optional.of(user));
+        // when
+        userService.removeUserAuthorityFromUser(1L, UserAuthority.CUSTOMER);
+        // then
+        verify(cascadeDeletionService).submitCustomerDeletion(3L);
+        verify(customerRepository, never()).delete(any());
+        assertEquals(admin, user.getUserAuthorities().get(UserAuthority.ADMIN));
+    }
+
     @Test
     void deleteUserAndCascade() {
         // given
@@ -202,4 +250,61 @@ class UserServiceTest {
         assertTrue(userDto.getUserAuthorities().contains(UserAuthority.CUSTOMER));
     }
 
-}
\ No newline at end of file
+    @Test
+    void findByIdIsCachedForTheRequestAndEvictedOnProfileEdit() {
+        // given
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            User user = new User();
+            user.setId(1L);
+            user.setFirstName("John");
+            user.setLastName("Lavender");
+            user.getUserAuthorities().put(UserAuthority.CUSTOMER, null);
+            given(userRepository.findById(1L))
+                    .willReturn(Optional.of(user));
+            // when
+            UserDto userDto = userService.findById(1L);
+            Set<UserAuthority> userAuthorities = userService.userAuthorities(1L);
+            // then
+            assertSame(userDto, userService.findById(1L));
+            assertEquals(Set.of(UserAuthority.CUSTOMER), userAuthorities);
+            verify(userRepository, times(1)).findById(1L);
+            // when
+            UserProfileForm userProfileForm = new UserProfileForm();
+            userProfileForm.setUserId(1L);
+            userProfileForm.setFirstName("Jonathan");
+            userProfileForm.setLastName("Lavender");
+            userProfileForm.setBirthDate(LocalDate.now().minusYears(30));
+            userService.editUserProfile(userProfileForm);
+            // then
+            assertEquals("Jonathan", userService.findById(1L).getFirstName());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void loadUserByEmailAsLeanPrincipal() {
+        // given
+        UserPrincipal userPrincipal = new UserPrincipal(
+                1L, "test", "password hash", true, false, false, false);
+        given(userRepository.findPrincipalByUsername("test@gmail.com"))
+                .willReturn(Optional.empty());
+        given(userRepository.findPrincipalByEmail("test@gmail.com"))
+                .willReturn(Optional.of(userPrincipal));
+        given(userRepository.findAllUserAuthoritiesByUserWithId(1L))
+                .willReturn(List.of(UserAuthority.CUSTOMER, UserAuthority.ADMIN));
+        // when
+        UserDetails userDetails = userService.loadUserByUsername("test@gmail.com");
+        // then
+        assertTrue(userDetails instanceof UserPrincipal);
+        assertEquals(1L, ((UserPrincipal) userDetails).getId());
+        assertEquals("test", userDetails.getUsername());
+        assertEquals(Set.of(UserAuthority.ADMIN, UserAuthority.CUSTOMER), userDetails.getAuthorities());
+        assertThrows(UnsupportedOperationException.class,
+                     () -> ((UserPrincipal) userDetails).getAuthorities().clear());
+        verify(userRepository, never()).findByUsernameOrEmail(anyString());
+    }
+
+}